@@ -1,20 +0,0 @@
-package com.elderly.monitoring.gateway;
-
-import org.springframework.boot.SpringApplication;
-import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.cloud.openfeign.EnableFeignClients;
-
-/**
- * API网关主应用类
- * 
- * @author Elderly Monitoring Team
- * @version 1.0.0
- */
-@SpringBootApplication
-@EnableFeignClients
-public class ApiGatewayApplication {
-
-    public static void main(String[] args) {
-        SpringApplication.run(ApiGatewayApplication.class, args);
-    }
-}
\ No newline at end of file
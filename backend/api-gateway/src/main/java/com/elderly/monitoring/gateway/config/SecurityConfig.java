@@ -1,34 +0,0 @@
-package com.elderly.monitoring.gateway.config;
-
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
-import org.springframework.security.config.web.server.ServerHttpSecurity;
-import org.springframework.security.web.server.SecurityWebFilterChain;
-import org.springframework.security.web.server.authentication.AuthenticationWebFilter;
-
-/**
- * 安全配置类
- * 
- * @author Elderly Monitoring Team
- * @version 1.0.0
- */
-@Configuration
-@EnableWebFluxSecurity
-public class SecurityConfig {
-
-    @Bean
-    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
-        return http
-                .authorizeExchange(exchanges -> exchanges
-                        // 登录接口允许匿名访问
-                        .pathMatchers("/api/v1/users/login", "/api/v1/users/register").permitAll()
-                        // 健康检查接口允许访问
-                        .pathMatchers("/actuator/**").permitAll()
-                        // 其他所有接口都需要认证
-                        .anyExchange().authenticated()
-                )
-                .csrf(ServerHttpSecurity.CsrfSpec::disable)
-                .build();
-    }
-}
\ No newline at end of file
@@ -59,6 +59,24 @@ CREATE INDEX IF NOT EXISTS idx_devices_type ON devices(type);
 CREATE INDEX IF NOT EXISTS idx_devices_status ON devices(status);
 CREATE INDEX IF NOT EXISTS idx_devices_created_at ON devices(created_at);
 
+-- 设备绑定关系表（用户与设备多对多，替代 users.device_ids 逗号分隔字段）
+CREATE TABLE IF NOT EXISTS device_bindings (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    device_id VARCHAR(50) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_device_bindings_user_device UNIQUE (user_id, device_id)
+);
+
+-- 创建设备绑定关系表索引（按用户查询使用唯一约束的前缀）
+CREATE INDEX IF NOT EXISTS idx_device_bindings_device ON device_bindings(device_id);
+
+-- 数据迁移标记表（一次性数据迁移执行前写入标记行，已存在时不再执行）
+CREATE TABLE IF NOT EXISTS data_migrations (
+    name VARCHAR(100) PRIMARY KEY,
+    applied_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
 -- 健康数据表
 CREATE TABLE IF NOT EXISTS health_data (
     id BIGSERIAL PRIMARY KEY,
@@ -168,9 +186,11 @@ CREATE INDEX IF NOT EXISTS idx_history_data_recorded_at ON history_data(recorded
 CREATE INDEX IF NOT EXISTS idx_history_data_created_at ON history_data(created_at);
 CREATE INDEX IF NOT EXISTS idx_history_data_user_type_time ON history_data(user_id, data_type, recorded_at);
 
--- 通知表
+-- 通知表（按 created_at 按月分区，整月超过保留期的分区由通知服务整体删除）
+-- 只对新建的库生效：CREATE TABLE IF NOT EXISTS 不会转换已有的普通表，已有库继续使用逐块删除；
+-- 需要分区的已有库须另行迁移（新建分区表、按月导入数据后替换原表）
 CREATE TABLE IF NOT EXISTS notifications (
-    id BIGSERIAL PRIMARY KEY,
+    id BIGSERIAL,
     user_id BIGINT NOT NULL,
     type VARCHAR(50) NOT NULL,
     title VARCHAR(200) NOT NULL,
@@ -187,22 +207,68 @@ CREATE TABLE IF NOT EXISTS notifications (
     retry_count INTEGER DEFAULT 0,
     max_retry_count INTEGER DEFAULT 3,
     error_message TEXT,
+    next_attempt_at TIMESTAMP,
+    scheduled_at TIMESTAMP,
     extra_data JSONB,
+    dedup_key VARCHAR(200),
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     created_by BIGINT,
     updated_by BIGINT,
+    PRIMARY KEY (id, created_at),
     FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
-);
+) PARTITION BY RANGE (created_at);
 
--- 创建通知表索引
-CREATE INDEX IF NOT EXISTS idx_notifications_user_id ON notifications(user_id);
+-- 创建当月及之后两个月的通知分区，之后的分区由通知服务预先创建（不设默认分区，当月分区无法创建时通知服务启动失败）
+DO $$
+DECLARE
+    partition_month DATE := DATE_TRUNC('month', CURRENT_DATE);
+BEGIN
+    FOR i IN 0..2 LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS notifications_y%sm%s PARTITION OF notifications
+                        FOR VALUES FROM (%L) TO (%L)',
+                       TO_CHAR(partition_month, 'YYYY'),
+                       TO_CHAR(partition_month, 'MM'),
+                       partition_month,
+                       partition_month + INTERVAL '1 month');
+        partition_month := partition_month + INTERVAL '1 month';
+    END LOOP;
+END $$;
+
+-- 创建通知表索引（在分区表上创建，各分区自动继承）
+-- 按用户查询最近的通知时按分区顺序扫描，取够一页即停止，不访问更早的分区
+CREATE INDEX IF NOT EXISTS idx_notifications_user_created ON notifications(user_id, created_at);
 CREATE INDEX IF NOT EXISTS idx_notifications_type ON notifications(type);
 CREATE INDEX IF NOT EXISTS idx_notifications_status ON notifications(status);
 CREATE INDEX IF NOT EXISTS idx_notifications_priority ON notifications(priority);
 CREATE INDEX IF NOT EXISTS idx_notifications_is_read ON notifications(is_read);
 CREATE INDEX IF NOT EXISTS idx_notifications_read_at ON notifications(read_at);
 CREATE INDEX IF NOT EXISTS idx_notifications_created_at ON notifications(created_at);
+-- 分发领取、失败重试与延迟发送按状态范围扫描
+CREATE INDEX IF NOT EXISTS idx_notifications_dispatch ON notifications(status, send_method, created_at);
+CREATE INDEX IF NOT EXISTS idx_notifications_retry ON notifications(status, next_attempt_at);
+CREATE INDEX IF NOT EXISTS idx_notifications_deferred ON notifications(status, scheduled_at);
+-- 过期处理只扫描尚未结束的通知
+CREATE INDEX IF NOT EXISTS idx_notifications_expire ON notifications(expire_at)
+    WHERE expire_at IS NOT NULL AND status NOT IN ('READ', 'EXPIRED', 'DIGESTED');
+
+-- 按幂等键查询已存在的通知
+CREATE INDEX IF NOT EXISTS idx_notifications_dedup_key ON notifications(dedup_key) WHERE dedup_key IS NOT NULL;
+
+-- 通知幂等键表（分区表的唯一索引必须包含分区键，幂等键的唯一约束单独保存；超过去重窗口的键每日清理）
+CREATE TABLE IF NOT EXISTS notification_dedup_keys (
+    dedup_key VARCHAR(200) PRIMARY KEY,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+CREATE INDEX IF NOT EXISTS idx_notification_dedup_keys_created_at ON notification_dedup_keys(created_at);
+
+-- 通知归档表（已结束且超过归档天数的通知从通知表移入，按保留期清理；通知表为分区表时不再归档）
+CREATE TABLE IF NOT EXISTS notifications_archive (LIKE notifications);
+ALTER TABLE notifications_archive ADD COLUMN IF NOT EXISTS archived_at TIMESTAMP;
+-- 早于幂等键加入前创建的归档表补充该列
+ALTER TABLE notifications_archive ADD COLUMN IF NOT EXISTS dedup_key VARCHAR(200);
+CREATE INDEX IF NOT EXISTS idx_notifications_archive_user_id ON notifications_archive(user_id);
+CREATE INDEX IF NOT EXISTS idx_notifications_archive_created_at ON notifications_archive(created_at);
 
 -- 通知设置表
 CREATE TABLE IF NOT EXISTS notification_settings (
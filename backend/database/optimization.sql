@@ -46,6 +46,41 @@ ON notification_records (status, created_at DESC);
 CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_notification_type_time 
 ON notification_records (notification_type, created_at DESC);
 
+-- 为设备和用户搜索创建索引
+-- 包含匹配（lower(列) LIKE '%关键字%'）使用pg_trgm三元组GIN索引，
+-- 前缀联想（lower(列) COLLATE "C" LIKE '关键字%'）使用C排序规则的B树索引，同时满足排序
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_devices_name_trgm 
+ON devices USING gin (lower(device_name) gin_trgm_ops) WHERE deleted = false;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_devices_device_id_trgm 
+ON devices USING gin (lower(device_id) gin_trgm_ops) WHERE deleted = false;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_devices_name_prefix 
+ON devices ((lower(device_name) COLLATE "C")) WHERE deleted = false;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_devices_device_id_prefix 
+ON devices ((lower(device_id) COLLATE "C")) WHERE deleted = false;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_username_trgm 
+ON users USING gin (lower(username) gin_trgm_ops) WHERE deleted = false;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_real_name_trgm 
+ON users USING gin (lower(real_name) gin_trgm_ops) WHERE deleted = false;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_phone_trgm 
+ON users USING gin (phone gin_trgm_ops) WHERE deleted = false;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_username_prefix 
+ON users ((lower(username) COLLATE "C")) WHERE deleted = false;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_real_name_prefix 
+ON users ((lower(real_name) COLLATE "C")) WHERE deleted = false;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_phone_prefix 
+ON users ((phone COLLATE "C")) WHERE deleted = false;
+
 -- 2. 分区表优化
 -- 为健康监控数据表创建按月分区
 DO $$
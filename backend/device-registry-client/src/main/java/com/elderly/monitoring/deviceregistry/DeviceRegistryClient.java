@@ -0,0 +1,185 @@
+package main.java.com.elderly.monitoring.deviceregistry;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 设备注册表客户端
+ *
+ * 在调用方进程内缓存设备快照，未命中时通过 device-service 的 /api/devices/registry 接口加载。
+ * device-service 在设备变更提交后通过Redis频道推送 {deviceId, version}，
+ * 由 {@link DeviceRegistryInvalidationListener} 转交给 {@link #invalidate}。
+ * 每个设备记录已知的最新失效版本，版本更低的快照（变更前发出的请求返回的结果）不会写入缓存。
+ *
+ * @author Elderly Monitoring Team
+ * @version 1.0.0
+ */
+public class DeviceRegistryClient {
+
+    private static final Logger log = LoggerFactory.getLogger(DeviceRegistryClient.class);
+
+    private final RestTemplate restTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final String baseUrl;
+
+    private final Cache<String, DeviceSnapshot> snapshots;
+
+    /**
+     * 设备不存在的结果
+     */
+    private final Cache<String, Boolean> missing;
+
+    /**
+     * deviceId -> 收到的最新失效版本
+     */
+    private final Cache<String, Long> invalidatedVersions;
+
+    public DeviceRegistryClient(RestTemplate restTemplate, ObjectMapper objectMapper,
+                                DeviceRegistryClientProperties properties) {
+        this.restTemplate = restTemplate;
+        this.objectMapper = objectMapper;
+        this.baseUrl = properties.getBaseUrl();
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .build();
+        this.missing = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getNegativeTtl())
+                .build();
+        this.invalidatedVersions = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .build();
+    }
+
+    /**
+     * 获取设备快照
+     *
+     * @param deviceId 设备ID
+     * @return 设备快照，设备不存在或已删除返回null
+     */
+    public DeviceSnapshot get(String deviceId) {
+        DeviceSnapshot cached = snapshots.getIfPresent(deviceId);
+        if (cached != null || missing.getIfPresent(deviceId) != null) {
+            return cached;
+        }
+
+        try {
+            JsonNode body = restTemplate.getForObject(baseUrl + "/api/devices/registry/{deviceId}", JsonNode.class, deviceId);
+            DeviceSnapshot loaded = objectMapper.treeToValue(body.path("data"), DeviceSnapshot.class);
+            store(deviceId, loaded);
+            return loaded;
+        } catch (HttpClientErrorException.NotFound e) {
+            missing.put(deviceId, Boolean.TRUE);
+            return null;
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to load device " + deviceId + " from registry", e);
+        }
+    }
+
+    /**
+     * 获取设备所属用户ID
+     *
+     * @param deviceId 设备ID
+     * @return 用户ID，设备不存在或未绑定返回null
+     */
+    public Long resolveUserId(String deviceId) {
+        DeviceSnapshot snapshot = get(deviceId);
+        return snapshot != null ? snapshot.getUserId() : null;
+    }
+
+    /**
+     * 批量获取设备快照，未命中的设备合并为一次请求
+     *
+     * @param deviceIds 设备ID列表
+     * @return deviceId -> 快照，不存在的设备不包含在结果中
+     */
+    public Map<String, DeviceSnapshot> getAll(Collection<String> deviceIds) {
+        Map<String, DeviceSnapshot> result = new LinkedHashMap<>();
+        List<String> misses = new ArrayList<>();
+        for (String deviceId : deviceIds) {
+            DeviceSnapshot cached = snapshots.getIfPresent(deviceId);
+            if (cached != null) {
+                result.put(deviceId, cached);
+            } else if (missing.getIfPresent(deviceId) == null) {
+                misses.add(deviceId);
+            }
+        }
+        if (misses.isEmpty()) {
+            return result;
+        }
+
+        try {
+            JsonNode body = restTemplate.postForObject(baseUrl + "/api/devices/registry/batch", misses, JsonNode.class);
+            JsonNode data = body.path("data");
+            for (String deviceId : misses) {
+                JsonNode node = data.get(deviceId);
+                if (node == null || node.isNull()) {
+                    missing.put(deviceId, Boolean.TRUE);
+                    continue;
+                }
+                DeviceSnapshot loaded = objectMapper.treeToValue(node, DeviceSnapshot.class);
+                store(deviceId, loaded);
+                result.put(deviceId, loaded);
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to load " + misses.size() + " devices from registry", e);
+        }
+        return result;
+    }
+
+    /**
+     * 处理设备变更通知
+     *
+     * @param deviceId 设备ID
+     * @param version 变更后的版本号
+     */
+    public void invalidate(String deviceId, long version) {
+        invalidatedVersions.asMap().merge(deviceId, version, Math::max);
+        missing.invalidate(deviceId);
+        snapshots.asMap().computeIfPresent(deviceId,
+                (key, existing) -> existing.getVersion() < version ? null : existing);
+    }
+
+    /**
+     * 清空本地缓存（与推送通道断开重连后调用，期间的失效消息可能已丢失）
+     */
+    public void invalidateAll() {
+        snapshots.invalidateAll();
+        missing.invalidateAll();
+    }
+
+    public long size() {
+        return snapshots.estimatedSize();
+    }
+
+    public double hitRate() {
+        return snapshots.stats().hitRate();
+    }
+
+    private void store(String deviceId, DeviceSnapshot loaded) {
+        Long invalidated = invalidatedVersions.getIfPresent(deviceId);
+        if (invalidated != null && loaded.getVersion() < invalidated) {
+            log.debug("Discarded stale snapshot of device {} (version {} < {})", deviceId, loaded.getVersion(), invalidated);
+            return;
+        }
+        snapshots.asMap().merge(deviceId, loaded,
+                (existing, candidate) -> candidate.getVersion() >= existing.getVersion() ? candidate : existing);
+    }
+}
@@ -0,0 +1,55 @@
+package main.java.com.elderly.monitoring.deviceregistry;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.client.RestTemplateAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * 设备注册表客户端自动配置
+ *
+ * 引入依赖后即可注入 {@link DeviceRegistryClient}；存在Redis连接时自动订阅变更频道，
+ * 否则只依赖缓存过期时间刷新。HTTP客户端由应用的 {@link RestTemplateBuilder} 创建，
+ * 沿用应用配置的超时、消息转换器与监控定制。
+ *
+ * @author Elderly Monitoring Team
+ * @version 1.0.0
+ */
+@AutoConfiguration(after = {JacksonAutoConfiguration.class, RedisAutoConfiguration.class,
+        RestTemplateAutoConfiguration.class})
+@EnableConfigurationProperties(DeviceRegistryClientProperties.class)
+@ConditionalOnProperty(prefix = "device.registry.client", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class DeviceRegistryClientAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public DeviceRegistryClient deviceRegistryClient(DeviceRegistryClientProperties properties,
+                                                     ObjectMapper objectMapper,
+                                                     ObjectProvider<RestTemplateBuilder> restTemplateBuilder) {
+        return new DeviceRegistryClient(restTemplateBuilder.getIfAvailable(RestTemplateBuilder::new).build(),
+                objectMapper, properties);
+    }
+
+    @Bean
+    @ConditionalOnBean(RedisConnectionFactory.class)
+    public RedisMessageListenerContainer deviceRegistryListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                         DeviceRegistryClient client,
+                                                                         ObjectMapper objectMapper) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(new DeviceRegistryInvalidationListener(client, objectMapper),
+                new ChannelTopic(DeviceRegistryInvalidationListener.DEVICE_CHANGED_CHANNEL));
+        return container;
+    }
+}
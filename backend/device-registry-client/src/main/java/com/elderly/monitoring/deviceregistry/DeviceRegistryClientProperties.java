@@ -0,0 +1,56 @@
+package main.java.com.elderly.monitoring.deviceregistry;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 设备注册表客户端配置
+ *
+ * @author Elderly Monitoring Team
+ * @version 1.0.0
+ */
+@ConfigurationProperties(prefix = "device.registry.client")
+public class DeviceRegistryClientProperties {
+
+    /**
+     * 是否启用客户端
+     */
+    private boolean enabled = true;
+
+    /**
+     * device-service 地址
+     */
+    private String baseUrl = "http://localhost:8082";
+
+    /**
+     * 本地缓存容量
+     */
+    private long maxSize = 50000;
+
+    /**
+     * 缓存过期时间，兜底丢失的失效消息
+     */
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+
+    /**
+     * 设备不存在结果的缓存时间，避免对无效设备ID反复请求
+     */
+    private Duration negativeTtl = Duration.ofSeconds(30);
+
+    // Getter和Setter方法
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public String getBaseUrl() { return baseUrl; }
+    public void setBaseUrl(String baseUrl) { this.baseUrl = baseUrl; }
+
+    public long getMaxSize() { return maxSize; }
+    public void setMaxSize(long maxSize) { this.maxSize = maxSize; }
+
+    public Duration getExpireAfterWrite() { return expireAfterWrite; }
+    public void setExpireAfterWrite(Duration expireAfterWrite) { this.expireAfterWrite = expireAfterWrite; }
+
+    public Duration getNegativeTtl() { return negativeTtl; }
+    public void setNegativeTtl(Duration negativeTtl) { this.negativeTtl = negativeTtl; }
+}
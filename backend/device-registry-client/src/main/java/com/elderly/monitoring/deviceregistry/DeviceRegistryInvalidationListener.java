@@ -0,0 +1,55 @@
+package main.java.com.elderly.monitoring.deviceregistry;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.SubscriptionListener;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 设备变更消息监听器
+ *
+ * 订阅 device-service 发布的 device:events:changed 频道，转交给 {@link DeviceRegistryClient#invalidate}。
+ * 每次（重新）订阅成功时清空本地缓存，断开期间丢失的失效消息不会留下过期快照。
+ *
+ * @author Elderly Monitoring Team
+ * @version 1.0.0
+ */
+public class DeviceRegistryInvalidationListener implements MessageListener, SubscriptionListener {
+
+    /**
+     * 设备注册信息变更频道，与 device-service 保持一致
+     */
+    public static final String DEVICE_CHANGED_CHANNEL = "device:events:changed";
+
+    private static final Logger log = LoggerFactory.getLogger(DeviceRegistryInvalidationListener.class);
+
+    private final DeviceRegistryClient client;
+
+    private final ObjectMapper objectMapper;
+
+    public DeviceRegistryInvalidationListener(DeviceRegistryClient client, ObjectMapper objectMapper) {
+        this.client = client;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            JsonNode body = objectMapper.readTree(new String(message.getBody(), StandardCharsets.UTF_8));
+            client.invalidate(body.path("deviceId").asText(), body.path("version").asLong());
+        } catch (Exception e) {
+            log.warn("Ignored malformed device change message", e);
+        }
+    }
+
+    @Override
+    public void onChannelSubscribed(byte[] channel, long count) {
+        client.invalidateAll();
+        log.info("Subscribed to {}, local device cache cleared", new String(channel, StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,58 @@
+package main.java.com.elderly.monitoring.deviceregistry;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * 设备注册信息快照
+ *
+ * 与 device-service 的 /api/devices/registry 接口返回结构一致
+ *
+ * @author Elderly Monitoring Team
+ * @version 1.0.0
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class DeviceSnapshot {
+
+    private Long id;
+
+    private String deviceId;
+
+    private String deviceName;
+
+    private String deviceType;
+
+    private Long userId;
+
+    private String userName;
+
+    private Boolean deleted;
+
+    private long version;
+
+    public DeviceSnapshot() {}
+
+    // Getter和Setter方法
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getDeviceId() { return deviceId; }
+    public void setDeviceId(String deviceId) { this.deviceId = deviceId; }
+
+    public String getDeviceName() { return deviceName; }
+    public void setDeviceName(String deviceName) { this.deviceName = deviceName; }
+
+    public String getDeviceType() { return deviceType; }
+    public void setDeviceType(String deviceType) { this.deviceType = deviceType; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public String getUserName() { return userName; }
+    public void setUserName(String userName) { this.userName = userName; }
+
+    public Boolean getDeleted() { return deleted; }
+    public void setDeleted(Boolean deleted) { this.deleted = deleted; }
+
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+}
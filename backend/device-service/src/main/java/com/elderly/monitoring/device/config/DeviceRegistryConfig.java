@@ -0,0 +1,46 @@
+package main.java.com.elderly.monitoring.device.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import main.java.com.elderly.monitoring.device.event.DeviceEventPublisher;
+import main.java.com.elderly.monitoring.device.service.DeviceRegistryCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 设备注册表缓存配置
+ *
+ * 订阅设备变更频道，其他实例提交的变更到达时清除本地缓存。
+ *
+ * @author Elderly Monitoring Team
+ * @version 1.0.0
+ */
+@Configuration
+public class DeviceRegistryConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(DeviceRegistryConfig.class);
+
+    @Bean
+    public RedisMessageListenerContainer deviceRegistryListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                         DeviceRegistryCache registryCache,
+                                                                         ObjectMapper objectMapper) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener((message, pattern) -> {
+            try {
+                JsonNode body = objectMapper.readTree(new String(message.getBody(), StandardCharsets.UTF_8));
+                registryCache.invalidate(body.path("deviceId").asText(), body.path("version").asLong());
+            } catch (Exception e) {
+                log.warn("Ignored malformed device change message", e);
+            }
+        }, new ChannelTopic(DeviceEventPublisher.DEVICE_CHANGED_CHANNEL));
+        return container;
+    }
+}
@@ -3,7 +3,11 @@ package main.java.com.elderly.monitoring.device.controller;
 import main.java.com.elderly.monitoring.device.entity.Device;
 import main.java.com.elderly.monitoring.device.entity.DeviceStatus;
 import main.java.com.elderly.monitoring.device.entity.DeviceType;
+import main.java.com.elderly.monitoring.device.service.DeviceRegistryCache;
 import main.java.com.elderly.monitoring.device.service.DeviceService;
+import main.java.com.elderly.monitoring.device.service.DeviceSnapshot;
+import main.java.com.elderly.monitoring.device.service.DeviceTelemetry;
+import main.java.com.elderly.monitoring.ingest.wire.WireFormat;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -33,6 +37,9 @@ public class DeviceController {
     @Autowired
     private DeviceService deviceService;
 
+    @Autowired
+    private DeviceRegistryCache registryCache;
+
     /**
      * 创建设备
      * 
@@ -321,6 +328,160 @@ public class DeviceController {
         }
     }
 
+    /**
+     * 设备搜索联想
+     * 
+     * @param q 关键字（设备ID或名称）
+     * @param limit 返回数量
+     * @return 设备列表
+     */
+    @GetMapping("/suggest")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('CAREGIVER') or hasRole('FAMILY_MEMBER')")
+    public ResponseEntity<Map<String, Object>> suggestDevices(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", deviceService.suggestDevices(q, Math.max(1, Math.min(limit, 50))));
+        
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * 获取设备注册信息快照（供其他服务解析设备归属）
+     * 
+     * @param deviceId 设备ID
+     * @return 设备快照
+     */
+    @GetMapping("/registry/{deviceId}")
+    public ResponseEntity<Map<String, Object>> getRegistrySnapshot(@PathVariable String deviceId) {
+        Map<String, Object> response = new HashMap<>();
+        DeviceSnapshot snapshot = registryCache.get(deviceId);
+        if (snapshot != null) {
+            response.put("success", true);
+            response.put("data", snapshot);
+            return ResponseEntity.ok(response);
+        } else {
+            response.put("success", false);
+            response.put("message", "设备不存在");
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        }
+    }
+
+    /**
+     * 批量获取设备注册信息快照
+     * 
+     * @param deviceIds 设备ID列表
+     * @return deviceId -> 快照，不存在的设备不包含在结果中
+     */
+    @PostMapping("/registry/batch")
+    public ResponseEntity<Map<String, Object>> getRegistrySnapshots(@RequestBody List<String> deviceIds) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", registryCache.getAll(deviceIds));
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * 上报设备遥测数据（心跳、电量、信号、位置）
+     * 
+     * @param deviceId 设备ID
+     * @param telemetry 遥测数据，未上报的字段保持不变
+     * @return 上报结果
+     */
+    @PostMapping("/{deviceId}/telemetry")
+    public ResponseEntity<Map<String, Object>> reportTelemetry(
+            @PathVariable String deviceId,
+            @RequestBody DeviceTelemetry telemetry) {
+        return handleTelemetry(deviceId, telemetry);
+    }
+
+    /**
+     * 上报设备遥测数据（二进制帧，帧内只能有一条遥测）
+     * 
+     * @param deviceId 设备ID
+     * @param frame 遥测帧
+     * @return 上报结果
+     */
+    @PostMapping(value = "/{deviceId}/telemetry", consumes = WireFormat.TELEMETRY_MEDIA_TYPE)
+    public ResponseEntity<Map<String, Object>> reportTelemetryFrame(
+            @PathVariable String deviceId,
+            @RequestBody byte[] frame) {
+        
+        List<DeviceTelemetry> telemetries;
+        try {
+            telemetries = DeviceTelemetry.fromFrame(frame, deviceId);
+        } catch (IllegalArgumentException e) {
+            telemetries = null;
+        }
+        if (telemetries == null || telemetries.size() != 1) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "遥测帧格式错误");
+            return ResponseEntity.badRequest().body(response);
+        }
+        return handleTelemetry(deviceId, telemetries.get(0));
+    }
+
+    private ResponseEntity<Map<String, Object>> handleTelemetry(String deviceId, DeviceTelemetry telemetry) {
+        Map<String, Object> response = new HashMap<>();
+        String error = telemetry.validate();
+        if (error != null) {
+            response.put("success", false);
+            response.put("message", error);
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        if (deviceService.reportTelemetry(deviceId, telemetry)) {
+            response.put("success", true);
+            response.put("message", "遥测数据上报成功");
+            return ResponseEntity.accepted().body(response);
+        } else {
+            response.put("success", false);
+            response.put("message", "设备不存在");
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        }
+    }
+
+    /**
+     * 批量上报设备遥测数据
+     * 
+     * @param telemetries 遥测数据列表，每条需包含deviceId
+     * @return 上报结果
+     */
+    @PostMapping("/telemetry/batch")
+    public ResponseEntity<Map<String, Object>> reportTelemetryBatch(@RequestBody List<DeviceTelemetry> telemetries) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "遥测数据批量上报完成");
+        response.put("data", deviceService.reportTelemetryBatch(telemetries));
+        return ResponseEntity.accepted().body(response);
+    }
+
+    /**
+     * 批量上报设备遥测数据（二进制帧，每条需包含设备ID）
+     * 
+     * @param frame 遥测帧
+     * @return 上报结果
+     */
+    @PostMapping(value = "/telemetry/batch", consumes = WireFormat.TELEMETRY_MEDIA_TYPE)
+    public ResponseEntity<Map<String, Object>> reportTelemetryBatchFrame(@RequestBody byte[] frame) {
+        Map<String, Object> response = new HashMap<>();
+        List<DeviceTelemetry> telemetries;
+        try {
+            telemetries = DeviceTelemetry.fromFrame(frame, null);
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", "遥测帧格式错误");
+            return ResponseEntity.badRequest().body(response);
+        }
+        response.put("success", true);
+        response.put("message", "遥测数据批量上报完成");
+        response.put("data", deviceService.reportTelemetryBatch(telemetries));
+        return ResponseEntity.accepted().body(response);
+    }
+
     /**
      * 更新设备位置
      * 
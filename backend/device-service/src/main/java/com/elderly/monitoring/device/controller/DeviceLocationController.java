@@ -0,0 +1,219 @@
+package main.java.com.elderly.monitoring.device.controller;
+
+import main.java.com.elderly.monitoring.device.entity.DeviceType;
+import main.java.com.elderly.monitoring.device.entity.Geofence;
+import main.java.com.elderly.monitoring.device.service.DeviceLocationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 设备位置与电子围栏控制器
+ *
+ * @author Elderly Monitoring Team
+ * @version 1.0.0
+ */
+@RestController
+@RequestMapping("/api/devices")
+@CrossOrigin(origins = "*")
+public class DeviceLocationController {
+
+    /**
+     * 最近邻查询返回数量上限
+     */
+    private static final int MAX_NEAREST = 100;
+
+    @Autowired
+    private DeviceLocationService locationService;
+
+    /**
+     * 查询距离指定位置最近的设备
+     *
+     * @param latitude 纬度
+     * @param longitude 经度
+     * @param k 返回数量
+     * @param maxDistance 最大距离（米）
+     * @param deviceType 设备类型
+     * @return 按距离升序排列的设备位置
+     */
+    @GetMapping("/nearby")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('CAREGIVER')")
+    public ResponseEntity<Map<String, Object>> findNearby(
+            @RequestParam Double latitude,
+            @RequestParam Double longitude,
+            @RequestParam(defaultValue = "10") int k,
+            @RequestParam(required = false) Double maxDistance,
+            @RequestParam(required = false) DeviceType deviceType) {
+
+        Map<String, Object> response = new HashMap<>();
+        if (!isValidCoordinate(latitude, longitude) || k <= 0 || k > MAX_NEAREST) {
+            response.put("success", false);
+            response.put("message", "参数不合法：经纬度超出范围或返回数量不在1-" + MAX_NEAREST + "之间");
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        response.put("success", true);
+        response.put("data", locationService.findNearest(latitude, longitude, k, maxDistance, deviceType));
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * 查询矩形范围内的设备
+     *
+     * @return 设备位置列表
+     */
+    @GetMapping("/within")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('CAREGIVER')")
+    public ResponseEntity<Map<String, Object>> findWithin(
+            @RequestParam Double minLat,
+            @RequestParam Double minLon,
+            @RequestParam Double maxLat,
+            @RequestParam Double maxLon) {
+
+        Map<String, Object> response = new HashMap<>();
+        if (!isValidCoordinate(minLat, minLon) || !isValidCoordinate(maxLat, maxLon)
+                || minLat > maxLat || minLon > maxLon) {
+            response.put("success", false);
+            response.put("message", "矩形范围不合法");
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        List<Map<String, Object>> devices = locationService.findWithin(minLat, minLon, maxLat, maxLon);
+        response.put("success", true);
+        response.put("data", devices);
+        response.put("total", devices.size());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * 查询不在所属用户任何电子围栏内的设备
+     *
+     * @return 设备位置列表
+     */
+    @GetMapping("/outside-geofence")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('CAREGIVER')")
+    public ResponseEntity<Map<String, Object>> findOutsideGeofence() {
+        List<Map<String, Object>> devices = locationService.findOutsideGeofences();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", devices);
+        response.put("total", devices.size());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * 获取用户的电子围栏
+     *
+     * @param userId 用户ID
+     * @return 围栏列表
+     */
+    @GetMapping("/geofences")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('CAREGIVER') or hasRole('FAMILY_MEMBER')")
+    public ResponseEntity<Map<String, Object>> getGeofences(@RequestParam Long userId) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", locationService.getGeofences(userId));
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * 创建电子围栏
+     *
+     * @param geofence 围栏信息
+     * @return 创建结果
+     */
+    @PostMapping("/geofences")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('CAREGIVER')")
+    public ResponseEntity<Map<String, Object>> createGeofence(@RequestBody Geofence geofence) {
+        Map<String, Object> response = new HashMap<>();
+        String error = validate(geofence);
+        if (error != null) {
+            response.put("success", false);
+            response.put("message", error);
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        response.put("success", true);
+        response.put("message", "电子围栏创建成功");
+        response.put("data", locationService.createGeofence(geofence));
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    /**
+     * 更新电子围栏
+     *
+     * @param id 围栏ID
+     * @param geofence 围栏信息
+     * @return 更新结果
+     */
+    @PutMapping("/geofences/{id}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('CAREGIVER')")
+    public ResponseEntity<Map<String, Object>> updateGeofence(@PathVariable Long id, @RequestBody Geofence geofence) {
+        Map<String, Object> response = new HashMap<>();
+        String error = validate(geofence);
+        if (error != null) {
+            response.put("success", false);
+            response.put("message", error);
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        Optional<Geofence> updated = locationService.updateGeofence(id, geofence);
+        if (updated.isPresent()) {
+            response.put("success", true);
+            response.put("message", "电子围栏更新成功");
+            response.put("data", updated.get());
+            return ResponseEntity.ok(response);
+        } else {
+            response.put("success", false);
+            response.put("message", "电子围栏不存在");
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        }
+    }
+
+    /**
+     * 删除电子围栏
+     *
+     * @param id 围栏ID
+     * @return 删除结果
+     */
+    @DeleteMapping("/geofences/{id}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('CAREGIVER')")
+    public ResponseEntity<Map<String, Object>> deleteGeofence(@PathVariable Long id) {
+        Map<String, Object> response = new HashMap<>();
+        if (locationService.deleteGeofence(id)) {
+            response.put("success", true);
+            response.put("message", "电子围栏删除成功");
+            return ResponseEntity.ok(response);
+        } else {
+            response.put("success", false);
+            response.put("message", "电子围栏不存在");
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        }
+    }
+
+    private String validate(Geofence geofence) {
+        if (geofence.getUserId() == null || geofence.getName() == null) {
+            return "用户ID和围栏名称不能为空";
+        }
+        if (geofence.getLatitude() == null || geofence.getLongitude() == null
+                || !isValidCoordinate(geofence.getLatitude(), geofence.getLongitude())) {
+            return "围栏中心经纬度不合法";
+        }
+        if (geofence.getRadiusMeters() == null || geofence.getRadiusMeters() <= 0) {
+            return "围栏半径必须大于0";
+        }
+        return null;
+    }
+
+    private boolean isValidCoordinate(double latitude, double longitude) {
+        return latitude >= -90 && latitude <= 90 && longitude >= -180 && longitude <= 180;
+    }
+}
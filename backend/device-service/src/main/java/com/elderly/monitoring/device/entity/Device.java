@@ -14,7 +14,10 @@ import java.time.LocalDateTime;
  * @version 1.0.0
  */
 @Entity
-@Table(name = "devices")
+@Table(name = "devices", indexes = {
+        @Index(name = "idx_devices_online_heartbeat", columnList = "is_online, last_heartbeat"),
+        @Index(name = "idx_devices_next_maintenance", columnList = "next_maintenance_date")
+})
 @EntityListeners(AuditingEntityListener.class)
 public class Device {
 
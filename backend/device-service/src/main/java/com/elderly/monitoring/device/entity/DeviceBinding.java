@@ -0,0 +1,79 @@
+package main.java.com.elderly.monitoring.device.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * 设备绑定关系实体类
+ * 
+ * 与用户服务共用 device_bindings 表。设备绑定/解绑主用户时同步维护对应的绑定关系，
+ * 用户服务据此按用户或按设备查询。
+ * 
+ * @author Elderly Monitoring Team
+ * @version 1.0.0
+ */
+@Entity
+@Table(name = "device_bindings",
+        uniqueConstraints = @UniqueConstraint(name = "uk_device_bindings_user_device", columnNames = {"user_id", "device_id"}),
+        indexes = @Index(name = "idx_device_bindings_device", columnList = "device_id"))
+@EntityListeners(AuditingEntityListener.class)
+public class DeviceBinding {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "device_id", nullable = false, length = 50)
+    private String deviceId;
+
+    @CreatedDate
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // 构造函数
+    public DeviceBinding() {}
+
+    public DeviceBinding(Long userId, String deviceId) {
+        this.userId = userId;
+        this.deviceId = deviceId;
+    }
+
+    // Getter和Setter方法
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getDeviceId() {
+        return deviceId;
+    }
+
+    public void setDeviceId(String deviceId) {
+        this.deviceId = deviceId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
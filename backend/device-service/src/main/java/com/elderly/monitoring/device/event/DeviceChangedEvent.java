@@ -0,0 +1,36 @@
+package main.java.com.elderly.monitoring.device.event;
+
+/**
+ * 设备注册信息变更事件
+ *
+ * 设备创建、信息修改、绑定/解绑用户、删除时发布，事务提交后使各处的设备缓存失效
+ *
+ * @author Elderly Monitoring Team
+ * @version 1.0.0
+ */
+public class DeviceChangedEvent {
+
+    /**
+     * 变更类型
+     */
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        BOUND,
+        UNBOUND,
+        DELETED
+    }
+
+    private final String deviceId;
+
+    private final ChangeType changeType;
+
+    public DeviceChangedEvent(String deviceId, ChangeType changeType) {
+        this.deviceId = deviceId;
+        this.changeType = changeType;
+    }
+
+    public String getDeviceId() { return deviceId; }
+
+    public ChangeType getChangeType() { return changeType; }
+}
@@ -0,0 +1,95 @@
+package main.java.com.elderly.monitoring.device.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import main.java.com.elderly.monitoring.device.service.DeviceRegistryCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 设备事件发布器
+ *
+ * 将服务内的设备状态事件转发到Redis频道，供预警、通知等服务订阅
+ *
+ * @author Elderly Monitoring Team
+ * @version 1.0.0
+ */
+@Component
+public class DeviceEventPublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(DeviceEventPublisher.class);
+
+    /**
+     * 设备离线事件频道
+     */
+    public static final String DEVICE_OFFLINE_CHANNEL = "device:events:offline";
+
+    /**
+     * 设备注册信息变更频道，消息格式：{"deviceId":..., "version":..., "changeType":...}
+     */
+    public static final String DEVICE_CHANGED_CHANNEL = "device:events:changed";
+
+    /**
+     * 电子围栏进入/离开事件频道
+     */
+    public static final String GEOFENCE_CHANNEL = "device:events:geofence";
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private DeviceRegistryCache registryCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * 转发设备离线事件
+     */
+    @EventListener
+    public void onDeviceOffline(DeviceOfflineEvent event) {
+        try {
+            redisTemplate.convertAndSend(DEVICE_OFFLINE_CHANNEL, objectMapper.writeValueAsString(event));
+        } catch (Exception e) {
+            log.error("Failed to publish offline event for {} devices", event.getDeviceIds().size(), e);
+        }
+    }
+
+    /**
+     * 转发电子围栏事件
+     */
+    @EventListener
+    public void onGeofence(GeofenceEvent event) {
+        try {
+            redisTemplate.convertAndSend(GEOFENCE_CHANNEL, objectMapper.writeValueAsString(event));
+        } catch (Exception e) {
+            log.error("Failed to publish geofence event for device {}", event.getDeviceId(), e);
+        }
+    }
+
+    /**
+     * 事务提交后递增设备版本号、清除本地缓存并广播失效消息
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDeviceChanged(DeviceChangedEvent event) {
+        try {
+            long version = registryCache.nextVersion(event.getDeviceId());
+            registryCache.invalidate(event.getDeviceId(), version);
+
+            Map<String, Object> message = new LinkedHashMap<>();
+            message.put("deviceId", event.getDeviceId());
+            message.put("version", version);
+            message.put("changeType", event.getChangeType());
+            redisTemplate.convertAndSend(DEVICE_CHANGED_CHANNEL, objectMapper.writeValueAsString(message));
+        } catch (Exception e) {
+            log.error("Failed to publish change event for device {}", event.getDeviceId(), e);
+        }
+    }
+}
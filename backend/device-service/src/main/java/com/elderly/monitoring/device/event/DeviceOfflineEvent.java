@@ -0,0 +1,38 @@
+package main.java.com.elderly.monitoring.device.event;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 设备离线事件
+ *
+ * 一次批量离线处理产生一个事件，包含本批次所有转为离线的设备
+ *
+ * @author Elderly Monitoring Team
+ * @version 1.0.0
+ */
+public class DeviceOfflineEvent {
+
+    /**
+     * 离线原因：心跳超时
+     */
+    public static final String REASON_HEARTBEAT_TIMEOUT = "HEARTBEAT_TIMEOUT";
+
+    private final List<String> deviceIds;
+
+    private final String reason;
+
+    private final LocalDateTime occurredAt;
+
+    public DeviceOfflineEvent(List<String> deviceIds, String reason) {
+        this.deviceIds = deviceIds;
+        this.reason = reason;
+        this.occurredAt = LocalDateTime.now();
+    }
+
+    public List<String> getDeviceIds() { return deviceIds; }
+
+    public String getReason() { return reason; }
+
+    public LocalDateTime getOccurredAt() { return occurredAt; }
+}
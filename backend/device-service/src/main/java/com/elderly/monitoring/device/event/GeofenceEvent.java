@@ -0,0 +1,74 @@
+package main.java.com.elderly.monitoring.device.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * 电子围栏事件
+ *
+ * 设备位置更新后进入或离开其所属用户的围栏时发布
+ *
+ * @author Elderly Monitoring Team
+ * @version 1.0.0
+ */
+public class GeofenceEvent {
+
+    /**
+     * 事件类型
+     */
+    public enum Transition {
+        ENTER,
+        EXIT
+    }
+
+    private final String deviceId;
+
+    private final Long userId;
+
+    private final Long geofenceId;
+
+    private final String geofenceName;
+
+    private final Transition transition;
+
+    private final double latitude;
+
+    private final double longitude;
+
+    /**
+     * 离开后是否已不在该用户的任何围栏内
+     */
+    private final boolean outsideAll;
+
+    private final LocalDateTime occurredAt;
+
+    public GeofenceEvent(String deviceId, Long userId, Long geofenceId, String geofenceName, Transition transition,
+                         double latitude, double longitude, boolean outsideAll) {
+        this.deviceId = deviceId;
+        this.userId = userId;
+        this.geofenceId = geofenceId;
+        this.geofenceName = geofenceName;
+        this.transition = transition;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.outsideAll = outsideAll;
+        this.occurredAt = LocalDateTime.now();
+    }
+
+    public String getDeviceId() { return deviceId; }
+
+    public Long getUserId() { return userId; }
+
+    public Long getGeofenceId() { return geofenceId; }
+
+    public String getGeofenceName() { return geofenceName; }
+
+    public Transition getTransition() { return transition; }
+
+    public double getLatitude() { return latitude; }
+
+    public double getLongitude() { return longitude; }
+
+    public boolean isOutsideAll() { return outsideAll; }
+
+    public LocalDateTime getOccurredAt() { return occurredAt; }
+}
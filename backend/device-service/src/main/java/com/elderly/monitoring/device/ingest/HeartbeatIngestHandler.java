@@ -0,0 +1,46 @@
+package main.java.com.elderly.monitoring.device.ingest;
+
+import main.java.com.elderly.monitoring.device.service.DeviceService;
+import main.java.com.elderly.monitoring.ingest.IngestHandler;
+import main.java.com.elderly.monitoring.ingest.IngestMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 设备心跳MQTT接入
+ *
+ * 处理 devices/{deviceId}/heartbeat，消息体忽略
+ *
+ * @author Elderly Monitoring Team
+ * @version 1.0.0
+ */
+@Component
+public class HeartbeatIngestHandler implements IngestHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(HeartbeatIngestHandler.class);
+
+    @Autowired
+    private DeviceService deviceService;
+
+    @Override
+    public String channel() {
+        return "heartbeat";
+    }
+
+    @Override
+    public void handle(List<IngestMessage> batch) {
+        List<String> deviceIds = new ArrayList<>(batch.size());
+        for (IngestMessage message : batch) {
+            deviceIds.add(message.getDeviceId());
+        }
+        List<String> unknownDevices = deviceService.recordHeartbeatBatch(deviceIds);
+        if (!unknownDevices.isEmpty()) {
+            log.debug("Ignored heartbeats from unknown devices {}", unknownDevices);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package main.java.com.elderly.monitoring.device.ingest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import main.java.com.elderly.monitoring.device.service.DeviceService;
+import main.java.com.elderly.monitoring.device.service.DeviceTelemetry;
+import main.java.com.elderly.monitoring.ingest.IngestHandler;
+import main.java.com.elderly.monitoring.ingest.IngestMessage;
+import main.java.com.elderly.monitoring.ingest.wire.WireFormat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 设备遥测MQTT接入
+ *
+ * 处理 devices/{deviceId}/telemetry，消息体为JSON（与 POST /api/devices/{deviceId}/telemetry 的请求体相同）
+ * 或二进制遥测帧，按首字节区分。整批走 {@link DeviceService#reportTelemetryBatch} 写入遥测缓冲区。
+ * 设备ID超出列长度的消息直接跳过，其余字段由 {@link DeviceTelemetry#validate()} 校验。
+ *
+ * @author Elderly Monitoring Team
+ * @version 1.0.0
+ */
+@Component
+public class TelemetryIngestHandler implements IngestHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(TelemetryIngestHandler.class);
+
+    /**
+     * 与 devices.device_id 的列长度一致
+     */
+    private static final int MAX_DEVICE_ID_LENGTH = 50;
+
+    @Autowired
+    private DeviceService deviceService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    public String channel() {
+        return "telemetry";
+    }
+
+    @Override
+    public void handle(List<IngestMessage> batch) {
+        List<DeviceTelemetry> telemetries = new ArrayList<>(batch.size());
+        for (IngestMessage message : batch) {
+            if (message.getDeviceId().length() > MAX_DEVICE_ID_LENGTH) {
+                log.debug("Ignored telemetry from device with overlong id {}", message.getDeviceId());
+                continue;
+            }
+            try {
+                // 以主题中的设备ID为准
+                if (WireFormat.isFrame(message.getPayload(), WireFormat.TELEMETRY_MAGIC)) {
+                    telemetries.addAll(DeviceTelemetry.fromFrame(message.getPayload(), message.getDeviceId()));
+                } else {
+                    DeviceTelemetry telemetry = objectMapper.readValue(message.getPayload(), DeviceTelemetry.class);
+                    telemetry.setDeviceId(message.getDeviceId());
+                    telemetries.add(telemetry);
+                }
+            } catch (Exception e) {
+                log.debug("Ignored malformed telemetry from device {}", message.getDeviceId(), e);
+            }
+        }
+        if (telemetries.isEmpty()) {
+            return;
+        }
+
+        Map<String, Object> result = deviceService.reportTelemetryBatch(telemetries);
+        if (!((List<?>) result.get("unknownDevices")).isEmpty() || !((Map<?, ?>) result.get("invalid")).isEmpty()) {
+            log.debug("Telemetry batch: {}", result);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package main.java.com.elderly.monitoring.device.repository;
+
+import main.java.com.elderly.monitoring.device.entity.DeviceBinding;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * 设备绑定关系数据访问接口
+ * 
+ * @author Elderly Monitoring Team
+ * @version 1.0.0
+ */
+@Repository
+public interface DeviceBindingRepository extends JpaRepository<DeviceBinding, Long> {
+
+    /**
+     * 检查绑定关系是否存在
+     * 
+     * @param userId 用户ID
+     * @param deviceId 设备ID
+     * @return 是否存在
+     */
+    boolean existsByUserIdAndDeviceId(Long userId, String deviceId);
+
+    /**
+     * 删除绑定关系
+     * 
+     * @param userId 用户ID
+     * @param deviceId 设备ID
+     * @return 删除行数
+     */
+    @Modifying
+    @Query("DELETE FROM DeviceBinding b WHERE b.userId = :userId AND b.deviceId = :deviceId")
+    int deleteBinding(@Param("userId") Long userId, @Param("deviceId") String deviceId);
+
+    /**
+     * 删除设备的全部绑定关系
+     * 
+     * @param deviceId 设备ID
+     * @return 删除行数
+     */
+    @Modifying
+    @Query("DELETE FROM DeviceBinding b WHERE b.deviceId = :deviceId")
+    int deleteByDeviceId(@Param("deviceId") String deviceId);
+
+    /**
+     * 设备ID变更时迁移绑定关系
+     * 
+     * @param previousDeviceId 原设备ID
+     * @param deviceId 新设备ID
+     * @return 更新行数
+     */
+    @Modifying
+    @Query("UPDATE DeviceBinding b SET b.deviceId = :deviceId WHERE b.deviceId = :previousDeviceId")
+    int renameDevice(@Param("previousDeviceId") String previousDeviceId, @Param("deviceId") String deviceId);
+}
@@ -6,11 +6,13 @@ import main.java.com.elderly.monitoring.device.entity.DeviceType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,7 +23,7 @@ import java.util.Optional;
  * @version 1.0.0
  */
 @Repository
-public interface DeviceRepository extends JpaRepository<Device, Long> {
+public interface DeviceRepository extends JpaRepository<Device, Long>, JpaSpecificationExecutor<Device> {
 
     /**
      * 根据设备ID查找设备
@@ -39,6 +41,14 @@ public interface DeviceRepository extends JpaRepository<Device, Long> {
      */
     boolean existsByDeviceId(String deviceId);
 
+    /**
+     * 根据设备ID批量查找未删除的设备
+     * 
+     * @param deviceIds 设备ID列表
+     * @return 设备列表
+     */
+    List<Device> findByDeviceIdInAndDeletedFalse(Collection<String> deviceIds);
+
     /**
      * 根据用户ID查找设备
      * 
@@ -90,43 +100,42 @@ public interface DeviceRepository extends JpaRepository<Device, Long> {
     List<Device> findByUserIdAndIsOnline(Long userId, Boolean isOnline);
 
     /**
-     * 根据设备名称模糊查询设备
+     * 按设备名称前缀联想（使用 idx_devices_name_prefix）
      * 
-     * @param deviceName 设备名称
-     * @param pageable 分页参数
-     * @return 设备分页列表
+     * @param prefix 前缀模式，由 {@link DeviceSpecifications#prefixPattern} 生成
+     * @param limit 返回数量
+     * @return 设备列表
      */
-    @Query("SELECT d FROM Device d WHERE d.deviceName LIKE %:deviceName% AND d.deleted = false")
-    Page<Device> findByDeviceNameContaining(@Param("deviceName") String deviceName, Pageable pageable);
+    @Query(value = "SELECT * FROM devices WHERE deleted = false " +
+                   "AND lower(device_name) COLLATE \"C\" LIKE :prefix ESCAPE '!' " +
+                   "ORDER BY lower(device_name) COLLATE \"C\" LIMIT :limit", nativeQuery = true)
+    List<Device> suggestByNamePrefix(@Param("prefix") String prefix, @Param("limit") int limit);
 
     /**
-     * 根据多条件查询设备
+     * 按设备ID前缀联想（使用 idx_devices_device_id_prefix）
      * 
-     * @param deviceId 设备ID
-     * @param deviceName 设备名称
-     * @param deviceType 设备类型
-     * @param status 设备状态
-     * @param userId 用户ID
-     * @param isOnline 是否在线
-     * @param pageable 分页参数
-     * @return 设备分页列表
+     * @param prefix 前缀模式，由 {@link DeviceSpecifications#prefixPattern} 生成
+     * @param limit 返回数量
+     * @return 设备列表
+     */
+    @Query(value = "SELECT * FROM devices WHERE deleted = false " +
+                   "AND lower(device_id) COLLATE \"C\" LIKE :prefix ESCAPE '!' " +
+                   "ORDER BY lower(device_id) COLLATE \"C\" LIMIT :limit", nativeQuery = true)
+    List<Device> suggestByDeviceIdPrefix(@Param("prefix") String prefix, @Param("limit") int limit);
+
+    /**
+     * 按设备名称包含匹配，按相似度排序（使用 idx_devices_name_trgm）
+     * 
+     * @param pattern 包含模式，由 {@link DeviceSpecifications#containsPattern} 生成
+     * @param keyword 关键字（小写）
+     * @param limit 返回数量
+     * @return 设备列表
      */
-    @Query("SELECT d FROM Device d WHERE " +
-           "(:deviceId IS NULL OR d.deviceId LIKE %:deviceId%) AND " +
-           "(:deviceName IS NULL OR d.deviceName LIKE %:deviceName%) AND " +
-           "(:deviceType IS NULL OR d.deviceType = :deviceType) AND " +
-           "(:status IS NULL OR d.status = :status) AND " +
-           "(:userId IS NULL OR d.userId = :userId) AND " +
-           "(:isOnline IS NULL OR d.isOnline = :isOnline) AND " +
-           "d.deleted = false")
-    Page<Device> findByMultipleConditions(
-            @Param("deviceId") String deviceId,
-            @Param("deviceName") String deviceName,
-            @Param("deviceType") DeviceType deviceType,
-            @Param("status") DeviceStatus status,
-            @Param("userId") Long userId,
-            @Param("isOnline") Boolean isOnline,
-            Pageable pageable);
+    @Query(value = "SELECT * FROM devices WHERE deleted = false " +
+                   "AND lower(device_name) LIKE :pattern ESCAPE '!' " +
+                   "ORDER BY similarity(lower(device_name), :keyword) DESC LIMIT :limit", nativeQuery = true)
+    List<Device> suggestByNameSimilarity(@Param("pattern") String pattern, @Param("keyword") String keyword,
+                                         @Param("limit") int limit);
 
     /**
      * 查找所有未删除的设备
@@ -0,0 +1,88 @@
+package main.java.com.elderly.monitoring.device.repository;
+
+import jakarta.persistence.criteria.Predicate;
+import main.java.com.elderly.monitoring.device.entity.Device;
+import main.java.com.elderly.monitoring.device.entity.DeviceStatus;
+import main.java.com.elderly.monitoring.device.entity.DeviceType;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 设备查询条件
+ * 
+ * 只为传入的条件生成谓词，避免 "(:x IS NULL OR ...)" 形式使通用执行计划无法使用索引。
+ * 文本条件统一为 lower(列) LIKE '%关键字%'，与 optimization.sql 中的三元组GIN索引表达式一致。
+ * 
+ * @author Elderly Monitoring Team
+ * @version 1.0.0
+ */
+public final class DeviceSpecifications {
+
+    /**
+     * LIKE转义字符
+     */
+    public static final char ESCAPE = '!';
+
+    private DeviceSpecifications() {}
+
+    /**
+     * 多条件搜索
+     */
+    public static Specification<Device> search(String deviceId, String deviceName, DeviceType deviceType,
+                                               DeviceStatus status, Long userId, Boolean isOnline) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.isFalse(root.get("deleted")));
+            if (hasText(deviceId)) {
+                predicates.add(cb.like(cb.lower(root.get("deviceId")), containsPattern(deviceId), ESCAPE));
+            }
+            if (hasText(deviceName)) {
+                predicates.add(cb.like(cb.lower(root.get("deviceName")), containsPattern(deviceName), ESCAPE));
+            }
+            if (deviceType != null) {
+                predicates.add(cb.equal(root.get("deviceType"), deviceType));
+            }
+            if (status != null) {
+                predicates.add(cb.equal(root.get("status"), status));
+            }
+            if (userId != null) {
+                predicates.add(cb.equal(root.get("userId"), userId));
+            }
+            if (isOnline != null) {
+                predicates.add(cb.equal(root.get("isOnline"), isOnline));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * 包含匹配模式：%关键字%
+     */
+    public static String containsPattern(String keyword) {
+        return "%" + escape(keyword.trim().toLowerCase()) + "%";
+    }
+
+    /**
+     * 前缀匹配模式：关键字%
+     */
+    public static String prefixPattern(String keyword) {
+        return escape(keyword.trim().toLowerCase()) + "%";
+    }
+
+    private static String escape(String keyword) {
+        StringBuilder escaped = new StringBuilder(keyword.length() + 4);
+        for (char c : keyword.toCharArray()) {
+            if (c == ESCAPE || c == '%' || c == '_') {
+                escaped.append(ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.trim().isEmpty();
+    }
+}
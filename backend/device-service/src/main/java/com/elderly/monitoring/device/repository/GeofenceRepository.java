@@ -0,0 +1,32 @@
+package main.java.com.elderly.monitoring.device.repository;
+
+import main.java.com.elderly.monitoring.device.entity.Geofence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * 电子围栏数据访问接口
+ * 
+ * @author Elderly Monitoring Team
+ * @version 1.0.0
+ */
+@Repository
+public interface GeofenceRepository extends JpaRepository<Geofence, Long> {
+
+    /**
+     * 根据用户ID查找围栏
+     * 
+     * @param userId 用户ID
+     * @return 围栏列表
+     */
+    List<Geofence> findByUserId(Long userId);
+
+    /**
+     * 查找所有启用的围栏
+     * 
+     * @return 围栏列表
+     */
+    List<Geofence> findByEnabledTrue();
+}
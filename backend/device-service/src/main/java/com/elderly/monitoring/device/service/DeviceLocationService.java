@@ -0,0 +1,368 @@
+package main.java.com.elderly.monitoring.device.service;
+
+import main.java.com.elderly.monitoring.device.entity.Device;
+import main.java.com.elderly.monitoring.device.entity.DeviceType;
+import main.java.com.elderly.monitoring.device.entity.Geofence;
+import main.java.com.elderly.monitoring.device.event.GeofenceEvent;
+import main.java.com.elderly.monitoring.device.repository.GeofenceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 设备位置服务
+ *
+ * 维护设备位置的内存网格索引 {@link GeoIndex}，支持矩形范围和最近邻查询；
+ * 同时缓存每个用户启用的电子围栏，位置更新时计算设备所在的围栏集合，
+ * 与上次结果比较后发布进入/离开事件 {@link GeofenceEvent}。
+ * 启动时从数据库加载设备位置和围栏，之后由位置更新维护。
+ *
+ * @author Elderly Monitoring Team
+ * @version 1.0.0
+ */
+@Service
+public class DeviceLocationService {
+
+    private static final Logger log = LoggerFactory.getLogger(DeviceLocationService.class);
+
+    private static final String USER_DEVICES_SQL =
+            "SELECT device_id FROM devices WHERE user_id = ? AND deleted = false";
+
+    private static final String LOAD_SQL =
+            "SELECT device_id, device_type, user_id, latitude, longitude FROM devices " +
+            "WHERE deleted = false AND latitude IS NOT NULL AND longitude IS NOT NULL";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private GeofenceRepository geofenceRepository;
+
+    @Autowired
+    private DeviceRegistryCache registryCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final GeoIndex index;
+
+    /**
+     * userId -> 启用的围栏
+     */
+    private final Map<Long, List<Geofence>> geofencesByUser = new ConcurrentHashMap<>();
+
+    /**
+     * deviceId -> 所在的围栏ID，只包含所属用户设置了围栏的设备
+     */
+    private final Map<String, DeviceFenceState> fenceStates = new ConcurrentHashMap<>();
+
+    /**
+     * deviceId -> 设备类型，用于最近邻查询按类型过滤
+     */
+    private final Map<String, DeviceType> deviceTypes = new ConcurrentHashMap<>();
+
+    public DeviceLocationService(@Value("${device.geo.cell-degrees:0.01}") double cellDegrees) {
+        this.index = new GeoIndex(cellDegrees);
+    }
+
+    /**
+     * 启动时加载围栏和设备位置，不发布事件
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reloadGeofences();
+        jdbcTemplate.query(LOAD_SQL, rs -> {
+            String deviceId = rs.getString("device_id");
+            double latitude = rs.getDouble("latitude");
+            double longitude = rs.getDouble("longitude");
+            long userId = rs.getLong("user_id");
+            boolean bound = !rs.wasNull();
+            String type = rs.getString("device_type");
+            if (type != null) {
+                deviceTypes.put(deviceId, DeviceType.valueOf(type));
+            }
+            index.put(deviceId, latitude, longitude);
+            evaluate(deviceId, bound ? userId : null, latitude, longitude, false);
+        });
+        log.info("Loaded {} device locations and geofences for {} users", index.size(), geofencesByUser.size());
+    }
+
+    /**
+     * 定时重新加载围栏（其他实例修改的围栏在此之后生效）
+     */
+    @Scheduled(initialDelayString = "${device.geo.geofence-reload-interval:300000}",
+            fixedDelayString = "${device.geo.geofence-reload-interval:300000}")
+    public void reloadGeofences() {
+        Map<Long, List<Geofence>> loaded = geofenceRepository.findByEnabledTrue().stream()
+                .collect(Collectors.groupingBy(Geofence::getUserId));
+        geofencesByUser.keySet().retainAll(loaded.keySet());
+        loaded.forEach((userId, fences) -> geofencesByUser.put(userId, List.copyOf(fences)));
+    }
+
+    /**
+     * 设备位置更新
+     *
+     * @param deviceId 设备ID
+     * @param latitude 纬度
+     * @param longitude 经度
+     */
+    public void onLocationUpdated(String deviceId, double latitude, double longitude) {
+        DeviceSnapshot snapshot = registryCache.get(deviceId);
+        if (snapshot == null) {
+            return;
+        }
+        if (snapshot.getDeviceType() != null) {
+            deviceTypes.put(deviceId, snapshot.getDeviceType());
+        }
+        index.put(deviceId, latitude, longitude);
+        evaluate(deviceId, snapshot.getUserId(), latitude, longitude, true);
+    }
+
+    /**
+     * 管理端创建或修改设备，按设备当前的坐标和用户更新索引，不发布事件
+     */
+    public void onDeviceSaved(Device device) {
+        if (device.getDeviceType() != null) {
+            deviceTypes.put(device.getDeviceId(), device.getDeviceType());
+        }
+        if (device.getLatitude() != null && device.getLongitude() != null) {
+            index.put(device.getDeviceId(), device.getLatitude(), device.getLongitude());
+        }
+        onUserChanged(device.getDeviceId(), device.getUserId());
+    }
+
+    /**
+     * 设备绑定的用户变化，按新用户的围栏重新计算，不发布事件
+     */
+    public void onUserChanged(String deviceId, Long userId) {
+        fenceStates.remove(deviceId);
+        GeoIndex.GeoPoint point = index.get(deviceId);
+        if (point != null) {
+            evaluate(deviceId, userId, point.latitude(), point.longitude(), false);
+        }
+    }
+
+    /**
+     * 设备删除
+     */
+    public void onDeviceRemoved(String deviceId) {
+        index.remove(deviceId);
+        fenceStates.remove(deviceId);
+        deviceTypes.remove(deviceId);
+    }
+
+    /**
+     * 查询矩形范围内的设备
+     */
+    public List<Map<String, Object>> findWithin(double minLat, double minLon, double maxLat, double maxLon) {
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (String deviceId : index.within(minLat, minLon, maxLat, maxLon)) {
+            GeoIndex.GeoPoint point = index.get(deviceId);
+            if (point != null) {
+                result.add(toLocation(deviceId, point, null));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 查询距离目标最近的设备
+     *
+     * @param deviceType 设备类型，为null时不过滤
+     * @param maxDistanceMeters 最大距离，为null时不限制
+     */
+    public List<Map<String, Object>> findNearest(double latitude, double longitude, int k,
+                                                 Double maxDistanceMeters, DeviceType deviceType) {
+        List<GeoIndex.Neighbor> neighbors = index.nearest(latitude, longitude, k,
+                maxDistanceMeters != null ? maxDistanceMeters : Double.MAX_VALUE,
+                deviceType == null ? null : deviceId -> deviceType == deviceTypes.get(deviceId));
+
+        List<Map<String, Object>> result = new ArrayList<>(neighbors.size());
+        for (GeoIndex.Neighbor neighbor : neighbors) {
+            GeoIndex.GeoPoint point = index.get(neighbor.deviceId());
+            if (point != null) {
+                result.add(toLocation(neighbor.deviceId(), point, neighbor.distanceMeters()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 查询不在所属用户任何围栏内的设备
+     */
+    public List<Map<String, Object>> findOutsideGeofences() {
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Map.Entry<String, DeviceFenceState> entry : fenceStates.entrySet()) {
+            if (!entry.getValue().inside.isEmpty()) {
+                continue;
+            }
+            GeoIndex.GeoPoint point = index.get(entry.getKey());
+            if (point != null) {
+                Map<String, Object> location = toLocation(entry.getKey(), point, null);
+                location.put("userId", entry.getValue().userId);
+                result.add(location);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 获取用户的围栏（包括未启用的）
+     */
+    public List<Geofence> getGeofences(Long userId) {
+        return geofenceRepository.findByUserId(userId);
+    }
+
+    /**
+     * 创建围栏
+     */
+    public Geofence createGeofence(Geofence geofence) {
+        geofence.setId(null);
+        Geofence saved = geofenceRepository.save(geofence);
+        refreshUser(saved.getUserId());
+        return saved;
+    }
+
+    /**
+     * 更新围栏
+     *
+     * @return 更新后的围栏，不存在返回empty
+     */
+    public Optional<Geofence> updateGeofence(Long id, Geofence updated) {
+        return geofenceRepository.findById(id).map(existing -> {
+            Long previousUserId = existing.getUserId();
+            existing.setUserId(updated.getUserId());
+            existing.setName(updated.getName());
+            existing.setLatitude(updated.getLatitude());
+            existing.setLongitude(updated.getLongitude());
+            existing.setRadiusMeters(updated.getRadiusMeters());
+            if (updated.getEnabled() != null) {
+                existing.setEnabled(updated.getEnabled());
+            }
+            Geofence saved = geofenceRepository.save(existing);
+            if (!previousUserId.equals(saved.getUserId())) {
+                refreshUser(previousUserId);
+            }
+            refreshUser(saved.getUserId());
+            return saved;
+        });
+    }
+
+    /**
+     * 删除围栏
+     */
+    public boolean deleteGeofence(Long id) {
+        return geofenceRepository.findById(id).map(geofence -> {
+            geofenceRepository.delete(geofence);
+            refreshUser(geofence.getUserId());
+            return true;
+        }).orElse(false);
+    }
+
+    public int indexedDeviceCount() {
+        return index.size();
+    }
+
+    /**
+     * 重新加载用户的围栏，并按新围栏重新计算该用户全部已索引设备的状态（不发布事件）
+     * 
+     * 设备取自数据库，用户的第一个围栏也会立即作用于其设备，不必等设备上报新位置
+     */
+    private void refreshUser(Long userId) {
+        List<Geofence> fences = geofenceRepository.findByUserId(userId).stream()
+                .filter(fence -> Boolean.TRUE.equals(fence.getEnabled()))
+                .collect(Collectors.toList());
+        if (fences.isEmpty()) {
+            geofencesByUser.remove(userId);
+        } else {
+            geofencesByUser.put(userId, List.copyOf(fences));
+        }
+
+        Set<String> deviceIds = new HashSet<>(jdbcTemplate.queryForList(USER_DEVICES_SQL, String.class, userId));
+        for (Map.Entry<String, DeviceFenceState> entry : fenceStates.entrySet()) {
+            if (userId.equals(entry.getValue().userId)) {
+                deviceIds.add(entry.getKey());
+            }
+        }
+        for (String deviceId : deviceIds) {
+            onUserChanged(deviceId, userId);
+        }
+    }
+
+    /**
+     * 计算设备所在的围栏，与上次结果比较后发布进入/离开事件
+     */
+    private void evaluate(String deviceId, Long userId, double latitude, double longitude, boolean publish) {
+        List<Geofence> fences = userId != null ? geofencesByUser.get(userId) : null;
+        if (fences == null || fences.isEmpty()) {
+            fenceStates.remove(deviceId);
+            return;
+        }
+
+        Set<Long> inside = new HashSet<>();
+        for (Geofence fence : fences) {
+            if (fence.contains(latitude, longitude)) {
+                inside.add(fence.getId());
+            }
+        }
+
+        DeviceFenceState current = new DeviceFenceState(userId, Collections.unmodifiableSet(inside));
+        DeviceFenceState previous = fenceStates.put(deviceId, current);
+        // 首次计算或用户变化时只记录状态
+        if (!publish || previous == null || !userId.equals(previous.userId)) {
+            return;
+        }
+
+        Map<Long, String> names = fences.stream()
+                .collect(Collectors.toMap(Geofence::getId, Geofence::getName, (a, b) -> a, LinkedHashMap::new));
+        boolean outsideAll = inside.isEmpty();
+        for (Long fenceId : inside) {
+            if (!previous.inside.contains(fenceId)) {
+                eventPublisher.publishEvent(new GeofenceEvent(deviceId, userId, fenceId, names.get(fenceId),
+                        GeofenceEvent.Transition.ENTER, latitude, longitude, false));
+            }
+        }
+        for (Long fenceId : previous.inside) {
+            // 已被删除的围栏不产生离开事件
+            if (!inside.contains(fenceId) && names.containsKey(fenceId)) {
+                eventPublisher.publishEvent(new GeofenceEvent(deviceId, userId, fenceId, names.get(fenceId),
+                        GeofenceEvent.Transition.EXIT, latitude, longitude, outsideAll));
+            }
+        }
+    }
+
+    private Map<String, Object> toLocation(String deviceId, GeoIndex.GeoPoint point, Double distanceMeters) {
+        Map<String, Object> location = new LinkedHashMap<>();
+        location.put("deviceId", deviceId);
+        location.put("latitude", point.latitude());
+        location.put("longitude", point.longitude());
+        if (distanceMeters != null) {
+            location.put("distanceMeters", Math.round(distanceMeters * 10) / 10.0);
+        }
+        return location;
+    }
+
+    /**
+     * 设备所在的围栏
+     */
+    private record DeviceFenceState(Long userId, Set<Long> inside) {
+    }
+}
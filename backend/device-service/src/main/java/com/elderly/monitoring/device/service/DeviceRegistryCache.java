@@ -0,0 +1,149 @@
+package main.java.com.elderly.monitoring.device.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import main.java.com.elderly.monitoring.device.repository.DeviceRepository;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 设备注册信息本地缓存
+ *
+ * 按 deviceId 缓存 {@link DeviceSnapshot}，容量有上限。版本号保存在Redis中，设备变更提交后递增并
+ * 通过Redis频道广播；收到失效消息时清除本地缓存，并记录该设备已知的最新版本，
+ * 早于该版本加载的快照不会写入缓存，避免旧数据覆盖。
+ *
+ * @author Elderly Monitoring Team
+ * @version 1.0.0
+ */
+@Component
+public class DeviceRegistryCache implements InitializingBean {
+
+    /**
+     * 设备注册信息版本号键前缀
+     */
+    public static final String VERSION_KEY_PREFIX = "device:registry:version:";
+
+    @Autowired
+    private DeviceRepository deviceRepository;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Value("${device.registry.cache.max-size:100000}")
+    private long maxSize;
+
+    @Value("${device.registry.cache.expire-after-write:30m}")
+    private Duration expireAfterWrite;
+
+    private Cache<String, DeviceSnapshot> snapshots;
+
+    /**
+     * deviceId -> 收到的最新失效版本
+     */
+    private Cache<String, Long> invalidatedVersions;
+
+    @Override
+    public void afterPropertiesSet() {
+        snapshots = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        invalidatedVersions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    /**
+     * 获取设备快照，未命中时从数据库加载
+     *
+     * @param deviceId 设备ID
+     * @return 设备快照，设备不存在或已删除返回null
+     */
+    public DeviceSnapshot get(String deviceId) {
+        DeviceSnapshot cached = snapshots.getIfPresent(deviceId);
+        if (cached != null) {
+            return cached;
+        }
+
+        // 先读版本再读数据：期间发生的变更版本更高，会在之后的失效消息中清除本次结果
+        long version = currentVersion(deviceId);
+        DeviceSnapshot loaded = deviceRepository.findByDeviceId(deviceId)
+                .filter(device -> !Boolean.TRUE.equals(device.getDeleted()))
+                .map(device -> DeviceSnapshot.of(device, version))
+                .orElse(null);
+        if (loaded != null && !isStale(deviceId, version)) {
+            snapshots.asMap().merge(deviceId, loaded,
+                    (existing, candidate) -> candidate.getVersion() >= existing.getVersion() ? candidate : existing);
+        }
+        return loaded;
+    }
+
+    /**
+     * 批量获取设备快照
+     *
+     * @param deviceIds 设备ID列表
+     * @return deviceId -> 快照，不存在的设备不包含在结果中
+     */
+    public Map<String, DeviceSnapshot> getAll(Collection<String> deviceIds) {
+        Map<String, DeviceSnapshot> result = new LinkedHashMap<>();
+        for (String deviceId : deviceIds) {
+            DeviceSnapshot snapshot = get(deviceId);
+            if (snapshot != null) {
+                result.put(deviceId, snapshot);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 递增设备版本号（变更提交后调用）
+     *
+     * @param deviceId 设备ID
+     * @return 新版本号
+     */
+    public long nextVersion(String deviceId) {
+        Long version = redisTemplate.opsForValue().increment(VERSION_KEY_PREFIX + deviceId);
+        return version != null ? version : 0L;
+    }
+
+    /**
+     * 使设备快照失效
+     *
+     * @param deviceId 设备ID
+     * @param version 变更后的版本号
+     */
+    public void invalidate(String deviceId, long version) {
+        invalidatedVersions.asMap().merge(deviceId, version, Math::max);
+        snapshots.asMap().computeIfPresent(deviceId,
+                (key, existing) -> existing.getVersion() < version ? null : existing);
+    }
+
+    public long size() {
+        return snapshots.estimatedSize();
+    }
+
+    public double hitRate() {
+        return snapshots.stats().hitRate();
+    }
+
+    private boolean isStale(String deviceId, long version) {
+        Long invalidated = invalidatedVersions.getIfPresent(deviceId);
+        return invalidated != null && version < invalidated;
+    }
+
+    private long currentVersion(String deviceId) {
+        String version = redisTemplate.opsForValue().get(VERSION_KEY_PREFIX + deviceId);
+        return version != null ? Long.parseLong(version) : 0L;
+    }
+}
@@ -3,16 +3,27 @@ package main.java.com.elderly.monitoring.device.service;
 import main.java.com.elderly.monitoring.device.entity.Device;
 import main.java.com.elderly.monitoring.device.entity.DeviceStatus;
 import main.java.com.elderly.monitoring.device.entity.DeviceType;
+import main.java.com.elderly.monitoring.device.entity.DeviceBinding;
+import main.java.com.elderly.monitoring.device.event.DeviceChangedEvent;
+import main.java.com.elderly.monitoring.device.repository.DeviceBindingRepository;
 import main.java.com.elderly.monitoring.device.repository.DeviceRepository;
+import main.java.com.elderly.monitoring.device.repository.DeviceSpecifications;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -29,6 +40,24 @@ public class DeviceService {
     @Autowired
     private DeviceRepository deviceRepository;
 
+    @Autowired
+    private DeviceBindingRepository bindingRepository;
+
+    @Autowired
+    private HeartbeatTracker heartbeatTracker;
+
+    @Autowired
+    private TelemetryBuffer telemetryBuffer;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private DeviceStatisticsTracker statisticsTracker;
+
+    @Autowired
+    private DeviceLocationService locationService;
+
     @Value("${device.heartbeat.interval:30000}")
     private long heartbeatInterval;
 
@@ -63,7 +92,13 @@ public class DeviceService {
             device.setInstallationDate(LocalDateTime.now());
         }
 
-        return deviceRepository.save(device);
+        Device saved = deviceRepository.save(device);
+        syncPrimaryBinding(saved.getDeviceId(), null, saved.getUserId());
+        statisticsTracker.onSaved(saved);
+        locationService.onDeviceSaved(saved);
+        // 清除其他服务对该设备ID缓存的"不存在"结果
+        eventPublisher.publishEvent(new DeviceChangedEvent(saved.getDeviceId(), DeviceChangedEvent.ChangeType.CREATED));
+        return saved;
     }
 
     /**
@@ -102,6 +137,8 @@ public class DeviceService {
         }
 
         Device existingDevice = existingDeviceOpt.get();
+        String previousDeviceId = existingDevice.getDeviceId();
+        Long previousUserId = existingDevice.getUserId();
 
         // 检查设备ID是否被其他设备使用
         if (!existingDevice.getDeviceId().equals(updatedDevice.getDeviceId()) 
@@ -132,7 +169,20 @@ public class DeviceService {
         existingDevice.setNextMaintenanceDate(updatedDevice.getNextMaintenanceDate());
         existingDevice.setConfiguration(updatedDevice.getConfiguration());
 
-        return deviceRepository.save(existingDevice);
+        Device saved = deviceRepository.save(existingDevice);
+        if (!previousDeviceId.equals(saved.getDeviceId())) {
+            bindingRepository.renameDevice(previousDeviceId, saved.getDeviceId());
+        }
+        syncPrimaryBinding(saved.getDeviceId(), previousUserId, saved.getUserId());
+        if (!previousDeviceId.equals(saved.getDeviceId())) {
+            statisticsTracker.onDeleted(previousDeviceId);
+            locationService.onDeviceRemoved(previousDeviceId);
+            eventPublisher.publishEvent(new DeviceChangedEvent(previousDeviceId, DeviceChangedEvent.ChangeType.DELETED));
+        }
+        statisticsTracker.onSaved(saved);
+        locationService.onDeviceSaved(saved);
+        eventPublisher.publishEvent(new DeviceChangedEvent(saved.getDeviceId(), DeviceChangedEvent.ChangeType.UPDATED));
+        return saved;
     }
 
     /**
@@ -152,6 +202,11 @@ public class DeviceService {
         device.setStatus(DeviceStatus.DELETED);
         device.setIsOnline(false);
         deviceRepository.save(device);
+        bindingRepository.deleteByDeviceId(device.getDeviceId());
+        heartbeatTracker.forget(device.getDeviceId());
+        statisticsTracker.onDeleted(device.getDeviceId());
+        locationService.onDeviceRemoved(device.getDeviceId());
+        eventPublisher.publishEvent(new DeviceChangedEvent(device.getDeviceId(), DeviceChangedEvent.ChangeType.DELETED));
         
         return true;
     }
@@ -215,7 +270,38 @@ public class DeviceService {
     @Transactional(readOnly = true)
     public Page<Device> searchDevices(String deviceId, String deviceName, DeviceType deviceType, 
                                      DeviceStatus status, Long userId, Boolean isOnline, Pageable pageable) {
-        return deviceRepository.findByMultipleConditions(deviceId, deviceName, deviceType, status, userId, isOnline, pageable);
+        return deviceRepository.findAll(
+                DeviceSpecifications.search(deviceId, deviceName, deviceType, status, userId, isOnline), pageable);
+    }
+
+    /**
+     * 设备搜索联想
+     * 
+     * 先按设备ID和名称前缀匹配，不足时按名称包含匹配并以相似度排序补足。
+     * 关键字少于3个字符时三元组索引无法过滤，只做前缀匹配。
+     * 
+     * @param keyword 关键字
+     * @param limit 返回数量
+     * @return 设备列表
+     */
+    @Transactional(readOnly = true)
+    public List<Device> suggestDevices(String keyword, int limit) {
+        String trimmed = keyword.trim().toLowerCase();
+        if (trimmed.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<String, Device> result = new LinkedHashMap<>();
+        String prefix = DeviceSpecifications.prefixPattern(trimmed);
+        deviceRepository.suggestByDeviceIdPrefix(prefix, limit).forEach(device -> result.putIfAbsent(device.getDeviceId(), device));
+        if (result.size() < limit) {
+            deviceRepository.suggestByNamePrefix(prefix, limit).forEach(device -> result.putIfAbsent(device.getDeviceId(), device));
+        }
+        if (result.size() < limit && trimmed.length() >= 3) {
+            deviceRepository.suggestByNameSimilarity(DeviceSpecifications.containsPattern(trimmed), trimmed, limit)
+                    .forEach(device -> result.putIfAbsent(device.getDeviceId(), device));
+        }
+        return result.values().stream().limit(limit).collect(Collectors.toList());
     }
 
     /**
@@ -226,8 +312,15 @@ public class DeviceService {
      * @return 是否更新成功
      */
     public boolean updateDeviceOnlineStatus(String deviceId, boolean isOnline) {
+        if (!isOnline) {
+            heartbeatTracker.forget(deviceId);
+        }
+
         LocalDateTime now = LocalDateTime.now();
         int updatedRows = deviceRepository.updateDeviceOnlineStatus(deviceId, isOnline, now);
+        if (updatedRows > 0) {
+            statisticsTracker.onOnlineStatusChanged(deviceId, isOnline);
+        }
         
         if (updatedRows > 0 && isOnline) {
             // 如果设备上线，自动更新设备状态为在线
@@ -245,11 +338,31 @@ public class DeviceService {
     /**
      * 更新设备心跳
      * 
+     * 心跳只记录在内存中，由 {@link HeartbeatTracker} 定时批量写回数据库，不开启事务、不占用连接
+     * 
      * @param deviceId 设备ID
-     * @return 是否更新成功
+     * @return 设备是否存在
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public boolean updateDeviceHeartbeat(String deviceId) {
-        return updateDeviceOnlineStatus(deviceId, true);
+        return heartbeatTracker.recordHeartbeat(deviceId);
+    }
+
+    /**
+     * 批量记录设备心跳
+     * 
+     * @param deviceIds 设备ID列表
+     * @return 不存在的设备ID
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<String> recordHeartbeatBatch(List<String> deviceIds) {
+        List<String> unknownDevices = new ArrayList<>();
+        for (String deviceId : deviceIds) {
+            if (!heartbeatTracker.recordHeartbeat(deviceId)) {
+                unknownDevices.add(deviceId);
+            }
+        }
+        return unknownDevices;
     }
 
     /**
@@ -262,7 +375,13 @@ public class DeviceService {
      * @return 是否更新成功
      */
     public boolean updateDeviceLocation(String deviceId, Double latitude, Double longitude, String locationAddress) {
-        return deviceRepository.updateDeviceLocation(deviceId, latitude, longitude, locationAddress) > 0;
+        if (deviceRepository.updateDeviceLocation(deviceId, latitude, longitude, locationAddress) == 0) {
+            return false;
+        }
+        if (latitude != null && longitude != null) {
+            locationService.onLocationUpdated(deviceId, latitude, longitude);
+        }
+        return true;
     }
 
     /**
@@ -273,21 +392,62 @@ public class DeviceService {
      * @return 是否更新成功
      */
     public boolean updateDeviceBattery(String deviceId, Integer batteryLevel) {
-        boolean success = deviceRepository.updateDeviceBattery(deviceId, batteryLevel) > 0;
-        
-        if (success) {
-            // 检查电量状态
-            Optional<Device> deviceOpt = deviceRepository.findByDeviceId(deviceId);
-            if (deviceOpt.isPresent()) {
-                Device device = deviceOpt.get();
-                if (batteryLevel <= lowBatteryThreshold) {
-                    device.setStatus(DeviceStatus.LOW_BATTERY);
-                    deviceRepository.save(device);
-                }
+        // 电量和低电量状态在同一条UPDATE中完成，不再读取设备后保存
+        DeviceTelemetry telemetry = new DeviceTelemetry();
+        telemetry.setBatteryLevel(batteryLevel);
+        return telemetryBuffer.writeImmediately(deviceId, telemetry) > 0;
+    }
+
+    /**
+     * 上报设备遥测数据
+     * 
+     * 上报视为一次心跳，其余字段在内存中合并后批量写入，不开启事务、不占用连接
+     * 
+     * @param deviceId 设备ID
+     * @param telemetry 遥测数据
+     * @return 设备是否存在
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public boolean reportTelemetry(String deviceId, DeviceTelemetry telemetry) {
+        if (!heartbeatTracker.recordHeartbeat(deviceId)) {
+            return false;
+        }
+        telemetryBuffer.merge(deviceId, telemetry);
+        if (telemetry.hasLocation()) {
+            locationService.onLocationUpdated(deviceId, telemetry.getLatitude(), telemetry.getLongitude());
+        }
+        return true;
+    }
+
+    /**
+     * 批量上报设备遥测数据
+     * 
+     * @param telemetries 遥测数据列表
+     * @return 处理结果：accepted 接受数量，unknownDevices 不存在的设备，invalid 校验失败的设备及原因
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Map<String, Object> reportTelemetryBatch(List<DeviceTelemetry> telemetries) {
+        int accepted = 0;
+        List<String> unknownDevices = new ArrayList<>();
+        Map<String, String> invalid = new LinkedHashMap<>();
+
+        for (DeviceTelemetry telemetry : telemetries) {
+            String deviceId = telemetry.getDeviceId();
+            String error = deviceId == null ? "缺少设备ID" : telemetry.validate();
+            if (error != null) {
+                invalid.put(String.valueOf(deviceId), error);
+            } else if (reportTelemetry(deviceId, telemetry)) {
+                accepted++;
+            } else {
+                unknownDevices.add(deviceId);
             }
         }
-        
-        return success;
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("accepted", accepted);
+        result.put("unknownDevices", unknownDevices);
+        result.put("invalid", invalid);
+        return result;
     }
 
     /**
@@ -297,27 +457,19 @@ public class DeviceService {
      */
     @Transactional(readOnly = true)
     public List<Device> checkHeartbeatTimeout() {
-        LocalDateTime threshold = LocalDateTime.now().minusMillis(heartbeatTimeout);
+        LocalDateTime threshold = LocalDateTime.now().minus(heartbeatTimeout, ChronoUnit.MILLIS);
         return deviceRepository.findDevicesWithMissedHeartbeat(threshold);
     }
 
     /**
      * 处理心跳超时的设备
      * 
+     * 超时检测由 {@link HeartbeatTracker} 的时间轮自动完成，此处立即执行一次批量兜底清理
+     * 
      * @return 处理的设备数量
      */
     public int handleHeartbeatTimeout() {
-        List<Device> timeoutDevices = checkHeartbeatTimeout();
-        int count = 0;
-        
-        for (Device device : timeoutDevices) {
-            device.setIsOnline(false);
-            device.setStatus(DeviceStatus.OFFLINE);
-            deviceRepository.save(device);
-            count++;
-        }
-        
-        return count;
+        return heartbeatTracker.sweepExpired().size();
     }
 
     /**
@@ -335,9 +487,13 @@ public class DeviceService {
         }
 
         Device device = deviceOpt.get();
+        Long previousUserId = device.getUserId();
         device.setUserId(userId);
         device.setUserName(userName);
         deviceRepository.save(device);
+        syncPrimaryBinding(deviceId, previousUserId, userId);
+        locationService.onUserChanged(deviceId, userId);
+        eventPublisher.publishEvent(new DeviceChangedEvent(deviceId, DeviceChangedEvent.ChangeType.BOUND));
         
         return true;
     }
@@ -355,13 +511,33 @@ public class DeviceService {
         }
 
         Device device = deviceOpt.get();
+        Long previousUserId = device.getUserId();
         device.setUserId(null);
         device.setUserName(null);
         deviceRepository.save(device);
+        syncPrimaryBinding(deviceId, previousUserId, null);
+        locationService.onUserChanged(deviceId, null);
+        eventPublisher.publishEvent(new DeviceChangedEvent(deviceId, DeviceChangedEvent.ChangeType.UNBOUND));
         
         return true;
     }
 
+    /**
+     * 同步设备主用户对应的绑定关系（device_bindings），用户服务按该表查询设备与用户的关联
+     * 
+     * @param deviceId 设备ID
+     * @param previousUserId 变更前的主用户ID
+     * @param userId 变更后的主用户ID
+     */
+    private void syncPrimaryBinding(String deviceId, Long previousUserId, Long userId) {
+        if (previousUserId != null && !previousUserId.equals(userId)) {
+            bindingRepository.deleteBinding(previousUserId, deviceId);
+        }
+        if (userId != null && !bindingRepository.existsByUserIdAndDeviceId(userId, deviceId)) {
+            bindingRepository.save(new DeviceBinding(userId, deviceId));
+        }
+    }
+
     /**
      * 获取设备统计信息
      * 
@@ -369,6 +545,12 @@ public class DeviceService {
      */
     @Transactional(readOnly = true)
     public DeviceStatistics getDeviceStatistics() {
+        DeviceStatistics tracked = statisticsTracker.snapshot();
+        if (tracked != null) {
+            return tracked;
+        }
+
+        // 增量统计尚未完成首次加载时按数据库汇总
         List<Object[]> typeStats = deviceRepository.countDevicesByType();
         List<Object[]> statusStats = deviceRepository.countDevicesByStatus();
         List<Object[]> onlineStats = deviceRepository.countDevicesByOnlineStatus();
@@ -411,7 +593,11 @@ public class DeviceService {
      */
     @Transactional(readOnly = true)
     public List<Device> getLowBatteryDevices() {
-        return deviceRepository.findLowBatteryDevices(lowBatteryThreshold);
+        List<String> deviceIds = statisticsTracker.lowBatteryOnlineDeviceIds();
+        if (deviceIds == null) {
+            return deviceRepository.findLowBatteryDevices(lowBatteryThreshold);
+        }
+        return deviceIds.isEmpty() ? new ArrayList<>() : deviceRepository.findByDeviceIdInAndDeletedFalse(deviceIds);
     }
 
     /**
@@ -444,6 +630,7 @@ public class DeviceService {
         private Long malfunctionCount = 0L;
         private Long maintenanceCount = 0L;
         private Long lowBatteryCount = 0L;
+        private Long lowBatteryLevelCount = 0L;
 
         // Getter和Setter方法
         public Long getTotalDevices() { return totalDevices; }
@@ -494,6 +681,9 @@ public class DeviceService {
         public Long getLowBatteryCount() { return lowBatteryCount; }
         public void setLowBatteryCount(Long lowBatteryCount) { this.lowBatteryCount = lowBatteryCount; }
 
+        public Long getLowBatteryLevelCount() { return lowBatteryLevelCount; }
+        public void setLowBatteryLevelCount(Long lowBatteryLevelCount) { this.lowBatteryLevelCount = lowBatteryLevelCount; }
+
         public void addTypeCount(DeviceType type, Long count) {
             switch (type) {
                 case WEARABLE:
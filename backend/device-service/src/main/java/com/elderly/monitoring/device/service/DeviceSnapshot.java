@@ -0,0 +1,75 @@
+package main.java.com.elderly.monitoring.device.service;
+
+import main.java.com.elderly.monitoring.device.entity.Device;
+import main.java.com.elderly.monitoring.device.entity.DeviceType;
+
+/**
+ * 设备注册信息快照
+ *
+ * 只包含设备身份和绑定关系等低频变化的字段，供本地缓存和其他服务解析 设备 -> 用户。
+ * 心跳、电量、位置等高频字段不在快照中，其变化不会使缓存失效。
+ *
+ * @author Elderly Monitoring Team
+ * @version 1.0.0
+ */
+public class DeviceSnapshot {
+
+    private Long id;
+
+    private String deviceId;
+
+    private String deviceName;
+
+    private DeviceType deviceType;
+
+    private Long userId;
+
+    private String userName;
+
+    private Boolean deleted;
+
+    /**
+     * 注册信息版本号，每次变更递增
+     */
+    private long version;
+
+    public DeviceSnapshot() {}
+
+    public static DeviceSnapshot of(Device device, long version) {
+        DeviceSnapshot snapshot = new DeviceSnapshot();
+        snapshot.id = device.getId();
+        snapshot.deviceId = device.getDeviceId();
+        snapshot.deviceName = device.getDeviceName();
+        snapshot.deviceType = device.getDeviceType();
+        snapshot.userId = device.getUserId();
+        snapshot.userName = device.getUserName();
+        snapshot.deleted = device.getDeleted();
+        snapshot.version = version;
+        return snapshot;
+    }
+
+    // Getter和Setter方法
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getDeviceId() { return deviceId; }
+    public void setDeviceId(String deviceId) { this.deviceId = deviceId; }
+
+    public String getDeviceName() { return deviceName; }
+    public void setDeviceName(String deviceName) { this.deviceName = deviceName; }
+
+    public DeviceType getDeviceType() { return deviceType; }
+    public void setDeviceType(DeviceType deviceType) { this.deviceType = deviceType; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public String getUserName() { return userName; }
+    public void setUserName(String userName) { this.userName = userName; }
+
+    public Boolean getDeleted() { return deleted; }
+    public void setDeleted(Boolean deleted) { this.deleted = deleted; }
+
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+}
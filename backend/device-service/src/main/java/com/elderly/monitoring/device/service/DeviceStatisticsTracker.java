@@ -0,0 +1,342 @@
+package main.java.com.elderly.monitoring.device.service;
+
+import main.java.com.elderly.monitoring.device.entity.Device;
+import main.java.com.elderly.monitoring.device.entity.DeviceStatus;
+import main.java.com.elderly.monitoring.device.entity.DeviceType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.UnaryOperator;
+
+/**
+ * 设备统计增量维护
+ *
+ * 内存中保存每个未删除设备的 类型/状态/在线/电量，以及按类型、状态、在线、低电量汇总的计数。
+ * 每次状态变化按新旧状态之差调整计数，查询统计为O(1)。变化在数据库写入提交后才应用，
+ * 与数据库保持相同的先后顺序。
+ *
+ * 定时对账：单次扫描devices表重建模型后整体替换。扫描期间发生的变化先记入日志，
+ * 替换前重放到新模型上；变化均为"设置为某值"，重复应用不影响结果。
+ * 多实例部署时其他实例产生的变化在下次对账后体现。
+ *
+ * @author Elderly Monitoring Team
+ * @version 1.0.0
+ */
+@Component
+public class DeviceStatisticsTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(DeviceStatisticsTracker.class);
+
+    private static final String RECONCILE_SQL =
+            "SELECT device_id, device_type, status, is_online, battery_level FROM devices WHERE deleted = false";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${device.battery.low-threshold:20}")
+    private int lowBatteryThreshold;
+
+    private volatile Model model;
+
+    /**
+     * 对账期间的变化日志，未对账时为null
+     */
+    private volatile Queue<Transition> journal;
+
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+
+    /**
+     * 是否已完成首次加载
+     */
+    public boolean isInitialized() {
+        return model != null;
+    }
+
+    /**
+     * 设备创建或修改
+     */
+    public void onSaved(Device device) {
+        if (Boolean.TRUE.equals(device.getDeleted())) {
+            onDeleted(device.getDeviceId());
+            return;
+        }
+        DeviceState state = new DeviceState(device.getDeviceType(), device.getStatus(),
+                Boolean.TRUE.equals(device.getIsOnline()), device.getBatteryLevel());
+        apply(device.getDeviceId(), previous -> state);
+    }
+
+    /**
+     * 设备删除
+     */
+    public void onDeleted(String deviceId) {
+        apply(deviceId, previous -> null);
+    }
+
+    /**
+     * 手动修改在线状态，与 {@link DeviceService#updateDeviceOnlineStatus} 的写入一致
+     */
+    public void onOnlineStatusChanged(String deviceId, boolean online) {
+        apply(deviceId, previous -> previous == null ? null
+                : previous.with(online ? DeviceStatus.ONLINE : previous.status, online, previous.batteryLevel));
+    }
+
+    /**
+     * 心跳写回，与 HeartbeatTracker 的心跳UPDATE一致
+     */
+    public void onHeartbeat(String deviceId) {
+        apply(deviceId, previous -> previous == null ? null
+                : previous.with(previous.status == DeviceStatus.OFFLINE ? DeviceStatus.ONLINE : previous.status,
+                        true, previous.batteryLevel));
+    }
+
+    /**
+     * 超时离线，与 HeartbeatTracker 的离线UPDATE一致
+     */
+    public void onTimedOut(String deviceId) {
+        apply(deviceId, previous -> previous == null ? null
+                : previous.with(previous.status == DeviceStatus.ONLINE ? DeviceStatus.OFFLINE : previous.status,
+                        false, previous.batteryLevel));
+    }
+
+    /**
+     * 电量变化，与 TelemetryBuffer 中推导低电量状态的CASE表达式一致
+     */
+    public void onBatteryChanged(String deviceId, int batteryLevel) {
+        apply(deviceId, previous -> {
+            if (previous == null) {
+                return null;
+            }
+            DeviceStatus status = previous.status;
+            if (batteryLevel <= lowBatteryThreshold
+                    && (status == DeviceStatus.ONLINE || status == DeviceStatus.OFFLINE)) {
+                status = DeviceStatus.LOW_BATTERY;
+            } else if (batteryLevel > lowBatteryThreshold && status == DeviceStatus.LOW_BATTERY) {
+                status = previous.online ? DeviceStatus.ONLINE : DeviceStatus.OFFLINE;
+            }
+            return previous.with(status, previous.online, batteryLevel);
+        });
+    }
+
+    /**
+     * 获取当前统计
+     *
+     * @return 统计结果，首次加载完成前返回null
+     */
+    public DeviceService.DeviceStatistics snapshot() {
+        Model current = model;
+        if (current == null) {
+            return null;
+        }
+
+        DeviceService.DeviceStatistics statistics = new DeviceService.DeviceStatistics();
+        statistics.setTotalDevices(current.total.get());
+        for (DeviceType type : DeviceType.values()) {
+            statistics.addTypeCount(type, current.typeCounts.get(type.ordinal()));
+        }
+        for (DeviceStatus status : DeviceStatus.values()) {
+            statistics.addStatusCount(status, current.statusCounts.get(status.ordinal()));
+        }
+        statistics.setOnlineCount(current.online.get());
+        statistics.setOfflineCount(current.total.get() - current.online.get());
+        statistics.setLowBatteryLevelCount(current.lowBattery.get());
+        return statistics;
+    }
+
+    /**
+     * 在线且电量不高于阈值的设备ID
+     *
+     * @return 设备ID列表，首次加载完成前返回null
+     */
+    public List<String> lowBatteryOnlineDeviceIds() {
+        Model current = model;
+        if (current == null) {
+            return null;
+        }
+
+        List<String> deviceIds = new ArrayList<>();
+        for (Map.Entry<String, DeviceState> entry : current.states.entrySet()) {
+            if (entry.getValue().online && isLowBattery(entry.getValue())) {
+                deviceIds.add(entry.getKey());
+            }
+        }
+        return deviceIds;
+    }
+
+    /**
+     * 定时对账（启动时执行首次加载）
+     */
+    @Scheduled(fixedDelayString = "${device.statistics.reconcile-interval:600000}")
+    public void reconcile() {
+        long start = System.currentTimeMillis();
+        swapLock.writeLock().lock();
+        try {
+            journal = new ConcurrentLinkedQueue<>();
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+
+        Model rebuilt = new Model();
+        try {
+            jdbcTemplate.query(RECONCILE_SQL, rs -> {
+                String type = rs.getString("device_type");
+                String status = rs.getString("status");
+                Integer battery = rs.getObject("battery_level", Integer.class);
+                DeviceState state = new DeviceState(
+                        type != null ? DeviceType.valueOf(type) : null,
+                        status != null ? DeviceStatus.valueOf(status) : null,
+                        rs.getBoolean("is_online"),
+                        battery);
+                rebuilt.apply(rs.getString("device_id"), previous -> state);
+            });
+        } catch (RuntimeException e) {
+            journal = null;
+            throw e;
+        }
+
+        Model previous = model;
+        swapLock.writeLock().lock();
+        try {
+            Transition transition;
+            while ((transition = journal.poll()) != null) {
+                rebuilt.apply(transition.deviceId, transition.operator);
+            }
+            model = rebuilt;
+            journal = null;
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+
+        if (previous != null && previous.total.get() != rebuilt.total.get()) {
+            log.info("Device statistics reconciled: total {} -> {}", previous.total.get(), rebuilt.total.get());
+        }
+        log.debug("Reconciled statistics for {} devices in {} ms", rebuilt.total.get(), System.currentTimeMillis() - start);
+    }
+
+    private void apply(String deviceId, UnaryOperator<DeviceState> operator) {
+        if (deviceId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // 数据库变更提交后再应用，回滚的变更不计入
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    applyNow(deviceId, operator);
+                }
+            });
+        } else {
+            applyNow(deviceId, operator);
+        }
+    }
+
+    private void applyNow(String deviceId, UnaryOperator<DeviceState> operator) {
+        swapLock.readLock().lock();
+        try {
+            Model current = model;
+            if (current != null) {
+                current.apply(deviceId, operator);
+            }
+            Queue<Transition> pending = journal;
+            if (pending != null) {
+                pending.add(new Transition(deviceId, operator));
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    private boolean isLowBattery(DeviceState state) {
+        return state.batteryLevel != null && state.batteryLevel <= lowBatteryThreshold;
+    }
+
+    /**
+     * 设备状态及汇总计数
+     */
+    private class Model {
+
+        private final Map<String, DeviceState> states = new ConcurrentHashMap<>();
+
+        private final AtomicLongArray typeCounts = new AtomicLongArray(DeviceType.values().length);
+
+        private final AtomicLongArray statusCounts = new AtomicLongArray(DeviceStatus.values().length);
+
+        private final AtomicLong total = new AtomicLong();
+
+        private final AtomicLong online = new AtomicLong();
+
+        private final AtomicLong lowBattery = new AtomicLong();
+
+        void apply(String deviceId, UnaryOperator<DeviceState> operator) {
+            states.compute(deviceId, (key, previous) -> {
+                DeviceState next = operator.apply(previous);
+                count(previous, -1);
+                count(next, 1);
+                return next;
+            });
+        }
+
+        private void count(DeviceState state, int delta) {
+            if (state == null) {
+                return;
+            }
+            total.addAndGet(delta);
+            if (state.type != null) {
+                typeCounts.addAndGet(state.type.ordinal(), delta);
+            }
+            if (state.status != null) {
+                statusCounts.addAndGet(state.status.ordinal(), delta);
+            }
+            if (state.online) {
+                online.addAndGet(delta);
+            }
+            if (isLowBattery(state)) {
+                lowBattery.addAndGet(delta);
+            }
+        }
+    }
+
+    /**
+     * 单个设备参与统计的字段
+     */
+    private static class DeviceState {
+
+        private final DeviceType type;
+
+        private final DeviceStatus status;
+
+        private final boolean online;
+
+        private final Integer batteryLevel;
+
+        DeviceState(DeviceType type, DeviceStatus status, boolean online, Integer batteryLevel) {
+            this.type = type;
+            this.status = status;
+            this.online = online;
+            this.batteryLevel = batteryLevel;
+        }
+
+        DeviceState with(DeviceStatus status, boolean online, Integer batteryLevel) {
+            return new DeviceState(type, status, online, batteryLevel);
+        }
+    }
+
+    private record Transition(String deviceId, UnaryOperator<DeviceState> operator) {
+    }
+}
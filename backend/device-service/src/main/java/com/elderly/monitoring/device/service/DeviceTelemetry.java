@@ -0,0 +1,108 @@
+package main.java.com.elderly.monitoring.device.service;
+
+import main.java.com.elderly.monitoring.ingest.wire.TelemetryFrameReader;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 设备遥测数据
+ *
+ * 设备上报的部分状态增量，未上报的字段为null，不会覆盖数据库中的已有值。
+ * 每次上报同时视为一次心跳。
+ *
+ * @author Elderly Monitoring Team
+ * @version 1.0.0
+ */
+public class DeviceTelemetry {
+
+    /**
+     * 设备ID，批量上报时必填
+     */
+    private String deviceId;
+
+    private Integer batteryLevel;
+
+    private Integer signalStrength;
+
+    private Double latitude;
+
+    private Double longitude;
+
+    private String locationAddress;
+
+    public DeviceTelemetry() {}
+
+    /**
+     * 解码二进制遥测帧（{@link main.java.com.elderly.monitoring.ingest.wire.WireFormat#TELEMETRY_MEDIA_TYPE}）
+     *
+     * @param frame 帧字节
+     * @param deviceId 路径或主题中的设备ID，不为null时覆盖帧内的设备ID
+     * @return 遥测数据列表
+     * @throws IllegalArgumentException 帧格式错误
+     */
+    public static List<DeviceTelemetry> fromFrame(byte[] frame, String deviceId) {
+        TelemetryFrameReader reader = new TelemetryFrameReader(frame);
+        List<DeviceTelemetry> telemetries = new ArrayList<>(reader.count());
+        while (reader.next()) {
+            DeviceTelemetry telemetry = new DeviceTelemetry();
+            telemetry.deviceId = deviceId != null ? deviceId : reader.deviceId();
+            if (reader.hasBatteryLevel()) {
+                telemetry.batteryLevel = reader.batteryLevel();
+            }
+            if (reader.hasSignalStrength()) {
+                telemetry.signalStrength = reader.signalStrength();
+            }
+            if (reader.hasLocation()) {
+                telemetry.latitude = reader.latitude();
+                telemetry.longitude = reader.longitude();
+            }
+            telemetries.add(telemetry);
+        }
+        return telemetries;
+    }
+
+    /**
+     * 校验上报数据
+     *
+     * @return 校验失败的原因，通过返回null
+     */
+    public String validate() {
+        if (batteryLevel != null && (batteryLevel < 0 || batteryLevel > 100)) {
+            return "电量必须在0-100之间";
+        }
+        if ((latitude == null) != (longitude == null)) {
+            return "经纬度必须同时上报";
+        }
+        if (latitude != null && (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180)) {
+            return "经纬度超出范围";
+        }
+        if (locationAddress != null && locationAddress.length() > 255) {
+            return "位置描述不能超过255个字符";
+        }
+        return null;
+    }
+
+    public boolean hasLocation() {
+        return latitude != null && longitude != null;
+    }
+
+    // Getter和Setter方法
+    public String getDeviceId() { return deviceId; }
+    public void setDeviceId(String deviceId) { this.deviceId = deviceId; }
+
+    public Integer getBatteryLevel() { return batteryLevel; }
+    public void setBatteryLevel(Integer batteryLevel) { this.batteryLevel = batteryLevel; }
+
+    public Integer getSignalStrength() { return signalStrength; }
+    public void setSignalStrength(Integer signalStrength) { this.signalStrength = signalStrength; }
+
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+
+    public String getLocationAddress() { return locationAddress; }
+    public void setLocationAddress(String locationAddress) { this.locationAddress = locationAddress; }
+}
@@ -0,0 +1,267 @@
+package main.java.com.elderly.monitoring.device.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * 经纬度网格索引
+ *
+ * 按固定大小的经纬度网格（与定长geohash等价）划分位置，每个网格保存其中的设备。
+ * 更新为O(1)；矩形查询只访问与矩形相交的网格；最近邻查询从目标所在网格按环向外扩展，
+ * 当已找到k个结果且下一环的最近距离超过第k个结果时停止。
+ * 读多写少，使用读写锁保护。
+ *
+ * @author Elderly Monitoring Team
+ * @version 1.0.0
+ */
+public class GeoIndex {
+
+    private static final double EARTH_RADIUS_METERS = 6_371_000d;
+
+    private static final double METERS_PER_DEGREE_LAT = Math.PI * EARTH_RADIUS_METERS / 180d;
+
+    /**
+     * 网格边长（度）
+     */
+    private final double cellDegrees;
+
+    private final int latCells;
+
+    private final int lonCells;
+
+    private final Map<Long, Set<String>> cells = new HashMap<>();
+
+    private final Map<String, GeoPoint> positions = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public GeoIndex(double cellDegrees) {
+        this.cellDegrees = cellDegrees;
+        this.latCells = (int) Math.ceil(180d / cellDegrees);
+        this.lonCells = (int) Math.ceil(360d / cellDegrees);
+    }
+
+    /**
+     * 更新设备位置
+     *
+     * @return 更新前的位置，首次出现返回null
+     */
+    public GeoPoint put(String deviceId, double latitude, double longitude) {
+        GeoPoint point = new GeoPoint(latitude, longitude);
+        long cell = cellOf(latitude, longitude);
+        lock.writeLock().lock();
+        try {
+            GeoPoint previous = positions.put(deviceId, point);
+            if (previous != null) {
+                long previousCell = cellOf(previous.latitude(), previous.longitude());
+                if (previousCell == cell) {
+                    return previous;
+                }
+                removeFromCell(previousCell, deviceId);
+            }
+            cells.computeIfAbsent(cell, key -> new HashSet<>()).add(deviceId);
+            return previous;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String deviceId) {
+        lock.writeLock().lock();
+        try {
+            GeoPoint previous = positions.remove(deviceId);
+            if (previous != null) {
+                removeFromCell(cellOf(previous.latitude(), previous.longitude()), deviceId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public GeoPoint get(String deviceId) {
+        lock.readLock().lock();
+        try {
+            return positions.get(deviceId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return positions.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 查询矩形范围内的设备（不处理跨越180度经线的矩形）
+     */
+    public List<String> within(double minLat, double minLon, double maxLat, double maxLon) {
+        int fromLat = latIndex(minLat);
+        int toLat = latIndex(maxLat);
+        int fromLon = lonIndex(minLon);
+        int toLon = lonIndex(maxLon);
+
+        List<String> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (int latIdx = fromLat; latIdx <= toLat; latIdx++) {
+                for (int lonIdx = fromLon; lonIdx <= toLon; lonIdx++) {
+                    Set<String> members = cells.get(key(latIdx, lonIdx));
+                    if (members == null) {
+                        continue;
+                    }
+                    for (String deviceId : members) {
+                        GeoPoint point = positions.get(deviceId);
+                        if (point.latitude() >= minLat && point.latitude() <= maxLat
+                                && point.longitude() >= minLon && point.longitude() <= maxLon) {
+                            result.add(deviceId);
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    /**
+     * 查询距离目标最近的k个设备
+     *
+     * @param filter 设备过滤条件，可为null
+     * @param maxDistanceMeters 最大距离，不限制传 Double.MAX_VALUE
+     * @return 按距离升序排列的结果
+     */
+    public List<Neighbor> nearest(double latitude, double longitude, int k, double maxDistanceMeters,
+                                  Predicate<String> filter) {
+        if (k <= 0) {
+            return Collections.emptyList();
+        }
+
+        int centerLat = latIndex(latitude);
+        int centerLon = lonIndex(longitude);
+        // 大顶堆，保留当前最近的k个
+        PriorityQueue<Neighbor> best = new PriorityQueue<>((a, b) -> Double.compare(b.distanceMeters(), a.distanceMeters()));
+
+        lock.readLock().lock();
+        try {
+            long cellsVisited = 0;
+            for (int ring = 0; ; ring++) {
+                // 第ring环上的点与目标至少相隔 (ring - 1) 个网格；经向网格宽度随纬度变窄，按该环能到达的最高纬度估算
+                double ringLat = Math.min(90d, Math.abs(latitude) + ring * cellDegrees);
+                double ringDistance = Math.max(0, ring - 1) * cellDegrees * METERS_PER_DEGREE_LAT
+                        * Math.cos(Math.toRadians(ringLat));
+                if (ringDistance > maxDistanceMeters
+                        || (best.size() >= k && ringDistance > best.peek().distanceMeters())) {
+                    break;
+                }
+                long ringCells = ring == 0 ? 1 : 8L * ring;
+                if (cellsVisited + ringCells > positions.size() || ring > Math.max(latCells, lonCells)) {
+                    // 设备稀疏时逐环扩展的代价超过全量扫描，直接扫描全部设备
+                    best.clear();
+                    for (Map.Entry<String, GeoPoint> entry : positions.entrySet()) {
+                        offer(best, k, entry.getKey(), entry.getValue(), latitude, longitude, maxDistanceMeters, filter);
+                    }
+                    break;
+                }
+                cellsVisited += ringCells;
+
+                for (int latIdx = centerLat - ring; latIdx <= centerLat + ring; latIdx++) {
+                    if (latIdx < 0 || latIdx >= latCells) {
+                        continue;
+                    }
+                    boolean edgeRow = latIdx == centerLat - ring || latIdx == centerLat + ring;
+                    int step = edgeRow ? 1 : 2 * ring;
+                    for (int lonIdx = centerLon - ring; lonIdx <= centerLon + ring; lonIdx += step) {
+                        Set<String> members = cells.get(key(latIdx, Math.floorMod(lonIdx, lonCells)));
+                        if (members == null) {
+                            continue;
+                        }
+                        for (String deviceId : members) {
+                            offer(best, k, deviceId, positions.get(deviceId), latitude, longitude, maxDistanceMeters, filter);
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Neighbor> result = new ArrayList<>(best);
+        result.sort((a, b) -> Double.compare(a.distanceMeters(), b.distanceMeters()));
+        return result;
+    }
+
+    private void offer(PriorityQueue<Neighbor> best, int k, String deviceId, GeoPoint point,
+                       double latitude, double longitude, double maxDistanceMeters, Predicate<String> filter) {
+        if (filter != null && !filter.test(deviceId)) {
+            return;
+        }
+        double distance = distanceMeters(latitude, longitude, point.latitude(), point.longitude());
+        if (distance > maxDistanceMeters) {
+            return;
+        }
+        if (best.size() < k) {
+            best.add(new Neighbor(deviceId, distance));
+        } else if (distance < best.peek().distanceMeters()) {
+            best.poll();
+            best.add(new Neighbor(deviceId, distance));
+        }
+    }
+
+    /**
+     * 球面距离（米）
+     */
+    public static double distanceMeters(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1d, Math.sqrt(a)));
+    }
+
+    private void removeFromCell(long cell, String deviceId) {
+        Set<String> members = cells.get(cell);
+        if (members != null) {
+            members.remove(deviceId);
+            if (members.isEmpty()) {
+                cells.remove(cell);
+            }
+        }
+    }
+
+    private long cellOf(double latitude, double longitude) {
+        return key(latIndex(latitude), lonIndex(longitude));
+    }
+
+    private int latIndex(double latitude) {
+        return Math.min(latCells - 1, Math.max(0, (int) Math.floor((latitude + 90d) / cellDegrees)));
+    }
+
+    private int lonIndex(double longitude) {
+        return Math.min(lonCells - 1, Math.max(0, (int) Math.floor((longitude + 180d) / cellDegrees)));
+    }
+
+    private long key(int latIdx, int lonIdx) {
+        return ((long) latIdx << 32) | (lonIdx & 0xffffffffL);
+    }
+
+    public record GeoPoint(double latitude, double longitude) {
+    }
+
+    public record Neighbor(String deviceId, double distanceMeters) {
+    }
+}
@@ -0,0 +1,353 @@
+package main.java.com.elderly.monitoring.device.service;
+
+import main.java.com.elderly.monitoring.device.event.DeviceOfflineEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 设备心跳跟踪器（write-behind）
+ *
+ * 心跳只更新内存中 deviceId -> 最后心跳时间 的映射，由定时任务按批写回数据库，
+ * 每个刷新周期最多执行一次批量UPDATE。
+ *
+ * 心跳超时由 {@link TimingWheel} 检测：设备上线时按 最后心跳 + 超时时间 放入时间轮，
+ * 之后的心跳只更新时间戳；槽位到期时若期间有新心跳则按新的到期时间重新放入，
+ * 否则判定离线。每个刻度内到期的设备合并为一次批量UPDATE，并发布 {@link DeviceOfflineEvent}。
+ * 时间轮中保存的是心跳状态对象本身：停止跟踪后重新出现的设备使用新的状态对象，
+ * 旧状态留在时间轮中的条目到期时与当前状态不一致，直接忽略。
+ *
+ * @author Elderly Monitoring Team
+ * @version 1.0.0
+ */
+@Component
+public class HeartbeatTracker implements InitializingBean, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(HeartbeatTracker.class);
+
+    /**
+     * 心跳写回：刷新最后心跳时间，离线设备恢复为在线
+     */
+    private static final String HEARTBEAT_SQL =
+            "UPDATE devices SET last_heartbeat = ?, is_online = true, " +
+            "status = CASE WHEN status = 'OFFLINE' THEN 'ONLINE' ELSE status END " +
+            "WHERE device_id = ? AND deleted = false";
+
+    /**
+     * 离线写回：仅当数据库中的最后心跳也已超时才置为离线，
+     * 避免多实例部署时覆盖其他实例收到的心跳
+     */
+    private static final String OFFLINE_SQL =
+            "UPDATE devices SET is_online = false, " +
+            "status = CASE WHEN status = 'ONLINE' THEN 'OFFLINE' ELSE status END " +
+            "WHERE device_id = ? AND is_online = true AND (last_heartbeat IS NULL OR last_heartbeat < ?)";
+
+    /**
+     * 兜底清理：本实例未跟踪的设备（如服务重启前在线的设备）按数据库中的心跳时间置为离线
+     */
+    private static final String SWEEP_SQL =
+            "UPDATE devices SET is_online = false, " +
+            "status = CASE WHEN status = 'ONLINE' THEN 'OFFLINE' ELSE status END " +
+            "WHERE is_online = true AND deleted = false AND (last_heartbeat IS NULL OR last_heartbeat < ?) " +
+            "RETURNING device_id";
+
+    @Autowired
+    private DeviceRegistryCache registryCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private DeviceStatisticsTracker statisticsTracker;
+
+    @Value("${device.heartbeat.timeout:90000}")
+    private long heartbeatTimeout;
+
+    @Value("${device.heartbeat.wheel-tick:1000}")
+    private long wheelTick;
+
+    /**
+     * 纳秒时钟与墙上时钟的换算基准
+     */
+    private final long baseNanos = System.nanoTime();
+
+    private final long baseMillis = System.currentTimeMillis();
+
+    /**
+     * deviceId -> 心跳状态
+     */
+    private final Map<String, HeartbeatState> states = new ConcurrentHashMap<>();
+
+    /**
+     * 自上次刷新以来收到心跳的设备
+     */
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+
+    private TimingWheel<HeartbeatState> timingWheel;
+
+    private ScheduledExecutorService wheelExecutor;
+
+    @Override
+    public void afterPropertiesSet() {
+        int wheelSize = (int) (heartbeatTimeout / wheelTick) + 1;
+        timingWheel = new TimingWheel<>(TimeUnit.MILLISECONDS.toNanos(wheelTick), wheelSize, System.nanoTime());
+        wheelExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "heartbeat-timing-wheel");
+            thread.setDaemon(true);
+            return thread;
+        });
+        wheelExecutor.scheduleAtFixedRate(this::onTick, wheelTick, wheelTick, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 记录一次心跳
+     *
+     * @param deviceId 设备ID
+     * @return 设备是否存在
+     */
+    public boolean recordHeartbeat(String deviceId) {
+        HeartbeatState state = states.get(deviceId);
+        if (state == null) {
+            // 首次出现的设备确认存在后再跟踪，之后的心跳不再访问数据库
+            if (registryCache.get(deviceId) == null) {
+                return false;
+            }
+            state = states.computeIfAbsent(deviceId, HeartbeatState::new);
+        }
+
+        long now = System.nanoTime();
+        state.lastSeenNanos = now;
+        if (!state.online || !state.scheduled) {
+            synchronized (state) {
+                state.online = true;
+                if (!state.scheduled) {
+                    // 已在时间轮中的设备只需更新时间戳，到期时再按最新心跳重新安排
+                    state.scheduled = true;
+                    timingWheel.schedule(state, now + timeoutNanos());
+                }
+            }
+        }
+        dirty.add(deviceId);
+        return true;
+    }
+
+    /**
+     * 根据内存中的心跳判断设备是否在线
+     *
+     * @param deviceId 设备ID
+     * @return 在线返回true，离线返回false，本实例未收到过该设备心跳返回null
+     */
+    public Boolean isOnline(String deviceId) {
+        HeartbeatState state = states.get(deviceId);
+        if (state == null) {
+            return null;
+        }
+        return state.online && !isExpired(state, System.nanoTime());
+    }
+
+    /**
+     * 获取最后心跳时间（毫秒时间戳），未跟踪返回null
+     */
+    public Long getLastSeenMillis(String deviceId) {
+        HeartbeatState state = states.get(deviceId);
+        return state != null ? toMillis(state.lastSeenNanos) : null;
+    }
+
+    /**
+     * 停止跟踪设备（设备被手动置为离线或删除时调用）
+     * <p>
+     * 时间轮中的条目不在此处移除，到期时因状态已不是当前状态而被忽略。
+     */
+    public void forget(String deviceId) {
+        states.remove(deviceId);
+        dirty.remove(deviceId);
+    }
+
+    /**
+     * 定时批量写回心跳
+     */
+    @Scheduled(fixedDelayString = "${device.heartbeat.flush-interval:5000}")
+    public void flush() {
+        flushHeartbeats();
+    }
+
+    /**
+     * 定时兜底清理
+     */
+    @Scheduled(initialDelayString = "${device.heartbeat.timeout:90000}",
+            fixedDelayString = "${device.heartbeat.sweep-interval:300000}")
+    public void scheduledSweep() {
+        sweepExpired();
+    }
+
+    /**
+     * 兜底清理数据库中心跳已超时但仍标记为在线的设备
+     *
+     * @return 置为离线的设备ID
+     */
+    public List<String> sweepExpired() {
+        Timestamp threshold = new Timestamp(System.currentTimeMillis() - heartbeatTimeout);
+        List<String> deviceIds = jdbcTemplate.queryForList(SWEEP_SQL, String.class, threshold);
+        if (!deviceIds.isEmpty()) {
+            long now = System.nanoTime();
+            for (String deviceId : deviceIds) {
+                HeartbeatState state = states.get(deviceId);
+                if (state != null && isExpired(state, now)) {
+                    state.online = false;
+                }
+                statisticsTracker.onTimedOut(deviceId);
+            }
+            eventPublisher.publishEvent(new DeviceOfflineEvent(deviceIds, DeviceOfflineEvent.REASON_HEARTBEAT_TIMEOUT));
+            log.info("Swept {} devices offline after heartbeat timeout", deviceIds.size());
+        }
+        return deviceIds;
+    }
+
+    /**
+     * 时间轮刻度处理：到期设备批量置为离线
+     */
+    private void onTick() {
+        try {
+            long now = System.nanoTime();
+            List<HeartbeatState> expired = timingWheel.advance(now);
+            if (expired.isEmpty()) {
+                return;
+            }
+
+            List<String> offline = new ArrayList<>();
+            for (HeartbeatState state : expired) {
+                if (states.get(state.deviceId) != state) {
+                    // 设备已停止跟踪（可能已删除后重新注册），旧条目不再处理
+                    continue;
+                }
+                synchronized (state) {
+                    if (isExpired(state, now)) {
+                        state.online = false;
+                        state.scheduled = false;
+                        offline.add(state.deviceId);
+                    } else {
+                        timingWheel.schedule(state, state.lastSeenNanos + timeoutNanos());
+                    }
+                }
+            }
+            markOffline(offline, now);
+        } catch (Exception e) {
+            log.error("Failed to process heartbeat timeouts", e);
+        }
+    }
+
+    private void flushHeartbeats() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> args = new ArrayList<>();
+        Iterator<String> iterator = dirty.iterator();
+        while (iterator.hasNext()) {
+            String deviceId = iterator.next();
+            iterator.remove();
+            HeartbeatState state = states.get(deviceId);
+            if (state != null) {
+                args.add(new Object[]{new Timestamp(toMillis(state.lastSeenNanos)), deviceId});
+            }
+        }
+
+        int[] updated = jdbcTemplate.batchUpdate(HEARTBEAT_SQL, args);
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] != 0) {
+                statisticsTracker.onHeartbeat((String) args.get(i)[1]);
+            }
+        }
+        log.debug("Flushed {} device heartbeats", args.size());
+    }
+
+    private void markOffline(List<String> deviceIds, long now) {
+        if (deviceIds.isEmpty()) {
+            return;
+        }
+
+        Timestamp threshold = new Timestamp(toMillis(now) - heartbeatTimeout);
+        List<Object[]> args = new ArrayList<>(deviceIds.size());
+        for (String deviceId : deviceIds) {
+            args.add(new Object[]{deviceId, threshold});
+        }
+        int[] updated = jdbcTemplate.batchUpdate(OFFLINE_SQL, args);
+        // 未更新的行已有更新的心跳或本来就是离线状态，不发布离线事件
+        List<String> offline = new ArrayList<>(deviceIds.size());
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] != 0) {
+                offline.add(deviceIds.get(i));
+                statisticsTracker.onTimedOut(deviceIds.get(i));
+            }
+        }
+        if (offline.isEmpty()) {
+            return;
+        }
+
+        eventPublisher.publishEvent(new DeviceOfflineEvent(offline, DeviceOfflineEvent.REASON_HEARTBEAT_TIMEOUT));
+        log.info("Marked {} devices offline after heartbeat timeout", offline.size());
+    }
+
+    private boolean isExpired(HeartbeatState state, long now) {
+        return now - state.lastSeenNanos > timeoutNanos();
+    }
+
+    private long timeoutNanos() {
+        return TimeUnit.MILLISECONDS.toNanos(heartbeatTimeout);
+    }
+
+    private long toMillis(long nanos) {
+        return baseMillis + (nanos - baseNanos) / 1_000_000L;
+    }
+
+    /**
+     * 关闭前写回尚未刷新的心跳
+     */
+    @Override
+    public void destroy() {
+        wheelExecutor.shutdownNow();
+        flushHeartbeats();
+    }
+
+    /**
+     * 单个设备的心跳状态
+     */
+    private static class HeartbeatState {
+
+        private final String deviceId;
+
+        private volatile long lastSeenNanos;
+
+        private volatile boolean online;
+
+        /**
+         * 是否已在时间轮中
+         */
+        private volatile boolean scheduled;
+
+        HeartbeatState(String deviceId) {
+            this.deviceId = deviceId;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package main.java.com.elderly.monitoring.device.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 设备遥测缓冲
+ *
+ * 同一设备在一个刷新周期内的多次上报在内存中合并，只保留每个字段的最新值。
+ * 刷新时按"变更了哪些字段"分组，每组生成一条只更新这些列的UPDATE并批量执行。
+ * 低电量状态在UPDATE中由CASE表达式推导，不需要先读取设备。
+ *
+ * @author Elderly Monitoring Team
+ * @version 1.0.0
+ */
+@Component
+public class TelemetryBuffer implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(TelemetryBuffer.class);
+
+    private static final int BATTERY = 1;
+    private static final int SIGNAL = 1 << 1;
+    private static final int LOCATION = 1 << 2;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DeviceStatisticsTracker statisticsTracker;
+
+    @Value("${device.battery.low-threshold:20}")
+    private int lowBatteryThreshold;
+
+    /**
+     * deviceId -> 待写入的合并增量
+     */
+    private final Map<String, PendingDelta> pending = new ConcurrentHashMap<>();
+
+    /**
+     * 字段组合 -> UPDATE语句
+     */
+    private final Map<Integer, String> statements = new ConcurrentHashMap<>();
+
+    /**
+     * 合并一次上报
+     *
+     * @param deviceId 设备ID
+     * @param telemetry 上报数据
+     */
+    public void merge(String deviceId, DeviceTelemetry telemetry) {
+        if (telemetry.getBatteryLevel() == null && telemetry.getSignalStrength() == null && !telemetry.hasLocation()) {
+            return;
+        }
+        pending.compute(deviceId, (key, delta) -> {
+            PendingDelta merged = delta != null ? delta : new PendingDelta();
+            merged.merge(telemetry);
+            return merged;
+        });
+    }
+
+    /**
+     * 立即写入一次上报（管理端手动修改时使用）
+     *
+     * @param deviceId 设备ID
+     * @param telemetry 上报数据
+     * @return 更新行数
+     */
+    public int writeImmediately(String deviceId, DeviceTelemetry telemetry) {
+        PendingDelta delta = new PendingDelta();
+        delta.merge(telemetry);
+        if (delta.mask == 0) {
+            return 0;
+        }
+        int updated = jdbcTemplate.update(statement(delta.mask), delta.toArgs(deviceId, lowBatteryThreshold));
+        if (updated > 0 && (delta.mask & BATTERY) != 0) {
+            statisticsTracker.onBatteryChanged(deviceId, delta.batteryLevel);
+        }
+        return updated;
+    }
+
+    /**
+     * 定时批量写入
+     */
+    @Scheduled(fixedDelayString = "${device.heartbeat.flush-interval:5000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        Map<Integer, List<Object[]>> batches = new HashMap<>();
+        Map<Integer, List<String>> batchDevices = new HashMap<>();
+        Map<String, Integer> batteryLevels = new HashMap<>();
+        Iterator<String> iterator = pending.keySet().iterator();
+        int count = 0;
+        while (iterator.hasNext()) {
+            String deviceId = iterator.next();
+            PendingDelta delta = pending.remove(deviceId);
+            if (delta == null) {
+                continue;
+            }
+            batches.computeIfAbsent(delta.mask, mask -> new ArrayList<>())
+                    .add(delta.toArgs(deviceId, lowBatteryThreshold));
+            batchDevices.computeIfAbsent(delta.mask, mask -> new ArrayList<>()).add(deviceId);
+            if ((delta.mask & BATTERY) != 0) {
+                batteryLevels.put(deviceId, delta.batteryLevel);
+            }
+            count++;
+        }
+
+        for (Map.Entry<Integer, List<Object[]>> batch : batches.entrySet()) {
+            int[] updated = jdbcTemplate.batchUpdate(statement(batch.getKey()), batch.getValue());
+            if ((batch.getKey() & BATTERY) != 0) {
+                List<String> deviceIds = batchDevices.get(batch.getKey());
+                for (int i = 0; i < updated.length; i++) {
+                    if (updated[i] != 0) {
+                        statisticsTracker.onBatteryChanged(deviceIds.get(i), batteryLevels.get(deviceIds.get(i)));
+                    }
+                }
+            }
+        }
+        log.debug("Flushed telemetry for {} devices in {} batches", count, batches.size());
+    }
+
+    /**
+     * 按字段组合生成UPDATE语句，参数顺序与 {@link PendingDelta#toArgs} 一致
+     */
+    private String statement(int mask) {
+        return statements.computeIfAbsent(mask, key -> {
+            List<String> sets = new ArrayList<>();
+            if ((key & BATTERY) != 0) {
+                sets.add("battery_level = ?");
+                sets.add("status = CASE " +
+                        "WHEN ? <= ? AND status IN ('ONLINE', 'OFFLINE') THEN 'LOW_BATTERY' " +
+                        "WHEN ? > ? AND status = 'LOW_BATTERY' THEN CASE WHEN is_online THEN 'ONLINE' ELSE 'OFFLINE' END " +
+                        "ELSE status END");
+            }
+            if ((key & SIGNAL) != 0) {
+                sets.add("signal_strength = ?");
+            }
+            if ((key & LOCATION) != 0) {
+                sets.add("latitude = ?");
+                sets.add("longitude = ?");
+                sets.add("location_address = COALESCE(?, location_address)");
+            }
+            sets.add("updated_at = CURRENT_TIMESTAMP");
+            return "UPDATE devices SET " + String.join(", ", sets) + " WHERE device_id = ? AND deleted = false";
+        });
+    }
+
+    /**
+     * 关闭前写入尚未刷新的数据
+     */
+    @Override
+    public void destroy() {
+        flush();
+    }
+
+    /**
+     * 单个设备待写入的合并增量
+     */
+    private static class PendingDelta {
+
+        private int mask;
+
+        private Integer batteryLevel;
+
+        private Integer signalStrength;
+
+        private Double latitude;
+
+        private Double longitude;
+
+        private String locationAddress;
+
+        void merge(DeviceTelemetry telemetry) {
+            if (telemetry.getBatteryLevel() != null) {
+                batteryLevel = telemetry.getBatteryLevel();
+                mask |= BATTERY;
+            }
+            if (telemetry.getSignalStrength() != null) {
+                signalStrength = telemetry.getSignalStrength();
+                mask |= SIGNAL;
+            }
+            if (telemetry.hasLocation()) {
+                latitude = telemetry.getLatitude();
+                longitude = telemetry.getLongitude();
+                locationAddress = telemetry.getLocationAddress();
+                mask |= LOCATION;
+            }
+        }
+
+        Object[] toArgs(String deviceId, int lowBatteryThreshold) {
+            List<Object> args = new ArrayList<>(9);
+            if ((mask & BATTERY) != 0) {
+                args.add(batteryLevel);
+                args.add(batteryLevel);
+                args.add(lowBatteryThreshold);
+                args.add(batteryLevel);
+                args.add(lowBatteryThreshold);
+            }
+            if ((mask & SIGNAL) != 0) {
+                args.add(signalStrength);
+            }
+            if ((mask & LOCATION) != 0) {
+                args.add(latitude);
+                args.add(longitude);
+                args.add(locationAddress);
+            }
+            args.add(deviceId);
+            return args.toArray();
+        }
+    }
+}
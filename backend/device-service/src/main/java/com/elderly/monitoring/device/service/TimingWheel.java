@@ -0,0 +1,92 @@
+package main.java.com.elderly.monitoring.device.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 哈希时间轮
+ *
+ * 按固定刻度把到期任务放入环形槽位，插入和到期均为O(1)。超过一圈的到期时间通过
+ * 记录到期刻度、在槽位触发时重新放回实现，因此不限制最大到期时间。
+ * 插入和推进在同一把锁内完成；调用方应保证插入频率远低于推进频率下的处理能力。
+ *
+ * @author Elderly Monitoring Team
+ * @version 1.0.0
+ */
+public class TimingWheel<K> {
+
+    private final long tickNanos;
+
+    private final int mask;
+
+    private final ArrayDeque<Entry<K>>[] buckets;
+
+    private final long startNanos;
+
+    /**
+     * 已处理到的刻度
+     */
+    private long currentTick;
+
+    private int size;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public TimingWheel(long tickNanos, int wheelSize, long startNanos) {
+        int normalizedSize = Integer.highestOneBit(Math.max(wheelSize, 2) - 1) << 1;
+        this.tickNanos = tickNanos;
+        this.mask = normalizedSize - 1;
+        this.buckets = new ArrayDeque[normalizedSize];
+        for (int i = 0; i < normalizedSize; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+        this.startNanos = startNanos;
+    }
+
+    /**
+     * 安排在指定时间到期
+     *
+     * @param key 任务键
+     * @param deadlineNanos 到期时间（System.nanoTime时钟）
+     */
+    public synchronized void schedule(K key, long deadlineNanos) {
+        // 向上取整，保证不会早于到期时间触发
+        long deadlineTick = Math.max(currentTick + 1, (deadlineNanos - startNanos + tickNanos - 1) / tickNanos);
+        buckets[(int) (deadlineTick & mask)].add(new Entry<>(key, deadlineTick));
+        size++;
+    }
+
+    /**
+     * 推进到指定时间，返回期间到期的任务键
+     *
+     * @param nowNanos 当前时间（System.nanoTime时钟）
+     * @return 到期的任务键
+     */
+    public synchronized List<K> advance(long nowNanos) {
+        long targetTick = (nowNanos - startNanos) / tickNanos;
+        List<K> expired = new ArrayList<>();
+        while (currentTick < targetTick) {
+            currentTick++;
+            ArrayDeque<Entry<K>> bucket = buckets[(int) (currentTick & mask)];
+            int pending = bucket.size();
+            for (int i = 0; i < pending; i++) {
+                Entry<K> entry = bucket.poll();
+                if (entry.deadlineTick <= currentTick) {
+                    expired.add(entry.key);
+                    size--;
+                } else {
+                    // 未满一圈，留到下一圈
+                    bucket.add(entry);
+                }
+            }
+        }
+        return expired;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private record Entry<K>(K key, long deadlineTick) {
+    }
+}
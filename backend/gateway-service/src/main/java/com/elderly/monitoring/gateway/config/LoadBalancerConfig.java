@@ -0,0 +1,19 @@
+package main.java.com.elderly.monitoring.gateway.config;
+
+import main.java.com.elderly.monitoring.gateway.loadbalancer.PeakEwmaLoadBalancerConfiguration;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 负载均衡配置类
+ *
+ * <p>所有 {@code lb://} 路由默认使用 peak-EWMA 负载均衡，
+ * 可通过 {@code gateway.load-balancer.strategy} 切回轮询。</p>
+ *
+ * @author System
+ * @since 1.0.0
+ */
+@Configuration
+@LoadBalancerClients(defaultConfiguration = PeakEwmaLoadBalancerConfiguration.class)
+public class LoadBalancerConfig {
+}
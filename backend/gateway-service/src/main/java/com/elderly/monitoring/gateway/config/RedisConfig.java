@@ -129,6 +129,9 @@ public class RedisConfig {
 
     /**
      * 滑动窗口计数脚本
+     *
+     * <p>ARGV[4] 为本次请求的唯一标识，避免同一毫秒内的请求在有序集合中相互覆盖。
+     * 返回0表示拒绝，否则返回计入本次请求后窗口内的请求数。</p>
      */
     @Bean
     public RedisScript<Long> slidingWindowCounterScript() {
@@ -137,6 +140,7 @@ public class RedisConfig {
                 local windowSize = tonumber(ARGV[1])
                 local limit = tonumber(ARGV[2])
                 local currentTime = tonumber(ARGV[3])
+                local member = ARGV[4]
                 
                 -- 移除过期的记录
                 redis.call('ZREMRANGEBYSCORE', key, 0, currentTime - windowSize * 1000)
@@ -146,18 +150,63 @@ public class RedisConfig {
                 
                 if count < limit then
                     -- 添加当前请求
-                    redis.call('ZADD', key, currentTime, currentTime)
+                    redis.call('ZADD', key, currentTime, member)
                     -- 设置过期时间
                     redis.call('EXPIRE', key, windowSize + 1)
                     return count + 1
                 else
-                    return count
+                    return 0
+                end
+                """;
+        
+        return RedisScript.of(script, Long.class);
+    }
+
+    /**
+     * 并发租约获取脚本
+     *
+     * <p>有序集合中每个成员代表一个进行中的请求，分值为获取时间；超过租约时间的成员
+     * 视为网关实例异常退出后遗留的租约并被清理。返回0表示拒绝，否则返回当前并发数。</p>
+     */
+    @Bean
+    public RedisScript<Long> concurrencyAcquireScript() {
+        String script = """
+                local key = KEYS[1]
+                local limit = tonumber(ARGV[1])
+                local leaseId = ARGV[2]
+                local currentTime = tonumber(ARGV[3])
+                local leaseTimeout = tonumber(ARGV[4])
+                
+                -- 清理过期租约
+                redis.call('ZREMRANGEBYSCORE', key, 0, currentTime - leaseTimeout)
+                
+                local count = redis.call('ZCARD', key)
+                if count < limit then
+                    redis.call('ZADD', key, currentTime, leaseId)
+                    redis.call('PEXPIRE', key, leaseTimeout)
+                    return count + 1
+                else
+                    return 0
                 end
                 """;
         
         return RedisScript.of(script, Long.class);
     }
 
+    /**
+     * 并发租约释放脚本
+     */
+    @Bean
+    public RedisScript<Long> concurrencyReleaseScript() {
+        String script = """
+                local key = KEYS[1]
+                local leaseId = ARGV[1]
+                return redis.call('ZREM', key, leaseId)
+                """;
+        
+        return RedisScript.of(script, Long.class);
+    }
+
     /**
      * 分布式锁脚本
      */
@@ -0,0 +1,41 @@
+package main.java.com.elderly.monitoring.gateway.config;
+
+import main.java.com.elderly.monitoring.gateway.filter.RoutePooledNettyRoutingFilter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.config.HttpClientSslConfigurer;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.http.client.HttpClient;
+
+import java.util.List;
+
+/**
+ * 上游HttpClient配置类
+ *
+ * <p>默认的 NettyRoutingFilter 已通过
+ * {@code spring.cloud.gateway.global-filter.netty-routing.enabled=false} 关闭，由此处注册的
+ * {@link RoutePooledNettyRoutingFilter} 代替。</p>
+ *
+ * @author System
+ * @since 1.0.0
+ */
+@Configuration
+public class UpstreamHttpClientConfig {
+
+    @Bean
+    public RoutePooledNettyRoutingFilter routePooledNettyRoutingFilter(
+            HttpClient httpClient,
+            ObjectProvider<List<HttpHeadersFilter>> headersFilters,
+            HttpClientProperties properties,
+            ServerProperties serverProperties,
+            HttpClientSslConfigurer sslConfigurer,
+            ObjectProvider<HttpClientCustomizer> customizers,
+            UpstreamPoolProperties upstreamPoolProperties) {
+        return new RoutePooledNettyRoutingFilter(httpClient, headersFilters, properties, serverProperties,
+                sslConfigurer, customizers.orderedStream().toList(), upstreamPoolProperties);
+    }
+}
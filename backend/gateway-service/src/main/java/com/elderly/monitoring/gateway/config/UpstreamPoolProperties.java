@@ -0,0 +1,79 @@
+package main.java.com.elderly.monitoring.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import reactor.netty.http.HttpProtocol;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 上游连接池配置
+ *
+ * <p>按路由ID配置独立的连接池；未配置的路由使用
+ * {@code spring.cloud.gateway.httpclient.pool} 定义的全局连接池。</p>
+ *
+ * @author System
+ * @since 1.0.0
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.upstream")
+public class UpstreamPoolProperties {
+
+    /**
+     * 路由ID -> 连接池配置
+     */
+    private Map<String, RoutePool> routes = new HashMap<>();
+
+    /**
+     * 单个路由的连接池配置
+     */
+    @Data
+    public static class RoutePool {
+
+        /**
+         * 最大连接数
+         */
+        private int maxConnections = 200;
+
+        /**
+         * 等待获取连接的最大排队数
+         */
+        private int pendingAcquireMaxCount = 1000;
+
+        /**
+         * 等待获取连接的超时时间
+         */
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(3);
+
+        /**
+         * 连接最大空闲时间，应小于下游的keep-alive超时，避免复用已被对端关闭的连接
+         */
+        private Duration maxIdleTime = Duration.ofSeconds(15);
+
+        /**
+         * 连接最大存活时间
+         */
+        private Duration maxLifeTime = Duration.ofMinutes(5);
+
+        /**
+         * 后台清理空闲连接的间隔
+         */
+        private Duration evictionInterval = Duration.ofSeconds(10);
+
+        /**
+         * 上游协议，如 HTTP11、H2C
+         */
+        private List<HttpProtocol> protocols = new ArrayList<>(List.of(HttpProtocol.HTTP11));
+
+        /**
+         * 是否为该路由开启gzip压缩协商，关闭时沿用全局 spring.cloud.gateway.httpclient.compression
+         */
+        private boolean compression = false;
+    }
+}
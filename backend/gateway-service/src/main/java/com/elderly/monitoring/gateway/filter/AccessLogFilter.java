@@ -0,0 +1,72 @@
+package main.java.com.elderly.monitoring.gateway.filter;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+/**
+ * 访问日志过滤器
+ *
+ * <p>最先执行，在请求结束时把结构化记录交给 {@link AccessLogWriter}。其他过滤器通过
+ * {@link #OUTCOME_ATTR} 和 {@link #USER_ID_ATTR} 标记处理结果和用户，不再各自打印调试日志。</p>
+ *
+ * @author System
+ * @since 1.0.0
+ */
+@Component
+public class AccessLogFilter implements GlobalFilter, Ordered {
+
+    /**
+     * 处理结果，如 public、unauthorized、forbidden、rate_limited
+     */
+    public static final String OUTCOME_ATTR = AccessLogFilter.class.getName() + ".outcome";
+
+    /**
+     * 认证通过的用户ID
+     */
+    public static final String USER_ID_ATTR = AccessLogFilter.class.getName() + ".userId";
+
+    @Autowired
+    private AccessLogWriter accessLogWriter;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long startMillis = System.currentTimeMillis();
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> accessLogWriter.submit(buildEntry(exchange, startMillis, start)));
+    }
+
+    private AccessLogWriter.AccessLogEntry buildEntry(ServerWebExchange exchange, long startMillis, long start) {
+        ServerHttpRequest request = exchange.getRequest();
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+
+        return new AccessLogWriter.AccessLogEntry(
+                startMillis,
+                request.getMethod().name(),
+                request.getURI().getRawPath(),
+                status != null ? status.value() : 0,
+                (System.nanoTime() - start) / 1_000_000,
+                route != null ? route.getId() : null,
+                exchange.getAttribute(USER_ID_ATTR),
+                remoteAddress != null ? remoteAddress.getHostString() : null,
+                exchange.getAttribute(OUTCOME_ATTR));
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE; // 记录包括认证、限流在内的完整耗时
+    }
+}
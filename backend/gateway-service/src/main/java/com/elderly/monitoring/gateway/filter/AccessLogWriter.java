@@ -0,0 +1,210 @@
+package main.java.com.elderly.monitoring.gateway.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 异步批量访问日志
+ *
+ * <p>请求线程只把 {@link AccessLogEntry} 放入有界环形队列，不做任何字符串拼接；
+ * 后台线程按批取出、格式化为JSON行并写入按天切分的日志文件。队列满时丢弃新记录并计数，
+ * 不阻塞网关的事件循环线程。</p>
+ *
+ * @author System
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class AccessLogWriter implements InitializingBean, DisposableBean {
+
+    @Value("${gateway.access-log.enabled:true}")
+    private boolean enabled;
+
+    @Value("${gateway.access-log.directory:logs}")
+    private String directory;
+
+    @Value("${gateway.access-log.buffer-size:8192}")
+    private int bufferSize;
+
+    @Value("${gateway.access-log.batch-size:512}")
+    private int batchSize;
+
+    @Value("${gateway.access-log.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private static final String FILE_PREFIX = "gateway-access-";
+
+    private BlockingQueue<AccessLogEntry> queue;
+
+    private Counter droppedCounter;
+
+    private Thread worker;
+
+    private volatile boolean running;
+
+    private Writer writer;
+
+    private LocalDate currentDate;
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!enabled) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(bufferSize);
+        droppedCounter = meterRegistry.counter("gateway.access_log.dropped");
+        running = true;
+        worker = new Thread(this::run, "gateway-access-log");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * 提交一条访问记录，队列已满时直接丢弃
+     */
+    public void submit(AccessLogEntry entry) {
+        if (queue != null && !queue.offer(entry)) {
+            droppedCounter.increment();
+        }
+    }
+
+    private void run() {
+        List<AccessLogEntry> batch = new ArrayList<>(batchSize);
+        StringBuilder line = new StringBuilder(256);
+        while (running || !queue.isEmpty()) {
+            try {
+                AccessLogEntry first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                writeBatch(batch, line);
+            } catch (InterruptedException e) {
+                // 关闭时被中断，继续写完队列中剩余的记录
+                running = false;
+            } catch (Exception e) {
+                log.error("Failed to write access log batch of {} entries", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+        closeWriter();
+    }
+
+    private void writeBatch(List<AccessLogEntry> batch, StringBuilder line) throws IOException {
+        Writer out = currentWriter();
+        for (AccessLogEntry entry : batch) {
+            line.setLength(0);
+            entry.appendJson(line);
+            line.append('\n');
+            out.append(line);
+        }
+        out.flush();
+    }
+
+    /**
+     * 按天切分日志文件
+     */
+    private Writer currentWriter() throws IOException {
+        LocalDate today = LocalDate.now(ZoneId.systemDefault());
+        if (writer == null || !today.equals(currentDate)) {
+            closeWriter();
+            Path dir = Paths.get(directory);
+            Files.createDirectories(dir);
+            writer = Files.newBufferedWriter(dir.resolve(FILE_PREFIX + today + ".log"), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            currentDate = today;
+        }
+        return writer;
+    }
+
+    private void closeWriter() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                log.warn("Failed to close access log file: {}", e.getMessage());
+            }
+            writer = null;
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        if (worker != null) {
+            running = false;
+            worker.interrupt();
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    /**
+     * 单条访问记录
+     */
+    public record AccessLogEntry(long timestamp, String method, String path, int status, long durationMs,
+                                 String routeId, String userId, String clientIp, String outcome) {
+
+        void appendJson(StringBuilder sb) {
+            sb.append("{\"time\":\"").append(Instant.ofEpochMilli(timestamp)).append('"');
+            sb.append(",\"method\":\"").append(method).append('"');
+            sb.append(",\"path\":");
+            appendString(sb, path);
+            sb.append(",\"status\":").append(status);
+            sb.append(",\"durationMs\":").append(durationMs);
+            sb.append(",\"route\":");
+            appendString(sb, routeId);
+            sb.append(",\"userId\":");
+            appendString(sb, userId);
+            sb.append(",\"clientIp\":");
+            appendString(sb, clientIp);
+            sb.append(",\"outcome\":");
+            appendString(sb, outcome);
+            sb.append('}');
+        }
+
+        private static void appendString(StringBuilder sb, String value) {
+            if (value == null) {
+                sb.append("null");
+                return;
+            }
+            sb.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"' || c == '\\') {
+                    sb.append('\\').append(c);
+                } else if (c < 0x20) {
+                    sb.append(' ');
+                } else {
+                    sb.append(c);
+                }
+            }
+            sb.append('"');
+        }
+    }
+}
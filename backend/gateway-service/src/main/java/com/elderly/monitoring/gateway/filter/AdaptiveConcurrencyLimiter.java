@@ -0,0 +1,122 @@
+package main.java.com.elderly.monitoring.gateway.filter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 自适应并发限制器（AIMD）
+ *
+ * <p>以一段时间内的最小耗时作为下游空载耗时的估计，平滑耗时超过其 tolerance 倍
+ * 或请求失败时，并发上限按 backoffRatio 乘性下降；耗时正常且上限已被用到一半以上时，
+ * 并发上限加一。上限始终位于 [minLimit, maxLimit] 区间内。</p>
+ *
+ * <p>限制器仅在单个网关实例内生效。</p>
+ *
+ * @author System
+ * @since 1.0.0
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    /**
+     * 平滑耗时的权重
+     */
+    private static final double SMOOTHING = 0.2;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final double tolerance;
+
+    private final double backoffRatio;
+
+    private final long minRttWindowNanos;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double limit;
+
+    private long minRttNanos;
+
+    private long minRttResetAt;
+
+    private double smoothedRttNanos;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+                                      double tolerance, double backoffRatio, long minRttWindowNanos) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.backoffRatio = backoffRatio;
+        this.minRttWindowNanos = minRttWindowNanos;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * 尝试占用一个并发名额
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 请求完成，释放名额并根据耗时调整上限
+     *
+     * @param rttNanos 请求耗时
+     * @param dropped  请求是否失败（超时、5xx等）
+     */
+    public void onComplete(long rttNanos, boolean dropped) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        update(rttNanos, dropped, inFlightAtCompletion);
+    }
+
+    /**
+     * 请求被取消，只释放名额，不作为耗时样本
+     */
+    public void onIgnore() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void update(long rttNanos, boolean dropped, int inFlightAtCompletion) {
+        if (dropped) {
+            decrease();
+            return;
+        }
+
+        long now = System.nanoTime();
+        if (minRttNanos == 0 || now - minRttResetAt > minRttWindowNanos) {
+            // 定期重置基线，使其能跟随下游的正常波动
+            minRttResetAt = now;
+            minRttNanos = rttNanos;
+            smoothedRttNanos = rttNanos;
+        } else {
+            minRttNanos = Math.min(minRttNanos, rttNanos);
+            smoothedRttNanos = smoothedRttNanos * (1 - SMOOTHING) + rttNanos * SMOOTHING;
+        }
+
+        if (smoothedRttNanos > minRttNanos * tolerance) {
+            decrease();
+        } else if (inFlightAtCompletion * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1);
+        }
+    }
+
+    private void decrease() {
+        limit = Math.max(minLimit, limit * backoffRatio);
+    }
+}
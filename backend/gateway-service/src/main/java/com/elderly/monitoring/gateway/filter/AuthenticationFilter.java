@@ -4,16 +4,14 @@ import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
 import org.springframework.core.Ordered;
-import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.server.reactive.ServerHttpRequest;
-import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.server.ServerWebExchange;
@@ -45,6 +43,9 @@ public class AuthenticationFilter implements GlobalFilter, Ordered {
     @Value("${gateway.security.super-admin-paths}")
     private List<String> superAdminPaths;
 
+    @Autowired
+    private ErrorResponseTemplates errorResponses;
+
     private static final String BEARER_PREFIX = "Bearer ";
     private static final String USER_ID_HEADER = "X-User-Id";
     private static final String USER_ROLE_HEADER = "X-User-Role";
@@ -55,11 +56,9 @@ public class AuthenticationFilter implements GlobalFilter, Ordered {
         ServerHttpRequest request = exchange.getRequest();
         String path = request.getURI().getPath();
 
-        log.debug("Processing request: {} {}", request.getMethod(), path);
-
         // 检查是否为公开路径
         if (isPublicPath(path)) {
-            log.debug("Public path access allowed: {}", path);
+            exchange.getAttributes().put(AccessLogFilter.OUTCOME_ATTR, "public");
             return chain.filter(exchange);
         }
 
@@ -67,7 +66,7 @@ public class AuthenticationFilter implements GlobalFilter, Ordered {
         String authHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
         
         if (!StringUtils.hasText(authHeader) || !authHeader.startsWith(BEARER_PREFIX)) {
-            log.warn("Missing or invalid authorization header for path: {}", path);
+            exchange.getAttributes().put(AccessLogFilter.OUTCOME_ATTR, "missing_token");
             return handleUnauthorized(exchange, "缺少有效的认证令牌");
         }
 
@@ -77,10 +76,11 @@ public class AuthenticationFilter implements GlobalFilter, Ordered {
             // 验证JWT令牌
             Claims claims = validateToken(token);
             
+            exchange.getAttributes().put(AccessLogFilter.USER_ID_ATTR, claims.getSubject());
+
             // 检查权限
             if (!hasRequiredRole(path, claims)) {
-                log.warn("Insufficient permissions for user {} on path: {}", 
-                        claims.getSubject(), path);
+                exchange.getAttributes().put(AccessLogFilter.OUTCOME_ATTR, "forbidden");
                 return handleForbidden(exchange, "权限不足");
             }
 
@@ -91,11 +91,11 @@ public class AuthenticationFilter implements GlobalFilter, Ordered {
                     .header(USER_NAME_HEADER, claims.get("username", String.class))
                     .build();
 
-            log.debug("Authentication successful for user: {}", claims.getSubject());
             return chain.filter(exchange.mutate().request(modifiedRequest).build());
 
         } catch (Exception e) {
-            log.error("Token validation failed for path: {}", path, e);
+            // 无效令牌可能来自恶意请求，只记录到访问日志，避免大量异常堆栈
+            exchange.getAttributes().put(AccessLogFilter.OUTCOME_ATTR, "invalid_token");
             return handleUnauthorized(exchange, "认证令牌无效或已过期");
         }
     }
@@ -170,42 +170,14 @@ public class AuthenticationFilter implements GlobalFilter, Ordered {
      * 处理未授权请求
      */
     private Mono<Void> handleUnauthorized(ServerWebExchange exchange, String message) {
-        ServerHttpResponse response = exchange.getResponse();
-        response.setStatusCode(HttpStatus.UNAUTHORIZED);
-        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
-
-        String body = String.format("""
-                {
-                    "success": false,
-                    "code": 401,
-                    "message": "%s",
-                    "timestamp": "%s"
-                }
-                """, message, java.time.Instant.now().toString());
-
-        DataBuffer buffer = response.bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8));
-        return response.writeWith(Mono.just(buffer));
+        return errorResponses.write(exchange, HttpStatus.UNAUTHORIZED, message);
     }
 
     /**
      * 处理禁止访问请求
      */
     private Mono<Void> handleForbidden(ServerWebExchange exchange, String message) {
-        ServerHttpResponse response = exchange.getResponse();
-        response.setStatusCode(HttpStatus.FORBIDDEN);
-        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
-
-        String body = String.format("""
-                {
-                    "success": false,
-                    "code": 403,
-                    "message": "%s",
-                    "timestamp": "%s"
-                }
-                """, message, java.time.Instant.now().toString());
-
-        DataBuffer buffer = response.bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8));
-        return response.writeWith(Mono.just(buffer));
+        return errorResponses.write(exchange, HttpStatus.FORBIDDEN, message);
     }
 
     @Override
@@ -0,0 +1,58 @@
+package main.java.com.elderly.monitoring.gateway.filter;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.RetryGatewayFilterFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 带重试预算的重试过滤器工厂
+ *
+ * <p>参数与内置 {@code Retry} 过滤器一致，在其基础上由 {@link RetryBudget}
+ * 限制每个路由的重试比例。使用方式：{@code - name: BudgetedRetry}。</p>
+ *
+ * @author System
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class BudgetedRetryGatewayFilterFactory extends RetryGatewayFilterFactory {
+
+    @Autowired
+    private RetryBudget retryBudget;
+
+    @Override
+    public GatewayFilter apply(RetryConfig retryConfig) {
+        GatewayFilter delegate = super.apply(retryConfig);
+        String routeId = retryConfig.getRouteId();
+
+        return (exchange, chain) -> {
+            retryBudget.recordRequest(routeId);
+            // 内置过滤器每次重试都重新订阅下游链，第一次之后的订阅即为重试，此时消耗预算
+            AtomicBoolean firstAttempt = new AtomicBoolean(true);
+            return delegate.filter(exchange, attempt -> Mono.defer(() -> {
+                if (!firstAttempt.compareAndSet(true, false)) {
+                    retryBudget.recordRetry(routeId);
+                }
+                return chain.filter(attempt);
+            }));
+        };
+    }
+
+    @Override
+    public boolean exceedsMaxIterations(ServerWebExchange exchange, RetryConfig retryConfig) {
+        if (super.exceedsMaxIterations(exchange, retryConfig)) {
+            return true;
+        }
+        if (!retryBudget.canRetry(retryConfig.getRouteId())) {
+            log.debug("Retry budget exhausted for route: {}", retryConfig.getRouteId());
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,226 @@
+package main.java.com.elderly.monitoring.gateway.filter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 并发限流过滤器
+ *
+ * <p>导出、报表等请求的开销取决于执行时长而非请求频率，令牌桶无法约束同时进行的数量。
+ * 对配置的路径：</p>
+ * <ul>
+ *     <li>每个用户同时进行的请求数不超过 per-user-max-in-flight（Redis租约，跨网关实例生效）；</li>
+ *     <li>每个路径在本实例上的并发数由 {@link AdaptiveConcurrencyLimiter} 控制，下游耗时上升时自动收紧。</li>
+ * </ul>
+ *
+ * @author System
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class ConcurrencyLimitFilter implements GlobalFilter, Ordered {
+
+    @Value("${gateway.concurrency-limit.enabled:false}")
+    private boolean enabled;
+
+    @Value("${gateway.concurrency-limit.paths:}")
+    private List<String> limitedPaths;
+
+    @Value("${gateway.concurrency-limit.per-user-max-in-flight:2}")
+    private int perUserMaxInFlight;
+
+    @Value("${gateway.concurrency-limit.lease-timeout:10m}")
+    private Duration leaseTimeout;
+
+    @Value("${gateway.concurrency-limit.adaptive.initial-limit:10}")
+    private int initialLimit;
+
+    @Value("${gateway.concurrency-limit.adaptive.min-limit:2}")
+    private int minLimit;
+
+    @Value("${gateway.concurrency-limit.adaptive.max-limit:40}")
+    private int maxLimit;
+
+    @Value("${gateway.concurrency-limit.adaptive.latency-tolerance:2.0}")
+    private double latencyTolerance;
+
+    @Value("${gateway.concurrency-limit.adaptive.backoff-ratio:0.9}")
+    private double backoffRatio;
+
+    @Value("${gateway.concurrency-limit.adaptive.min-rtt-window:5m}")
+    private Duration minRttWindow;
+
+    @Autowired
+    private ReactiveRedisTemplate<String, String> redisTemplate;
+
+    @Autowired
+    private RedisScript<Long> concurrencyAcquireScript;
+
+    @Autowired
+    private RedisScript<Long> concurrencyReleaseScript;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ErrorResponseTemplates errorResponses;
+
+    private static final String CONCURRENCY_PREFIX = "concurrency:";
+    private static final String REJECTED_METRIC = "gateway.concurrency.rejected";
+
+    /**
+     * 路径模式 -> 自适应限制器
+     */
+    private final Map<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!enabled) {
+            return chain.filter(exchange);
+        }
+
+        ServerHttpRequest request = exchange.getRequest();
+        String pattern = findPattern(request.getURI().getPath());
+        if (pattern == null) {
+            return chain.filter(exchange);
+        }
+
+        String userId = request.getHeaders().getFirst("X-User-Id");
+        String userKey = CONCURRENCY_PREFIX + pattern + ":user:" + (userId != null ? userId : "anonymous");
+        String leaseId = request.getId();
+
+        return acquireUserLease(userKey, leaseId)
+                .flatMap(acquired -> {
+                    if (!acquired) {
+                        exchange.getAttributes().put(AccessLogFilter.OUTCOME_ATTR, "concurrency_limited");
+                        meterRegistry.counter(REJECTED_METRIC, "path", pattern, "reason", "user").increment();
+                        return handleLimitExceeded(exchange, HttpStatus.TOO_MANY_REQUESTS,
+                                "已有进行中的任务，请等待完成后再试", 10);
+                    }
+
+                    AdaptiveConcurrencyLimiter limiter = getLimiter(pattern);
+                    if (!limiter.tryAcquire()) {
+                        releaseUserLease(userKey, leaseId);
+                        exchange.getAttributes().put(AccessLogFilter.OUTCOME_ATTR, "overloaded");
+                        meterRegistry.counter(REJECTED_METRIC, "path", pattern, "reason", "global").increment();
+                        return handleLimitExceeded(exchange, HttpStatus.SERVICE_UNAVAILABLE,
+                                "系统繁忙，请稍后再试", 30);
+                    }
+
+                    long start = System.nanoTime();
+                    return chain.filter(exchange)
+                            .doFinally(signal -> {
+                                releaseUserLease(userKey, leaseId);
+                                if (signal == SignalType.CANCEL) {
+                                    limiter.onIgnore();
+                                } else {
+                                    limiter.onComplete(System.nanoTime() - start, isDropped(exchange, signal));
+                                }
+                            });
+                });
+    }
+
+    /**
+     * 获取用户并发租约，Redis不可用时放行
+     */
+    private Mono<Boolean> acquireUserLease(String key, String leaseId) {
+        List<String> args = Arrays.asList(
+                String.valueOf(perUserMaxInFlight),
+                leaseId,
+                String.valueOf(System.currentTimeMillis()),
+                String.valueOf(leaseTimeout.toMillis())
+        );
+
+        return redisTemplate.execute(concurrencyAcquireScript, List.of(key), args)
+                .next()
+                .map(count -> count > 0) // 0表示拒绝
+                .defaultIfEmpty(true)
+                .onErrorResume(e -> {
+                    log.warn("Failed to acquire concurrency lease {}: {}", key, e.getMessage());
+                    return Mono.just(true);
+                });
+    }
+
+    /**
+     * 释放用户并发租约；释放失败时由租约超时兜底
+     */
+    private void releaseUserLease(String key, String leaseId) {
+        redisTemplate.execute(concurrencyReleaseScript, List.of(key), List.of(leaseId))
+                .subscribe(null, e -> log.warn("Failed to release concurrency lease {}: {}", key, e.getMessage()));
+    }
+
+    /**
+     * 请求是否视为失败（异常或5xx）
+     */
+    private boolean isDropped(ServerWebExchange exchange, SignalType signal) {
+        if (signal == SignalType.ON_ERROR) {
+            return true;
+        }
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        return status != null && status.is5xxServerError();
+    }
+
+    private String findPattern(String path) {
+        for (String pattern : limitedPaths) {
+            if (pathMatches(pattern, path)) {
+                return pattern;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 路径匹配，规则与认证过滤器一致
+     */
+    private boolean pathMatches(String pattern, String path) {
+        if (pattern.endsWith("/**")) {
+            return path.startsWith(pattern.substring(0, pattern.length() - 3));
+        }
+        return pattern.equals(path);
+    }
+
+    private AdaptiveConcurrencyLimiter getLimiter(String pattern) {
+        return limiters.computeIfAbsent(pattern, key -> {
+            AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit,
+                    latencyTolerance, backoffRatio, minRttWindow.toNanos());
+            Tags tags = Tags.of("path", key);
+            meterRegistry.gauge("gateway.concurrency.limit", tags, limiter, AdaptiveConcurrencyLimiter::getLimit);
+            meterRegistry.gauge("gateway.concurrency.in_flight", tags, limiter, AdaptiveConcurrencyLimiter::getInFlight);
+            return limiter;
+        });
+    }
+
+    /**
+     * 处理并发超限
+     */
+    private Mono<Void> handleLimitExceeded(ServerWebExchange exchange, HttpStatus status,
+                                           String message, int retryAfter) {
+        return errorResponses.write(exchange, status, message, retryAfter);
+    }
+
+    @Override
+    public int getOrder() {
+        return -45; // 在限流过滤器之后执行
+    }
+}
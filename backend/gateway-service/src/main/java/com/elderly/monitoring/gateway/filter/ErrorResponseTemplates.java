@@ -0,0 +1,146 @@
+package main.java.com.elderly.monitoring.gateway.filter;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 预编码的错误响应模板
+ *
+ * <p>401/403/429/503 等拒绝响应的消息是固定的，响应体按 (状态码, 消息, retryAfter) 只编码一次，
+ * 保存在不可释放的直接内存中；时间戳精确到秒，每秒最多编码一次。写出时以复合缓冲区
+ * 引用这些共享内容，不再进行格式化、字符编码和内存拷贝。</p>
+ *
+ * @author System
+ * @since 1.0.0
+ */
+@Component
+public class ErrorResponseTemplates {
+
+    /**
+     * 模板缓存：状态码|消息|retryAfter -> 模板
+     */
+    private final Map<String, Template> templates = new ConcurrentHashMap<>();
+
+    private volatile Timestamp timestamp = new Timestamp(Instant.now().getEpochSecond());
+
+    /**
+     * 写出错误响应
+     */
+    public Mono<Void> write(ServerWebExchange exchange, HttpStatus status, String message) {
+        return write(exchange, status, message, 0);
+    }
+
+    /**
+     * 写出错误响应，retryAfter大于0时同时设置Retry-After响应头和响应体字段
+     */
+    public Mono<Void> write(ServerWebExchange exchange, HttpStatus status, String message, int retryAfter) {
+        Template template = templates.computeIfAbsent(status.value() + "|" + message + "|" + retryAfter,
+                key -> new Template(status, message, retryAfter));
+        Timestamp now = currentTimestamp();
+
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().setContentLength(template.length() + now.bytes.length);
+        if (retryAfter > 0) {
+            response.getHeaders().set("Retry-After", template.retryAfterValue);
+        }
+
+        return response.writeWith(Mono.just(template.toDataBuffer(response.bufferFactory(), now)));
+    }
+
+    /**
+     * 获取精确到秒的时间戳，跨秒时重新编码
+     */
+    private Timestamp currentTimestamp() {
+        long epochSecond = Instant.now().getEpochSecond();
+        Timestamp current = timestamp;
+        if (current.epochSecond != epochSecond) {
+            current = new Timestamp(epochSecond);
+            timestamp = current;
+        }
+        return current;
+    }
+
+    /**
+     * 创建不可释放的共享直接缓冲区，写出时通过 duplicate 共享内容
+     */
+    private static ByteBuf sharedBuffer(byte[] bytes) {
+        return Unpooled.unreleasableBuffer(Unpooled.directBuffer(bytes.length).writeBytes(bytes)).asReadOnly();
+    }
+
+    /**
+     * 单个错误响应模板：时间戳之前和之后的部分
+     */
+    private static class Template {
+
+        private final byte[] prefix;
+
+        private final byte[] suffix;
+
+        private final ByteBuf prefixBuffer;
+
+        private final ByteBuf suffixBuffer;
+
+        private final String retryAfterValue;
+
+        Template(HttpStatus status, String message, int retryAfter) {
+            String head = "{\"success\":false,\"code\":" + status.value()
+                    + ",\"message\":\"" + message + "\",\"timestamp\":\"";
+            String tail = retryAfter > 0 ? "\",\"retryAfter\":" + retryAfter + "}" : "\"}";
+            this.prefix = head.getBytes(StandardCharsets.UTF_8);
+            this.suffix = tail.getBytes(StandardCharsets.UTF_8);
+            this.prefixBuffer = sharedBuffer(prefix);
+            this.suffixBuffer = sharedBuffer(suffix);
+            this.retryAfterValue = String.valueOf(retryAfter);
+        }
+
+        int length() {
+            return prefix.length + suffix.length;
+        }
+
+        DataBuffer toDataBuffer(DataBufferFactory bufferFactory, Timestamp timestamp) {
+            if (bufferFactory instanceof NettyDataBufferFactory nettyFactory) {
+                return nettyFactory.wrap(Unpooled.wrappedBuffer(
+                        prefixBuffer.duplicate(), timestamp.buffer.duplicate(), suffixBuffer.duplicate()));
+            }
+            byte[] body = new byte[prefix.length + timestamp.bytes.length + suffix.length];
+            System.arraycopy(prefix, 0, body, 0, prefix.length);
+            System.arraycopy(timestamp.bytes, 0, body, prefix.length, timestamp.bytes.length);
+            System.arraycopy(suffix, 0, body, prefix.length + timestamp.bytes.length, suffix.length);
+            return bufferFactory.wrap(body);
+        }
+    }
+
+    /**
+     * 精确到秒的已编码时间戳
+     */
+    private static class Timestamp {
+
+        private final long epochSecond;
+
+        private final byte[] bytes;
+
+        private final ByteBuf buffer;
+
+        Timestamp(long epochSecond) {
+            this.epochSecond = epochSecond;
+            this.bytes = Instant.ofEpochSecond(epochSecond).toString().getBytes(StandardCharsets.UTF_8);
+            this.buffer = Unpooled.unreleasableBuffer(Unpooled.wrappedBuffer(bytes)).asReadOnly();
+        }
+    }
+}
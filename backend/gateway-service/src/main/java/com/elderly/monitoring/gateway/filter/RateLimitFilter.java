@@ -2,21 +2,18 @@ package main.java.com.elderly.monitoring.gateway.filter;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
 import org.springframework.core.Ordered;
-import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.server.reactive.ServerHttpRequest;
-import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
@@ -37,6 +34,24 @@ public class RateLimitFilter implements GlobalFilter, Ordered {
     @Autowired
     private RedisScript<List<Long>> rateLimitScript;
 
+    @Autowired
+    private RedisScript<Long> slidingWindowCounterScript;
+
+    @Autowired
+    private ErrorResponseTemplates errorResponses;
+
+    @Value("${gateway.rate-limit.export.window-seconds:60}")
+    private int exportWindowSeconds;
+
+    @Value("${gateway.rate-limit.export.window-limit:5}")
+    private int exportWindowLimit;
+
+    @Value("${gateway.rate-limit.health-report.window-seconds:60}")
+    private int healthReportWindowSeconds;
+
+    @Value("${gateway.rate-limit.health-report.window-limit:10}")
+    private int healthReportWindowLimit;
+
     private static final String RATE_LIMIT_PREFIX = "rate_limit:";
     private static final String BLACKLIST_PREFIX = "blacklist:";
 
@@ -47,33 +62,35 @@ public class RateLimitFilter implements GlobalFilter, Ordered {
         String clientIp = getClientIp(request);
         String userId = getUserId(request);
 
-        log.debug("Rate limit check for path: {}, IP: {}, User: {}", path, clientIp, userId);
+        Mono<Boolean> userBlacklisted = userId != null ? isUserBlacklisted(userId) : Mono.just(false);
 
-        // 检查IP黑名单
-        if (isIpBlacklisted(clientIp)) {
-            log.warn("Blacklisted IP access attempt: {}", clientIp);
-            return handleRateLimitExceeded(exchange, "IP地址已被限制访问");
-        }
-
-        // 检查用户黑名单
-        if (userId != null && isUserBlacklisted(userId)) {
-            log.warn("Blacklisted user access attempt: {}", userId);
-            return handleRateLimitExceeded(exchange, "用户账户已被限制访问");
-        }
+        return Mono.zip(isIpBlacklisted(clientIp), userBlacklisted)
+                .flatMap(blacklisted -> {
+                    // 检查IP黑名单
+                    if (blacklisted.getT1()) {
+                        exchange.getAttributes().put(AccessLogFilter.OUTCOME_ATTR, "blacklisted_ip");
+                        return handleRateLimitExceeded(exchange, "IP地址已被限制访问");
+                    }
 
-        // 获取限流配置
-        RateLimitConfig config = getRateLimitConfig(path);
-        
-        // 执行限流检查
-        return checkRateLimit(clientIp, userId, config)
-                .flatMap(allowed -> {
-                    if (allowed) {
-                        return chain.filter(exchange);
-                    } else {
-                        log.warn("Rate limit exceeded for IP: {}, User: {}, Path: {}", 
-                                clientIp, userId, path);
-                        return handleRateLimitExceeded(exchange, "请求频率过高，请稍后再试");
+                    // 检查用户黑名单
+                    if (blacklisted.getT2()) {
+                        exchange.getAttributes().put(AccessLogFilter.OUTCOME_ATTR, "blacklisted_user");
+                        return handleRateLimitExceeded(exchange, "用户账户已被限制访问");
                     }
+
+                    // 获取限流配置
+                    RateLimitConfig config = getRateLimitConfig(path);
+
+                    // 执行限流检查
+                    return checkRateLimit(clientIp, userId, config, request.getId())
+                            .flatMap(allowed -> {
+                                if (allowed) {
+                                    return chain.filter(exchange);
+                                } else {
+                                    exchange.getAttributes().put(AccessLogFilter.OUTCOME_ATTR, "rate_limited");
+                                    return handleRateLimitExceeded(exchange, "请求频率过高，请稍后再试");
+                                }
+                            });
                 });
     }
 
@@ -96,8 +113,12 @@ public class RateLimitFilter implements GlobalFilter, Ordered {
     /**
      * 执行限流检查
      */
-    private Mono<Boolean> checkRateLimit(String clientIp, String userId, RateLimitConfig config) {
+    private Mono<Boolean> checkRateLimit(String clientIp, String userId, RateLimitConfig config, String requestId) {
         String key = buildRateLimitKey(clientIp, userId, config);
+
+        if (config.getAlgorithm() == Algorithm.SLIDING_WINDOW) {
+            return checkSlidingWindow(key, config, requestId);
+        }
         
         // 使用Redis Lua脚本执行原子限流操作
         List<String> keys = Arrays.asList(key);
@@ -116,6 +137,25 @@ public class RateLimitFilter implements GlobalFilter, Ordered {
                 .defaultIfEmpty(true);
     }
 
+    /**
+     * 执行滑动窗口限流检查
+     */
+    private Mono<Boolean> checkSlidingWindow(String key, RateLimitConfig config, String requestId) {
+        long now = System.currentTimeMillis();
+        List<String> keys = Arrays.asList(key);
+        List<String> args = Arrays.asList(
+                String.valueOf(config.getWindowSeconds()),
+                String.valueOf(config.getWindowLimit()),
+                String.valueOf(now),
+                now + ":" + requestId
+        );
+
+        return redisTemplate.execute(slidingWindowCounterScript, keys, args)
+                .next()
+                .map(count -> count > 0) // 0表示拒绝
+                .defaultIfEmpty(true);
+    }
+
     /**
      * 构建限流键
      */
@@ -187,11 +227,21 @@ public class RateLimitFilter implements GlobalFilter, Ordered {
                     .burstCapacity(60)
                     .keyType(KeyType.USER)
                     .build();
-        } else if (path.startsWith("/api/history/export/")) {
+        } else if (path.startsWith("/api/history/export")) {
+            // 导出请求稀疏但昂贵，按滑动窗口计数，避免令牌桶在空闲后一次性放行突发
             return RateLimitConfig.builder()
                     .path("/api/history/export/**")
-                    .replenishRate(2)
-                    .burstCapacity(5)
+                    .algorithm(Algorithm.SLIDING_WINDOW)
+                    .windowSeconds(exportWindowSeconds)
+                    .windowLimit(exportWindowLimit)
+                    .keyType(KeyType.USER)
+                    .build();
+        } else if (path.startsWith("/api/history/health-report")) {
+            return RateLimitConfig.builder()
+                    .path("/api/history/health-report")
+                    .algorithm(Algorithm.SLIDING_WINDOW)
+                    .windowSeconds(healthReportWindowSeconds)
+                    .windowLimit(healthReportWindowLimit)
                     .keyType(KeyType.USER)
                     .build();
         } else {
@@ -208,23 +258,7 @@ public class RateLimitFilter implements GlobalFilter, Ordered {
      * 处理限流超出
      */
     private Mono<Void> handleRateLimitExceeded(ServerWebExchange exchange, String message) {
-        ServerHttpResponse response = exchange.getResponse();
-        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
-        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
-        response.getHeaders().set("Retry-After", "60");
-
-        String body = String.format("""
-                {
-                    "success": false,
-                    "code": 429,
-                    "message": "%s",
-                    "timestamp": "%s",
-                    "retryAfter": 60
-                }
-                """, message, java.time.Instant.now().toString());
-
-        DataBuffer buffer = response.bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8));
-        return response.writeWith(Mono.just(buffer));
+        return errorResponses.write(exchange, HttpStatus.TOO_MANY_REQUESTS, message, 60);
     }
 
     @Override
@@ -241,12 +275,24 @@ public class RateLimitFilter implements GlobalFilter, Ordered {
     @lombok.NoArgsConstructor
     public static class RateLimitConfig {
         private String path;
+        @lombok.Builder.Default
+        private Algorithm algorithm = Algorithm.TOKEN_BUCKET;
         private int replenishRate;
         private int burstCapacity;
+        private int windowSeconds;
+        private int windowLimit;
         private KeyType keyType;
         private Duration timeout = Duration.ofSeconds(5);
     }
 
+    /**
+     * 限流算法
+     */
+    public enum Algorithm {
+        TOKEN_BUCKET,   // 令牌桶，按 replenishRate/burstCapacity 限流
+        SLIDING_WINDOW  // 滑动窗口，windowSeconds 内最多 windowLimit 个请求
+    }
+
     /**
      * 限流键类型
      */
@@ -0,0 +1,202 @@
+package main.java.com.elderly.monitoring.gateway.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 请求合并过滤器（single-flight）
+ *
+ * <p>对开启合并的路由，相同的并发GET请求只向下游发起一次调用，
+ * 其余请求等待并共享该次调用的响应状态、响应头和响应体。</p>
+ *
+ * <p>合并键总是包含认证过滤器写入的用户ID，只有同一用户的相同请求才会合并，
+ * 按用户返回数据的接口不会把一个用户的响应交给另一个用户。</p>
+ *
+ * @author System
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class RequestCoalescingFilter implements GlobalFilter, Ordered {
+
+    @Value("${gateway.coalescing.enabled:false}")
+    private boolean enabled;
+
+    @Value("${gateway.coalescing.routes:}")
+    private List<String> coalescingRoutes;
+
+    @Value("${gateway.coalescing.vary-headers:}")
+    private List<String> varyHeaders;
+
+    @Value("${gateway.coalescing.max-body-size:1048576}")
+    private int maxBodySize;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private static final String METRIC_NAME = "gateway.coalescing.requests";
+
+    /**
+     * 认证过滤器写入的用户ID请求头，始终参与合并键
+     */
+    private static final String USER_ID_HEADER = "X-User-Id";
+
+    /**
+     * 进行中的请求：合并键 -> 共享响应
+     */
+    private final Map<String, Sinks.One<CachedResponse>> inFlight = new ConcurrentHashMap<>();
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!enabled || request.getMethod() != HttpMethod.GET) {
+            return chain.filter(exchange);
+        }
+
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (route == null || !coalescingRoutes.contains(route.getId())) {
+            return chain.filter(exchange);
+        }
+
+        String key = buildCoalescingKey(request);
+        Sinks.One<CachedResponse> sink = Sinks.one();
+        Sinks.One<CachedResponse> existing = inFlight.putIfAbsent(key, sink);
+
+        if (existing != null) {
+            coalescedCounter(route.getId()).increment();
+            log.debug("Coalesced request joined in-flight call: {}", key);
+            return existing.asMono()
+                    .flatMap(cached -> writeCachedResponse(exchange, cached))
+                    // 首个请求失败或响应不可共享时，自行请求下游
+                    .switchIfEmpty(Mono.defer(() -> chain.filter(exchange)))
+                    .onErrorResume(e -> chain.filter(exchange));
+        }
+
+        leaderCounter(route.getId()).increment();
+        ServerHttpResponse recordingResponse = new RecordingResponse(exchange.getResponse(), sink);
+
+        return chain.filter(exchange.mutate().response(recordingResponse).build())
+                .doFinally(signal -> {
+                    inFlight.remove(key, sink);
+                    // 未写出响应体（如异常或取消）时，通知等待者自行请求
+                    sink.tryEmitEmpty();
+                });
+    }
+
+    /**
+     * 构建合并键：用户 + 路径 + 查询参数 + 区分响应的请求头
+     */
+    private String buildCoalescingKey(ServerHttpRequest request) {
+        StringBuilder keyBuilder = new StringBuilder()
+                .append(request.getHeaders().getFirst(USER_ID_HEADER)).append('|')
+                .append(request.getURI().getRawPath());
+        String query = request.getURI().getRawQuery();
+        if (query != null) {
+            keyBuilder.append('?').append(query);
+        }
+        for (String header : varyHeaders) {
+            keyBuilder.append('|').append(header).append('=')
+                    .append(request.getHeaders().getFirst(header));
+        }
+        return keyBuilder.toString();
+    }
+
+    /**
+     * 将共享响应写回当前请求
+     */
+    private Mono<Void> writeCachedResponse(ServerWebExchange exchange, CachedResponse cached) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(cached.status());
+        response.getHeaders().putAll(cached.headers());
+
+        // 包装共享字节数组，不做额外拷贝
+        DataBuffer buffer = response.bufferFactory().wrap(cached.body());
+        return response.writeWith(Mono.just(buffer));
+    }
+
+    private Counter leaderCounter(String routeId) {
+        return meterRegistry.counter(METRIC_NAME, "route", routeId, "result", "upstream");
+    }
+
+    private Counter coalescedCounter(String routeId) {
+        return meterRegistry.counter(METRIC_NAME, "route", routeId, "result", "coalesced");
+    }
+
+    @Override
+    public int getOrder() {
+        return -20; // 在认证和限流之后、响应写出之前执行
+    }
+
+    /**
+     * 记录首个请求响应的装饰器
+     */
+    private class RecordingResponse extends ServerHttpResponseDecorator {
+
+        private final Sinks.One<CachedResponse> sink;
+
+        RecordingResponse(ServerHttpResponse delegate, Sinks.One<CachedResponse> sink) {
+            super(delegate);
+            this.sink = sink;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return DataBufferUtils.join(Flux.from(body))
+                    .flatMap(joined -> {
+                        byte[] bytes = new byte[joined.readableByteCount()];
+                        joined.read(bytes);
+                        DataBufferUtils.release(joined);
+
+                        HttpStatusCode status = getStatusCode();
+                        if (bytes.length <= maxBodySize && status != null && status.is2xxSuccessful()) {
+                            HttpHeaders headers = new HttpHeaders();
+                            headers.putAll(getDelegate().getHeaders());
+                            sink.tryEmitValue(new CachedResponse(status, headers, bytes));
+                        } else {
+                            sink.tryEmitEmpty();
+                        }
+                        return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                    })
+                    .switchIfEmpty(Mono.defer(() -> super.writeWith(Flux.empty())));
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            // 流式响应不参与合并
+            sink.tryEmitEmpty();
+            return super.writeAndFlushWith(body);
+        }
+    }
+
+    /**
+     * 共享的下游响应
+     */
+    private record CachedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+    }
+}
@@ -0,0 +1,102 @@
+package main.java.com.elderly.monitoring.gateway.filter;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 重试预算
+ *
+ * <p>每个路由维护一个令牌余额：每个请求存入 ratio 个令牌，每次重试消耗 1 个令牌；
+ * 余额不足时仅允许每秒少量保底重试。下游整体故障时重试流量最多放大 ratio 倍，
+ * 不会形成重试风暴。</p>
+ *
+ * @author System
+ * @since 1.0.0
+ */
+@Component
+public class RetryBudget {
+
+    @Value("${gateway.retry.budget.ratio:0.2}")
+    private double ratio;
+
+    @Value("${gateway.retry.budget.min-retries-per-second:5}")
+    private int minRetriesPerSecond;
+
+    @Value("${gateway.retry.budget.max-balance:100}")
+    private int maxBalance;
+
+    /**
+     * 令牌以千分之一为单位存储，避免浮点累加
+     */
+    private static final long SCALE = 1000;
+
+    private final Map<String, Budget> budgets = new ConcurrentHashMap<>();
+
+    /**
+     * 记录一次原始请求
+     */
+    public void recordRequest(String routeId) {
+        Budget budget = getBudget(routeId);
+        long deposit = (long) (ratio * SCALE);
+        long cap = maxBalance * SCALE;
+        budget.balance.accumulateAndGet(deposit, (current, add) -> Math.min(cap, current + add));
+    }
+
+    /**
+     * 当前是否还有重试预算（只检查，不消耗）
+     */
+    public boolean canRetry(String routeId) {
+        Budget budget = getBudget(routeId);
+        return budget.balance.get() >= SCALE || budget.reserveAvailable(minRetriesPerSecond);
+    }
+
+    /**
+     * 记录一次实际发生的重试，消耗预算
+     */
+    public void recordRetry(String routeId) {
+        Budget budget = getBudget(routeId);
+        long remaining = budget.balance.addAndGet(-SCALE);
+        if (remaining < 0) {
+            // 余额不足，改用每秒保底额度
+            budget.balance.addAndGet(SCALE);
+            budget.consumeReserve();
+        }
+    }
+
+    private Budget getBudget(String routeId) {
+        return budgets.computeIfAbsent(routeId != null ? routeId : "default", key -> new Budget());
+    }
+
+    /**
+     * 单个路由的预算状态
+     */
+    private static class Budget {
+
+        private final AtomicLong balance = new AtomicLong();
+        private final AtomicLong reserveSecond = new AtomicLong();
+        private final AtomicInteger reserveUsed = new AtomicInteger();
+
+        boolean reserveAvailable(int perSecond) {
+            rollReserve();
+            return reserveUsed.get() < perSecond;
+        }
+
+        void consumeReserve() {
+            rollReserve();
+            reserveUsed.incrementAndGet();
+        }
+
+        private void rollReserve() {
+            long second = System.currentTimeMillis() / 1000;
+            long previous = reserveSecond.get();
+            if (previous != second && reserveSecond.compareAndSet(previous, second)) {
+                reserveUsed.set(0);
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package main.java.com.elderly.monitoring.gateway.filter;
+
+import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import main.java.com.elderly.monitoring.gateway.config.UpstreamPoolProperties;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.config.HttpClientFactory;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.config.HttpClientSslConfigurer;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.RouteMetadataUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按路由使用独立连接池的路由过滤器
+ *
+ * <p>替换默认的 {@link NettyRoutingFilter}：在 {@code gateway.upstream.routes} 中配置过的路由
+ * 使用各自的连接池和协议（如h2c），其余路由沿用全局HttpClient。路由的HttpClient与全局HttpClient
+ * 经由同一个 {@link HttpClientFactory} 创建，只替换连接池，超时、代理、SSL、响应解码、压缩和
+ * {@link HttpClientCustomizer} 等 {@code spring.cloud.gateway.httpclient} 配置保持一致；
+ * 压缩默认沿用全局设置，可按路由单独开启。
+ * 连接池开启了指标，可在 /actuator/prometheus 中查看
+ * {@code reactor_netty_connection_provider_*}。</p>
+ *
+ * @author System
+ * @since 1.0.0
+ */
+@Slf4j
+public class RoutePooledNettyRoutingFilter extends NettyRoutingFilter implements DisposableBean {
+
+    private static final String POOL_NAME_PREFIX = "gateway-";
+
+    private final HttpClientProperties properties;
+
+    private final ServerProperties serverProperties;
+
+    private final HttpClientSslConfigurer sslConfigurer;
+
+    private final List<HttpClientCustomizer> customizers;
+
+    private final UpstreamPoolProperties upstreamPoolProperties;
+
+    private final Map<String, HttpClient> routeClients = new ConcurrentHashMap<>();
+
+    private final Map<String, ConnectionProvider> routeProviders = new ConcurrentHashMap<>();
+
+    public RoutePooledNettyRoutingFilter(HttpClient httpClient,
+                                         ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider,
+                                         HttpClientProperties properties,
+                                         ServerProperties serverProperties,
+                                         HttpClientSslConfigurer sslConfigurer,
+                                         List<HttpClientCustomizer> customizers,
+                                         UpstreamPoolProperties upstreamPoolProperties) {
+        super(httpClient, headersFiltersProvider, properties);
+        this.properties = properties;
+        this.serverProperties = serverProperties;
+        this.sslConfigurer = sslConfigurer;
+        this.customizers = customizers;
+        this.upstreamPoolProperties = upstreamPoolProperties;
+    }
+
+    @Override
+    protected HttpClient getHttpClient(Route route, ServerWebExchange exchange) {
+        UpstreamPoolProperties.RoutePool pool = upstreamPoolProperties.getRoutes().get(route.getId());
+        if (pool == null) {
+            return super.getHttpClient(route, exchange);
+        }
+
+        HttpClient client = routeClients.computeIfAbsent(route.getId(), routeId -> createHttpClient(routeId, pool));
+
+        // 与默认实现一致，支持路由元数据中的connect-timeout
+        Object connectTimeout = route.getMetadata().get(RouteMetadataUtils.CONNECT_TIMEOUT_ATTR);
+        if (connectTimeout != null) {
+            client = client.option(ChannelOption.CONNECT_TIMEOUT_MILLIS,
+                    Integer.parseInt(connectTimeout.toString()));
+        }
+        return client;
+    }
+
+    /**
+     * 为路由创建独立连接池的HttpClient
+     */
+    private HttpClient createHttpClient(String routeId, UpstreamPoolProperties.RoutePool pool) {
+        ConnectionProvider provider = ConnectionProvider.builder(POOL_NAME_PREFIX + routeId)
+                .maxConnections(pool.getMaxConnections())
+                .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .maxLifeTime(pool.getMaxLifeTime())
+                .evictInBackground(pool.getEvictionInterval())
+                .metrics(true)
+                .build();
+        routeProviders.put(routeId, provider);
+
+        HttpClient client = new RouteHttpClientFactory(properties, serverProperties, sslConfigurer, customizers, provider)
+                .createClient()
+                .protocol(pool.getProtocols().toArray(new HttpProtocol[0]));
+        if (pool.isCompression()) {
+            client = client.compress(true);
+        }
+
+        log.info("Created upstream connection pool for route {}: maxConnections={}, protocols={}",
+                routeId, pool.getMaxConnections(), pool.getProtocols());
+        return client;
+    }
+
+    @Override
+    public void destroy() {
+        routeProviders.values().forEach(ConnectionProvider::dispose);
+        routeProviders.clear();
+        routeClients.clear();
+    }
+
+    /**
+     * 使用路由连接池的HttpClientFactory，其余配置与全局HttpClient相同
+     */
+    private static final class RouteHttpClientFactory extends HttpClientFactory {
+
+        private final ConnectionProvider provider;
+
+        RouteHttpClientFactory(HttpClientProperties properties, ServerProperties serverProperties,
+                               HttpClientSslConfigurer sslConfigurer, List<HttpClientCustomizer> customizers,
+                               ConnectionProvider provider) {
+            super(properties, serverProperties, sslConfigurer, customizers);
+            this.provider = provider;
+        }
+
+        HttpClient createClient() {
+            return createInstance();
+        }
+
+        @Override
+        protected ConnectionProvider buildConnectionProvider(HttpClientProperties properties) {
+            return provider;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package main.java.com.elderly.monitoring.gateway.loadbalancer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.client.loadbalancer.TimedRequestContext;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 服务实例负载跟踪器
+ *
+ * <p>挂接在负载均衡生命周期上，记录每个实例的在途请求数和响应耗时的 peak-EWMA，
+ * 供 {@link PeakEwmaLoadBalancer} 选择实例。</p>
+ *
+ * <p>负载均衡过滤器只在请求成功或出错时回调 {@code onComplete}，客户端断开导致的取消不会回调；
+ * 因此同时作为全局过滤器包在负载均衡过滤器外层，请求结束（含取消）时释放在途计数。
+ * 每次选择实例登记一个租约，两处以租约保证只释放一次。</p>
+ *
+ * @author System
+ * @since 1.0.0
+ */
+@Component
+public class InstanceLoadTracker implements LoadBalancerLifecycle<RequestDataContext, ResponseData, ServiceInstance>,
+        GlobalFilter, Ordered {
+
+    @Value("${gateway.load-balancer.ewma-decay:10s}")
+    private Duration decay;
+
+    private final Map<String, InstanceLoad> loads = new ConcurrentHashMap<>();
+
+    /**
+     * 在途请求的租约，按负载均衡结果对象的身份区分
+     */
+    private final Map<Lease, InstanceLoad> leases = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return RequestDataContext.class.isAssignableFrom(requestContextClass)
+                && ResponseData.class.isAssignableFrom(responseClass)
+                && ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<RequestDataContext> request) {
+        // 选择实例前无需处理
+    }
+
+    @Override
+    public void onStartRequest(Request<RequestDataContext> request, Response<ServiceInstance> lbResponse) {
+        if (!lbResponse.hasServer()) {
+            return;
+        }
+        RequestDataContext context = request.getContext();
+        if (context != null && context.getRequestStartTime() == 0) {
+            context.setRequestStartTime(System.nanoTime());
+        }
+        InstanceLoad load = getLoad(lbResponse.getServer());
+        load.outstanding.incrementAndGet();
+        leases.put(new Lease(lbResponse), load);
+    }
+
+    @Override
+    public void onComplete(CompletionContext<ResponseData, ServiceInstance, RequestDataContext> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if (lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+
+        release(lbResponse);
+        InstanceLoad load = getLoad(lbResponse.getServer());
+
+        Object context = completionContext.getLoadBalancerRequest().getContext();
+        if (context instanceof TimedRequestContext timedContext && timedContext.getRequestStartTime() > 0) {
+            long rtt = System.nanoTime() - timedContext.getRequestStartTime();
+            // 失败的请求按超时惩罚，使出错实例迅速降低权重
+            if (completionContext.status() == CompletionContext.Status.FAILED) {
+                rtt = Math.max(rtt, TimeUnit.SECONDS.toNanos(1));
+            }
+            load.observe(rtt, decay.toNanos());
+        }
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        return chain.filter(exchange).doFinally(signal ->
+                release(exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR)));
+    }
+
+    @Override
+    public int getOrder() {
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER - 1;
+    }
+
+    /**
+     * 释放一次实例选择的在途计数，重复释放时忽略
+     */
+    private void release(Response<ServiceInstance> lbResponse) {
+        if (lbResponse == null) {
+            return;
+        }
+        InstanceLoad load = leases.remove(new Lease(lbResponse));
+        if (load != null) {
+            load.outstanding.decrementAndGet();
+        }
+    }
+
+    /**
+     * 计算实例负载得分，得分越低越优先
+     */
+    public double score(ServiceInstance instance) {
+        return getLoad(instance).score();
+    }
+
+    private InstanceLoad getLoad(ServiceInstance instance) {
+        return loads.computeIfAbsent(instanceKey(instance), key -> new InstanceLoad());
+    }
+
+    private String instanceKey(ServiceInstance instance) {
+        return instance.getServiceId() + "@" + instance.getHost() + ":" + instance.getPort();
+    }
+
+    /**
+     * 以对象身份比较的负载均衡结果（DefaultResponse 按实例比较，同一实例的并发请求会相等）
+     */
+    private record Lease(Response<ServiceInstance> response) {
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Lease lease && lease.response == response;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(response);
+        }
+    }
+
+    /**
+     * 单个实例的负载状态
+     */
+    private static class InstanceLoad {
+
+        /**
+         * 新实例尚无耗时样本时的惩罚值（纳秒）
+         */
+        private static final double UNSEEN_PENALTY = TimeUnit.MILLISECONDS.toNanos(50);
+
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private double cost;
+        private long stamp = System.nanoTime();
+
+        /**
+         * 记录一次耗时：高于当前值时立即跟随（peak），否则按时间衰减的EWMA回落
+         */
+        synchronized void observe(long rttNanos, long decayNanos) {
+            long now = System.nanoTime();
+            long elapsed = Math.max(now - stamp, 0);
+            stamp = now;
+
+            if (rttNanos > cost) {
+                cost = rttNanos;
+            } else {
+                double weight = Math.exp(-(double) elapsed / decayNanos);
+                cost = cost * weight + rttNanos * (1 - weight);
+            }
+        }
+
+        synchronized double score() {
+            int inFlight = Math.max(outstanding.get(), 0);
+            if (cost == 0) {
+                return inFlight == 0 ? 0 : UNSEEN_PENALTY + inFlight;
+            }
+            return cost * (inFlight + 1);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.elderly.monitoring.monitoring.controller;
 
 import com.elderly.monitoring.monitoring.entity.MonitoringData;
 import com.elderly.monitoring.monitoring.service.MonitoringService;
+import main.java.com.elderly.monitoring.ingest.wire.WireFormat;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -75,6 +76,41 @@ public class MonitoringController {
         }
     }
 
+    /**
+     * 上传监控数据（二进制读数帧，帧头需包含设备ID）
+     */
+    @PostMapping(value = "/data", consumes = WireFormat.READINGS_MEDIA_TYPE)
+    public ResponseEntity<?> uploadMonitoringDataFrame(@RequestBody byte[] frame) {
+        List<MonitoringData> readings;
+        try {
+            readings = monitoringService.decodeReadingFrame(frame, null);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "code", 400,
+                "message", "读数帧格式错误: " + e.getMessage()
+            ));
+        }
+
+        try {
+            if (!readings.isEmpty()) {
+                monitoringService.saveMonitoringDataBatch(readings);
+                for (MonitoringData reading : readings) {
+                    messagingTemplate.convertAndSend("/topic/monitoring", reading);
+                }
+            }
+            return ResponseEntity.ok(Map.of(
+                "code", 200,
+                "data", readings.size(),
+                "message", "数据上传成功"
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "code", 400,
+                "message", "数据上传失败: " + e.getMessage()
+            ));
+        }
+    }
+
     /**
      * 获取最新监控数据
      */
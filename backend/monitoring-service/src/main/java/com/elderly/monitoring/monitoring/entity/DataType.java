@@ -3,6 +3,8 @@ package main.java.com.elderly.monitoring.monitoring.entity;
 /**
  * 监控数据类型枚举
  * 
+ * 二进制读数帧按序号传输数据类型，新增类型只能追加在末尾，不能调整已有顺序
+ * 
  * @author Elderly Monitoring Team
  * @version 1.0.0
  */
@@ -0,0 +1,123 @@
+package main.java.com.elderly.monitoring.monitoring.ingest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import main.java.com.elderly.monitoring.ingest.IngestHandler;
+import main.java.com.elderly.monitoring.ingest.IngestMessage;
+import main.java.com.elderly.monitoring.ingest.wire.WireFormat;
+import main.java.com.elderly.monitoring.monitoring.entity.MonitoringData;
+import main.java.com.elderly.monitoring.monitoring.service.MonitoringService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 监测读数MQTT接入
+ *
+ * 处理 devices/{deviceId}/readings，消息体为二进制读数帧，或JSON格式的一条读数或读数数组
+ * （字段与 POST /api/monitoring/data 的请求体相同），按首字节区分。
+ * 整批一次写入数据库后逐条推送到 /topic/monitoring。
+ * 字段超出列长度的读数直接跳过，不让一条读数导致整批写入失败。
+ *
+ * @author Elderly Monitoring Team
+ * @version 1.0.0
+ */
+@Component
+public class ReadingIngestHandler implements IngestHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadingIngestHandler.class);
+
+    /**
+     * 与 monitoring_data 的列长度一致
+     */
+    private static final int MAX_DEVICE_ID_LENGTH = 50;
+    private static final int MAX_UNIT_LENGTH = 20;
+    private static final int MAX_DEVICE_STATUS_LENGTH = 20;
+    private static final int MAX_LOCATION_ADDRESS_LENGTH = 255;
+
+    @Autowired
+    private MonitoringService monitoringService;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    public String channel() {
+        return "readings";
+    }
+
+    @Override
+    public void handle(List<IngestMessage> batch) {
+        List<MonitoringData> readings = new ArrayList<>(batch.size());
+        for (IngestMessage message : batch) {
+            if (message.getDeviceId().length() > MAX_DEVICE_ID_LENGTH) {
+                log.debug("Ignored readings from device with overlong id {}", message.getDeviceId());
+                continue;
+            }
+            try {
+                if (WireFormat.isFrame(message.getPayload(), WireFormat.READINGS_MAGIC)) {
+                    for (MonitoringData reading : monitoringService.decodeReadingFrame(message.getPayload(), message.getDeviceId())) {
+                        addIfFits(readings, reading);
+                    }
+                    continue;
+                }
+                JsonNode body = objectMapper.readTree(message.getPayload());
+                if (body.isArray()) {
+                    for (JsonNode item : body) {
+                        addReading(readings, item, message);
+                    }
+                } else {
+                    addReading(readings, body, message);
+                }
+            } catch (Exception e) {
+                log.debug("Ignored malformed readings from device {}", message.getDeviceId(), e);
+            }
+        }
+        if (readings.isEmpty()) {
+            return;
+        }
+
+        monitoringService.saveMonitoringDataBatch(readings);
+        for (MonitoringData reading : readings) {
+            messagingTemplate.convertAndSend("/topic/monitoring", reading);
+        }
+    }
+
+    private void addReading(List<MonitoringData> readings, JsonNode item, IngestMessage message) throws Exception {
+        MonitoringData reading = objectMapper.treeToValue(item, MonitoringData.class);
+        if (reading.getDataType() == null || reading.getValue() == null) {
+            return;
+        }
+        // 以主题中的设备ID为准；未带时间的读数使用接收时间
+        reading.setDeviceId(message.getDeviceId());
+        if (reading.getCreatedAt() == null) {
+            reading.setCreatedAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(message.getReceivedAt()), ZoneId.systemDefault()));
+        }
+        addIfFits(readings, reading);
+    }
+
+    private void addIfFits(List<MonitoringData> readings, MonitoringData reading) {
+        if (exceeds(reading.getUnit(), MAX_UNIT_LENGTH)
+                || exceeds(reading.getDeviceStatus(), MAX_DEVICE_STATUS_LENGTH)
+                || exceeds(reading.getLocationAddress(), MAX_LOCATION_ADDRESS_LENGTH)) {
+            log.debug("Ignored reading with overlong fields from device {}", reading.getDeviceId());
+            return;
+        }
+        readings.add(reading);
+    }
+
+    private static boolean exceeds(String value, int maxLength) {
+        return value != null && value.length() > maxLength;
+    }
+}
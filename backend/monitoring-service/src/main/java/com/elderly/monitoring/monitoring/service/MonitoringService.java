@@ -2,10 +2,16 @@ package main.java.com.elderly.monitoring.monitoring.service;
 
 import com.elderly.monitoring.monitoring.entity.MonitoringData;
 import com.elderly.monitoring.monitoring.repository.MonitoringDataRepository;
+import main.java.com.elderly.monitoring.ingest.wire.ReadingFrameReader;
+import main.java.com.elderly.monitoring.monitoring.entity.DataType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
+import java.sql.Timestamp;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 
@@ -21,6 +27,14 @@ public class MonitoringService {
     @Autowired
     private MonitoringDataRepository monitoringDataRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private static final String BATCH_INSERT_SQL =
+            "INSERT INTO monitoring_data (device_id, user_id, data_type, value, unit, threshold_min, threshold_max, " +
+            "is_abnormal, latitude, longitude, location_address, remarks, device_status, battery_level, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
     /**
      * 获取实时监控数据
      */
@@ -50,6 +64,80 @@ public class MonitoringService {
         return monitoringDataRepository.save(monitoringData);
     }
 
+    /**
+     * 批量保存监控数据
+     * 
+     * 设备接入通道使用，一批数据一次JDBC批量插入，不经过实体状态管理
+     */
+    public int saveMonitoringDataBatch(List<MonitoringData> batch) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[][] counts = jdbcTemplate.batchUpdate(BATCH_INSERT_SQL, batch, batch.size(), (ps, data) -> {
+            ps.setString(1, data.getDeviceId());
+            ps.setObject(2, data.getUserId());
+            ps.setString(3, data.getDataType().name());
+            ps.setDouble(4, data.getValue());
+            ps.setString(5, data.getUnit());
+            ps.setObject(6, data.getThresholdMin());
+            ps.setObject(7, data.getThresholdMax());
+            ps.setBoolean(8, Boolean.TRUE.equals(data.getIsAbnormal()));
+            ps.setObject(9, data.getLatitude());
+            ps.setObject(10, data.getLongitude());
+            ps.setString(11, data.getLocationAddress());
+            ps.setString(12, data.getRemarks());
+            ps.setString(13, data.getDeviceStatus());
+            ps.setObject(14, data.getBatteryLevel());
+            ps.setTimestamp(15, data.getCreatedAt() != null ? Timestamp.valueOf(data.getCreatedAt()) : now);
+        });
+        int saved = 0;
+        for (int[] chunk : counts) {
+            saved += chunk.length;
+        }
+        return saved;
+    }
+
+    /**
+     * 解码二进制读数帧（{@link main.java.com.elderly.monitoring.ingest.wire.WireFormat#READINGS_MEDIA_TYPE}）
+     * 
+     * 帧中不传单位，按数据类型补默认单位
+     * 
+     * @param frame 帧字节
+     * @param deviceId 主题中的设备ID，不为null时覆盖帧内的设备ID
+     * @return 监控数据列表
+     * @throws IllegalArgumentException 帧格式错误或缺少设备ID
+     */
+    public List<MonitoringData> decodeReadingFrame(byte[] frame, String deviceId) {
+        ReadingFrameReader reader = new ReadingFrameReader(frame);
+        String frameDeviceId = deviceId != null ? deviceId : reader.deviceId();
+        if (frameDeviceId == null) {
+            throw new IllegalArgumentException("Missing device id");
+        }
+        Long userId = reader.hasUserId() ? reader.userId() : null;
+        DataType[] dataTypes = DataType.values();
+        ZoneId zone = ZoneId.systemDefault();
+
+        List<MonitoringData> readings = new ArrayList<>(reader.count());
+        while (reader.next()) {
+            if (reader.dataType() >= dataTypes.length) {
+                throw new IllegalArgumentException("Unknown data type " + reader.dataType());
+            }
+            DataType dataType = dataTypes[reader.dataType()];
+            MonitoringData data = new MonitoringData(frameDeviceId, userId, dataType, reader.value());
+            data.setUnit(dataType.getDefaultUnit());
+            data.setIsAbnormal(reader.isAbnormal());
+            if (reader.hasLocation()) {
+                data.setLatitude(reader.latitude());
+                data.setLongitude(reader.longitude());
+            }
+            if (reader.hasBatteryLevel()) {
+                data.setBatteryLevel(reader.batteryLevel());
+            }
+            data.setDeviceStatus(reader.deviceStatus());
+            data.setCreatedAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(reader.timestampMillis()), zone));
+            readings.add(data);
+        }
+        return readings;
+    }
+
     /**
      * 根据用户ID获取最新数据
      */
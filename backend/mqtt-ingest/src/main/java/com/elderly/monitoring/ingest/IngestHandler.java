@@ -0,0 +1,32 @@
+package main.java.com.elderly.monitoring.ingest;
+
+import java.util.List;
+
+/**
+ * MQTT通道处理器
+ *
+ * 每个处理器负责一个通道（主题最后一级），收到的消息按批交给 {@link #handle}。
+ * 单条消息格式错误、字段超长、设备不存在等问题应由处理器自行跳过；只有数据库不可用等
+ * 整批无法处理的情况才抛出异常，此时整批重试，QoS 1/2 的消息在处理成功前不会确认。
+ * 抛出不可重试的数据库异常（NonTransientDataAccessException，如违反约束）时，
+ * 网关把该批拆成单条逐条处理，仍然失败的单条消息记入死信后确认，不再重试。
+ *
+ * @author Elderly Monitoring Team
+ * @version 1.0.0
+ */
+public interface IngestHandler {
+
+    /**
+     * 处理的通道名，如 telemetry、heartbeat、readings
+     *
+     * @return 通道名
+     */
+    String channel();
+
+    /**
+     * 处理一批消息
+     *
+     * @param batch 同一通道的消息，按到达顺序排列
+     */
+    void handle(List<IngestMessage> batch);
+}
@@ -0,0 +1,47 @@
+package main.java.com.elderly.monitoring.ingest;
+
+/**
+ * 设备上报的一条MQTT消息
+ *
+ * 主题格式为 {前缀}/{deviceId}/{通道}，deviceId 取自主题而非消息体，
+ * 配合Broker按客户端ID限制可发布的主题，设备无法冒充其他设备上报。
+ *
+ * @author Elderly Monitoring Team
+ * @version 1.0.0
+ */
+public class IngestMessage {
+
+    private final String deviceId;
+
+    private final String channel;
+
+    private final byte[] payload;
+
+    private final int qos;
+
+    private final int messageId;
+
+    private final long receivedAt;
+
+    public IngestMessage(String deviceId, String channel, byte[] payload, int qos, int messageId, long receivedAt) {
+        this.deviceId = deviceId;
+        this.channel = channel;
+        this.payload = payload;
+        this.qos = qos;
+        this.messageId = messageId;
+        this.receivedAt = receivedAt;
+    }
+
+    // Getter方法
+    public String getDeviceId() { return deviceId; }
+
+    public String getChannel() { return channel; }
+
+    public byte[] getPayload() { return payload; }
+
+    public int getQos() { return qos; }
+
+    public int getMessageId() { return messageId; }
+
+    public long getReceivedAt() { return receivedAt; }
+}
@@ -0,0 +1,48 @@
+package main.java.com.elderly.monitoring.ingest;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+import java.net.InetAddress;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * MQTT接入自动配置
+ *
+ * 设置 ingest.mqtt.enabled=true 后，连接Broker并为容器中每个 {@link IngestHandler} 订阅对应通道。
+ *
+ * @author Elderly Monitoring Team
+ * @version 1.0.0
+ */
+@AutoConfiguration
+@EnableConfigurationProperties(MqttIngestProperties.class)
+@ConditionalOnProperty(prefix = "ingest.mqtt", name = "enabled", havingValue = "true")
+public class MqttIngestAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public MqttIngestGateway mqttIngestGateway(MqttIngestProperties properties,
+                                               ObjectProvider<IngestHandler> handlers,
+                                               Environment environment) {
+        String clientId = properties.getClientId();
+        if (clientId == null || clientId.isEmpty()) {
+            clientId = environment.getProperty("spring.application.name", "ingest") + "-" + hostName();
+        }
+        List<IngestHandler> handlerList = handlers.orderedStream().collect(Collectors.toList());
+        return new MqttIngestGateway(properties, clientId, handlerList);
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return Long.toHexString(System.nanoTime());
+        }
+    }
+}
@@ -0,0 +1,428 @@
+package main.java.com.elderly.monitoring.ingest;
+
+import org.eclipse.paho.client.mqttv3.IMqttDeliveryToken;
+import org.eclipse.paho.client.mqttv3.MqttAsyncClient;
+import org.eclipse.paho.client.mqttv3.MqttCallbackExtended;
+import org.eclipse.paho.client.mqttv3.MqttConnectOptions;
+import org.eclipse.paho.client.mqttv3.MqttException;
+import org.eclipse.paho.client.mqttv3.MqttMessage;
+import org.eclipse.paho.client.mqttv3.persist.MemoryPersistence;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.util.ClassUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * MQTT接入网关
+ *
+ * 订阅 {前缀}/+/{通道}，按通道把消息放入有界队列，每个通道一个线程凑批后交给对应的
+ * {@link IngestHandler}。确认方式按QoS区分：
+ * <ul>
+ *   <li>QoS 0：队列满时直接丢弃，处理失败重试有限次数后丢弃</li>
+ *   <li>QoS 1/2：手动确认，整批处理成功后才发送PUBACK/PUBCOMP；队列满时接收线程最多等待 enqueueTimeout，
+ *       超时后断开连接，由Broker在重连后补发未确认的消息；处理失败持续重试，进程退出前未确认的消息由Broker在重连后补发</li>
+ * </ul>
+ * 不可重试的数据库错误（违反约束、字段超长等）不会让整批一直重试：该批拆成单条处理，
+ * 仍然失败的单条消息计入死信并确认。
+ * 接收线程只做主题解析和入队，每条消息的开销远小于一次HTTP请求。
+ *
+ * @author Elderly Monitoring Team
+ * @version 1.0.0
+ */
+public class MqttIngestGateway implements SmartLifecycle, MqttCallbackExtended {
+
+    private static final Logger log = LoggerFactory.getLogger(MqttIngestGateway.class);
+
+    private static final long POLL_TIMEOUT_MILLIS = 200;
+
+    private static final long INITIAL_RETRY_BACKOFF_MILLIS = 100;
+
+    private static final long STOP_TIMEOUT_MILLIS = 10000;
+
+    private static final boolean DATA_ACCESS_PRESENT = ClassUtils.isPresent(
+            "org.springframework.dao.NonTransientDataAccessException", MqttIngestGateway.class.getClassLoader());
+
+    private final MqttIngestProperties properties;
+
+    private final String clientId;
+
+    private final Map<String, Channel> channels = new LinkedHashMap<>();
+
+    private final AtomicLong received = new AtomicLong();
+
+    private final AtomicLong processed = new AtomicLong();
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    private final AtomicLong deadLettered = new AtomicLong();
+
+    /**
+     * 连接代次，每次断线时递增；消息ID只在所属连接内有效，旧连接的消息不再确认
+     */
+    private final AtomicLong connectionGeneration = new AtomicLong();
+
+    private MqttAsyncClient client;
+
+    private Thread connectThread;
+
+    private volatile boolean running;
+
+    /**
+     * 停止时先不再接收新消息，未入队的QoS 1/2消息不确认，由Broker在重连后补发
+     */
+    private volatile boolean accepting;
+
+    public MqttIngestGateway(MqttIngestProperties properties, String clientId, List<IngestHandler> handlers) {
+        this.properties = properties;
+        this.clientId = clientId;
+        for (IngestHandler handler : handlers) {
+            if (channels.containsKey(handler.channel())) {
+                throw new IllegalStateException("Duplicate ingest handler for channel " + handler.channel());
+            }
+            channels.put(handler.channel(), new Channel(handler));
+        }
+    }
+
+    @Override
+    public void start() {
+        if (channels.isEmpty()) {
+            log.warn("MQTT ingest enabled but no handlers registered");
+            return;
+        }
+        try {
+            client = new MqttAsyncClient(properties.getBrokerUrl(), clientId, new MemoryPersistence());
+        } catch (MqttException e) {
+            throw new IllegalStateException("Invalid MQTT broker configuration: " + properties.getBrokerUrl(), e);
+        }
+        client.setManualAcks(true);
+        client.setCallback(this);
+
+        running = true;
+        accepting = true;
+        for (Channel channel : channels.values()) {
+            channel.thread.start();
+        }
+
+        // 首次连接失败时Paho不会自动重连，由单独线程重试直到成功
+        connectThread = new Thread(this::connectUntilSuccess, "mqtt-ingest-connect");
+        connectThread.setDaemon(true);
+        connectThread.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        accepting = false;
+        running = false;
+        if (connectThread != null) {
+            connectThread.interrupt();
+        }
+
+        long deadline = System.currentTimeMillis() + STOP_TIMEOUT_MILLIS;
+        for (Channel channel : channels.values()) {
+            try {
+                channel.thread.join(Math.max(1, deadline - System.currentTimeMillis()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (channel.thread.isAlive()) {
+                channel.thread.interrupt();
+            }
+        }
+
+        try {
+            if (client.isConnected()) {
+                client.disconnect().waitForCompletion(STOP_TIMEOUT_MILLIS);
+            }
+            client.close();
+        } catch (MqttException e) {
+            log.warn("Failed to close MQTT ingest client", e);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public void connectComplete(boolean reconnect, String serverURI) {
+        String[] filters = new String[channels.size()];
+        int[] qos = new int[channels.size()];
+        int i = 0;
+        for (String channel : channels.keySet()) {
+            filters[i] = topicFilter(channel);
+            qos[i] = properties.getQos();
+            i++;
+        }
+        try {
+            // 持久会话下订阅会保留，重复订阅不影响已保留的消息
+            client.subscribe(filters, qos);
+            log.info("MQTT ingest {} to {} as {}, subscribed {}",
+                    reconnect ? "reconnected" : "connected", serverURI, clientId, String.join(", ", filters));
+        } catch (MqttException e) {
+            log.error("Failed to subscribe MQTT ingest topics", e);
+        }
+    }
+
+    @Override
+    public void connectionLost(Throwable cause) {
+        connectionGeneration.incrementAndGet();
+        log.warn("MQTT ingest connection lost, reconnecting", cause);
+    }
+
+    @Override
+    public void messageArrived(String topic, MqttMessage message) throws InterruptedException, MqttException {
+        if (!accepting) {
+            return;
+        }
+        received.incrementAndGet();
+
+        // 主题格式 {前缀}/{deviceId}/{通道}
+        int channelStart = topic.lastIndexOf('/');
+        int deviceStart = channelStart > 0 ? topic.lastIndexOf('/', channelStart - 1) : -1;
+        Channel channel = channelStart > 0 ? channels.get(topic.substring(channelStart + 1)) : null;
+        if (channel == null || deviceStart < 0 || deviceStart + 1 == channelStart) {
+            rejected.incrementAndGet();
+            acknowledge(message.getId(), message.getQos());
+            return;
+        }
+
+        IngestMessage ingestMessage = new IngestMessage(topic.substring(deviceStart + 1, channelStart),
+                channel.handler.channel(), message.getPayload(), message.getQos(), message.getId(),
+                System.currentTimeMillis());
+        Delivery delivery = new Delivery(ingestMessage, connectionGeneration.get());
+        if (message.getQos() == 0) {
+            if (!channel.queue.offer(delivery)) {
+                dropped.incrementAndGet();
+            }
+        } else if (!channel.queue.offer(delivery, properties.getEnqueueTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+            // 抛出异常使Paho断开连接，未确认的消息由Broker在重连后补发，接收线程不再被一个通道占住
+            log.warn("MQTT ingest channel {} is full, disconnecting for redelivery", channel.handler.channel());
+            throw new MqttException(MqttException.REASON_CODE_CLIENT_EXCEPTION);
+        }
+    }
+
+    @Override
+    public void deliveryComplete(IMqttDeliveryToken token) {
+        // 只订阅不发布
+    }
+
+    /**
+     * 获取接入统计
+     *
+     * @return 统计信息
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("connected", client != null && client.isConnected());
+        statistics.put("received", received.get());
+        statistics.put("processed", processed.get());
+        statistics.put("dropped", dropped.get());
+        statistics.put("rejected", rejected.get());
+        statistics.put("deadLettered", deadLettered.get());
+        Map<String, Integer> queued = new LinkedHashMap<>();
+        channels.forEach((name, channel) -> queued.put(name, channel.queue.size()));
+        statistics.put("queued", queued);
+        return statistics;
+    }
+
+    private void connectUntilSuccess() {
+        MqttConnectOptions options = new MqttConnectOptions();
+        options.setAutomaticReconnect(true);
+        options.setCleanSession(properties.isCleanSession());
+        options.setMaxInflight(properties.getMaxInflight());
+        options.setKeepAliveInterval((int) properties.getKeepAlive().getSeconds());
+        options.setMaxReconnectDelay((int) properties.getMaxRetryBackoff().toMillis());
+        if (properties.getUsername() != null) {
+            options.setUserName(properties.getUsername());
+        }
+        if (properties.getPassword() != null) {
+            options.setPassword(properties.getPassword().toCharArray());
+        }
+
+        long backoff = INITIAL_RETRY_BACKOFF_MILLIS;
+        while (running) {
+            try {
+                client.connect(options).waitForCompletion();
+                return;
+            } catch (MqttException e) {
+                log.warn("MQTT ingest failed to connect to {}: {}", properties.getBrokerUrl(), e.getMessage());
+            }
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                return;
+            }
+            backoff = Math.min(backoff * 2, properties.getMaxRetryBackoff().toMillis());
+        }
+    }
+
+    private String topicFilter(String channel) {
+        String filter = properties.getTopicPrefix() + "/+/" + channel;
+        String group = properties.getSharedGroup();
+        return group == null || group.isEmpty() ? filter : "$share/" + group + "/" + filter;
+    }
+
+    private void acknowledge(int messageId, int qos) {
+        if (qos == 0) {
+            return;
+        }
+        try {
+            client.messageArrivedComplete(messageId, qos);
+        } catch (MqttException e) {
+            // 连接已断开，Broker会在重连后补发
+            log.debug("Failed to acknowledge MQTT message {}", messageId, e);
+        }
+    }
+
+    /**
+     * 单个通道的队列及处理线程
+     */
+    private class Channel implements Runnable {
+
+        private final IngestHandler handler;
+
+        private final BlockingQueue<Delivery> queue;
+
+        private final Thread thread;
+
+        Channel(IngestHandler handler) {
+            this.handler = handler;
+            this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+            this.thread = new Thread(this, "mqtt-ingest-" + handler.channel());
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            int batchSize = properties.getBatchSize();
+            long lingerNanos = properties.getLinger().toNanos();
+            List<Delivery> batch = new ArrayList<>(batchSize);
+            try {
+                while (running || !queue.isEmpty()) {
+                    Delivery first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    long deadline = System.nanoTime() + lingerNanos;
+                    while (batch.size() < batchSize) {
+                        queue.drainTo(batch, batchSize - batch.size());
+                        long remaining = deadline - System.nanoTime();
+                        if (batch.size() >= batchSize || remaining <= 0) {
+                            break;
+                        }
+                        Delivery next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                        if (next == null) {
+                            break;
+                        }
+                        batch.add(next);
+                    }
+                    process(batch);
+                    batch.clear();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void process(List<Delivery> batch) throws InterruptedException {
+            List<IngestMessage> messages = new ArrayList<>(batch.size());
+            for (Delivery delivery : batch) {
+                messages.add(delivery.message);
+            }
+
+            Outcome outcome = handleWithRetry(messages);
+            if (outcome == Outcome.PERMANENT_FAILURE && batch.size() > 1) {
+                // 拆成单条，只有真正有问题的消息进入死信
+                log.warn("Ingest batch of {} on channel {} hit a non-retryable error, retrying one by one",
+                        batch.size(), handler.channel());
+                for (Delivery delivery : batch) {
+                    complete(List.of(delivery), handleWithRetry(List.of(delivery.message)));
+                }
+                return;
+            }
+            complete(batch, outcome);
+        }
+
+        /**
+         * 处理消息，可重试的失败按退避重试（QoS 0 批次有限次数）
+         */
+        private Outcome handleWithRetry(List<IngestMessage> messages) throws InterruptedException {
+            boolean reliable = false;
+            for (IngestMessage message : messages) {
+                reliable |= message.getQos() > 0;
+            }
+
+            long backoff = INITIAL_RETRY_BACKOFF_MILLIS;
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    handler.handle(messages);
+                    return Outcome.PROCESSED;
+                } catch (RuntimeException e) {
+                    if (isPermanent(e)) {
+                        if (messages.size() == 1) {
+                            log.error("Dead-lettered message {} from device {} on channel {}",
+                                    messages.get(0).getMessageId(), messages.get(0).getDeviceId(), handler.channel(), e);
+                        }
+                        return Outcome.PERMANENT_FAILURE;
+                    }
+                    if (!reliable && attempt >= properties.getQos0MaxAttempts()) {
+                        log.error("Dropped {} QoS 0 messages on channel {} after {} attempts",
+                                messages.size(), handler.channel(), attempt, e);
+                        return Outcome.DROPPED;
+                    }
+                    log.warn("Ingest batch of {} on channel {} failed (attempt {}), retrying in {} ms",
+                            messages.size(), handler.channel(), attempt, backoff, e);
+                    Thread.sleep(backoff);
+                    backoff = Math.min(backoff * 2, properties.getMaxRetryBackoff().toMillis());
+                }
+            }
+        }
+
+        private void complete(List<Delivery> deliveries, Outcome outcome) {
+            switch (outcome) {
+                case PROCESSED -> processed.addAndGet(deliveries.size());
+                case DROPPED -> dropped.addAndGet(deliveries.size());
+                case PERMANENT_FAILURE -> deadLettered.addAndGet(deliveries.size());
+            }
+            long generation = connectionGeneration.get();
+            for (Delivery delivery : deliveries) {
+                if (delivery.generation == generation) {
+                    acknowledge(delivery.message.getMessageId(), delivery.message.getQos());
+                }
+            }
+        }
+    }
+
+    /**
+     * 不可重试的数据库错误：同样的数据重试也不会成功
+     */
+    private static boolean isPermanent(RuntimeException e) {
+        return DATA_ACCESS_PRESENT && e instanceof NonTransientDataAccessException;
+    }
+
+    private enum Outcome {
+        PROCESSED,
+        DROPPED,
+        PERMANENT_FAILURE
+    }
+
+    private record Delivery(IngestMessage message, long generation) {
+    }
+}
@@ -0,0 +1,144 @@
+package main.java.com.elderly.monitoring.ingest;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * MQTT接入配置
+ *
+ * @author Elderly Monitoring Team
+ * @version 1.0.0
+ */
+@ConfigurationProperties(prefix = "ingest.mqtt")
+public class MqttIngestProperties {
+
+    /**
+     * 是否启用MQTT接入
+     */
+    private boolean enabled = false;
+
+    /**
+     * Broker地址
+     */
+    private String brokerUrl = "tcp://localhost:1883";
+
+    /**
+     * 客户端ID，持久会话按此识别，每个实例需唯一；为空时使用 应用名-主机名
+     */
+    private String clientId;
+
+    private String username;
+
+    private String password;
+
+    /**
+     * 主题前缀，订阅 {前缀}/+/{通道}
+     */
+    private String topicPrefix = "devices";
+
+    /**
+     * 共享订阅组，多实例部署时按组分摊消息；为空时每个实例都收到全部消息
+     */
+    private String sharedGroup;
+
+    /**
+     * 订阅QoS
+     */
+    private int qos = 1;
+
+    /**
+     * 是否清除会话；为false时断线期间的QoS 1/2消息由Broker保留，重连后补发
+     */
+    private boolean cleanSession = false;
+
+    /**
+     * 未确认消息数上限
+     */
+    private int maxInflight = 1000;
+
+    private Duration keepAlive = Duration.ofSeconds(60);
+
+    /**
+     * 单批最大消息数
+     */
+    private int batchSize = 500;
+
+    /**
+     * 凑批等待时间，收到第一条消息后最多等待这么久再处理
+     */
+    private Duration linger = Duration.ofMillis(50);
+
+    /**
+     * 每个通道的待处理队列容量；队列满时QoS 0消息丢弃，QoS 1/2消息等待入队
+     */
+    private int queueCapacity = 10000;
+
+    /**
+     * QoS 1/2 消息等待入队的最长时间；超时后断开连接，未确认的消息由Broker在重连后补发，
+     * 避免一个通道积压时阻塞共享的接收线程
+     */
+    private Duration enqueueTimeout = Duration.ofSeconds(10);
+
+    /**
+     * 批处理失败后的最大重试间隔
+     */
+    private Duration maxRetryBackoff = Duration.ofSeconds(5);
+
+    /**
+     * QoS 0 批次的最大尝试次数，超过后丢弃；QoS 1/2 批次一直重试到成功
+     */
+    private int qos0MaxAttempts = 3;
+
+    // Getter和Setter方法
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public String getBrokerUrl() { return brokerUrl; }
+    public void setBrokerUrl(String brokerUrl) { this.brokerUrl = brokerUrl; }
+
+    public String getClientId() { return clientId; }
+    public void setClientId(String clientId) { this.clientId = clientId; }
+
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+
+    public String getPassword() { return password; }
+    public void setPassword(String password) { this.password = password; }
+
+    public String getTopicPrefix() { return topicPrefix; }
+    public void setTopicPrefix(String topicPrefix) { this.topicPrefix = topicPrefix; }
+
+    public String getSharedGroup() { return sharedGroup; }
+    public void setSharedGroup(String sharedGroup) { this.sharedGroup = sharedGroup; }
+
+    public int getQos() { return qos; }
+    public void setQos(int qos) { this.qos = qos; }
+
+    public boolean isCleanSession() { return cleanSession; }
+    public void setCleanSession(boolean cleanSession) { this.cleanSession = cleanSession; }
+
+    public int getMaxInflight() { return maxInflight; }
+    public void setMaxInflight(int maxInflight) { this.maxInflight = maxInflight; }
+
+    public Duration getKeepAlive() { return keepAlive; }
+    public void setKeepAlive(Duration keepAlive) { this.keepAlive = keepAlive; }
+
+    public int getBatchSize() { return batchSize; }
+    public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+
+    public Duration getLinger() { return linger; }
+    public void setLinger(Duration linger) { this.linger = linger; }
+
+    public int getQueueCapacity() { return queueCapacity; }
+    public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+
+    public Duration getEnqueueTimeout() { return enqueueTimeout; }
+    public void setEnqueueTimeout(Duration enqueueTimeout) { this.enqueueTimeout = enqueueTimeout; }
+
+    public Duration getMaxRetryBackoff() { return maxRetryBackoff; }
+    public void setMaxRetryBackoff(Duration maxRetryBackoff) { this.maxRetryBackoff = maxRetryBackoff; }
+
+    public int getQos0MaxAttempts() { return qos0MaxAttempts; }
+    public void setQos0MaxAttempts(int qos0MaxAttempts) { this.qos0MaxAttempts = qos0MaxAttempts; }
+}
@@ -0,0 +1,164 @@
+package main.java.com.elderly.monitoring.ingest.wire;
+
+/**
+ * 读数帧解码
+ *
+ * 帧格式：
+ * <pre>
+ * 魔数       1字节 0xE1
+ * 帧标志     1字节 bit0 含设备ID，bit1 含用户ID
+ * [设备ID]   字符串
+ * [用户ID]   变长整数
+ * 基准时间   变长整数，epoch毫秒
+ * 读数条数   变长整数
+ * 每条读数：
+ *   数据类型   1字节，DataType序号
+ *   读数标志   1字节 bit0-1 小数位数，bit2 原始double，bit3 异常，bit4 位置，bit5 电量，bit6 设备状态
+ *   时间差     有符号变长整数，相对上一条（首条相对基准时间）的毫秒数
+ *   数值       有符号变长整数（数值 × 10^小数位数），或8字节double
+ *   [纬度,经度] 有符号变长整数，百万分之一度，相对帧内上一个位置（首个为绝对值）
+ *   [电量]     1字节
+ *   [设备状态] 字符串
+ * </pre>
+ * 单位不在帧中传输，由服务端按数据类型补默认单位。
+ * 读数时间须在 1970-01-01 至 9999-12-31 之间，超出范围的帧按格式错误处理。
+ * 解码直接读到基本类型字段，按 {@link #next()} 逐条迭代，不创建中间对象。
+ *
+ * @author Elderly Monitoring Team
+ * @version 1.0.0
+ */
+public final class ReadingFrameReader {
+
+    static final int FRAME_DEVICE_ID = 1;
+    static final int FRAME_USER_ID = 1 << 1;
+
+    static final int SCALE_MASK = 0x03;
+    static final int RAW_DOUBLE = 1 << 2;
+    static final int ABNORMAL = 1 << 3;
+    static final int LOCATION = 1 << 4;
+    static final int BATTERY = 1 << 5;
+    static final int DEVICE_STATUS = 1 << 6;
+
+    private static final double[] POWERS_OF_TEN = {1d, 10d, 100d, 1000d};
+
+    /**
+     * 读数时间上限（9999-12-31T23:59:59.999Z），保证可以转换为日期时间
+     */
+    private static final long MAX_TIMESTAMP_MILLIS = 253402300799999L;
+
+    private final WireFormat.Cursor cursor;
+
+    private final String deviceId;
+
+    private final boolean hasUserId;
+
+    private final long userId;
+
+    private final int count;
+
+    private int index;
+
+    private long timestamp;
+
+    private long latitudeMicro;
+
+    private long longitudeMicro;
+
+    private int dataType;
+
+    private int flags;
+
+    private double value;
+
+    private int batteryLevel;
+
+    private String deviceStatus;
+
+    public ReadingFrameReader(byte[] frame) {
+        this(frame, 0, frame.length);
+    }
+
+    public ReadingFrameReader(byte[] frame, int offset, int length) {
+        cursor = new WireFormat.Cursor(frame, offset, length);
+        if ((byte) cursor.readByte() != WireFormat.READINGS_MAGIC) {
+            throw new IllegalArgumentException("Not a readings frame");
+        }
+        int frameFlags = cursor.readByte();
+        deviceId = (frameFlags & FRAME_DEVICE_ID) != 0 ? cursor.readString() : null;
+        hasUserId = (frameFlags & FRAME_USER_ID) != 0;
+        userId = hasUserId ? cursor.readVarint() : 0L;
+        timestamp = cursor.readVarint();
+        checkTimestamp();
+        long declared = cursor.readVarint();
+        if (declared > length) {
+            // 每条读数至少3字节，超过帧长度的条数必然是错误数据
+            throw new IllegalArgumentException("Malformed reading count");
+        }
+        count = (int) declared;
+    }
+
+    /**
+     * 读取下一条读数
+     *
+     * @return 没有更多读数时返回false
+     */
+    public boolean next() {
+        if (index >= count) {
+            return false;
+        }
+        index++;
+        dataType = cursor.readByte();
+        flags = cursor.readByte();
+        // 上一个时间在范围内时，加上任何时间差溢出后都是负数，同样被拒绝
+        timestamp += cursor.readSignedVarint();
+        checkTimestamp();
+        if ((flags & RAW_DOUBLE) != 0) {
+            value = cursor.readDouble();
+        } else {
+            value = cursor.readSignedVarint() / POWERS_OF_TEN[flags & SCALE_MASK];
+        }
+        if ((flags & LOCATION) != 0) {
+            latitudeMicro += cursor.readSignedVarint();
+            longitudeMicro += cursor.readSignedVarint();
+        }
+        batteryLevel = (flags & BATTERY) != 0 ? cursor.readByte() : -1;
+        deviceStatus = (flags & DEVICE_STATUS) != 0 ? cursor.readString() : null;
+        return true;
+    }
+
+    private void checkTimestamp() {
+        if (timestamp < 0 || timestamp > MAX_TIMESTAMP_MILLIS) {
+            throw new IllegalArgumentException("Reading timestamp out of range");
+        }
+    }
+
+    // 帧头字段
+    public String deviceId() { return deviceId; }
+
+    public boolean hasUserId() { return hasUserId; }
+
+    public long userId() { return userId; }
+
+    public int count() { return count; }
+
+    // 当前读数字段
+    public int dataType() { return dataType; }
+
+    public long timestampMillis() { return timestamp; }
+
+    public double value() { return value; }
+
+    public boolean isAbnormal() { return (flags & ABNORMAL) != 0; }
+
+    public boolean hasLocation() { return (flags & LOCATION) != 0; }
+
+    public double latitude() { return WireFormat.decodeCoordinate(latitudeMicro); }
+
+    public double longitude() { return WireFormat.decodeCoordinate(longitudeMicro); }
+
+    public boolean hasBatteryLevel() { return batteryLevel >= 0; }
+
+    public int batteryLevel() { return batteryLevel; }
+
+    public String deviceStatus() { return deviceStatus; }
+}
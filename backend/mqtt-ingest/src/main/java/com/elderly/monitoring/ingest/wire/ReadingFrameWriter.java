@@ -0,0 +1,165 @@
+package main.java.com.elderly.monitoring.ingest.wire;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * 读数帧编码，格式见 {@link ReadingFrameReader}
+ *
+ * 供设备固件参考实现、模拟器和测试使用。数值优先编码为最多3位小数的定点整数，
+ * 无法精确表示时退回8字节double。
+ *
+ * @author Elderly Monitoring Team
+ * @version 1.0.0
+ */
+public final class ReadingFrameWriter {
+
+    private static final long MAX_EXACT = 1L << 53;
+
+    private static final double[] POWERS_OF_TEN = {1d, 10d, 100d, 1000d};
+
+    private final ByteArrayOutputStream records = new ByteArrayOutputStream();
+
+    private final String deviceId;
+
+    private final Long userId;
+
+    private long baseTime = -1;
+
+    private long lastTime;
+
+    private long lastLatitudeMicro;
+
+    private long lastLongitudeMicro;
+
+    private int count;
+
+    /**
+     * @param deviceId 设备ID，MQTT上报时由主题提供，可为null
+     * @param userId 用户ID，可为null
+     */
+    public ReadingFrameWriter(String deviceId, Long userId) {
+        this.deviceId = deviceId;
+        this.userId = userId;
+    }
+
+    /**
+     * 追加一条读数
+     *
+     * @param dataType DataType序号
+     * @param timestampMillis 读数时间
+     * @param value 数值
+     * @return this
+     */
+    public ReadingFrameWriter add(int dataType, long timestampMillis, double value) {
+        return add(dataType, timestampMillis, value, false, null, null, null, null);
+    }
+
+    /**
+     * 追加一条读数
+     *
+     * @param dataType DataType序号
+     * @param timestampMillis 读数时间
+     * @param value 数值
+     * @param abnormal 是否异常
+     * @param latitude 纬度，可为null
+     * @param longitude 经度，可为null
+     * @param batteryLevel 电量，可为null
+     * @param deviceStatus 设备状态，可为null
+     * @return this
+     */
+    public ReadingFrameWriter add(int dataType, long timestampMillis, double value, boolean abnormal,
+                                  Double latitude, Double longitude, Integer batteryLevel, String deviceStatus) {
+        if (dataType < 0 || dataType > 0xFF) {
+            throw new IllegalArgumentException("Data type ordinal out of range: " + dataType);
+        }
+        if (baseTime < 0) {
+            baseTime = timestampMillis;
+            lastTime = timestampMillis;
+        }
+
+        int flags = 0;
+        int scale = scaleOf(value);
+        flags |= scale >= 0 ? scale : ReadingFrameReader.RAW_DOUBLE;
+        if (abnormal) {
+            flags |= ReadingFrameReader.ABNORMAL;
+        }
+        boolean location = latitude != null && longitude != null;
+        if (location) {
+            flags |= ReadingFrameReader.LOCATION;
+        }
+        if (batteryLevel != null) {
+            flags |= ReadingFrameReader.BATTERY;
+        }
+        if (deviceStatus != null) {
+            flags |= ReadingFrameReader.DEVICE_STATUS;
+        }
+
+        records.write(dataType);
+        records.write(flags);
+        WireFormat.writeVarint(records, WireFormat.zigzag(timestampMillis - lastTime));
+        lastTime = timestampMillis;
+        if (scale >= 0) {
+            WireFormat.writeVarint(records, WireFormat.zigzag(Math.round(value * POWERS_OF_TEN[scale])));
+        } else {
+            long bits = Double.doubleToLongBits(value);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                records.write((int) (bits >>> shift) & 0xFF);
+            }
+        }
+        if (location) {
+            long latitudeMicro = WireFormat.encodeCoordinate(latitude);
+            long longitudeMicro = WireFormat.encodeCoordinate(longitude);
+            WireFormat.writeVarint(records, WireFormat.zigzag(latitudeMicro - lastLatitudeMicro));
+            WireFormat.writeVarint(records, WireFormat.zigzag(longitudeMicro - lastLongitudeMicro));
+            lastLatitudeMicro = latitudeMicro;
+            lastLongitudeMicro = longitudeMicro;
+        }
+        if (batteryLevel != null) {
+            records.write(Math.max(0, Math.min(100, batteryLevel)));
+        }
+        if (deviceStatus != null) {
+            WireFormat.writeString(records, deviceStatus);
+        }
+        count++;
+        return this;
+    }
+
+    /**
+     * 生成完整的帧
+     *
+     * @return 帧字节
+     */
+    public byte[] toByteArray() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(records.size() + 16);
+        out.write(WireFormat.READINGS_MAGIC);
+        out.write((deviceId != null ? ReadingFrameReader.FRAME_DEVICE_ID : 0)
+                | (userId != null ? ReadingFrameReader.FRAME_USER_ID : 0));
+        if (deviceId != null) {
+            WireFormat.writeString(out, deviceId);
+        }
+        if (userId != null) {
+            WireFormat.writeVarint(out, userId);
+        }
+        WireFormat.writeVarint(out, Math.max(0, baseTime));
+        WireFormat.writeVarint(out, count);
+        out.writeBytes(records.toByteArray());
+        return out.toByteArray();
+    }
+
+    /**
+     * 能精确表示该数值的最少小数位数（0-3），无法表示返回-1
+     */
+    private static int scaleOf(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return -1;
+        }
+        for (int scale = 0; scale < POWERS_OF_TEN.length; scale++) {
+            double scaled = value * POWERS_OF_TEN[scale];
+            if (Math.abs(scaled) < MAX_EXACT && scaled == Math.rint(scaled)
+                    && scaled / POWERS_OF_TEN[scale] == value) {
+                return scale;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,101 @@
+package main.java.com.elderly.monitoring.ingest.wire;
+
+/**
+ * 遥测帧解码
+ *
+ * 帧格式：
+ * <pre>
+ * 魔数       1字节 0xE2
+ * 条数       变长整数
+ * 每条遥测：
+ *   标志       1字节 bit0 含设备ID，bit1 电量，bit2 信号强度，bit3 位置
+ *   [设备ID]   字符串，单设备上报时由路径或主题提供
+ *   [电量]     1字节
+ *   [信号强度] 有符号变长整数
+ *   [纬度,经度] 有符号变长整数，百万分之一度
+ * </pre>
+ * 位置描述文本不在二进制帧中传输，需要时使用JSON上报。
+ *
+ * @author Elderly Monitoring Team
+ * @version 1.0.0
+ */
+public final class TelemetryFrameReader {
+
+    static final int DEVICE_ID = 1;
+    static final int BATTERY = 1 << 1;
+    static final int SIGNAL = 1 << 2;
+    static final int LOCATION = 1 << 3;
+
+    private final WireFormat.Cursor cursor;
+
+    private final int count;
+
+    private int index;
+
+    private int flags;
+
+    private String deviceId;
+
+    private int batteryLevel;
+
+    private int signalStrength;
+
+    private double latitude;
+
+    private double longitude;
+
+    public TelemetryFrameReader(byte[] frame) {
+        this(frame, 0, frame.length);
+    }
+
+    public TelemetryFrameReader(byte[] frame, int offset, int length) {
+        cursor = new WireFormat.Cursor(frame, offset, length);
+        if ((byte) cursor.readByte() != WireFormat.TELEMETRY_MAGIC) {
+            throw new IllegalArgumentException("Not a telemetry frame");
+        }
+        long declared = cursor.readVarint();
+        if (declared > length) {
+            throw new IllegalArgumentException("Malformed telemetry count");
+        }
+        count = (int) declared;
+    }
+
+    /**
+     * 读取下一条遥测
+     *
+     * @return 没有更多数据时返回false
+     */
+    public boolean next() {
+        if (index >= count) {
+            return false;
+        }
+        index++;
+        flags = cursor.readByte();
+        deviceId = (flags & DEVICE_ID) != 0 ? cursor.readString() : null;
+        batteryLevel = (flags & BATTERY) != 0 ? cursor.readByte() : 0;
+        signalStrength = (flags & SIGNAL) != 0 ? (int) cursor.readSignedVarint() : 0;
+        if ((flags & LOCATION) != 0) {
+            latitude = WireFormat.decodeCoordinate(cursor.readSignedVarint());
+            longitude = WireFormat.decodeCoordinate(cursor.readSignedVarint());
+        }
+        return true;
+    }
+
+    public int count() { return count; }
+
+    public String deviceId() { return deviceId; }
+
+    public boolean hasBatteryLevel() { return (flags & BATTERY) != 0; }
+
+    public int batteryLevel() { return batteryLevel; }
+
+    public boolean hasSignalStrength() { return (flags & SIGNAL) != 0; }
+
+    public int signalStrength() { return signalStrength; }
+
+    public boolean hasLocation() { return (flags & LOCATION) != 0; }
+
+    public double latitude() { return latitude; }
+
+    public double longitude() { return longitude; }
+}
@@ -0,0 +1,64 @@
+package main.java.com.elderly.monitoring.ingest.wire;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * 遥测帧编码，格式见 {@link TelemetryFrameReader}
+ *
+ * @author Elderly Monitoring Team
+ * @version 1.0.0
+ */
+public final class TelemetryFrameWriter {
+
+    private final ByteArrayOutputStream entries = new ByteArrayOutputStream();
+
+    private int count;
+
+    /**
+     * 追加一条遥测
+     *
+     * @param deviceId 设备ID，单设备上报时为null
+     * @param batteryLevel 电量，未上报为null
+     * @param signalStrength 信号强度，未上报为null
+     * @param latitude 纬度，未上报为null
+     * @param longitude 经度，未上报为null
+     * @return this
+     */
+    public TelemetryFrameWriter add(String deviceId, Integer batteryLevel, Integer signalStrength,
+                                    Double latitude, Double longitude) {
+        boolean location = latitude != null && longitude != null;
+        int flags = (deviceId != null ? TelemetryFrameReader.DEVICE_ID : 0)
+                | (batteryLevel != null ? TelemetryFrameReader.BATTERY : 0)
+                | (signalStrength != null ? TelemetryFrameReader.SIGNAL : 0)
+                | (location ? TelemetryFrameReader.LOCATION : 0);
+        entries.write(flags);
+        if (deviceId != null) {
+            WireFormat.writeString(entries, deviceId);
+        }
+        if (batteryLevel != null) {
+            entries.write(batteryLevel & 0xFF);
+        }
+        if (signalStrength != null) {
+            WireFormat.writeVarint(entries, WireFormat.zigzag(signalStrength));
+        }
+        if (location) {
+            WireFormat.writeVarint(entries, WireFormat.zigzag(WireFormat.encodeCoordinate(latitude)));
+            WireFormat.writeVarint(entries, WireFormat.zigzag(WireFormat.encodeCoordinate(longitude)));
+        }
+        count++;
+        return this;
+    }
+
+    /**
+     * 生成完整的帧
+     *
+     * @return 帧字节
+     */
+    public byte[] toByteArray() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(entries.size() + 4);
+        out.write(WireFormat.TELEMETRY_MAGIC);
+        WireFormat.writeVarint(out, count);
+        out.writeBytes(entries.toByteArray());
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,152 @@
+package main.java.com.elderly.monitoring.ingest.wire;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 设备上报二进制编码的公共定义
+ *
+ * 整数使用变长编码（每字节7位，最高位表示后续还有字节），有符号整数先做zigzag变换，
+ * 小数值和时间差通常只占1-2个字节。字符串为 长度 + UTF-8。
+ * 帧首字节为魔数，与JSON可能的首字符（'{'、'['、空白）不冲突，MQTT接入据此区分编码。
+ *
+ * @author Elderly Monitoring Team
+ * @version 1.0.0
+ */
+public final class WireFormat {
+
+    /**
+     * 读数帧媒体类型
+     */
+    public static final String READINGS_MEDIA_TYPE = "application/vnd.elderly.readings+binary";
+
+    /**
+     * 遥测帧媒体类型
+     */
+    public static final String TELEMETRY_MEDIA_TYPE = "application/vnd.elderly.telemetry+binary";
+
+    /**
+     * 读数帧魔数（含版本）
+     */
+    public static final byte READINGS_MAGIC = (byte) 0xE1;
+
+    /**
+     * 遥测帧魔数（含版本）
+     */
+    public static final byte TELEMETRY_MAGIC = (byte) 0xE2;
+
+    /**
+     * 经纬度定点精度：百万分之一度，约0.1米
+     */
+    static final double COORDINATE_SCALE = 1_000_000d;
+
+    private WireFormat() {
+    }
+
+    /**
+     * 判断消息体是否为指定类型的二进制帧
+     *
+     * @param payload 消息体
+     * @param magic 帧魔数
+     * @return 是否为二进制帧
+     */
+    public static boolean isFrame(byte[] payload, byte magic) {
+        return payload != null && payload.length > 0 && payload[0] == magic;
+    }
+
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    static void writeString(ByteArrayOutputStream out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(out, bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    static long encodeCoordinate(double degrees) {
+        return Math.round(degrees * COORDINATE_SCALE);
+    }
+
+    static double decodeCoordinate(long micro) {
+        return micro / COORDINATE_SCALE;
+    }
+
+    /**
+     * 帧读取游标
+     */
+    static final class Cursor {
+
+        private final byte[] buffer;
+
+        private final int limit;
+
+        private int position;
+
+        Cursor(byte[] buffer, int offset, int length) {
+            if (offset < 0 || length < 0 || offset + length > buffer.length) {
+                throw new IllegalArgumentException("Frame bounds out of range");
+            }
+            this.buffer = buffer;
+            this.position = offset;
+            this.limit = offset + length;
+        }
+
+        boolean hasRemaining() {
+            return position < limit;
+        }
+
+        int readByte() {
+            if (position >= limit) {
+                throw new IllegalArgumentException("Truncated frame");
+            }
+            return buffer[position++] & 0xFF;
+        }
+
+        long readVarint() {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint");
+        }
+
+        long readSignedVarint() {
+            return unzigzag(readVarint());
+        }
+
+        double readDouble() {
+            long bits = 0;
+            for (int i = 0; i < 8; i++) {
+                bits = (bits << 8) | readByte();
+            }
+            return Double.longBitsToDouble(bits);
+        }
+
+        String readString() {
+            long length = readVarint();
+            if (length > limit - position) {
+                throw new IllegalArgumentException("Truncated frame");
+            }
+            String value = new String(buffer, position, (int) length, StandardCharsets.UTF_8);
+            position += (int) length;
+            return value;
+        }
+    }
+}
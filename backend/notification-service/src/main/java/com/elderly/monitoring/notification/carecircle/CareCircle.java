@@ -0,0 +1,40 @@
+package main.java.com.elderly.monitoring.notification.carecircle;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 老人的照护圈：家庭成员、护工和医生
+ *
+ * 成员为绑定了老人名下设备的用户（devices.user_id 为老人，device_bindings 中绑定该设备的其他用户）。
+ *
+ * @param residentId 老人的用户ID
+ * @param members 照护圈成员
+ * @param deviceIds 老人名下的设备ID，用于按设备变更清除缓存
+ * @author System
+ * @since 1.0.0
+ */
+public record CareCircle(Long residentId, List<Member> members, Set<String> deviceIds) {
+
+    /**
+     * 照护圈成员
+     *
+     * @param userId 用户ID
+     * @param role 用户角色（FAMILY_MEMBER、CAREGIVER、DOCTOR）
+     */
+    public record Member(Long userId, String role) {
+    }
+
+    /**
+     * 筛选指定角色的成员
+     *
+     * @param roles 角色，为空时返回全部成员
+     */
+    public List<Member> members(Collection<String> roles) {
+        if (roles == null || roles.isEmpty()) {
+            return members;
+        }
+        return members.stream().filter(member -> roles.contains(member.role())).toList();
+    }
+}
@@ -0,0 +1,117 @@
+package main.java.com.elderly.monitoring.notification.carecircle;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 照护圈缓存
+ *
+ * 按老人缓存照护圈，未命中时一次查询老人名下设备及其绑定用户。用户服务的绑定变更和设备服务的
+ * 设备变更（见 CareCircleConfig）清除包含该设备的照护圈；用户角色、状态的变更按过期时间生效。
+ *
+ * @author System
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class CareCircleCache {
+
+    /**
+     * 老人名下设备及绑定了这些设备的有效用户，每行一个设备与成员的组合（设备没有绑定成员时成员列为NULL）
+     */
+    private static final String CIRCLE_SQL =
+            "SELECT d.device_id, u.id, u.role FROM devices d " +
+            "LEFT JOIN device_bindings b ON b.device_id = d.device_id AND b.user_id <> d.user_id " +
+            "LEFT JOIN users u ON u.id = b.user_id AND u.status = 'ACTIVE' AND u.role IN (%s) " +
+            "WHERE d.user_id = ?";
+
+    private static final String DEVICE_OWNER_SQL = "SELECT user_id FROM devices WHERE device_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Set<String> roles;
+    private final String circleSql;
+    private final Cache<Long, CareCircle> circles;
+
+    public CareCircleCache(JdbcTemplate jdbcTemplate,
+                           @Value("${notification.care-circle.roles:FAMILY_MEMBER,CAREGIVER,DOCTOR}") List<String> roles,
+                           @Value("${notification.care-circle.cache.max-size:100000}") long maxSize,
+                           @Value("${notification.care-circle.cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.roles = new LinkedHashSet<>(roles);
+        this.circleSql = String.format(CIRCLE_SQL, String.join(", ", roles.stream().map(role -> "?").toList()));
+        this.circles = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * 获取老人的照护圈，没有成员时返回空照护圈
+     */
+    public CareCircle get(Long residentId) {
+        return circles.get(residentId, this::load);
+    }
+
+    /**
+     * 可作为照护圈成员的角色
+     */
+    public Set<String> getRoles() {
+        return roles;
+    }
+
+    private CareCircle load(Long residentId) {
+        Set<String> deviceIds = new LinkedHashSet<>();
+        Map<Long, CareCircle.Member> members = new LinkedHashMap<>();
+        List<Object> args = new ArrayList<>(roles);
+        args.add(residentId);
+        jdbcTemplate.query(circleSql, rs -> {
+            deviceIds.add(rs.getString(1));
+            long userId = rs.getLong(2);
+            if (!rs.wasNull()) {
+                members.putIfAbsent(userId, new CareCircle.Member(userId, rs.getString(3)));
+            }
+        }, args.toArray());
+        return new CareCircle(residentId, List.copyOf(members.values()), Set.copyOf(deviceIds));
+    }
+
+    /**
+     * 设备的绑定关系或注册信息变更：清除包含该设备的照护圈，以及设备当前所属老人的照护圈
+     */
+    public void invalidateDevice(String deviceId) {
+        if (deviceId == null || deviceId.isEmpty()) {
+            return;
+        }
+        circles.asMap().values().removeIf(circle -> circle.deviceIds().contains(deviceId));
+        try {
+            jdbcTemplate.query(DEVICE_OWNER_SQL, rs -> {
+                long ownerId = rs.getLong(1);
+                if (!rs.wasNull()) {
+                    circles.invalidate(ownerId);
+                }
+            }, deviceId);
+        } catch (Exception e) {
+            // 设备转入的老人按过期时间兜底
+            log.warn("查询设备所属用户失败: deviceId={}", deviceId, e);
+        }
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("size", circles.estimatedSize());
+        statistics.put("hitRate", circles.stats().hitRate());
+        return statistics;
+    }
+}
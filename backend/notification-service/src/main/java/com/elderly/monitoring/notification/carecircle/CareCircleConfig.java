@@ -0,0 +1,54 @@
+package main.java.com.elderly.monitoring.notification.carecircle;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * 照护圈缓存配置
+ *
+ * 订阅用户服务的绑定变更频道和设备服务的设备变更频道，清除本实例中受影响的照护圈。
+ *
+ * @author System
+ * @since 1.0.0
+ */
+@Slf4j
+@Configuration
+public class CareCircleConfig {
+
+    /**
+     * 用户服务的绑定变更频道，消息格式：{"userId":..., "deviceId":...}
+     */
+    public static final String BINDING_CHANGED_CHANNEL = "user:bindings:changed";
+
+    /**
+     * 设备服务的设备变更频道，消息格式：{"deviceId":..., "version":..., "changeType":...}
+     */
+    public static final String DEVICE_CHANGED_CHANNEL = "device:events:changed";
+
+    @Bean
+    public RedisMessageListenerContainer careCircleListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                     CareCircleCache careCircleCache,
+                                                                     ObjectMapper objectMapper) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        // 两个频道的消息都带有 deviceId
+        container.addMessageListener((message, pattern) -> {
+            try {
+                JsonNode body = objectMapper.readTree(new String(message.getBody(), StandardCharsets.UTF_8));
+                careCircleCache.invalidateDevice(body.path("deviceId").asText());
+            } catch (Exception e) {
+                log.warn("忽略格式错误的绑定或设备变更消息", e);
+            }
+        }, List.of(new ChannelTopic(BINDING_CHANGED_CHANNEL), new ChannelTopic(DEVICE_CHANGED_CHANNEL)));
+        return container;
+    }
+}
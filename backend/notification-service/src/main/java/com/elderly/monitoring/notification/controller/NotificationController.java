@@ -10,14 +10,17 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * 通知控制器
@@ -163,6 +166,38 @@ public class NotificationController {
         }
     }
 
+    /**
+     * 向老人的照护圈（家庭成员、护工、医生）发送通知
+     * 
+     * @param residentId 老人的用户ID
+     * @param roles 接收的成员角色，不传时发送给全部成员
+     * @param template 通知模板，不指定发送方式时按各成员的通知设置选择
+     */
+    @PostMapping("/care-circle/{residentId}")
+    public ResponseEntity<Map<String, Object>> notifyCareCircle(
+            @PathVariable Long residentId,
+            @RequestParam(required = false) Set<String> roles,
+            @RequestBody Notification template) {
+        try {
+            List<Notification> createdNotifications = notificationService.notifyCareCircle(residentId, template, roles);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("data", createdNotifications);
+            response.put("total", createdNotifications.size());
+            response.put("message", "照护圈通知创建成功");
+            
+            return ResponseEntity.ok(response);
+            
+        } catch (Exception e) {
+            log.error("照护圈通知创建失败: residentId={}", residentId, e);
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "照护圈通知创建失败: " + e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
     /**
      * 发送通知
      */
@@ -233,6 +268,30 @@ public class NotificationController {
         }
     }
 
+    /**
+     * 标记用户全部通知为已读
+     */
+    @PatchMapping("/user/{userId}/read-all")
+    public ResponseEntity<Map<String, Object>> markAllAsRead(@PathVariable Long userId) {
+        try {
+            int updated = notificationService.markAllAsRead(userId);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("data", updated);
+            response.put("message", "全部标记已读成功");
+            
+            return ResponseEntity.ok(response);
+            
+        } catch (Exception e) {
+            log.error("标记全部通知为已读失败: userId={}", userId, e);
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "全部标记已读失败: " + e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
     /**
      * 删除通知
      */
@@ -375,6 +434,28 @@ public class NotificationController {
         }
     }
 
+    /**
+     * 订阅收件箱实时推送（SSE）
+     * 
+     * 连接建立后推送 unread 事件（当前未读数），之后推送 notification（新通知）与 unread（未读数变化）事件
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamInbox(@RequestParam Long userId) {
+        return notificationService.subscribeInbox(userId);
+    }
+
+    /**
+     * 获取通知分发统计（各发送通道的队列、吞吐量与延迟）
+     */
+    @GetMapping("/dispatcher/statistics")
+    public ResponseEntity<Map<String, Object>> getDispatchStatistics() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", notificationService.getDispatchStatistics());
+        response.put("message", "获取分发统计成功");
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * 处理过期通知
      */
@@ -423,6 +504,42 @@ public class NotificationController {
         }
     }
 
+    /**
+     * 归档已结束的通知
+     */
+    @PostMapping("/archive")
+    public ResponseEntity<Map<String, Object>> archiveNotifications() {
+        try {
+            int count = notificationService.archiveNotifications();
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("data", count);
+            response.put("message", "归档通知成功");
+            
+            return ResponseEntity.ok(response);
+            
+        } catch (Exception e) {
+            log.error("归档通知失败", e);
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "归档通知失败: " + e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    /**
+     * 获取维护任务（过期、归档、清理、全部已读）的执行进度
+     */
+    @GetMapping("/maintenance/statistics")
+    public ResponseEntity<Map<String, Object>> getMaintenanceStatistics() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", notificationService.getMaintenanceStatistics());
+        response.put("message", "获取维护任务统计成功");
+        return ResponseEntity.ok(response);
+    }
+
     // ==================== 通知设置相关接口 ====================
 
     /**
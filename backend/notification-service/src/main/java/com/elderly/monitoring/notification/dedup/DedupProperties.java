@@ -0,0 +1,39 @@
+package main.java.com.elderly.monitoring.notification.dedup;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 通知幂等去重配置
+ *
+ * @author System
+ * @since 1.0.0
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "notification.dedup")
+public class DedupProperties {
+
+    /**
+     * 是否按幂等键去重
+     */
+    private boolean enabled = true;
+
+    /**
+     * 去重窗口，相同幂等键的通知在窗口内只创建一次
+     */
+    private Duration window = Duration.ofHours(24);
+
+    /**
+     * 布隆过滤器在一个去重窗口内预计写入的键数
+     */
+    private int expectedKeys = 1_000_000;
+
+    /**
+     * 布隆过滤器的误判率，误判的键多一次数据库查询
+     */
+    private double falsePositiveRate = 0.01;
+}
@@ -0,0 +1,198 @@
+package main.java.com.elderly.monitoring.notification.dedup;
+
+import main.java.com.elderly.monitoring.notification.entity.Notification;
+import main.java.com.elderly.monitoring.notification.repository.NotificationDedupKeyRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 通知幂等去重
+ *
+ * 幂等键未指定时由 relatedType、relatedId、userId 和发送方式生成，没有关联对象的通知不去重。
+ * 唯一性由幂等键表的主键保证：键与通知在同一条INSERT语句中写入（见 NotificationBulkInsertRepository），
+ * 已被占用的键对应的通知不写入，不需要先查询。
+ *
+ * 写入前的检查只用于在路由（免打扰、汇总、每日上限计数）之前剔除重复通知：本实例写入过的键记录在
+ * 布隆过滤器中，过滤器判定为不存在的键（绝大多数）直接通过，判定为可能存在的键合并为一次查询确认。
+ * 过滤器按去重窗口轮换两代，其他实例写入的键由唯一约束兜底。
+ *
+ * @author System
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class NotificationDeduplicator {
+
+    /**
+     * 幂等键最大长度（与列长度一致）
+     */
+    public static final int MAX_KEY_LENGTH = 200;
+
+    private final NotificationDedupKeyRepository dedupKeyRepository;
+    private final DedupProperties properties;
+
+    private volatile BloomFilter current;
+    private volatile BloomFilter previous;
+    private volatile LocalDateTime currentSince = LocalDateTime.now();
+
+    private final AtomicLong suspected = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong falsePositives = new AtomicLong();
+
+    public NotificationDeduplicator(NotificationDedupKeyRepository dedupKeyRepository, DedupProperties properties) {
+        this.dedupKeyRepository = dedupKeyRepository;
+        this.properties = properties;
+        this.current = newFilter();
+        this.previous = newFilter();
+    }
+
+    /**
+     * 去重窗口的起始时间，早于该时间写入的键可被再次占用
+     */
+    public LocalDateTime windowStart() {
+        return LocalDateTime.now().minus(properties.getWindow());
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * 生成并设置幂等键，已指定时只校验长度
+     *
+     * @return 幂等键，不去重时返回null
+     * @throws IllegalArgumentException 指定的幂等键过长
+     */
+    public String assignKey(Notification notification) {
+        if (!properties.isEnabled()) {
+            notification.setDedupKey(null);
+            return null;
+        }
+        String key = notification.getDedupKey();
+        if (key != null && !key.isBlank()) {
+            if (key.length() > MAX_KEY_LENGTH) {
+                throw new IllegalArgumentException("幂等键长度不能超过" + MAX_KEY_LENGTH);
+            }
+            return key;
+        }
+        key = null;
+        if (notification.getRelatedType() != null && notification.getRelatedId() != null
+                && notification.getUserId() != null) {
+            key = notification.getRelatedType() + ":" + notification.getRelatedId() + ":"
+                    + notification.getUserId() + ":"
+                    + (notification.getSendMethod() != null ? notification.getSendMethod().name() : "-");
+        }
+        notification.setDedupKey(key);
+        return key;
+    }
+
+    /**
+     * 设置幂等键并剔除重复通知：同一批中的重复键只保留第一条，去重窗口内已写入的键不再写入
+     *
+     * @return 需要写入的通知（保持原顺序）
+     */
+    public List<Notification> removeDuplicates(List<Notification> notifications) {
+        if (!properties.isEnabled()) {
+            notifications.forEach(notification -> notification.setDedupKey(null));
+            return notifications;
+        }
+        Map<String, Notification> keyed = new LinkedHashMap<>();
+        Set<String> suspectedKeys = new HashSet<>();
+        List<Notification> accepted = new ArrayList<>(notifications.size());
+        for (Notification notification : notifications) {
+            String key = assignKey(notification);
+            if (key != null) {
+                if (keyed.putIfAbsent(key, notification) != null) {
+                    duplicates.incrementAndGet();
+                    continue;
+                }
+                if (mightContain(key)) {
+                    suspectedKeys.add(key);
+                }
+            }
+            accepted.add(notification);
+        }
+        if (suspectedKeys.isEmpty()) {
+            return accepted;
+        }
+
+        suspected.addAndGet(suspectedKeys.size());
+        Set<String> claimed = new HashSet<>(dedupKeyRepository.findClaimed(suspectedKeys, windowStart()));
+        falsePositives.addAndGet(suspectedKeys.size() - claimed.size());
+        if (!claimed.isEmpty()) {
+            duplicates.addAndGet(claimed.size());
+            accepted.removeIf(notification -> claimed.contains(notification.getDedupKey()));
+            log.info("忽略重复通知: keys={}", claimed);
+        }
+        return accepted;
+    }
+
+    /**
+     * 记录已写入（或已被其他请求占用）的幂等键
+     */
+    public void remember(List<Notification> notifications) {
+        rotateIfDue();
+        BloomFilter filter = current;
+        for (Notification notification : notifications) {
+            if (notification.getDedupKey() != null) {
+                filter.put(notification.getDedupKey());
+            }
+        }
+    }
+
+    /**
+     * 写入时因键已被占用而未写入的通知数（其他实例或并发请求先写入）
+     */
+    public void countRejected(int count) {
+        if (count > 0) {
+            duplicates.addAndGet(count);
+        }
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("enabled", properties.isEnabled());
+        statistics.put("window", properties.getWindow().toString());
+        statistics.put("duplicates", duplicates.get());
+        statistics.put("suspected", suspected.get());
+        statistics.put("falsePositives", falsePositives.get());
+        statistics.put("filterSince", currentSince);
+        return statistics;
+    }
+
+    private boolean mightContain(String key) {
+        rotateIfDue();
+        return current.mightContain(key) || previous.mightContain(key);
+    }
+
+    /**
+     * 当前一代写入满一个去重窗口后轮换，较早的键随上一代一起丢弃
+     */
+    private void rotateIfDue() {
+        if (currentSince.plus(properties.getWindow()).isAfter(LocalDateTime.now())) {
+            return;
+        }
+        synchronized (this) {
+            LocalDateTime now = LocalDateTime.now();
+            if (currentSince.plus(properties.getWindow()).isAfter(now)) {
+                return;
+            }
+            previous = current;
+            current = newFilter();
+            currentSince = now;
+        }
+    }
+
+    private BloomFilter newFilter() {
+        return new BloomFilter(properties.getExpectedKeys(), properties.getFalsePositiveRate());
+    }
+}
@@ -0,0 +1,96 @@
+package main.java.com.elderly.monitoring.notification.dispatch;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 服务商熔断器
+ * 
+ * 连续失败达到阈值后熔断，熔断期间不再领取和发送该服务商的通知（通知保持待发送，不消耗重试次数）。
+ * 熔断到期后进入半开状态，只放行一次试探调用：成功则恢复，失败则重新熔断。
+ * 试探调用超过熔断时长仍未返回结果时允许下一次试探。
+ * 
+ * @author System
+ * @since 1.0.0
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openNanos;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private long probeStartedAt;
+    private boolean probeInFlight;
+
+    public CircuitBreaker(String name, int failureThreshold, long openNanos) {
+        this.name = name;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openNanos = openNanos;
+    }
+
+    /**
+     * 是否允许发起一次调用；半开状态下只允许一个试探调用
+     */
+    public synchronized boolean allowRequest() {
+        if (state == State.CLOSED) {
+            return true;
+        }
+        if (!isProbeDue()) {
+            return false;
+        }
+        state = State.HALF_OPEN;
+        probeInFlight = true;
+        probeStartedAt = System.nanoTime();
+        return true;
+    }
+
+    /**
+     * 当前是否可以进行试探（熔断已到期且没有进行中的试探）
+     */
+    public synchronized boolean isProbeDue() {
+        long now = System.nanoTime();
+        if (state == State.OPEN) {
+            return now - openedAt >= openNanos;
+        }
+        if (state == State.HALF_OPEN) {
+            return !probeInFlight || now - probeStartedAt >= openNanos;
+        }
+        return false;
+    }
+
+    public synchronized void onSuccess() {
+        if (state != State.CLOSED) {
+            log.info("服务商熔断恢复: provider={}", name);
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        probeInFlight = false;
+    }
+
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            if (state != State.OPEN) {
+                log.warn("服务商熔断: provider={}, consecutiveFailures={}", name, consecutiveFailures);
+            }
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+            probeInFlight = false;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
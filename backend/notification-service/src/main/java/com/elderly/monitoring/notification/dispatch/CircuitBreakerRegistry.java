@@ -0,0 +1,34 @@
+package main.java.com.elderly.monitoring.notification.dispatch;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按服务商名称维护熔断器
+ * 
+ * @author System
+ * @since 1.0.0
+ */
+@Component
+@RequiredArgsConstructor
+public class CircuitBreakerRegistry {
+
+    private final RetryProperties properties;
+
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    public CircuitBreaker get(String provider) {
+        return breakers.computeIfAbsent(provider, name -> new CircuitBreaker(name,
+                properties.getBreaker().getFailureThreshold(), properties.getBreaker().getOpenDuration().toNanos()));
+    }
+
+    public Map<String, String> getStates() {
+        Map<String, String> states = new LinkedHashMap<>();
+        breakers.forEach((name, breaker) -> states.put(name, breaker.getState().name()));
+        return states;
+    }
+}
@@ -0,0 +1,299 @@
+package main.java.com.elderly.monitoring.notification.dispatch;
+
+import main.java.com.elderly.monitoring.notification.entity.Notification;
+import main.java.com.elderly.monitoring.notification.inbox.InboxService;
+import main.java.com.elderly.monitoring.notification.repository.NotificationRepository;
+import main.java.com.elderly.monitoring.notification.settings.UserNotificationProfile;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 延迟发送引擎
+ * 
+ * 创建通知时按用户设置快照中的类型规则决定立即发送还是延迟：
+ * - 开启汇总（batchInterval > 0）时，同一用户同一发送方式的通知归入当前汇总窗口，窗口结束时合并为一条发送；
+ * - 当日已发送数达到 maxDailyNotifications 时，延迟到次日，届时合并发送；
+ * - 计划时间落在免打扰时段（含周末免打扰）内时，推迟到免打扰结束。
+ * 紧急通知不受以上限制。
+ * 
+ * 延迟的通知以 DEFERRED 状态和计划发送时间持久化，内存中只保存按计划时间排序的 (用户, 发送方式) 放行项；
+ * 定时预加载只按 (status, scheduled_at) 索引读取一个预加载范围内到期的分组，不做全量扫描。
+ * 每日计数只为设置了每日上限的用户在内存中维护：当天首次检查上限时从数据库加载，之后在通知写入提交或延迟通知放行后累加；
+ * 多实例部署时各实例计数之间不同步。
+ * 
+ * @author System
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DeferredDeliveryEngine implements SmartLifecycle {
+
+    private final NotificationDispatchStore dispatchStore;
+    private final NotificationRepository notificationRepository;
+    private final NotificationDispatcher notificationDispatcher;
+    private final DeferredDeliveryProperties properties;
+    private final InboxService inboxService;
+
+    private final DelayQueue<ReleaseEntry> queue = new DelayQueue<>();
+    private final Set<ReleaseEntry> scheduled = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 各 (用户, 发送方式) 当前汇总窗口的放行时间
+     */
+    private final Map<DigestKey, LocalDateTime> openDigests = new ConcurrentHashMap<>();
+
+    private final Map<Long, DailyCount> dailyCounts = new ConcurrentHashMap<>();
+
+    private final AtomicLong deferred = new AtomicLong();
+    private final AtomicLong released = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread worker;
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled()) {
+            log.info("通知延迟发送已禁用");
+            return;
+        }
+        running = true;
+        worker = new Thread(this::drain, "notification-deferred");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            worker = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * 决定通知的发送时间，需要延迟时将通知置为延迟发送并设置计划发送时间
+     * 
+     * @param rule 用户对该通知类型的规则，可为null
+     */
+    public void plan(Notification notification, UserNotificationProfile.TypeRule rule) {
+        if (!running || rule == null || notification.isUrgent() || notification.getSendMethod() == null) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime releaseAt = null;
+        int batchInterval = rule.getBatchInterval();
+        if (batchInterval > 0) {
+            DigestKey key = new DigestKey(notification.getUserId(), notification.getSendMethod());
+            releaseAt = openDigests.compute(key, (k, current) -> current != null && current.isAfter(now)
+                    ? current : rule.nextDeliveryTime(now.plusMinutes(batchInterval)));
+        }
+        if (isOverDailyLimit(notification.getUserId(), rule.getMaxDailyNotifications())) {
+            LocalDateTime tomorrow = rule.nextDeliveryTime(now.toLocalDate().plusDays(1).atStartOfDay());
+            if (releaseAt == null || tomorrow.isAfter(releaseAt)) {
+                releaseAt = tomorrow;
+            }
+        }
+        if (releaseAt == null && rule.isQuietAt(now)) {
+            releaseAt = rule.nextDeliveryTime(now);
+        }
+
+        if (releaseAt == null) {
+            return;
+        }
+        notification.setStatus(Notification.NotificationStatus.DEFERRED);
+        notification.setScheduledAt(releaseAt);
+        deferred.incrementAndGet();
+    }
+
+    /**
+     * 安排延迟通知的放行（在通知写入提交后调用）
+     */
+    public void schedule(Notification notification) {
+        if (notification.getStatus() == Notification.NotificationStatus.DEFERRED && notification.getScheduledAt() != null) {
+            schedule(notification.getUserId(), notification.getSendMethod(), notification.getScheduledAt());
+        }
+    }
+
+    /**
+     * 累加立即发送的通知的每日计数（在通知写入提交后调用）
+     */
+    public void countDelivered(List<Notification> notifications) {
+        for (Notification notification : notifications) {
+            if (notification.getStatus() != Notification.NotificationStatus.DEFERRED) {
+                countDelivery(notification.getUserId());
+            }
+        }
+    }
+
+    /**
+     * 预加载即将到期的延迟通知分组
+     */
+    @Scheduled(fixedDelayString = "${notification.deferred.load-interval:60000}")
+    public void load() {
+        if (!running) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> due = dispatchStore.findDeferredDue(now.plus(properties.getLookahead()), properties.getLoadBatchSize());
+        for (Object[] row : due) {
+            Long userId = (Long) row[0];
+            Notification.SendMethod sendMethod = (Notification.SendMethod) row[1];
+            LocalDateTime releaseAt = (LocalDateTime) row[2];
+            schedule(userId, sendMethod, releaseAt);
+            if (releaseAt.isAfter(now)) {
+                // 重启后恢复汇总窗口，新通知继续归入已有窗口
+                openDigests.putIfAbsent(new DigestKey(userId, sendMethod), releaseAt);
+            }
+        }
+        openDigests.values().removeIf(releaseAt -> !releaseAt.isAfter(now));
+        log.debug("预加载延迟通知: groups={}, scheduled={}", due.size(), scheduled.size());
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("enabled", running);
+        statistics.put("scheduled", scheduled.size());
+        statistics.put("openDigests", openDigests.size());
+        statistics.put("deferred", deferred.get());
+        statistics.put("released", released.get());
+        return statistics;
+    }
+
+    private void schedule(Long userId, Notification.SendMethod sendMethod, LocalDateTime releaseAt) {
+        if (!running) {
+            return;
+        }
+        ReleaseEntry entry = new ReleaseEntry(userId, sendMethod,
+                releaseAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        if (scheduled.add(entry)) {
+            queue.add(entry);
+        }
+    }
+
+    private void drain() {
+        while (running) {
+            ReleaseEntry entry;
+            try {
+                entry = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            scheduled.remove(entry);
+
+            List<ReleaseEntry> due = new ArrayList<>();
+            due.add(entry);
+            queue.drainTo(due);
+            for (ReleaseEntry item : due) {
+                scheduled.remove(item);
+                try {
+                    Notification notification = dispatchStore.releaseDeferred(
+                            item.userId(), item.sendMethod(), properties.getDigestMaxLines());
+                    if (notification != null) {
+                        released.incrementAndGet();
+                        countDelivery(item.userId());
+                        notificationDispatcher.wakeUp(item.sendMethod());
+                        inboxService.notificationReleased(notification,
+                                NotificationDispatchStore.DIGEST_RELATED_TYPE.equals(notification.getRelatedType()));
+                    }
+                } catch (Exception e) {
+                    // 未放行的通知仍为延迟状态，下次预加载时重新安排
+                    log.error("放行延迟通知失败: userId={}, sendMethod={}", item.userId(), item.sendMethod(), e);
+                }
+            }
+        }
+    }
+
+    private boolean isOverDailyLimit(Long userId, int maxDailyNotifications) {
+        if (maxDailyNotifications <= 0) {
+            return false;
+        }
+        return dailyCount(userId).count.get() >= maxDailyNotifications;
+    }
+
+    /**
+     * 只累加已加载的计数：未设置每日上限的用户不加载也不维护计数
+     */
+    private void countDelivery(Long userId) {
+        if (!running || userId == null) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        DailyCount current = dailyCounts.get(userId);
+        if (current != null && current.date.equals(today)) {
+            current.count.incrementAndGet();
+        }
+    }
+
+    private DailyCount dailyCount(Long userId) {
+        LocalDate today = LocalDate.now();
+        DailyCount current = dailyCounts.get(userId);
+        if (current != null && current.date.equals(today)) {
+            return current;
+        }
+        long delivered = notificationRepository.countDeliveredSince(userId, today.atStartOfDay());
+        return dailyCounts.compute(userId, (id, existing) -> existing != null && existing.date.equals(today)
+                ? existing : new DailyCount(today, delivered));
+    }
+
+    /**
+     * 每日凌晨清理前一天的计数
+     */
+    @Scheduled(cron = "0 5 0 * * ?")
+    public void purgeDailyCounts() {
+        LocalDate today = LocalDate.now();
+        dailyCounts.values().removeIf(count -> !count.date.equals(today));
+    }
+
+    private static final class DailyCount {
+
+        private final LocalDate date;
+        private final AtomicLong count;
+
+        DailyCount(LocalDate date, long initial) {
+            this.date = date;
+            this.count = new AtomicLong(initial);
+        }
+    }
+
+    private record DigestKey(Long userId, Notification.SendMethod sendMethod) {
+    }
+
+    private record ReleaseEntry(Long userId, Notification.SendMethod sendMethod, long releaseAtMillis) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(releaseAtMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(releaseAtMillis, ((ReleaseEntry) other).releaseAtMillis);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package main.java.com.elderly.monitoring.notification.dispatch;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 延迟发送（免打扰、汇总、每日上限）配置
+ * 
+ * @author System
+ * @since 1.0.0
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "notification.deferred")
+public class DeferredDeliveryProperties {
+
+    /**
+     * 是否按用户设置延迟发送，关闭时所有通知立即发送
+     */
+    private boolean enabled = true;
+
+    /**
+     * 每次从数据库预加载的计划发送时间范围
+     */
+    private Duration lookahead = Duration.ofMinutes(5);
+
+    /**
+     * 单次预加载的最大用户/发送方式组数
+     */
+    private int loadBatchSize = 1000;
+
+    /**
+     * 汇总通知内容最多列出的通知条数
+     */
+    private int digestMaxLines = 10;
+}
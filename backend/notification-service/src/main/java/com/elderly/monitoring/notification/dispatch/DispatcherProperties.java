@@ -0,0 +1,94 @@
+package main.java.com.elderly.monitoring.notification.dispatch;
+
+import main.java.com.elderly.monitoring.notification.entity.Notification;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 通知分发配置
+ * 
+ * @author System
+ * @since 1.0.0
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "notification.dispatcher")
+public class DispatcherProperties {
+
+    /**
+     * 是否启用后台分发
+     */
+    private boolean enabled = true;
+
+    /**
+     * 无新通知唤醒时的轮询间隔
+     */
+    private Duration pollInterval = Duration.ofSeconds(1);
+
+    /**
+     * 单次领取的最大通知数
+     */
+    private int claimBatchSize = 100;
+
+    /**
+     * 发送中状态超过该时长视为实例异常遗留，恢复为待发送；
+     * 存活实例在每次超时检查时刷新所持有通知的领取时间，检查间隔须小于该时长
+     */
+    private Duration staleTimeout = Duration.ofMinutes(10);
+
+    /**
+     * 停止时等待进行中发送完成的时长
+     */
+    private Duration shutdownTimeout = Duration.ofSeconds(30);
+
+    /**
+     * 未单独配置的通道使用的默认值
+     */
+    private ChannelProperties defaults = new ChannelProperties();
+
+    /**
+     * 按发送方式单独配置
+     */
+    private Map<Notification.SendMethod, ChannelProperties> channels = new EnumMap<>(Notification.SendMethod.class);
+
+    public ChannelProperties forChannel(Notification.SendMethod sendMethod) {
+        return channels.getOrDefault(sendMethod, defaults);
+    }
+
+    /**
+     * 单个发送通道的配置
+     */
+    @Data
+    public static class ChannelProperties {
+
+        /**
+         * 工作线程数（同时进行的发送数）
+         */
+        private int concurrency = 4;
+
+        /**
+         * 每秒最大发送数（批量通道为服务商调用次数），0表示不限制
+         */
+        private double ratePerSecond = 0;
+
+        /**
+         * 本地队列容量，队列满时只领取紧急通知
+         */
+        private int queueCapacity = 200;
+
+        /**
+         * 批量通道收集同批通知的等待时间，紧急通知不等待
+         */
+        private Duration batchWindow = Duration.ofMillis(50);
+
+        /**
+         * 批量通道单批最大通知数，同时受服务商单次上限约束
+         */
+        private int maxBatchSize = 100;
+    }
+}
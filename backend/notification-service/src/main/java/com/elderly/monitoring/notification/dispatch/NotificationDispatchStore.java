@@ -0,0 +1,249 @@
+package main.java.com.elderly.monitoring.notification.dispatch;
+
+import main.java.com.elderly.monitoring.notification.entity.Notification;
+import main.java.com.elderly.monitoring.notification.repository.NotificationRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 通知分发的状态读写
+ * 
+ * 每个方法是一个短事务：领取时将通知置为发送中后立即提交，发送结果单独提交，
+ * 发送过程本身不持有数据库连接。结果写入均以"当前为发送中"为条件，
+ * 被恢复或已由其他途径处理的通知不会被覆盖。
+ * 
+ * @author System
+ * @since 1.0.0
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificationDispatchStore {
+
+    private static final List<Notification.NotificationStatus> SENDABLE = List.of(
+            Notification.NotificationStatus.PENDING, Notification.NotificationStatus.DEFERRED,
+            Notification.NotificationStatus.FAILED);
+
+    /**
+     * 汇总通知的关联类型
+     */
+    public static final String DIGEST_RELATED_TYPE = "DIGEST";
+
+    private final NotificationRepository notificationRepository;
+    private final RetryPolicy retryPolicy;
+
+    /**
+     * 领取指定发送方式的待发送通知
+     * 
+     * @param lowest 领取的最低优先级
+     * @return 已置为发送中的通知（已脱离持久化上下文）
+     */
+    @Transactional
+    public List<Notification> claim(Notification.SendMethod sendMethod, Notification.NotificationPriority lowest, int limit) {
+        List<Notification> notifications = notificationRepository.lockPendingForDispatch(
+                sendMethod.name(), rank(lowest), limit);
+        if (notifications.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Long> ids = notifications.stream().map(Notification::getId).toList();
+        notificationRepository.updateStatusAt(ids, Notification.NotificationStatus.SENDING, LocalDateTime.now());
+        notifications.forEach(notification -> notification.setStatus(Notification.NotificationStatus.SENDING));
+        return notifications;
+    }
+
+    /**
+     * 领取单个通知（待发送、延迟发送或发送失败）用于立即发送
+     */
+    @Transactional
+    public Optional<Notification> claim(Long notificationId) {
+        int updated = notificationRepository.transitionStatus(notificationId, SENDABLE,
+                Notification.NotificationStatus.SENDING, LocalDateTime.now());
+        if (updated == 0) {
+            return Optional.empty();
+        }
+        return notificationRepository.findById(notificationId);
+    }
+
+    @Transactional
+    public void markSent(Long notificationId, Notification.NotificationStatus status) {
+        LocalDateTime now = LocalDateTime.now();
+        notificationRepository.completeDispatch(notificationId, status, now, now);
+    }
+
+    /**
+     * 记录发送失败并按重试策略设置下次重试时间
+     * 
+     * @return 下次重试时间，不再重试时返回null
+     */
+    @Transactional
+    public LocalDateTime markFailed(Notification notification, String errorMessage) {
+        LocalDateTime nextAttemptAt = retryPolicy.nextAttemptAt(notification);
+        notificationRepository.failDispatch(notification.getId(), errorMessage, nextAttemptAt, LocalDateTime.now());
+        return nextAttemptAt;
+    }
+
+    /**
+     * 批量记录发送成功
+     */
+    @Transactional
+    public void markSent(List<Long> notificationIds, Notification.NotificationStatus status) {
+        if (!notificationIds.isEmpty()) {
+            LocalDateTime now = LocalDateTime.now();
+            notificationRepository.completeDispatchAll(notificationIds, status, now, now);
+        }
+    }
+
+    /**
+     * 批量记录发送失败（各通知失败原因不同）
+     * 
+     * @param errors 通知ID到失败原因
+     * @return 仍可重试的通知ID及下次重试时间
+     */
+    @Transactional
+    public Map<Long, LocalDateTime> markFailed(List<Notification> notifications, Map<Long, String> errors) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, LocalDateTime> retries = new HashMap<>();
+        for (Notification notification : notifications) {
+            LocalDateTime nextAttemptAt = retryPolicy.nextAttemptAt(notification);
+            notificationRepository.failDispatch(notification.getId(), errors.get(notification.getId()), nextAttemptAt, now);
+            if (nextAttemptAt != null) {
+                retries.put(notification.getId(), nextAttemptAt);
+            }
+        }
+        return retries;
+    }
+
+    /**
+     * 查询即将到期的重试
+     * 
+     * @return 通知ID与下次重试时间
+     */
+    @Transactional(readOnly = true)
+    public List<Object[]> findRetryDue(LocalDateTime horizon, int limit) {
+        return notificationRepository.findRetryDue(horizon, PageRequest.of(0, limit));
+    }
+
+    /**
+     * 将到期的失败通知转为待发送
+     */
+    @Transactional
+    public int promoteRetries(List<Long> notificationIds) {
+        return notificationRepository.promoteRetries(notificationIds, LocalDateTime.now());
+    }
+
+    @Transactional
+    public void markExpired(Long notificationId) {
+        notificationRepository.completeDispatch(notificationId, Notification.NotificationStatus.EXPIRED,
+                null, LocalDateTime.now());
+    }
+
+    /**
+     * 将已领取但未发送的通知退回待发送
+     */
+    @Transactional
+    public void release(List<Long> notificationIds) {
+        if (!notificationIds.isEmpty()) {
+            notificationRepository.updateStatusAt(notificationIds, Notification.NotificationStatus.PENDING,
+                    LocalDateTime.now());
+        }
+    }
+
+    /**
+     * 刷新本实例仍持有（排队或发送中）的通知的领取时间
+     */
+    @Transactional
+    public int touch(List<Long> notificationIds) {
+        if (notificationIds.isEmpty()) {
+            return 0;
+        }
+        return notificationRepository.touchDispatch(notificationIds, LocalDateTime.now());
+    }
+
+    /**
+     * 恢复超时未完成的发送
+     */
+    @Transactional
+    public int releaseStale(LocalDateTime before) {
+        return notificationRepository.releaseStaleDispatch(before, LocalDateTime.now());
+    }
+
+    /**
+     * 查询即将到期的延迟通知
+     * 
+     * @return 用户ID、发送方式与最早计划发送时间
+     */
+    @Transactional(readOnly = true)
+    public List<Object[]> findDeferredDue(LocalDateTime horizon, int limit) {
+        return notificationRepository.findDeferredDue(horizon, PageRequest.of(0, limit));
+    }
+
+    /**
+     * 放行用户在指定发送方式下已到期的延迟通知
+     * 
+     * 只有一条时直接转为待发送；多条时合并为一条汇总通知待发送，原通知标记为已合并发送。
+     * 到期通知以 FOR UPDATE SKIP LOCKED 锁定，多个实例同时放行同一分组时只生成一条汇总通知。
+     * 
+     * @param maxLines 汇总内容最多列出的通知条数
+     * @return 放行的通知（单条通知或新建的汇总通知），没有到期通知时返回null
+     */
+    @Transactional
+    public Notification releaseDeferred(Long userId, Notification.SendMethod sendMethod, int maxLines) {
+        LocalDateTime now = LocalDateTime.now();
+        // 多个实例会安排同一分组的放行，锁定后只有一个实例处理，其余实例得到空结果
+        List<Notification> due = notificationRepository.lockDeferredByUser(userId, sendMethod.name(), now);
+        if (due.isEmpty()) {
+            return null;
+        }
+        List<Long> ids = due.stream().map(Notification::getId).toList();
+        if (due.size() == 1) {
+            return notificationRepository.releaseDeferred(ids, now) > 0 ? due.get(0) : null;
+        }
+
+        Notification top = due.stream().max(Comparator.comparing(Notification::getPriority)).get();
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < due.size() && i < maxLines; i++) {
+            Notification notification = due.get(i);
+            content.append("• [").append(notification.getType().getDescription()).append("] ")
+                    .append(notification.getTitle()).append('\n');
+        }
+        if (due.size() > maxLines) {
+            content.append("等共").append(due.size()).append("条通知");
+        }
+
+        Notification digest = new Notification()
+                .setUserId(userId)
+                .setType(top.getType())
+                .setPriority(top.getPriority())
+                .setSendMethod(sendMethod)
+                .setStatus(Notification.NotificationStatus.PENDING)
+                .setTitle("您有" + due.size() + "条新通知")
+                .setContent(content.toString().trim())
+                .setRelatedType(DIGEST_RELATED_TYPE)
+                .setExtraData("{\"digestOf\":" + ids + "}");
+        if (notificationRepository.markDigested(ids, now) < ids.size()) {
+            // 部分通知已被其他途径处理，放弃本次合并，未处理的通知在下次放行时重新合并
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return null;
+        }
+        notificationRepository.save(digest);
+        return digest;
+    }
+
+    /**
+     * 优先级序号，与 lockPendingForDispatch 中的CASE表达式一致
+     */
+    private static int rank(Notification.NotificationPriority priority) {
+        return Notification.NotificationPriority.URGENT.ordinal() - priority.ordinal();
+    }
+}
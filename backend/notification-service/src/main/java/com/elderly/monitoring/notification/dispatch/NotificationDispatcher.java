@@ -0,0 +1,577 @@
+package main.java.com.elderly.monitoring.notification.dispatch;
+
+import main.java.com.elderly.monitoring.notification.entity.Notification;
+import main.java.com.elderly.monitoring.notification.sender.BatchNotificationSender;
+import main.java.com.elderly.monitoring.notification.sender.NotificationSender;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 通知分发器
+ *
+ * notifications 表中的待发送记录即为持久队列。每种发送方式一个通道：
+ * 领取线程按优先级从表中领取通知（FOR UPDATE SKIP LOCKED，多实例互不重复），
+ * 放入本地优先队列；固定数量的工作线程从队列头部取出发送，紧急通知总是先于普通通知。
+ * 本地队列满时只领取紧急通知，保证其不排在本地积压之后。
+ *
+ * 领取与结果写入各自是短事务，发送过程不持有数据库连接。
+ * 本实例持有（本地排队或发送中）的通知在每次超时检查前刷新领取时间，
+ * 排队时间超过超时时长的通知不会被任何实例当作遗留恢复而重复发送。
+ * 支持批量的通道（短信、邮件、推送）在短时间窗口内收集通知，按服务商和模板合并为一次调用。
+ *
+ * @author System
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationDispatcher implements SmartLifecycle {
+
+    /**
+     * 优先级高的在前，同优先级按创建时间先后
+     */
+    private static final Comparator<Notification> DISPATCH_ORDER = Comparator
+            .comparing(Notification::getPriority, Comparator.reverseOrder())
+            .thenComparing(Notification::getCreatedAt, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(Notification::getId);
+
+    /**
+     * 吞吐量统计窗口（秒）
+     */
+    private static final int THROUGHPUT_WINDOW_SECONDS = 60;
+
+    private final List<NotificationSender> senders;
+    private final NotificationDispatchStore dispatchStore;
+    private final DispatcherProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final RetryScheduler retryScheduler;
+    private final CircuitBreakerRegistry circuitBreakers;
+
+    private final Map<Notification.SendMethod, Channel> channels = new EnumMap<>(Notification.SendMethod.class);
+
+    private volatile boolean running;
+
+    @PostConstruct
+    public void init() {
+        for (NotificationSender sender : senders) {
+            Notification.SendMethod sendMethod = sender.getSendMethod();
+            channels.put(sendMethod, new Channel(sendMethod, sender, properties.forChannel(sendMethod)));
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled()) {
+            log.info("通知后台分发已禁用");
+            return;
+        }
+        running = true;
+        channels.values().forEach(Channel::start);
+        log.info("通知分发器已启动: channels={}", channels.keySet());
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        channels.values().forEach(Channel::stop);
+        long deadline = System.nanoTime() + properties.getShutdownTimeout().toNanos();
+        for (Channel channel : channels.values()) {
+            channel.await(deadline);
+        }
+        log.info("通知分发器已停止");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * 有新的待发送通知时唤醒对应通道立即领取，不必等待下一次轮询
+     */
+    public void wakeUp(Notification.SendMethod sendMethod) {
+        Channel channel = sendMethod != null ? channels.get(sendMethod) : null;
+        if (channel != null) {
+            channel.signal();
+        }
+    }
+
+    /**
+     * 立即发送指定通知（待发送、延迟发送或发送失败的通知，延迟发送的通知不再等待）
+     *
+     * @return 是否发送成功
+     */
+    public boolean sendNow(Long notificationId) {
+        Optional<Notification> claimed = dispatchStore.claim(notificationId);
+        if (claimed.isEmpty()) {
+            log.warn("通知不存在或不处于可发送状态: id={}", notificationId);
+            return false;
+        }
+
+        Notification notification = claimed.get();
+        Channel channel = notification.getSendMethod() != null ? channels.get(notification.getSendMethod()) : null;
+        if (channel == null) {
+            log.warn("不支持的通知发送方式: {}", notification.getSendMethod());
+            retryScheduler.schedule(notificationId,
+                    dispatchStore.markFailed(notification, "不支持的通知发送方式: " + notification.getSendMethod()));
+            return false;
+        }
+        channel.held.add(notificationId);
+        try {
+            return channel.deliver(notification);
+        } finally {
+            channel.held.remove(notificationId);
+        }
+    }
+
+    /**
+     * 恢复超时仍处于发送中的通知，先刷新本实例仍持有的通知
+     */
+    @Scheduled(fixedDelayString = "${notification.dispatcher.stale-check-interval:60000}")
+    public void releaseStale() {
+        if (!running) {
+            return;
+        }
+        List<Long> held = new ArrayList<>();
+        channels.values().forEach(channel -> held.addAll(channel.held));
+        dispatchStore.touch(held);
+        int released = dispatchStore.releaseStale(LocalDateTime.now().minus(properties.getStaleTimeout()));
+        if (released > 0) {
+            log.warn("恢复超时未完成的通知发送: count={}", released);
+        }
+    }
+
+    /**
+     * 各通道的分发统计
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("running", running);
+        Map<String, Object> channelStatistics = new LinkedHashMap<>();
+        for (Channel channel : channels.values()) {
+            channelStatistics.put(channel.sendMethod.name(), channel.statistics());
+        }
+        statistics.put("channels", channelStatistics);
+        statistics.put("retry", retryScheduler.getStatistics());
+        return statistics;
+    }
+
+    /**
+     * 单个发送通道：本地优先队列、领取线程、工作线程与统计
+     */
+    private final class Channel {
+
+        private final Notification.SendMethod sendMethod;
+        private final NotificationSender sender;
+        private final BatchNotificationSender batchSender;
+        private final DispatcherProperties.ChannelProperties config;
+        private final CircuitBreaker breaker;
+
+        private final PriorityBlockingQueue<Notification> queue = new PriorityBlockingQueue<>(64, DISPATCH_ORDER);
+
+        /**
+         * 已领取、结果尚未写回的通知ID（本地排队或发送中）
+         */
+        private final Set<Long> held = ConcurrentHashMap.newKeySet();
+        private final BlockingQueue<Boolean> wakeUps = new ArrayBlockingQueue<>(1);
+        private final List<Thread> threads = new ArrayList<>();
+
+        /**
+         * 下一次允许发送的时间（纳秒），用于限速
+         */
+        private final AtomicLong nextPermitNanos = new AtomicLong(System.nanoTime());
+        private final long permitIntervalNanos;
+
+        private final AtomicLong sent = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong expired = new AtomicLong();
+        private final AtomicLong inFlight = new AtomicLong();
+        private final AtomicLong providerCalls = new AtomicLong();
+        private final AtomicLongArray completedPerSecond = new AtomicLongArray(THROUGHPUT_WINDOW_SECONDS);
+        private final AtomicLongArray bucketSecond = new AtomicLongArray(THROUGHPUT_WINDOW_SECONDS);
+        private final Timer successTimer;
+        private final Timer failureTimer;
+
+        private Thread feeder;
+
+        Channel(Notification.SendMethod sendMethod, NotificationSender sender, DispatcherProperties.ChannelProperties config) {
+            this.sendMethod = sendMethod;
+            this.sender = sender;
+            this.batchSender = sender instanceof BatchNotificationSender ? (BatchNotificationSender) sender : null;
+            this.config = config;
+            this.breaker = circuitBreakers.get(sender.getProviderName());
+            this.permitIntervalNanos = config.getRatePerSecond() > 0
+                    ? (long) (TimeUnit.SECONDS.toNanos(1) / config.getRatePerSecond()) : 0;
+            this.successTimer = Timer.builder("notification.dispatch")
+                    .tag("channel", sendMethod.name()).tag("outcome", "success").register(meterRegistry);
+            this.failureTimer = Timer.builder("notification.dispatch")
+                    .tag("channel", sendMethod.name()).tag("outcome", "failure").register(meterRegistry);
+        }
+
+        void start() {
+            String prefix = "notification-" + sendMethod.name().toLowerCase();
+            feeder = new Thread(this::feed, prefix + "-feeder");
+            feeder.setDaemon(true);
+            feeder.start();
+            for (int i = 0; i < Math.max(1, config.getConcurrency()); i++) {
+                Thread worker = new Thread(this::work, prefix + "-worker-" + i);
+                worker.setDaemon(true);
+                worker.start();
+                threads.add(worker);
+            }
+        }
+
+        void stop() {
+            signal();
+        }
+
+        /**
+         * 等待进行中的发送完成，并退回尚未发送的通知
+         */
+        void await(long deadlineNanos) {
+            threads.add(feeder);
+            for (Thread thread : threads) {
+                long remaining = deadlineNanos - System.nanoTime();
+                try {
+                    thread.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(remaining)));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            threads.clear();
+
+            List<Notification> remaining = new ArrayList<>();
+            queue.drainTo(remaining);
+            if (!remaining.isEmpty()) {
+                List<Long> ids = remaining.stream().map(Notification::getId).toList();
+                dispatchStore.release(ids);
+                ids.forEach(held::remove);
+                log.info("退回未发送的通知: channel={}, count={}", sendMethod, remaining.size());
+            }
+        }
+
+        void signal() {
+            wakeUps.offer(Boolean.TRUE);
+        }
+
+        /**
+         * 领取循环：被唤醒或轮询间隔到达时领取，领满一批说明还有积压，继续领取
+         */
+        private void feed() {
+            while (running) {
+                try {
+                    wakeUps.poll(properties.getPollInterval().toMillis(), TimeUnit.MILLISECONDS);
+                    if (!running) {
+                        return;
+                    }
+                    int room = config.getQueueCapacity() - queue.size();
+                    Notification.NotificationPriority lowest;
+                    int limit;
+                    if (breaker.getState() != CircuitBreaker.State.CLOSED) {
+                        // 熔断期间不领取，通知留在表中；熔断到期且本地队列已清空时只领取一条作为试探
+                        if (!breaker.isProbeDue() || !queue.isEmpty()) {
+                            continue;
+                        }
+                        lowest = Notification.NotificationPriority.LOW;
+                        limit = 1;
+                    } else {
+                        lowest = room > 0 ? Notification.NotificationPriority.LOW : Notification.NotificationPriority.URGENT;
+                        limit = room > 0 ? Math.min(room, properties.getClaimBatchSize()) : properties.getClaimBatchSize();
+                    }
+                    List<Notification> claimed = dispatchStore.claim(sendMethod, lowest, limit);
+                    claimed.forEach(notification -> held.add(notification.getId()));
+                    queue.addAll(claimed);
+                    if (claimed.size() == limit && room > limit) {
+                        signal();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (Exception e) {
+                    log.error("领取待发送通知失败: channel={}", sendMethod, e);
+                }
+            }
+        }
+
+        private void work() {
+            while (running) {
+                Notification head;
+                try {
+                    head = queue.poll(1, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (head == null) {
+                    continue;
+                }
+
+                List<List<Notification>> groups = batchSender != null ? collectGroups(head) : List.of(List.of(head));
+                for (int i = 0; i < groups.size(); i++) {
+                    List<Notification> group = groups.get(i);
+                    try {
+                        acquirePermit();
+                    } catch (InterruptedException e) {
+                        groups.subList(i, groups.size()).forEach(queue::addAll);
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    try {
+                        if (batchSender != null) {
+                            deliverBatch(group);
+                        } else {
+                            deliver(group.get(0));
+                        }
+                    } catch (Exception e) {
+                        // 结果写入失败时通知保持发送中，不再刷新，由超时恢复重新发送
+                        log.error("记录通知发送结果失败: channel={}, count={}", sendMethod, group.size(), e);
+                    } finally {
+                        group.forEach(notification -> held.remove(notification.getId()));
+                    }
+                }
+            }
+        }
+
+        /**
+         * 在批量窗口内继续收集通知并按合并键分组；收集到紧急通知后不再等待
+         */
+        private List<List<Notification>> collectGroups(Notification head) {
+            List<Notification> collected = new ArrayList<>();
+            collected.add(head);
+            int limit = Math.max(1, Math.min(config.getMaxBatchSize(), batchSender.getMaxBatchSize()));
+            long deadline = System.nanoTime() + config.getBatchWindow().toNanos();
+            boolean urgent = head.isUrgent();
+            try {
+                while (collected.size() < limit) {
+                    long wait = urgent ? 0 : deadline - System.nanoTime();
+                    Notification next = wait > 0 ? queue.poll(wait, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    collected.add(next);
+                    urgent |= next.isUrgent();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            Map<String, List<Notification>> groups = new LinkedHashMap<>();
+            for (Notification notification : collected) {
+                groups.computeIfAbsent(batchSender.batchKey(notification), key -> new ArrayList<>()).add(notification);
+            }
+            return new ArrayList<>(groups.values());
+        }
+
+        /**
+         * 按配置速率限速，多个工作线程共享同一速率
+         */
+        private void acquirePermit() throws InterruptedException {
+            if (permitIntervalNanos <= 0) {
+                return;
+            }
+            long now = System.nanoTime();
+            long slot = nextPermitNanos.getAndAccumulate(now,
+                    (next, current) -> Math.max(next, current) + permitIntervalNanos);
+            long wait = Math.max(slot, now) - now;
+            if (wait > 0) {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+        }
+
+        /**
+         * 发送已领取的通知并记录结果
+         */
+        boolean deliver(Notification notification) {
+            if (notification.isExpired()) {
+                dispatchStore.markExpired(notification.getId());
+                expired.incrementAndGet();
+                log.info("通知已过期，不再发送: id={}", notification.getId());
+                return false;
+            }
+
+            if (batchSender == null && !breaker.allowRequest()) {
+                // 服务商熔断中，退回待发送，不消耗重试次数
+                dispatchStore.release(List.of(notification.getId()));
+                return false;
+            }
+
+            log.info("发送通知: id={}, userId={}, type={}, priority={}",
+                    notification.getId(), notification.getUserId(), notification.getType(), notification.getPriority());
+            String errorMessage = null;
+            long start = System.nanoTime();
+            inFlight.incrementAndGet();
+            providerCalls.incrementAndGet();
+            try {
+                if (!sender.send(notification)) {
+                    errorMessage = "发送失败";
+                }
+            } catch (Exception e) {
+                log.error("发送通知异常: id={}", notification.getId(), e);
+                errorMessage = "发送异常: " + e.getMessage();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            long elapsed = System.nanoTime() - start;
+            recordCompletion(1);
+            if (batchSender == null) {
+                // 批量通道的服务商调用结果由服务商包装层记录
+                if (errorMessage == null) {
+                    breaker.onSuccess();
+                } else {
+                    breaker.onFailure();
+                }
+            }
+
+            if (errorMessage == null) {
+                successTimer.record(elapsed, TimeUnit.NANOSECONDS);
+                sent.incrementAndGet();
+                Notification.NotificationStatus status =
+                        notification.getStatus() == Notification.NotificationStatus.DELIVERED
+                                ? Notification.NotificationStatus.DELIVERED : Notification.NotificationStatus.SENT;
+                dispatchStore.markSent(notification.getId(), status);
+                log.info("通知发送成功: id={}", notification.getId());
+                return true;
+            } else {
+                failureTimer.record(elapsed, TimeUnit.NANOSECONDS);
+                failed.incrementAndGet();
+                retryScheduler.schedule(notification.getId(), dispatchStore.markFailed(notification, errorMessage));
+                log.error("通知发送失败: id={}", notification.getId());
+                return false;
+            }
+        }
+
+        /**
+         * 一次服务商调用发送一组通知，逐条结果批量写回
+         */
+        private void deliverBatch(List<Notification> group) {
+            List<Notification> live = new ArrayList<>(group.size());
+            for (Notification notification : group) {
+                if (notification.isExpired()) {
+                    dispatchStore.markExpired(notification.getId());
+                    expired.incrementAndGet();
+                } else {
+                    live.add(notification);
+                }
+            }
+            if (live.isEmpty()) {
+                return;
+            }
+            if (!breaker.allowRequest()) {
+                dispatchStore.release(live.stream().map(Notification::getId).toList());
+                return;
+            }
+
+            Map<Long, String> failures;
+            long start = System.nanoTime();
+            inFlight.addAndGet(live.size());
+            providerCalls.incrementAndGet();
+            try {
+                failures = batchSender.sendBatch(live);
+            } catch (Exception e) {
+                log.error("批量发送通知异常: channel={}, count={}", sendMethod, live.size(), e);
+                failures = new HashMap<>();
+                for (Notification notification : live) {
+                    failures.put(notification.getId(), "发送异常: " + e.getMessage());
+                }
+            } finally {
+                inFlight.addAndGet(-live.size());
+            }
+            long elapsed = System.nanoTime() - start;
+            recordCompletion(live.size());
+
+            List<Long> sentIds = new ArrayList<>(live.size());
+            List<Notification> rejected = new ArrayList<>();
+            for (Notification notification : live) {
+                if (failures.containsKey(notification.getId())) {
+                    rejected.add(notification);
+                    failureTimer.record(elapsed, TimeUnit.NANOSECONDS);
+                } else {
+                    sentIds.add(notification.getId());
+                    successTimer.record(elapsed, TimeUnit.NANOSECONDS);
+                }
+            }
+            sent.addAndGet(sentIds.size());
+            failed.addAndGet(rejected.size());
+            dispatchStore.markSent(sentIds, Notification.NotificationStatus.SENT);
+            if (!rejected.isEmpty()) {
+                dispatchStore.markFailed(rejected, failures).forEach(retryScheduler::schedule);
+            }
+            log.info("批量发送通知: channel={}, count={}, failed={}, elapsedMs={}",
+                    sendMethod, live.size(), rejected.size(), TimeUnit.NANOSECONDS.toMillis(elapsed));
+        }
+
+        private void recordCompletion(int count) {
+            long second = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+            int index = (int) (second % THROUGHPUT_WINDOW_SECONDS);
+            long previous = bucketSecond.get(index);
+            if (previous != second && bucketSecond.compareAndSet(index, previous, second)) {
+                completedPerSecond.set(index, 0);
+            }
+            completedPerSecond.addAndGet(index, count);
+        }
+
+        /**
+         * 最近一个完整窗口内的每秒完成数（不含当前未结束的一秒）
+         */
+        private double throughput() {
+            long current = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+            long total = 0;
+            for (int i = 0; i < THROUGHPUT_WINDOW_SECONDS; i++) {
+                long second = bucketSecond.get(i);
+                if (second < current && second >= current - THROUGHPUT_WINDOW_SECONDS) {
+                    total += completedPerSecond.get(i);
+                }
+            }
+            return (double) total / THROUGHPUT_WINDOW_SECONDS;
+        }
+
+        Map<String, Object> statistics() {
+            Map<String, Object> statistics = new LinkedHashMap<>();
+            statistics.put("concurrency", config.getConcurrency());
+            statistics.put("ratePerSecond", config.getRatePerSecond());
+            statistics.put("batching", batchSender != null);
+            statistics.put("provider", breaker.getName());
+            statistics.put("circuitState", breaker.getState().name());
+            statistics.put("queued", queue.size());
+            statistics.put("inFlight", inFlight.get());
+            statistics.put("sent", sent.get());
+            statistics.put("failed", failed.get());
+            statistics.put("expired", expired.get());
+            statistics.put("providerCalls", providerCalls.get());
+            statistics.put("averageBatchSize", providerCalls.get() > 0
+                    ? (double) (sent.get() + failed.get()) / providerCalls.get() : 0d);
+            statistics.put("throughputPerSecond", throughput());
+            statistics.put("meanLatencyMs", successTimer.count() > 0 ? successTimer.mean(TimeUnit.MILLISECONDS) : 0d);
+            statistics.put("maxLatencyMs", successTimer.max(TimeUnit.MILLISECONDS));
+            return statistics;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package main.java.com.elderly.monitoring.notification.dispatch;
+
+import main.java.com.elderly.monitoring.notification.entity.Notification;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 重试时间计算：指数退避加随机抖动
+ * 
+ * 第n次重试的延迟为 min(上限, 基础延迟 * 倍数^(n-1))，实际取其一半加上[0, 一半)的随机值，
+ * 同一时刻失败的大量通知不会在同一时刻重试。
+ * 
+ * @author System
+ * @since 1.0.0
+ */
+@Component
+@RequiredArgsConstructor
+public class RetryPolicy {
+
+    private final RetryProperties properties;
+
+    /**
+     * 计算本次失败后的下次重试时间
+     * 
+     * @param notification 失败的通知（重试次数为本次失败前的值）
+     * @return 下次重试时间，不再重试时返回null
+     */
+    public LocalDateTime nextAttemptAt(Notification notification) {
+        int attempts = (notification.getRetryCount() != null ? notification.getRetryCount() : 0) + 1;
+        int maxAttempts = notification.getMaxRetryCount() != null ? notification.getMaxRetryCount() : 0;
+        if (!properties.isEnabled() || attempts >= maxAttempts) {
+            return null;
+        }
+
+        double backoff = properties.getDelay().toMillis() * Math.pow(properties.getMultiplier(), attempts - 1);
+        long delay = (long) Math.min(properties.getMaxDelay().toMillis(), backoff);
+        long half = Math.max(1, delay / 2);
+        long jittered = half + ThreadLocalRandom.current().nextLong(half);
+        return LocalDateTime.now().plus(jittered, ChronoUnit.MILLIS);
+    }
+}
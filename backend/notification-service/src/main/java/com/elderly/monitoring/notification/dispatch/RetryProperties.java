@@ -0,0 +1,68 @@
+package main.java.com.elderly.monitoring.notification.dispatch;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 失败重试与熔断配置
+ * 
+ * @author System
+ * @since 1.0.0
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "notification.retry")
+public class RetryProperties {
+
+    /**
+     * 是否自动重试
+     */
+    private boolean enabled = true;
+
+    /**
+     * 首次重试的基础延迟
+     */
+    private Duration delay = Duration.ofSeconds(5);
+
+    /**
+     * 每次重试延迟的增长倍数
+     */
+    private double multiplier = 2.0;
+
+    /**
+     * 重试延迟上限
+     */
+    private Duration maxDelay = Duration.ofMinutes(30);
+
+    /**
+     * 每次从数据库预加载的重试时间范围
+     */
+    private Duration lookahead = Duration.ofMinutes(1);
+
+    /**
+     * 单次预加载的最大通知数
+     */
+    private int loadBatchSize = 500;
+
+    /**
+     * 熔断配置
+     */
+    private Breaker breaker = new Breaker();
+
+    @Data
+    public static class Breaker {
+
+        /**
+         * 连续失败多少次后熔断
+         */
+        private int failureThreshold = 5;
+
+        /**
+         * 熔断持续时间，到期后放行一次试探调用
+         */
+        private Duration openDuration = Duration.ofSeconds(30);
+    }
+}
@@ -0,0 +1,155 @@
+package main.java.com.elderly.monitoring.notification.dispatch;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 失败通知重试调度
+ * 
+ * 发送失败时按 {@link RetryPolicy} 计算下次重试时间写入 next_attempt_at，并放入按重试时间排序的延迟队列。
+ * 到期的通知批量转为待发送，由分发器按优先级、限速和熔断状态正常发送。
+ * 
+ * 其他实例或重启前遗留的失败通知由定时预加载补入延迟队列：每次只按 (status, next_attempt_at)
+ * 索引读取未来一个预加载范围内到期的通知，不扫描整个失败集合。转为待发送的更新以"当前为失败"为条件，
+ * 多个实例加载到同一通知也只会转换一次。
+ * 
+ * @author System
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RetryScheduler implements SmartLifecycle {
+
+    private final NotificationDispatchStore dispatchStore;
+    private final RetryProperties properties;
+
+    private final DelayQueue<RetryEntry> queue = new DelayQueue<>();
+    private final Set<Long> scheduled = ConcurrentHashMap.newKeySet();
+    private final AtomicLong promoted = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread worker;
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled()) {
+            log.info("通知自动重试已禁用");
+            return;
+        }
+        running = true;
+        worker = new Thread(this::drain, "notification-retry");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            worker = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * 安排一次重试
+     * 
+     * @param nextAttemptAt 重试时间，为null表示不再重试
+     */
+    public void schedule(Long notificationId, LocalDateTime nextAttemptAt) {
+        if (nextAttemptAt == null || !running) {
+            return;
+        }
+        if (scheduled.add(notificationId)) {
+            queue.add(new RetryEntry(notificationId, toEpochMillis(nextAttemptAt)));
+        }
+    }
+
+    /**
+     * 预加载即将到期的失败通知
+     */
+    @Scheduled(fixedDelayString = "${notification.retry.load-interval:30000}")
+    public void load() {
+        if (!running) {
+            return;
+        }
+        LocalDateTime horizon = LocalDateTime.now().plus(properties.getLookahead());
+        List<Object[]> due = dispatchStore.findRetryDue(horizon, properties.getLoadBatchSize());
+        for (Object[] row : due) {
+            schedule((Long) row[0], (LocalDateTime) row[1]);
+        }
+        log.debug("预加载重试通知: count={}, scheduled={}", due.size(), scheduled.size());
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("enabled", running);
+        statistics.put("scheduled", scheduled.size());
+        statistics.put("promoted", promoted.get());
+        return statistics;
+    }
+
+    private void drain() {
+        while (running) {
+            List<RetryEntry> due = new ArrayList<>();
+            try {
+                RetryEntry first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                due.add(first);
+                queue.drainTo(due, Math.max(0, properties.getLoadBatchSize() - 1));
+
+                List<Long> ids = due.stream().map(RetryEntry::notificationId).toList();
+                promoted.addAndGet(dispatchStore.promoteRetries(ids));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                // 未转换的通知仍为失败状态，下次预加载时重新安排
+                log.error("重试通知转为待发送失败: count={}", due.size(), e);
+            } finally {
+                due.forEach(entry -> scheduled.remove(entry.notificationId()));
+            }
+        }
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private record RetryEntry(Long notificationId, long dueAtMillis) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueAtMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(dueAtMillis, ((RetryEntry) other).dueAtMillis);
+        }
+    }
+}
@@ -18,11 +18,16 @@ import java.time.LocalDateTime;
 @Accessors(chain = true)
 @Entity
 @Table(name = "notifications", indexes = {
-    @Index(name = "idx_user_id", columnList = "user_id"),
+    @Index(name = "idx_user_created", columnList = "user_id, created_at"),
     @Index(name = "idx_type", columnList = "type"),
     @Index(name = "idx_status", columnList = "status"),
     @Index(name = "idx_created_at", columnList = "created_at"),
-    @Index(name = "idx_read_at", columnList = "read_at")
+    @Index(name = "idx_read_at", columnList = "read_at"),
+    @Index(name = "idx_dispatch", columnList = "status, send_method, created_at"),
+    @Index(name = "idx_retry", columnList = "status, next_attempt_at"),
+    @Index(name = "idx_deferred", columnList = "status, scheduled_at"),
+    @Index(name = "idx_expire", columnList = "expire_at"),
+    @Index(name = "idx_dedup_key", columnList = "dedup_key")
 })
 public class Notification {
 
@@ -127,6 +132,18 @@ public class Notification {
     @Column(name = "max_retry_count")
     private Integer maxRetryCount = 3;
 
+    /**
+     * 计划发送时间（因免打扰、汇总或每日上限而延迟发送时设置）
+     */
+    @Column(name = "scheduled_at")
+    private LocalDateTime scheduledAt;
+
+    /**
+     * 下次重试时间（发送失败且仍可重试时设置）
+     */
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
     /**
      * 错误信息
      */
@@ -139,6 +156,12 @@ public class Notification {
     @Column(name = "extra_data", columnDefinition = "TEXT")
     private String extraData;
 
+    /**
+     * 幂等键，相同键的通知在去重窗口内只创建一次（未指定时由关联对象、用户和发送方式生成）
+     */
+    @Column(name = "dedup_key", length = 200)
+    private String dedupKey;
+
     /**
      * 创建时间
      */
@@ -192,11 +215,13 @@ public class Notification {
      */
     public enum NotificationStatus {
         PENDING("待发送"),
+        DEFERRED("延迟发送"),
         SENDING("发送中"),
         SENT("已发送"),
         DELIVERED("已送达"),
         READ("已读"),
         FAILED("发送失败"),
+        DIGESTED("已合并发送"),
         EXPIRED("已过期");
 
         private final String description;
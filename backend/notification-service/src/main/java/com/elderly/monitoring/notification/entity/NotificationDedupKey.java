@@ -0,0 +1,36 @@
+package main.java.com.elderly.monitoring.notification.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 通知幂等键
+ *
+ * 通知表按创建时间分区，唯一索引必须包含分区键，无法按幂等键去重；
+ * 幂等键单独保存在此表中，主键即唯一约束，与通知在同一条语句中写入。
+ *
+ * @author System
+ * @since 1.0.0
+ */
+@Data
+@Entity
+@Table(name = "notification_dedup_keys", indexes = {
+    @Index(name = "idx_dedup_keys_created_at", columnList = "created_at")
+})
+public class NotificationDedupKey {
+
+    /**
+     * 幂等键
+     */
+    @Id
+    @Column(name = "dedup_key", length = 200)
+    private String dedupKey;
+
+    /**
+     * 写入时间，超过去重窗口的键可被再次占用
+     */
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -1,6 +1,7 @@
 package main.java.com.elderly.monitoring.notification.entity;
 
 import jakarta.persistence.*;
+import main.java.com.elderly.monitoring.notification.settings.QuietHours;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.experimental.Accessors;
@@ -260,12 +261,7 @@ public class NotificationSetting {
      * 检查是否在免打扰时间内
      */
     public boolean isInQuietHours() {
-        if (quietHoursStart == null || quietHoursEnd == null) {
-            return false;
-        }
-        
-        // 简化实现，实际应该考虑当前时间和周末设置
-        return false;
+        return QuietHours.of(quietHoursStart, quietHoursEnd, weekendQuiet).isQuietAt(LocalDateTime.now());
     }
 
     /**
@@ -0,0 +1,32 @@
+package main.java.com.elderly.monitoring.notification.inbox;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 收件箱事件订阅配置
+ *
+ * 订阅收件箱事件频道，将事件投递给本实例上的推送连接。
+ *
+ * @author System
+ * @since 1.0.0
+ */
+@Configuration
+public class InboxConfig {
+
+    @Bean
+    public RedisMessageListenerContainer inboxListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                InboxService inboxService) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener((message, pattern) ->
+                        inboxService.deliver(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(InboxService.INBOX_EVENTS_CHANNEL));
+        return container;
+    }
+}
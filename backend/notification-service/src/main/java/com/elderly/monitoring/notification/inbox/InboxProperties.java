@@ -0,0 +1,34 @@
+package main.java.com.elderly.monitoring.notification.inbox;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 未读计数与实时推送配置
+ *
+ * @author System
+ * @since 1.0.0
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "notification.inbox")
+public class InboxProperties {
+
+    /**
+     * 推送连接的超时时间，到期后客户端重新连接
+     */
+    private Duration sseTimeout = Duration.ofMinutes(30);
+
+    /**
+     * 单个用户在本实例上的最大推送连接数（多个标签页、多台设备）
+     */
+    private int maxConnectionsPerUser = 5;
+
+    /**
+     * 未读计数缓存时间，到期后从数据库重新统计一次
+     */
+    private Duration counterTtl = Duration.ofHours(1);
+}
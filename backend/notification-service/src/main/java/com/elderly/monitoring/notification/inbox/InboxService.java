@@ -0,0 +1,229 @@
+package main.java.com.elderly.monitoring.notification.inbox;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import main.java.com.elderly.monitoring.notification.entity.Notification;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 通知收件箱：未读计数与实时推送
+ *
+ * 客户端通过 SSE 长连接订阅，连接建立时推送当前未读数，之后推送新通知（notification 事件）
+ * 和未读数变化（unread 事件），不再轮询未读数接口。
+ * 事件经Redis频道广播到所有实例（见 InboxConfig），由持有该用户连接的实例推送；
+ * 计数尚未建立时只有持有连接的实例才会统计一次未读数。
+ *
+ * @author System
+ * @since 1.0.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class InboxService {
+
+    /**
+     * 收件箱事件频道
+     */
+    public static final String INBOX_EVENTS_CHANNEL = "notification:inbox:events";
+
+    public static final String EVENT_NOTIFICATION = "notification";
+    public static final String EVENT_UNREAD = "unread";
+
+    private final UnreadCounterStore unreadCounters;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final InboxProperties properties;
+
+    private final Map<Long, List<SseEmitter>> emitters = new ConcurrentHashMap<>();
+    private final AtomicLong pushed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * 订阅用户的收件箱事件
+     */
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(properties.getSseTimeout().toMillis());
+        List<SseEmitter> userEmitters = emitters.compute(userId, (key, current) -> {
+            List<SseEmitter> list = current != null ? current : new CopyOnWriteArrayList<>();
+            list.add(emitter);
+            return list;
+        });
+        while (userEmitters.size() > properties.getMaxConnectionsPerUser()) {
+            // 超出连接数时关闭最早的连接
+            userEmitters.remove(0).complete();
+        }
+        emitter.onCompletion(() -> remove(userId, emitter));
+        emitter.onTimeout(() -> remove(userId, emitter));
+        emitter.onError(error -> remove(userId, emitter));
+
+        ObjectNode unread = objectMapper.createObjectNode().put("count", unreadCounters.get(userId));
+        send(userId, emitter, EVENT_UNREAD, unread);
+        return emitter;
+    }
+
+    /**
+     * 获取用户未读通知数
+     */
+    public long getUnreadCount(Long userId) {
+        return unreadCounters.get(userId);
+    }
+
+    /**
+     * 新通知已提交：增加未读数，推送立即发送的通知（延迟发送的通知在放行时推送）
+     */
+    public void notificationsCreated(List<Notification> notifications) {
+        Map<Long, Integer> createdByUser = new LinkedHashMap<>();
+        for (Notification notification : notifications) {
+            if (notification.getUserId() == null) {
+                continue;
+            }
+            if (!Boolean.TRUE.equals(notification.getIsRead())) {
+                createdByUser.merge(notification.getUserId(), 1, Integer::sum);
+            }
+            if (notification.getStatus() != Notification.NotificationStatus.DEFERRED) {
+                publish(notification.getUserId(), EVENT_NOTIFICATION, summary(notification));
+            }
+        }
+        createdByUser.forEach((userId, count) -> changeUnread(userId, count));
+    }
+
+    /**
+     * 延迟通知已放行
+     *
+     * @param created 是否为放行时新建的通知（汇总通知），新建的通知计入未读数
+     */
+    public void notificationReleased(Notification notification, boolean created) {
+        publish(notification.getUserId(), EVENT_NOTIFICATION, summary(notification));
+        if (created) {
+            changeUnread(notification.getUserId(), 1);
+        }
+    }
+
+    /**
+     * 未读通知被标记已读或删除
+     *
+     * @param removedByUser 用户ID -> 减少的未读数
+     */
+    public void unreadRemoved(Map<Long, Integer> removedByUser) {
+        removedByUser.forEach((userId, count) -> {
+            if (count > 0) {
+                changeUnread(userId, -count);
+            }
+        });
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("users", emitters.size());
+        statistics.put("connections", emitters.values().stream().mapToInt(List::size).sum());
+        statistics.put("pushed", pushed.get());
+        statistics.put("dropped", dropped.get());
+        return statistics;
+    }
+
+    /**
+     * 投递Redis频道收到的事件到本实例的连接
+     */
+    void deliver(String message) {
+        JsonNode event;
+        try {
+            event = objectMapper.readTree(message);
+        } catch (IOException e) {
+            log.warn("忽略格式错误的收件箱事件", e);
+            return;
+        }
+        Long userId = event.path("userId").asLong();
+        List<SseEmitter> userEmitters = emitters.get(userId);
+        if (userEmitters == null || userEmitters.isEmpty()) {
+            return;
+        }
+        String name = event.path("event").asText();
+        JsonNode data = event.get("data");
+        if (EVENT_UNREAD.equals(name) && (data == null || data.isNull())) {
+            // 计数尚未建立，由持有连接的实例统计
+            data = objectMapper.createObjectNode().put("count", unreadCounters.get(userId));
+        }
+        for (SseEmitter emitter : userEmitters) {
+            send(userId, emitter, name, data);
+        }
+    }
+
+    /**
+     * 定时发送心跳，及时发现已断开的连接
+     */
+    @Scheduled(fixedDelayString = "${notification.inbox.heartbeat-interval:25000}")
+    public void heartbeat() {
+        emitters.forEach((userId, userEmitters) -> {
+            for (SseEmitter emitter : userEmitters) {
+                try {
+                    emitter.send(SseEmitter.event().comment("ping"));
+                } catch (IOException | IllegalStateException e) {
+                    remove(userId, emitter);
+                }
+            }
+        });
+    }
+
+    private void changeUnread(Long userId, int delta) {
+        Long count = unreadCounters.add(userId, delta);
+        publish(userId, EVENT_UNREAD, count != null ? objectMapper.createObjectNode().put("count", count) : null);
+    }
+
+    private void publish(Long userId, String name, JsonNode data) {
+        ObjectNode event = objectMapper.createObjectNode();
+        event.put("userId", userId);
+        event.put("event", name);
+        event.set("data", data);
+        try {
+            redisTemplate.convertAndSend(INBOX_EVENTS_CHANNEL, objectMapper.writeValueAsString(event));
+        } catch (Exception e) {
+            // 推送失败不影响通知本身，客户端重连时会重新获取未读数
+            log.warn("发布收件箱事件失败: userId={}, event={}", userId, name, e);
+        }
+    }
+
+    private void send(Long userId, SseEmitter emitter, String name, JsonNode data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+            pushed.incrementAndGet();
+        } catch (IOException | IllegalStateException e) {
+            dropped.incrementAndGet();
+            remove(userId, emitter);
+        }
+    }
+
+    private void remove(Long userId, SseEmitter emitter) {
+        emitters.computeIfPresent(userId, (key, userEmitters) -> {
+            userEmitters.remove(emitter);
+            return userEmitters.isEmpty() ? null : userEmitters;
+        });
+    }
+
+    private JsonNode summary(Notification notification) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("id", notification.getId());
+        node.put("type", notification.getType() != null ? notification.getType().name() : null);
+        node.put("priority", notification.getPriority() != null ? notification.getPriority().name() : null);
+        node.put("title", notification.getTitle());
+        node.put("content", notification.getContent());
+        node.put("relatedId", notification.getRelatedId());
+        node.put("relatedType", notification.getRelatedType());
+        node.put("createdAt", notification.getCreatedAt() != null ? notification.getCreatedAt().toString() : null);
+        return node;
+    }
+}
@@ -0,0 +1,76 @@
+package main.java.com.elderly.monitoring.notification.inbox;
+
+import main.java.com.elderly.monitoring.notification.repository.NotificationRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 用户未读通知计数
+ *
+ * 计数保存在Redis中，所有实例共享，读取为一次GET。计数不存在时从数据库统计一次并写入（带过期时间）；
+ * 增减只作用于已存在的计数，避免在统计完成前产生从0开始的错误计数。
+ * 统计与并发增减之间的少量偏差在计数过期后自动修正。
+ *
+ * @author System
+ * @since 1.0.0
+ */
+@Component
+@RequiredArgsConstructor
+public class UnreadCounterStore {
+
+    private static final String KEY_PREFIX = "notification:unread:";
+
+    /**
+     * 计数存在时增减；结果为负说明计数已偏差，删除后下次重新统计
+     */
+    private static final RedisScript<Long> ADD_IF_PRESENT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return nil end " +
+            "local value = redis.call('INCRBY', KEYS[1], ARGV[1]) " +
+            "if value < 0 then redis.call('DEL', KEYS[1]) return nil end " +
+            "return value", Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final NotificationRepository notificationRepository;
+    private final InboxProperties properties;
+
+    /**
+     * 获取用户未读通知数
+     */
+    public long get(Long userId) {
+        String key = KEY_PREFIX + userId;
+        String cached = redisTemplate.opsForValue().get(key);
+        if (cached != null) {
+            return Long.parseLong(cached);
+        }
+        Long counted = notificationRepository.countUnreadByUserId(userId);
+        long value = counted != null ? counted : 0L;
+        Boolean stored = redisTemplate.opsForValue().setIfAbsent(key, String.valueOf(value), properties.getCounterTtl());
+        if (Boolean.FALSE.equals(stored)) {
+            // 其他实例已写入计数
+            String current = redisTemplate.opsForValue().get(key);
+            return current != null ? Long.parseLong(current) : value;
+        }
+        return value;
+    }
+
+    /**
+     * 增减用户未读通知数
+     *
+     * @return 新的未读数，计数尚未建立时返回null
+     */
+    public Long add(Long userId, long delta) {
+        return redisTemplate.execute(ADD_IF_PRESENT, List.of(KEY_PREFIX + userId), String.valueOf(delta));
+    }
+
+    /**
+     * 删除用户的计数，下次读取时重新统计
+     */
+    public void invalidate(Long userId) {
+        redisTemplate.delete(KEY_PREFIX + userId);
+    }
+}
@@ -0,0 +1,67 @@
+package main.java.com.elderly.monitoring.notification.maintenance;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 通知过期、归档与清理配置
+ *
+ * @author System
+ * @since 1.0.0
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "notification.cleanup")
+public class MaintenanceProperties {
+
+    /**
+     * 是否执行定时维护任务（手动触发不受影响）
+     */
+    private boolean enabled = true;
+
+    /**
+     * 已读通知的保留天数，归档表中的通知按创建时间同样保留该天数；
+     * notifications 为分区表时，整月超过保留期的分区整个删除（其中未发出的通知先置为已过期），其余分区中的已读通知逐块删除
+     */
+    private int retentionDays = 30;
+
+    /**
+     * 每个分块处理的最大行数，每个分块是一个独立的短事务
+     */
+    private int chunkSize = 5000;
+
+    /**
+     * 分块之间的停顿，避免长时间占满数据库写入
+     */
+    private Duration chunkPause = Duration.ofMillis(20);
+
+    private Archive archive = new Archive();
+
+    private Partition partition = new Partition();
+
+    @Data
+    public static class Archive {
+
+        /**
+         * 是否将已结束的通知移入归档表
+         */
+        private boolean enabled = true;
+
+        /**
+         * 已读、已过期、已合并的通知创建多少天后归档
+         */
+        private int afterDays = 7;
+    }
+
+    @Data
+    public static class Partition {
+
+        /**
+         * 预先创建的未来月份分区数（notifications 为分区表时生效）
+         */
+        private int premakeMonths = 2;
+    }
+}
@@ -0,0 +1,284 @@
+package main.java.com.elderly.monitoring.notification.maintenance;
+
+import main.java.com.elderly.monitoring.notification.dedup.NotificationDeduplicator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+/**
+ * 通知维护任务
+ *
+ * 过期、归档、清理与全部已读都以集合式SQL分块执行：每个分块一条语句、一个短事务，
+ * 处理行数不足一个分块时结束。每个分块只扫描索引中符合条件的行，已处理的行不再匹配条件，
+ * 因此整体开销与待处理行数成正比，不随表的总行数增长。多个实例同时执行时各自跳过被锁定的行。
+ *
+ * notifications 为分区表时（见 NotificationPartitionManager）清理改为删除超过保留期的整个分区，
+ * 不再逐行删除或归档；每日维护同时预建后续月份的分区。
+ *
+ * 每类任务记录运行状态、本次已处理行数与最近一次结果，并以 notification.maintenance.rows
+ * 与 notification.maintenance.duration 指标输出。
+ *
+ * @author System
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class NotificationMaintenanceJob {
+
+    /**
+     * 维护任务类型
+     */
+    public enum Task {
+        EXPIRE, MARK_ALL_READ, ARCHIVE, CLEANUP, DROP_PARTITIONS, DEDUP_KEYS
+    }
+
+    private final NotificationMaintenanceStore store;
+    private final NotificationPartitionManager partitionManager;
+    private final NotificationDeduplicator deduplicator;
+    private final MaintenanceProperties properties;
+    private final Map<Task, Progress> progress = new EnumMap<>(Task.class);
+
+    private volatile boolean stopping;
+    private volatile Boolean archiveTableExists;
+
+    public NotificationMaintenanceJob(NotificationMaintenanceStore store, NotificationPartitionManager partitionManager,
+                                      NotificationDeduplicator deduplicator, MaintenanceProperties properties,
+                                      MeterRegistry meterRegistry) {
+        this.store = store;
+        this.partitionManager = partitionManager;
+        this.deduplicator = deduplicator;
+        this.properties = properties;
+        for (Task task : Task.values()) {
+            progress.put(task, new Progress(
+                    Counter.builder("notification.maintenance.rows").tag("task", task.name()).register(meterRegistry),
+                    Timer.builder("notification.maintenance.duration").tag("task", task.name()).register(meterRegistry)));
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopping = true;
+    }
+
+    /**
+     * 定时处理过期通知
+     */
+    @Scheduled(fixedDelayString = "${notification.cleanup.expire-interval:300000}")
+    public void scheduledExpire() {
+        if (properties.isEnabled()) {
+            expire();
+        }
+    }
+
+    /**
+     * 每日维护：预建分区，过期、归档、清理、清理幂等键依次执行
+     */
+    @Scheduled(cron = "${notification.cleanup.cron:0 0 2 * * ?}")
+    public void nightly() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            partitionManager.ensurePartitions();
+            expire();
+            archive();
+            cleanup();
+            purgeDedupKeys();
+        } catch (Exception e) {
+            // 已提交的分块保留，剩余部分下次执行时继续处理
+            log.error("通知每日维护失败", e);
+        }
+    }
+
+    /**
+     * 将已超过过期时间的通知置为已过期
+     *
+     * @return 处理的通知数，任务正在执行时返回0
+     */
+    public int expire() {
+        return runExclusive(Task.EXPIRE, () -> store.expireChunk(LocalDateTime.now(), properties.getChunkSize()));
+    }
+
+    /**
+     * 将用户的全部未读通知置为已读
+     *
+     * @return 处理的通知数
+     */
+    public int markAllAsRead(Long userId) {
+        return run(progress.get(Task.MARK_ALL_READ), Task.MARK_ALL_READ,
+                () -> store.markAllAsReadChunk(userId, LocalDateTime.now(), properties.getChunkSize()));
+    }
+
+    /**
+     * 将已结束且超过归档天数的通知移入归档表
+     *
+     * @return 归档的通知数，未启用归档、归档表不存在或 notifications 为分区表时返回0
+     */
+    public int archive() {
+        if (!properties.getArchive().isEnabled() || !hasArchiveTable() || partitionManager.isPartitioned()) {
+            return 0;
+        }
+        LocalDateTime before = LocalDateTime.now().minusDays(properties.getArchive().getAfterDays());
+        return runExclusive(Task.ARCHIVE, () -> store.archiveChunk(before, LocalDateTime.now(), properties.getChunkSize()));
+    }
+
+    /**
+     * 删除超过保留期的通知：分区表先删除整月超过保留期的分区，再逐块删除其余的已读通知；归档通知逐块删除
+     *
+     * @return 删除的通知数（删除分区时按统计信息估算），任务正在执行时返回0
+     */
+    public int cleanup() {
+        LocalDateTime before = LocalDateTime.now().minusDays(properties.getRetentionDays());
+        boolean partitioned = partitionManager.isPartitioned();
+        boolean purgeArchive = hasArchiveTable();
+        int deleted = partitioned
+                ? runExclusive(Task.DROP_PARTITIONS, () -> partitionManager.dropPartitionsBefore(before))
+                : 0;
+        return deleted + runExclusive(Task.CLEANUP, () -> {
+            int rows = store.purgeReadChunk(before, properties.getChunkSize());
+            if (rows < properties.getChunkSize() && purgeArchive) {
+                rows += store.purgeArchiveChunk(before, properties.getChunkSize() - rows);
+            }
+            return rows;
+        });
+    }
+
+    /**
+     * 删除超过去重窗口的幂等键
+     *
+     * @return 删除的键数，任务正在执行时返回0
+     */
+    public int purgeDedupKeys() {
+        LocalDateTime before = deduplicator.windowStart();
+        return runExclusive(Task.DEDUP_KEYS, () -> store.purgeDedupKeysChunk(before, properties.getChunkSize()));
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("enabled", properties.isEnabled());
+        statistics.put("chunkSize", properties.getChunkSize());
+        statistics.put("partitions", partitionManager.listPartitions());
+        for (Map.Entry<Task, Progress> entry : progress.entrySet()) {
+            statistics.put(entry.getKey().name().toLowerCase(), entry.getValue().snapshot());
+        }
+        return statistics;
+    }
+
+    private int runExclusive(Task task, IntSupplier chunk) {
+        Progress state = progress.get(task);
+        if (!state.running.compareAndSet(false, true)) {
+            log.info("通知维护任务正在执行，跳过: task={}", task);
+            return 0;
+        }
+        try {
+            return run(state, task, chunk);
+        } finally {
+            state.running.set(false);
+        }
+    }
+
+    private int run(Progress state, Task task, IntSupplier chunk) {
+        long start = System.nanoTime();
+        state.lastStartedAt = LocalDateTime.now();
+        state.current.set(0);
+        int total = 0;
+        int chunks = 0;
+        try {
+            while (!stopping) {
+                int rows = chunk.getAsInt();
+                total += rows;
+                chunks++;
+                state.current.addAndGet(rows);
+                state.rows.increment(rows);
+                if (rows < properties.getChunkSize() || !pause()) {
+                    break;
+                }
+            }
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            state.duration.record(elapsed, TimeUnit.NANOSECONDS);
+            state.lastRows = total;
+            state.lastChunks = chunks;
+            state.lastDurationMs = TimeUnit.NANOSECONDS.toMillis(elapsed);
+            state.lastFinishedAt = LocalDateTime.now();
+        }
+        if (total > 0) {
+            log.info("通知维护任务完成: task={}, rows={}, chunks={}, elapsedMs={}",
+                    task, total, chunks, state.lastDurationMs);
+        }
+        return total;
+    }
+
+    private boolean pause() {
+        long millis = properties.getChunkPause().toMillis();
+        if (millis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private boolean hasArchiveTable() {
+        Boolean exists = archiveTableExists;
+        if (exists == null) {
+            exists = store.archiveTableExists();
+            archiveTableExists = exists;
+            if (!exists) {
+                log.warn("归档表 notifications_archive 不存在，跳过通知归档");
+            }
+        }
+        return exists;
+    }
+
+    /**
+     * 单类任务的执行进度
+     */
+    private static final class Progress {
+
+        private final AtomicBoolean running = new AtomicBoolean();
+        private final AtomicLong current = new AtomicLong();
+        private final Counter rows;
+        private final Timer duration;
+        private volatile LocalDateTime lastStartedAt;
+        private volatile LocalDateTime lastFinishedAt;
+        private volatile long lastRows;
+        private volatile int lastChunks;
+        private volatile long lastDurationMs;
+
+        Progress(Counter rows, Timer duration) {
+            this.rows = rows;
+            this.duration = duration;
+        }
+
+        Map<String, Object> snapshot() {
+            Map<String, Object> snapshot = new LinkedHashMap<>();
+            snapshot.put("running", running.get());
+            snapshot.put("processed", current.get());
+            snapshot.put("lastStartedAt", lastStartedAt);
+            snapshot.put("lastFinishedAt", lastFinishedAt);
+            snapshot.put("lastRows", lastRows);
+            snapshot.put("lastChunks", lastChunks);
+            snapshot.put("lastDurationMs", lastDurationMs);
+            snapshot.put("totalRows", (long) rows.count());
+            return snapshot;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package main.java.com.elderly.monitoring.notification.maintenance;
+
+import main.java.com.elderly.monitoring.notification.repository.NotificationDedupKeyRepository;
+import main.java.com.elderly.monitoring.notification.repository.NotificationRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * 通知批量状态变更的分块写入
+ *
+ * 每个方法处理一个分块并立即提交；分块内的行以 SKIP LOCKED 选取，
+ * 不等待正在发送或被其他实例处理的行。
+ *
+ * @author System
+ * @since 1.0.0
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificationMaintenanceStore {
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationDedupKeyRepository dedupKeyRepository;
+
+    /**
+     * 将一个分块的过期通知置为已过期
+     */
+    @Transactional
+    public int expireChunk(LocalDateTime now, int limit) {
+        return notificationRepository.expireChunk(now, limit);
+    }
+
+    /**
+     * 将用户一个分块的未读通知置为已读
+     */
+    @Transactional
+    public int markAllAsReadChunk(Long userId, LocalDateTime now, int limit) {
+        return notificationRepository.markAllAsReadChunk(userId, now, limit);
+    }
+
+    /**
+     * 将一个分块已结束的通知移入归档表
+     */
+    @Transactional
+    public int archiveChunk(LocalDateTime before, LocalDateTime now, int limit) {
+        return notificationRepository.archiveChunk(before, now, limit);
+    }
+
+    /**
+     * 删除一个分块超过保留期的已读通知
+     */
+    @Transactional
+    public int purgeReadChunk(LocalDateTime before, int limit) {
+        return notificationRepository.purgeReadChunk(before, limit);
+    }
+
+    /**
+     * 删除归档表中一个分块超过保留期的通知
+     */
+    @Transactional
+    public int purgeArchiveChunk(LocalDateTime before, int limit) {
+        return notificationRepository.purgeArchiveChunk(before, limit);
+    }
+
+    /**
+     * 删除一个分块超过去重窗口的幂等键
+     */
+    @Transactional
+    public int purgeDedupKeysChunk(LocalDateTime before, int limit) {
+        return dedupKeyRepository.purgeChunk(before, limit);
+    }
+
+    @Transactional(readOnly = true)
+    public boolean archiveTableExists() {
+        return notificationRepository.archiveTableExists();
+    }
+}
@@ -0,0 +1,172 @@
+package main.java.com.elderly.monitoring.notification.maintenance;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 通知分区管理
+ *
+ * init.sql 中 notifications 按 created_at 按月分区（notifications_yYYYYmMM），没有默认分区。启动时和每日维护时
+ * 预先创建当月及之后若干个月的分区；启动时当月分区无法创建则启动失败，避免写入落不到任何分区。
+ * 整个月份都超过保留期的分区先并发分离再删除，不产生逐行删除带来的表膨胀和自动清理压力。
+ * 保留期按创建时间计算：超过保留期的通知无论是否已读都视为已结束，其中仍待发送、延迟或发送失败的通知
+ * 删除前先置为已过期；只有正在发送的通知会使分区保留到下次维护。
+ * 分区表只在由 init.sql 新建的库中存在，已有库中的普通表不会被转换；表不是分区表（例如由 ddl-auto 创建）时
+ * 不做任何操作，维护任务退回逐块删除。
+ *
+ * @author System
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationPartitionManager {
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("notifications_y(\\d{4})m(\\d{2})");
+
+    /**
+     * 超过保留期仍未发出的通知不再发送，置为已过期
+     */
+    private static final String EXPIRE_STALE_SQL =
+            "UPDATE %s SET status = 'EXPIRED' WHERE status IN ('PENDING', 'DEFERRED', 'FAILED')";
+
+    /**
+     * 分区中是否还有正在发送的通知（发送超时的通知会被恢复为待发送，下次维护时过期）
+     */
+    private static final String HAS_SENDING_SQL =
+            "SELECT EXISTS (SELECT 1 FROM %s WHERE status = 'SENDING')";
+
+    private static final String PARTITIONS_SQL =
+            "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+            "WHERE i.inhparent = 'notifications'::regclass ORDER BY c.relname";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MaintenanceProperties properties;
+
+    private volatile Boolean partitioned;
+
+    /**
+     * notifications 是否为分区表
+     */
+    public boolean isPartitioned() {
+        Boolean value = partitioned;
+        if (value == null) {
+            value = Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                    "SELECT relkind = 'p' FROM pg_class WHERE oid = to_regclass('notifications')", Boolean.class));
+            partitioned = value;
+            if (!value) {
+                log.info("notifications 不是分区表，通知清理使用逐块删除");
+            }
+        }
+        return value;
+    }
+
+    /**
+     * 启动时预建分区，当月分区不存在时启动失败
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        ensurePartitions();
+    }
+
+    /**
+     * 创建当月及之后 premakeMonths 个月的分区
+     *
+     * @return 新建的分区数
+     * @throws IllegalStateException 创建后当月分区仍不存在
+     */
+    public int ensurePartitions() {
+        if (!isPartitioned()) {
+            return 0;
+        }
+        List<String> existing = listPartitions();
+        YearMonth month = YearMonth.now();
+        int created = 0;
+        for (int i = 0; i <= properties.getPartition().getPremakeMonths(); i++, month = month.plusMonths(1)) {
+            String name = partitionName(month);
+            if (existing.contains(name)) {
+                continue;
+            }
+            try {
+                jdbcTemplate.execute(String.format(
+                        "CREATE TABLE IF NOT EXISTS %s PARTITION OF notifications FOR VALUES FROM ('%s') TO ('%s')",
+                        name, month.atDay(1), month.plusMonths(1).atDay(1)));
+                created++;
+                log.info("创建通知分区: {}", name);
+            } catch (Exception e) {
+                // 其他实例同时创建时忽略，下次执行时重新检查
+                log.warn("创建通知分区失败: {}", name, e);
+            }
+        }
+        String current = partitionName(YearMonth.now());
+        if (!existing.contains(current) && !listPartitions().contains(current)) {
+            throw new IllegalStateException("通知分区不存在且无法创建: " + current);
+        }
+        return created;
+    }
+
+    /**
+     * 删除全部行都早于指定时间的分区，分区中未发出的通知先置为已过期
+     *
+     * @return 删除的行数（按统计信息估算）
+     */
+    public int dropPartitionsBefore(LocalDateTime before) {
+        if (!isPartitioned()) {
+            return 0;
+        }
+        LocalDate cutoff = before.toLocalDate();
+        int dropped = 0;
+        for (String name : listPartitions()) {
+            Matcher matcher = PARTITION_NAME.matcher(name);
+            if (!matcher.matches()) {
+                continue;
+            }
+            YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+            if (month.plusMonths(1).atDay(1).isAfter(cutoff)) {
+                continue;
+            }
+            int expired = jdbcTemplate.update(String.format(EXPIRE_STALE_SQL, name));
+            if (expired > 0) {
+                log.info("通知分区超过保留期，未发出的通知置为已过期: {}, rows={}", name, expired);
+            }
+            if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(String.format(HAS_SENDING_SQL, name), Boolean.class))) {
+                log.info("通知分区仍有正在发送的通知，下次维护时删除: {}", name);
+                continue;
+            }
+            Long rows = jdbcTemplate.queryForObject(
+                    "SELECT GREATEST(reltuples, 0)::bigint FROM pg_class WHERE oid = ?::regclass", Long.class, name);
+            // 并发分离不阻塞对其他分区的读写，不能在事务中执行
+            jdbcTemplate.execute("ALTER TABLE notifications DETACH PARTITION " + name + " CONCURRENTLY");
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + name);
+            dropped += rows != null ? rows.intValue() : 0;
+            log.info("删除超过保留期的通知分区: {}, rows≈{}", name, rows);
+        }
+        return dropped;
+    }
+
+    /**
+     * 当前的分区名（按月份排序）
+     */
+    public List<String> listPartitions() {
+        if (!isPartitioned()) {
+            return new ArrayList<>();
+        }
+        return jdbcTemplate.queryForList(PARTITIONS_SQL, String.class);
+    }
+
+    private static String partitionName(YearMonth month) {
+        return String.format("notifications_y%04dm%02d", month.getYear(), month.getMonthValue());
+    }
+}
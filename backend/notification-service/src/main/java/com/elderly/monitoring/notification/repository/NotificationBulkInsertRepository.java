@@ -0,0 +1,183 @@
+package main.java.com.elderly.monitoring.notification.repository;
+
+import main.java.com.elderly.monitoring.notification.entity.Notification;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 通知批量插入
+ *
+ * 一组通知按列组成数组参数，以一条 INSERT ... SELECT FROM unnest(...) 语句写入并返回生成的ID；
+ * 主键为自增列时 saveAll 会逐行执行INSERT，扇出写入不经过实体状态管理。
+ * ID 在语句中按行预先从主键序列取得，返回 (序号, ID)，不依赖 RETURNING 的行顺序（被拒绝的通知会留下ID空洞）。
+ * extra_data 须为JSON（init.sql 中为JSONB列），不是合法JSON的扩展数据作为JSON字符串写入，不影响同一批的其他通知。
+ *
+ * 带幂等键的通知在同一条语句中先占用 notification_dedup_keys 中的键（键已存在且仍在去重窗口内时占用失败），
+ * 只写入占用成功的通知；并发写入相同键时后到的语句等待先到的事务结束后再判断。
+ *
+ * @author System
+ * @since 1.0.0
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class NotificationBulkInsertRepository {
+
+    private static final String INSERT_SQL =
+            "WITH t AS (SELECT * FROM unnest(?::bigint[], ?::varchar[], ?::varchar[], ?::text[], ?::varchar[], " +
+            "?::varchar[], ?::varchar[], ?::varchar[], ?::varchar[], ?::timestamp[], ?::integer[], ?::timestamp[], " +
+            "?::text[], ?::bigint[], ?::varchar[]) WITH ORDINALITY AS t(user_id, type, title, content, status, " +
+            "priority, send_method, related_id, related_type, expire_at, max_retry_count, scheduled_at, extra_data, " +
+            "created_by, dedup_key, ord)), " +
+            "ids AS (SELECT t.ord, nextval(pg_get_serial_sequence('notifications', 'id')) AS id FROM t), " +
+            "claimed AS (INSERT INTO notification_dedup_keys (dedup_key, created_at) " +
+            "SELECT t.dedup_key, ? FROM t WHERE t.dedup_key IS NOT NULL " +
+            "ON CONFLICT (dedup_key) DO UPDATE SET created_at = EXCLUDED.created_at " +
+            "WHERE notification_dedup_keys.created_at < ? " +
+            "RETURNING dedup_key), " +
+            "ins AS (INSERT INTO notifications (id, user_id, type, title, content, status, priority, send_method, " +
+            "related_id, related_type, is_read, expire_at, retry_count, max_retry_count, scheduled_at, " +
+            "extra_data, created_at, updated_at, created_by, dedup_key) " +
+            "SELECT ids.id, t.user_id, t.type, t.title, t.content, t.status, t.priority, t.send_method, " +
+            "t.related_id, t.related_type, false, t.expire_at, 0, t.max_retry_count, t.scheduled_at, " +
+            "t.extra_data::jsonb, ?, ?, t.created_by, t.dedup_key " +
+            "FROM t JOIN ids ON ids.ord = t.ord " +
+            "WHERE t.dedup_key IS NULL OR t.dedup_key IN (SELECT dedup_key FROM claimed) " +
+            "RETURNING id) " +
+            "SELECT ids.ord, ids.id FROM ids JOIN ins ON ins.id = ids.id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 插入一组新通知，回填ID、创建时间和默认值
+     *
+     * 同一批通知的幂等键不能重复（见 NotificationDeduplicator）。
+     *
+     * @param dedupSince 去重窗口起始时间，早于该时间占用的键可被再次占用
+     * @return 写入的通知（按原顺序），幂等键已被占用的通知不包含在内
+     */
+    public List<Notification> insertAll(List<Notification> notifications, LocalDateTime dedupSince) {
+        if (notifications.isEmpty()) {
+            return notifications;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (Notification notification : notifications) {
+            applyDefaults(notification, now);
+            notification.setExtraData(toJson(notification.getExtraData()));
+        }
+        Map<Integer, Long> ids = new HashMap<>();
+        jdbcTemplate.query(
+                connection -> prepare(connection, notifications, now, dedupSince != null ? dedupSince : now),
+                rs -> {
+                    ids.put(rs.getInt(1), rs.getLong(2));
+                });
+
+        // 按序号（从1开始）回填ID，跳过占用失败的通知
+        List<Notification> inserted = new ArrayList<>(ids.size());
+        for (int i = 0; i < notifications.size(); i++) {
+            Long id = ids.get(i + 1);
+            if (id != null) {
+                Notification notification = notifications.get(i);
+                notification.setId(id);
+                inserted.add(notification);
+            }
+        }
+        return inserted;
+    }
+
+    /**
+     * 扩展数据不是合法JSON时转为JSON字符串，避免一条通知的转换失败导致整批写入失败
+     */
+    private String toJson(String extraData) {
+        if (extraData == null) {
+            return null;
+        }
+        try {
+            objectMapper.readTree(extraData);
+            return extraData;
+        } catch (JsonProcessingException e) {
+            log.warn("通知扩展数据不是合法JSON，按字符串写入: {}", extraData);
+            try {
+                return objectMapper.writeValueAsString(extraData);
+            } catch (JsonProcessingException ex) {
+                return null;
+            }
+        }
+    }
+
+    private PreparedStatement prepare(Connection connection, List<Notification> notifications,
+                                      LocalDateTime now, LocalDateTime dedupSince) throws SQLException {
+        PreparedStatement ps = connection.prepareStatement(INSERT_SQL);
+        Timestamp timestamp = Timestamp.valueOf(now);
+        ps.setArray(1, array(connection, "bigint", notifications, Notification::getUserId));
+        ps.setArray(2, array(connection, "varchar", notifications, n -> n.getType().name()));
+        ps.setArray(3, array(connection, "varchar", notifications, Notification::getTitle));
+        ps.setArray(4, array(connection, "text", notifications, Notification::getContent));
+        ps.setArray(5, array(connection, "varchar", notifications, n -> n.getStatus().name()));
+        ps.setArray(6, array(connection, "varchar", notifications, n -> n.getPriority().name()));
+        ps.setArray(7, array(connection, "varchar", notifications,
+                n -> n.getSendMethod() != null ? n.getSendMethod().name() : null));
+        ps.setArray(8, array(connection, "varchar", notifications, Notification::getRelatedId));
+        ps.setArray(9, array(connection, "varchar", notifications, Notification::getRelatedType));
+        ps.setArray(10, array(connection, "timestamp", notifications, n -> timestamp(n.getExpireAt())));
+        ps.setArray(11, array(connection, "integer", notifications, Notification::getMaxRetryCount));
+        ps.setArray(12, array(connection, "timestamp", notifications, n -> timestamp(n.getScheduledAt())));
+        ps.setArray(13, array(connection, "text", notifications, Notification::getExtraData));
+        ps.setArray(14, array(connection, "bigint", notifications, Notification::getCreatedBy));
+        ps.setArray(15, array(connection, "varchar", notifications, Notification::getDedupKey));
+        ps.setTimestamp(16, timestamp);
+        ps.setTimestamp(17, Timestamp.valueOf(dedupSince));
+        ps.setTimestamp(18, timestamp);
+        ps.setTimestamp(19, timestamp);
+        return ps;
+    }
+
+    private static Array array(Connection connection, String type, List<Notification> notifications,
+                               Function<Notification, Object> column) throws SQLException {
+        List<Object> values = new ArrayList<>(notifications.size());
+        for (Notification notification : notifications) {
+            values.add(column.apply(notification));
+        }
+        return connection.createArrayOf(type, values.toArray());
+    }
+
+    private static Timestamp timestamp(LocalDateTime value) {
+        return value != null ? Timestamp.valueOf(value) : null;
+    }
+
+    /**
+     * 与实体的创建前回调保持一致的默认值
+     */
+    private static void applyDefaults(Notification notification, LocalDateTime now) {
+        notification.setCreatedAt(now);
+        notification.setUpdatedAt(now);
+        notification.setIsRead(false);
+        notification.setRetryCount(0);
+        if (notification.getStatus() == null) {
+            notification.setStatus(Notification.NotificationStatus.PENDING);
+        }
+        if (notification.getPriority() == null) {
+            notification.setPriority(Notification.NotificationPriority.NORMAL);
+        }
+        if (notification.getMaxRetryCount() == null) {
+            notification.setMaxRetryCount(3);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package main.java.com.elderly.monitoring.notification.repository;
+
+import main.java.com.elderly.monitoring.notification.entity.NotificationDedupKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 通知幂等键数据访问接口
+ *
+ * @author System
+ * @since 1.0.0
+ */
+@Repository
+public interface NotificationDedupKeyRepository extends JpaRepository<NotificationDedupKey, String> {
+
+    /**
+     * 查询去重窗口内已占用的幂等键
+     */
+    @Query(value = "SELECT dedup_key FROM notification_dedup_keys WHERE dedup_key IN (:keys) AND created_at >= :since",
+           nativeQuery = true)
+    List<String> findClaimed(@Param("keys") Collection<String> keys, @Param("since") LocalDateTime since);
+
+    /**
+     * 删除一个分块超过去重窗口的幂等键
+     */
+    @Modifying
+    @Query(value = "DELETE FROM notification_dedup_keys WHERE dedup_key IN (" +
+           "SELECT dedup_key FROM notification_dedup_keys WHERE created_at < :before " +
+           "LIMIT :limit FOR UPDATE SKIP LOCKED)", nativeQuery = true)
+    int purgeChunk(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
@@ -11,6 +11,7 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * 通知数据访问接口
@@ -21,11 +22,23 @@ import java.util.List;
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
 
+    /**
+     * 归档时复制的列（归档表可能缺少之后新增的列，因此显式列出）
+     */
+    String ARCHIVE_COLUMNS = "id, user_id, type, title, content, status, priority, send_method, related_id, " +
+            "related_type, is_read, read_at, sent_at, expire_at, retry_count, max_retry_count, error_message, " +
+            "next_attempt_at, scheduled_at, extra_data, dedup_key, created_at, updated_at, created_by, updated_by";
+
     /**
      * 根据用户ID分页查询通知
      */
     Page<Notification> findByUserIdOrderByCreatedAtDesc(Long userId, Pageable pageable);
 
+    /**
+     * 根据幂等键查询最近创建的通知
+     */
+    Optional<Notification> findFirstByDedupKeyOrderByCreatedAtDesc(String dedupKey);
+
     /**
      * 根据用户ID和状态分页查询通知
      */
@@ -47,6 +60,13 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     @Query("SELECT COUNT(n) FROM Notification n WHERE n.userId = :userId AND n.isRead = false")
     Long countUnreadByUserId(@Param("userId") Long userId);
 
+    /**
+     * 锁定给定通知中的未读通知，返回通知ID与用户ID
+     */
+    @Query(value = "SELECT id, user_id FROM notifications WHERE id IN (:ids) AND is_read = false FOR UPDATE",
+           nativeQuery = true)
+    List<Object[]> lockUnreadByIds(@Param("ids") List<Long> ids);
+
     /**
      * 根据用户ID和状态查询通知数量
      */
@@ -176,4 +196,188 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
                                                 @Param("startTime") LocalDateTime startTime,
                                                 @Param("endTime") LocalDateTime endTime,
                                                 Pageable pageable);
+
+    /**
+     * 锁定待发送通知（按优先级、创建时间排序，跳过其他实例已锁定的行）
+     *
+     * @param maxRank 最低优先级序号，0=URGENT，1=HIGH，2=NORMAL，3=LOW
+     */
+    @Query(value = "SELECT * FROM notifications WHERE status = 'PENDING' AND send_method = :sendMethod " +
+           "AND CASE priority WHEN 'URGENT' THEN 0 WHEN 'HIGH' THEN 1 WHEN 'NORMAL' THEN 2 ELSE 3 END <= :maxRank " +
+           "ORDER BY CASE priority WHEN 'URGENT' THEN 0 WHEN 'HIGH' THEN 1 WHEN 'NORMAL' THEN 2 ELSE 3 END, created_at " +
+           "LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Notification> lockPendingForDispatch(@Param("sendMethod") String sendMethod,
+                                              @Param("maxRank") int maxRank,
+                                              @Param("limit") int limit);
+
+    /**
+     * 批量更新通知状态并刷新更新时间
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Notification n SET n.status = :status, n.updatedAt = :now WHERE n.id IN :ids")
+    int updateStatusAt(@Param("ids") List<Long> ids, @Param("status") Notification.NotificationStatus status,
+                       @Param("now") LocalDateTime now);
+
+    /**
+     * 条件更新单个通知状态，仅当当前状态在给定范围内时生效
+     */
+    @Modifying
+    @Query("UPDATE Notification n SET n.status = :status, n.updatedAt = :now WHERE n.id = :id AND n.status IN :expected")
+    int transitionStatus(@Param("id") Long id, @Param("expected") List<Notification.NotificationStatus> expected,
+                         @Param("status") Notification.NotificationStatus status, @Param("now") LocalDateTime now);
+
+    /**
+     * 记录发送完成
+     */
+    @Modifying
+    @Query("UPDATE Notification n SET n.status = :status, n.sentAt = :sentAt, n.updatedAt = :now " +
+           "WHERE n.id = :id AND n.status = 'SENDING'")
+    int completeDispatch(@Param("id") Long id, @Param("status") Notification.NotificationStatus status,
+                         @Param("sentAt") LocalDateTime sentAt, @Param("now") LocalDateTime now);
+
+    /**
+     * 批量记录发送完成
+     */
+    @Modifying
+    @Query("UPDATE Notification n SET n.status = :status, n.sentAt = :sentAt, n.updatedAt = :now " +
+           "WHERE n.id IN :ids AND n.status = 'SENDING'")
+    int completeDispatchAll(@Param("ids") List<Long> ids, @Param("status") Notification.NotificationStatus status,
+                            @Param("sentAt") LocalDateTime sentAt, @Param("now") LocalDateTime now);
+
+    /**
+     * 记录发送失败
+     */
+    @Modifying
+    @Query("UPDATE Notification n SET n.status = 'FAILED', n.errorMessage = :errorMessage, " +
+           "n.retryCount = n.retryCount + 1, n.nextAttemptAt = :nextAttemptAt, n.updatedAt = :now " +
+           "WHERE n.id = :id AND n.status = 'SENDING'")
+    int failDispatch(@Param("id") Long id, @Param("errorMessage") String errorMessage,
+                     @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("now") LocalDateTime now);
+
+    /**
+     * 查询下次重试时间不晚于指定时间的失败通知（按重试时间索引范围扫描）
+     */
+    @Query("SELECT n.id, n.nextAttemptAt FROM Notification n WHERE n.status = 'FAILED' " +
+           "AND n.nextAttemptAt IS NOT NULL AND n.nextAttemptAt <= :horizon ORDER BY n.nextAttemptAt")
+    List<Object[]> findRetryDue(@Param("horizon") LocalDateTime horizon, Pageable pageable);
+
+    /**
+     * 将到期的失败通知转为待发送
+     */
+    @Modifying
+    @Query("UPDATE Notification n SET n.status = 'PENDING', n.nextAttemptAt = null, n.updatedAt = :now " +
+           "WHERE n.id IN :ids AND n.status = 'FAILED'")
+    int promoteRetries(@Param("ids") List<Long> ids, @Param("now") LocalDateTime now);
+
+    /**
+     * 刷新仍由本实例持有的发送中通知的领取时间，使其不被视为遗留
+     */
+    @Modifying
+    @Query("UPDATE Notification n SET n.updatedAt = :now WHERE n.id IN :ids AND n.status = 'SENDING'")
+    int touchDispatch(@Param("ids") List<Long> ids, @Param("now") LocalDateTime now);
+
+    /**
+     * 将长时间停留在发送中的通知恢复为待发送（实例异常退出时遗留）
+     */
+    @Modifying
+    @Query("UPDATE Notification n SET n.status = 'PENDING', n.updatedAt = :now " +
+           "WHERE n.status = 'SENDING' AND n.updatedAt < :before")
+    int releaseStaleDispatch(@Param("before") LocalDateTime before, @Param("now") LocalDateTime now);
+
+    /**
+     * 查询计划发送时间不晚于指定时间的延迟通知，按用户和发送方式汇总（按计划时间索引范围扫描）
+     *
+     * @return 用户ID、发送方式、最早计划发送时间
+     */
+    @Query("SELECT n.userId, n.sendMethod, MIN(n.scheduledAt) FROM Notification n WHERE n.status = 'DEFERRED' " +
+           "AND n.scheduledAt <= :horizon GROUP BY n.userId, n.sendMethod")
+    List<Object[]> findDeferredDue(@Param("horizon") LocalDateTime horizon, Pageable pageable);
+
+    /**
+     * 锁定用户指定发送方式下已到期的延迟通知（跳过其他实例正在放行的行）
+     */
+    @Query(value = "SELECT * FROM notifications WHERE status = 'DEFERRED' AND user_id = :userId " +
+           "AND send_method = :sendMethod AND scheduled_at <= :now ORDER BY created_at " +
+           "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Notification> lockDeferredByUser(@Param("userId") Long userId,
+                                          @Param("sendMethod") String sendMethod,
+                                          @Param("now") LocalDateTime now);
+
+    /**
+     * 将延迟通知转为待发送
+     */
+    @Modifying
+    @Query("UPDATE Notification n SET n.status = 'PENDING', n.updatedAt = :now WHERE n.id IN :ids AND n.status = 'DEFERRED'")
+    int releaseDeferred(@Param("ids") List<Long> ids, @Param("now") LocalDateTime now);
+
+    /**
+     * 将已合并进汇总通知的延迟通知标记为已合并发送
+     */
+    @Modifying
+    @Query("UPDATE Notification n SET n.status = 'DIGESTED', n.sentAt = :now, n.updatedAt = :now " +
+           "WHERE n.id IN :ids AND n.status = 'DEFERRED'")
+    int markDigested(@Param("ids") List<Long> ids, @Param("now") LocalDateTime now);
+
+    /**
+     * 统计用户自指定时间起已发出或待发出的通知数（不含延迟和已合并的通知）
+     * 
+     * 放行的延迟通知按计划发送时间计入放行当天，其余通知按创建时间计入，与内存中的每日计数一致
+     */
+    @Query("SELECT COUNT(n) FROM Notification n WHERE n.userId = :userId " +
+           "AND COALESCE(n.scheduledAt, n.createdAt) >= :since " +
+           "AND n.status NOT IN ('DEFERRED', 'DIGESTED')")
+    long countDeliveredSince(@Param("userId") Long userId, @Param("since") LocalDateTime since);
+
+    /**
+     * 将一个分块已超过过期时间且未结束的通知置为已过期（按过期时间部分索引选取）
+     */
+    @Modifying
+    @Query(value = "UPDATE notifications SET status = 'EXPIRED', updated_at = :now WHERE id IN (" +
+           "SELECT id FROM notifications WHERE expire_at < :now " +
+           "AND status NOT IN ('READ', 'EXPIRED', 'DIGESTED', 'SENDING') " +
+           "LIMIT :limit FOR UPDATE SKIP LOCKED)", nativeQuery = true)
+    int expireChunk(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * 将用户一个分块的未读通知置为已读
+     */
+    @Modifying
+    @Query(value = "UPDATE notifications SET is_read = true, read_at = :now, status = 'READ', updated_at = :now " +
+           "WHERE id IN (SELECT id FROM notifications WHERE user_id = :userId AND is_read = false " +
+           "LIMIT :limit FOR UPDATE SKIP LOCKED)", nativeQuery = true)
+    int markAllAsReadChunk(@Param("userId") Long userId, @Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * 将一个分块在指定时间之前创建且已结束的通知移入归档表
+     */
+    @Modifying
+    @Query(value = "WITH moved AS (DELETE FROM notifications WHERE id IN (" +
+           "SELECT id FROM notifications WHERE status IN ('READ', 'EXPIRED', 'DIGESTED') AND created_at < :before " +
+           "LIMIT :limit FOR UPDATE SKIP LOCKED) RETURNING " + ARCHIVE_COLUMNS + ") " +
+           "INSERT INTO notifications_archive (" + ARCHIVE_COLUMNS + ", archived_at) " +
+           "SELECT " + ARCHIVE_COLUMNS + ", :now FROM moved", nativeQuery = true)
+    int archiveChunk(@Param("before") LocalDateTime before, @Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * 删除一个分块在指定时间之前已读的通知
+     */
+    @Modifying
+    @Query(value = "DELETE FROM notifications WHERE id IN (" +
+           "SELECT id FROM notifications WHERE is_read = true AND read_at < :before " +
+           "LIMIT :limit FOR UPDATE SKIP LOCKED)", nativeQuery = true)
+    int purgeReadChunk(@Param("before") LocalDateTime before, @Param("limit") int limit);
+
+    /**
+     * 删除归档表中一个分块在指定时间之前创建的通知
+     */
+    @Modifying
+    @Query(value = "DELETE FROM notifications_archive WHERE id IN (" +
+           "SELECT id FROM notifications_archive WHERE created_at < :before LIMIT :limit)", nativeQuery = true)
+    int purgeArchiveChunk(@Param("before") LocalDateTime before, @Param("limit") int limit);
+
+    /**
+     * 检查归档表是否存在
+     */
+    @Query(value = "SELECT to_regclass('notifications_archive') IS NOT NULL", nativeQuery = true)
+    boolean archiveTableExists();
 }
\ No newline at end of file
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,6 +29,11 @@ public interface NotificationSettingRepository extends JpaRepository<Notificatio
      */
     List<NotificationSetting> findByUserId(Long userId);
 
+    /**
+     * 根据多个用户ID查询所有设置
+     */
+    List<NotificationSetting> findByUserIdIn(Collection<Long> userIds);
+
     /**
      * 根据用户ID查询启用的设置
      */
@@ -0,0 +1,96 @@
+package main.java.com.elderly.monitoring.notification.sender;
+
+import main.java.com.elderly.monitoring.notification.entity.Notification;
+import main.java.com.elderly.monitoring.notification.sender.provider.MessageProvider;
+import main.java.com.elderly.monitoring.notification.sender.provider.ProviderMessage;
+import main.java.com.elderly.monitoring.notification.settings.NotificationSettingsCache;
+import main.java.com.elderly.monitoring.notification.settings.UserNotificationProfile;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * 基于服务商批量接口的发送通道
+ * 
+ * 一批通知先从设置缓存中批量取出接收方联系方式（未缓存的用户合并为一次查询），再按模板分组、按服务商单次上限切分后提交，
+ * 缺少联系方式的通知直接判定失败。
+ * 
+ * @author System
+ * @since 1.0.0
+ */
+@Slf4j
+public abstract class AbstractBatchNotificationSender implements BatchNotificationSender {
+
+    private final MessageProvider provider;
+    private final NotificationSettingsCache settingsCache;
+
+    protected AbstractBatchNotificationSender(MessageProvider provider, NotificationSettingsCache settingsCache) {
+        this.provider = provider;
+        this.settingsCache = settingsCache;
+    }
+
+    /**
+     * 通知使用的服务商模板
+     */
+    protected abstract String template(Notification notification);
+
+    @Override
+    public String getProviderName() {
+        return provider.getName();
+    }
+
+    @Override
+    public String batchKey(Notification notification) {
+        return provider.getName() + ":" + template(notification);
+    }
+
+    @Override
+    public int getMaxBatchSize() {
+        return provider.getMaxBatchSize();
+    }
+
+    @Override
+    public Map<Long, String> sendBatch(List<Notification> notifications) {
+        Map<Long, String> failures = new HashMap<>();
+        Map<Long, UserNotificationProfile> profiles = settingsCache.getAll(notifications.stream()
+                .map(Notification::getUserId).filter(Objects::nonNull).collect(Collectors.toSet()));
+
+        Map<String, List<ProviderMessage>> byTemplate = new LinkedHashMap<>();
+        for (Notification notification : notifications) {
+            UserNotificationProfile profile = profiles.get(notification.getUserId());
+            String recipient = profile != null ? profile.contact(getSendMethod()) : null;
+            if (recipient == null) {
+                failures.put(notification.getId(), "缺少接收方联系方式");
+                continue;
+            }
+            byTemplate.computeIfAbsent(template(notification), key -> new ArrayList<>())
+                    .add(new ProviderMessage(notification.getId(), recipient,
+                            notification.getTitle(), notification.getContent()));
+        }
+
+        int maxBatchSize = Math.max(1, provider.getMaxBatchSize());
+        for (Map.Entry<String, List<ProviderMessage>> entry : byTemplate.entrySet()) {
+            List<ProviderMessage> messages = entry.getValue();
+            for (int from = 0; from < messages.size(); from += maxBatchSize) {
+                List<ProviderMessage> chunk = messages.subList(from, Math.min(messages.size(), from + maxBatchSize));
+                try {
+                    failures.putAll(provider.sendBatch(entry.getKey(), chunk));
+                } catch (Exception e) {
+                    if (e instanceof InterruptedException) {
+                        Thread.currentThread().interrupt();
+                    }
+                    log.error("服务商调用失败: provider={}, template={}, count={}",
+                            provider.getName(), entry.getKey(), chunk.size(), e);
+                    chunk.forEach(message -> failures.put(message.getNotificationId(), "服务商调用失败: " + e.getMessage()));
+                }
+            }
+        }
+        return failures;
+    }
+}
@@ -0,0 +1,40 @@
+package main.java.com.elderly.monitoring.notification.sender;
+
+import main.java.com.elderly.monitoring.notification.entity.Notification;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 支持批量发送的通道
+ * 
+ * 分发器在短时间窗口内收集同一通道的通知，按合并键分组后一次提交，
+ * 再将逐条结果映射回各通知的发送状态。
+ * 
+ * @author System
+ * @since 1.0.0
+ */
+public interface BatchNotificationSender extends NotificationSender {
+
+    /**
+     * 合并键，键相同的通知（同一服务商、同一模板）可以一次发送
+     */
+    String batchKey(Notification notification);
+
+    /**
+     * 单批最大通知数
+     */
+    int getMaxBatchSize();
+
+    /**
+     * 批量发送
+     * 
+     * @return 发送失败的通知ID及原因，未出现在结果中的视为发送成功
+     */
+    Map<Long, String> sendBatch(List<Notification> notifications);
+
+    @Override
+    default boolean send(Notification notification) {
+        return !sendBatch(List.of(notification)).containsKey(notification.getId());
+    }
+}
@@ -0,0 +1,39 @@
+package main.java.com.elderly.monitoring.notification.sender;
+
+import main.java.com.elderly.monitoring.notification.entity.Notification;
+import main.java.com.elderly.monitoring.notification.sender.provider.MessageProvider;
+import main.java.com.elderly.monitoring.notification.settings.NotificationSettingsCache;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 邮件通知发送通道
+ * 
+ * 同一邮件模板（按通知类型区分）的通知在一次SMTP会话中发送。
+ * 
+ * @author System
+ * @since 1.0.0
+ */
+@Component
+public class EmailNotificationSender extends AbstractBatchNotificationSender {
+
+    private final String templatePath;
+
+    public EmailNotificationSender(@Qualifier("emailProvider") MessageProvider provider,
+                                   NotificationSettingsCache settingsCache,
+                                   @Value("${notification.email.template-path:templates/email/}") String templatePath) {
+        super(provider, settingsCache);
+        this.templatePath = templatePath;
+    }
+
+    @Override
+    public Notification.SendMethod getSendMethod() {
+        return Notification.SendMethod.EMAIL;
+    }
+
+    @Override
+    protected String template(Notification notification) {
+        return templatePath + notification.getType().name().toLowerCase();
+    }
+}
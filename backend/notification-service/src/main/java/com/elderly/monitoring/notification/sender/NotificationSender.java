@@ -0,0 +1,34 @@
+package main.java.com.elderly.monitoring.notification.sender;
+
+import main.java.com.elderly.monitoring.notification.entity.Notification;
+
+/**
+ * 通知发送通道
+ * 
+ * 每种发送方式对应一个实现，由 NotificationDispatcher 在数据库事务之外调用，
+ * 实现中可以进行耗时的网络I/O。
+ * 
+ * @author System
+ * @since 1.0.0
+ */
+public interface NotificationSender {
+
+    /**
+     * 支持的发送方式
+     */
+    Notification.SendMethod getSendMethod();
+
+    /**
+     * 服务商名称，熔断按服务商维护
+     */
+    default String getProviderName() {
+        return getSendMethod().name();
+    }
+
+    /**
+     * 发送通知
+     * 
+     * @return 是否发送成功
+     */
+    boolean send(Notification notification);
+}
@@ -0,0 +1,34 @@
+package main.java.com.elderly.monitoring.notification.sender;
+
+import main.java.com.elderly.monitoring.notification.entity.Notification;
+import main.java.com.elderly.monitoring.notification.sender.provider.MessageProvider;
+import main.java.com.elderly.monitoring.notification.settings.NotificationSettingsCache;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+/**
+ * 推送通知发送通道
+ * 
+ * 同一通知类型的推送合并为一次多设备推送请求。
+ * 
+ * @author System
+ * @since 1.0.0
+ */
+@Component
+public class PushNotificationSender extends AbstractBatchNotificationSender {
+
+    public PushNotificationSender(@Qualifier("pushProvider") MessageProvider provider,
+                                  NotificationSettingsCache settingsCache) {
+        super(provider, settingsCache);
+    }
+
+    @Override
+    public Notification.SendMethod getSendMethod() {
+        return Notification.SendMethod.PUSH;
+    }
+
+    @Override
+    protected String template(Notification notification) {
+        return notification.getType().name();
+    }
+}
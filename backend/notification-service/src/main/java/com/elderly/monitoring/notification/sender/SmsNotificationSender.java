@@ -0,0 +1,39 @@
+package main.java.com.elderly.monitoring.notification.sender;
+
+import main.java.com.elderly.monitoring.notification.entity.Notification;
+import main.java.com.elderly.monitoring.notification.sender.provider.MessageProvider;
+import main.java.com.elderly.monitoring.notification.settings.NotificationSettingsCache;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 短信通知发送通道
+ * 
+ * 同一短信模板的通知合并为一次批量发送，通知内容作为模板参数。
+ * 
+ * @author System
+ * @since 1.0.0
+ */
+@Component
+public class SmsNotificationSender extends AbstractBatchNotificationSender {
+
+    private final String templateCode;
+
+    public SmsNotificationSender(@Qualifier("smsProvider") MessageProvider provider,
+                                 NotificationSettingsCache settingsCache,
+                                 @Value("${notification.sms.template-code:}") String templateCode) {
+        super(provider, settingsCache);
+        this.templateCode = templateCode;
+    }
+
+    @Override
+    public Notification.SendMethod getSendMethod() {
+        return Notification.SendMethod.SMS;
+    }
+
+    @Override
+    protected String template(Notification notification) {
+        return templateCode;
+    }
+}
@@ -0,0 +1,29 @@
+package main.java.com.elderly.monitoring.notification.sender;
+
+import main.java.com.elderly.monitoring.notification.entity.Notification;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * 系统内通知发送通道
+ * 
+ * @author System
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class SystemNotificationSender implements NotificationSender {
+
+    @Override
+    public Notification.SendMethod getSendMethod() {
+        return Notification.SendMethod.SYSTEM;
+    }
+
+    @Override
+    public boolean send(Notification notification) {
+        // 系统内通知直接标记为已送达
+        notification.markAsDelivered();
+        log.info("系统内通知已送达: id={}", notification.getId());
+        return true;
+    }
+}
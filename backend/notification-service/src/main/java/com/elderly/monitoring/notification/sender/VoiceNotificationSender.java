@@ -0,0 +1,38 @@
+package main.java.com.elderly.monitoring.notification.sender;
+
+import main.java.com.elderly.monitoring.notification.entity.Notification;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * 语音通知发送通道
+ * 
+ * @author System
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class VoiceNotificationSender implements NotificationSender {
+
+    @Override
+    public Notification.SendMethod getSendMethod() {
+        return Notification.SendMethod.VOICE;
+    }
+
+    @Override
+    public boolean send(Notification notification) {
+        try {
+            // TODO: 集成语音通知服务
+            log.info("发送语音通知: phone={}, content={}", 
+                    "13800138000", notification.getContent());
+            
+            // 模拟发送成功
+            Thread.sleep(200);
+            return true;
+            
+        } catch (Exception e) {
+            log.error("发送语音通知失败: id={}", notification.getId(), e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package main.java.com.elderly.monitoring.notification.sender;
+
+import main.java.com.elderly.monitoring.notification.entity.Notification;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * 微信通知发送通道
+ * 
+ * @author System
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class WechatNotificationSender implements NotificationSender {
+
+    @Override
+    public Notification.SendMethod getSendMethod() {
+        return Notification.SendMethod.WECHAT;
+    }
+
+    @Override
+    public boolean send(Notification notification) {
+        try {
+            // TODO: 集成微信通知服务
+            log.info("发送微信通知: openid={}, title={}, content={}", 
+                    "wechat_openid", notification.getTitle(), notification.getContent());
+            
+            // 模拟发送成功
+            Thread.sleep(100);
+            return true;
+            
+        } catch (Exception e) {
+            log.error("发送微信通知失败: id={}", notification.getId(), e);
+            return false;
+        }
+    }
+}
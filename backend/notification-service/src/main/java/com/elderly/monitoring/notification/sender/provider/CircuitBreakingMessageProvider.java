@@ -0,0 +1,48 @@
+package main.java.com.elderly.monitoring.notification.sender.provider;
+
+import main.java.com.elderly.monitoring.notification.dispatch.CircuitBreaker;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 记录服务商调用结果的包装层
+ * 
+ * 只有整次调用失败（抛出异常）才计入熔断，单个接收方的失败不影响服务商状态。
+ * 是否放行调用由分发器在发送前判断。
+ * 
+ * @author System
+ * @since 1.0.0
+ */
+public class CircuitBreakingMessageProvider implements MessageProvider {
+
+    private final MessageProvider delegate;
+    private final CircuitBreaker breaker;
+
+    public CircuitBreakingMessageProvider(MessageProvider delegate, CircuitBreaker breaker) {
+        this.delegate = delegate;
+        this.breaker = breaker;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public int getMaxBatchSize() {
+        return delegate.getMaxBatchSize();
+    }
+
+    @Override
+    public Map<Long, String> sendBatch(String template, List<ProviderMessage> messages) throws Exception {
+        try {
+            Map<Long, String> failures = delegate.sendBatch(template, messages);
+            breaker.onSuccess();
+            return failures;
+        } catch (Exception e) {
+            breaker.onFailure();
+            throw e;
+        }
+    }
+}
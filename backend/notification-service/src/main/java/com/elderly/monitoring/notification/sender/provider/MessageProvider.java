@@ -0,0 +1,34 @@
+package main.java.com.elderly.monitoring.notification.sender.provider;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 消息服务商（短信网关、SMTP中继、推送服务）
+ * 
+ * 服务商均支持一次调用提交多个接收方，每个接收方的结果单独返回。
+ * 
+ * @author System
+ * @since 1.0.0
+ */
+public interface MessageProvider {
+
+    /**
+     * 服务商名称，相同服务商和模板的通知合并为一次调用
+     */
+    String getName();
+
+    /**
+     * 单次调用允许的最大消息数
+     */
+    int getMaxBatchSize();
+
+    /**
+     * 一次调用发送一批使用相同模板的消息
+     * 
+     * @param template 模板标识
+     * @return 发送失败的通知ID及原因，未出现在结果中的视为发送成功
+     * @throws Exception 整批调用失败
+     */
+    Map<Long, String> sendBatch(String template, List<ProviderMessage> messages) throws Exception;
+}
@@ -0,0 +1,43 @@
+package main.java.com.elderly.monitoring.notification.sender.provider;
+
+import main.java.com.elderly.monitoring.notification.dispatch.CircuitBreakerRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 消息服务商配置
+ * 
+ * TODO: 接入真实服务商（阿里云短信、SMTP、Firebase）后替换对应的模拟实现
+ * 
+ * @author System
+ * @since 1.0.0
+ */
+@Configuration
+public class MessageProviderConfig {
+
+    @Bean
+    public MessageProvider smsProvider(CircuitBreakerRegistry circuitBreakers,
+                                       @Value("${notification.sms.provider:aliyun}") String provider,
+                                       @Value("${notification.sms.max-batch-size:100}") int maxBatchSize) {
+        return withBreaker(new MockMessageProvider(provider, maxBatchSize, 100), circuitBreakers);
+    }
+
+    @Bean
+    public MessageProvider emailProvider(CircuitBreakerRegistry circuitBreakers,
+                                         @Value("${spring.mail.host:localhost}") String host,
+                                         @Value("${notification.email.max-batch-size:50}") int maxBatchSize) {
+        return withBreaker(new MockMessageProvider("smtp:" + host, maxBatchSize, 100), circuitBreakers);
+    }
+
+    @Bean
+    public MessageProvider pushProvider(CircuitBreakerRegistry circuitBreakers,
+                                        @Value("${notification.push.provider:firebase}") String provider,
+                                        @Value("${notification.push.max-batch-size:500}") int maxBatchSize) {
+        return withBreaker(new MockMessageProvider(provider, maxBatchSize, 100), circuitBreakers);
+    }
+
+    private MessageProvider withBreaker(MessageProvider provider, CircuitBreakerRegistry circuitBreakers) {
+        return new CircuitBreakingMessageProvider(provider, circuitBreakers.get(provider.getName()));
+    }
+}
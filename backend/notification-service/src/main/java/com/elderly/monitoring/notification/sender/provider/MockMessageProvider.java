@@ -0,0 +1,46 @@
+package main.java.com.elderly.monitoring.notification.sender.provider;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 本地模拟服务商
+ * 
+ * 每次调用记录日志并模拟一次网络往返，所有消息均返回成功。
+ * 
+ * @author System
+ * @since 1.0.0
+ */
+@Slf4j
+public class MockMessageProvider implements MessageProvider {
+
+    private final String name;
+    private final int maxBatchSize;
+    private final long latencyMillis;
+
+    public MockMessageProvider(String name, int maxBatchSize, long latencyMillis) {
+        this.name = name;
+        this.maxBatchSize = maxBatchSize;
+        this.latencyMillis = latencyMillis;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    @Override
+    public Map<Long, String> sendBatch(String template, List<ProviderMessage> messages) throws Exception {
+        log.info("模拟服务商发送: provider={}, template={}, count={}", name, template, messages.size());
+        Thread.sleep(latencyMillis);
+        return Collections.emptyMap();
+    }
+}
@@ -0,0 +1,29 @@
+package main.java.com.elderly.monitoring.notification.sender.provider;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 提交给服务商的单条消息
+ * 
+ * @author System
+ * @since 1.0.0
+ */
+@Getter
+@AllArgsConstructor
+public class ProviderMessage {
+
+    /**
+     * 对应的通知ID，用于将服务商返回的逐条结果映射回通知
+     */
+    private final Long notificationId;
+
+    /**
+     * 接收方（手机号、邮件地址或推送Token）
+     */
+    private final String recipient;
+
+    private final String title;
+
+    private final String content;
+}
@@ -1,19 +1,37 @@
 package main.java.com.elderly.monitoring.notification.service;
 
+import main.java.com.elderly.monitoring.notification.carecircle.CareCircle;
+import main.java.com.elderly.monitoring.notification.carecircle.CareCircleCache;
+import main.java.com.elderly.monitoring.notification.dedup.NotificationDeduplicator;
+import main.java.com.elderly.monitoring.notification.dispatch.DeferredDeliveryEngine;
+import main.java.com.elderly.monitoring.notification.dispatch.NotificationDispatcher;
 import main.java.com.elderly.monitoring.notification.entity.Notification;
-import main.java.com.elderly.monitoring.notification.entity.NotificationSetting;
+import main.java.com.elderly.monitoring.notification.inbox.InboxService;
+import main.java.com.elderly.monitoring.notification.maintenance.NotificationMaintenanceJob;
+import main.java.com.elderly.monitoring.notification.repository.NotificationBulkInsertRepository;
 import main.java.com.elderly.monitoring.notification.repository.NotificationRepository;
-import main.java.com.elderly.monitoring.notification.repository.NotificationSettingRepository;
+import main.java.com.elderly.monitoring.notification.settings.NotificationSettingsCache;
+import main.java.com.elderly.monitoring.notification.settings.UserNotificationProfile;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * 通知服务实现类
@@ -27,41 +45,37 @@ import java.util.Optional;
 public class NotificationService {
 
     private final NotificationRepository notificationRepository;
-    private final NotificationSettingRepository notificationSettingRepository;
+    private final NotificationSettingsCache settingsCache;
+    private final NotificationDispatcher notificationDispatcher;
+    private final DeferredDeliveryEngine deferredDeliveryEngine;
+    private final NotificationMaintenanceJob maintenanceJob;
+    private final InboxService inboxService;
+    private final CareCircleCache careCircleCache;
+    private final NotificationBulkInsertRepository bulkInsertRepository;
+    private final NotificationDeduplicator deduplicator;
 
     /**
      * 创建通知
+     * 
+     * 幂等：去重窗口内幂等键相同的通知已存在时不再创建，返回已有的通知
      */
     @Transactional
     public Notification createNotification(Notification notification) {
         log.info("创建通知: userId={}, type={}, title={}", 
                 notification.getUserId(), notification.getType(), notification.getTitle());
         
-        // 检查用户通知设置
-        Optional<NotificationSetting> settingOpt = notificationSettingRepository
-                .findEnabledByUserIdAndType(notification.getUserId(), 
-                        NotificationSetting.NotificationType.valueOf(notification.getType().name()));
+        if (deduplicator.removeDuplicates(List.of(notification)).isEmpty()) {
+            return findByDedupKey(notification.getDedupKey());
+        }
         
-        if (settingOpt.isPresent()) {
-            NotificationSetting setting = settingOpt.get();
-            
-            // 检查优先级是否满足要求
-            if (!setting.isPrioritySufficient(notification.getPriority())) {
-                log.warn("通知优先级不满足用户设置要求: userId={}, notificationPriority={}, minPriority={}", 
-                        notification.getUserId(), notification.getPriority(), setting.getMinPriority());
-                return null;
-            }
-            
-            // 检查是否在免打扰时间内
-            if (setting.isInQuietHours() && !notification.isUrgent()) {
-                log.info("通知在免打扰时间内，延迟发送: userId={}", notification.getUserId());
-                notification.setStatus(Notification.NotificationStatus.PENDING);
-            } else {
-                notification.setStatus(Notification.NotificationStatus.PENDING);
-            }
+        // 检查用户通知设置（使用缓存的设置快照）
+        UserNotificationProfile profile = settingsCache.get(notification.getUserId());
+        if (!route(notification, profile.enabledRule(notification.getType()))) {
+            return null;
         }
         
-        return notificationRepository.save(notification);
+        List<Notification> saved = insert(List.of(notification));
+        return saved.isEmpty() ? findByDedupKey(notification.getDedupKey()) : saved.get(0);
     }
 
     /**
@@ -70,175 +84,179 @@ public class NotificationService {
     @Transactional
     public List<Notification> createNotifications(List<Notification> notifications) {
         log.info("批量创建通知: count={}", notifications.size());
-        return notificationRepository.saveAll(notifications);
+        List<Notification> candidates = deduplicator.removeDuplicates(notifications);
+        
+        // 未缓存的用户设置合并为一次查询
+        Map<Long, UserNotificationProfile> profiles = settingsCache.getAll(candidates.stream()
+                .map(Notification::getUserId).filter(Objects::nonNull).collect(Collectors.toSet()));
+        List<Notification> accepted = new ArrayList<>(candidates.size());
+        for (Notification notification : candidates) {
+            UserNotificationProfile profile = profiles.get(notification.getUserId());
+            if (route(notification, profile != null ? profile.enabledRule(notification.getType()) : null)) {
+                accepted.add(notification);
+            }
+        }
+        
+        return insert(accepted);
     }
 
     /**
-     * 发送通知
+     * 向老人的照护圈发送通知
+     * 
+     * 每个成员按自己的通知设置（内存中的设置快照）决定发送方式、是否发送以及何时发送：
+     * 模板指定了发送方式时只使用该方式，否则使用成员为该通知类型启用的全部方式，未设置时为系统内通知。
+     * 全部通知以一条批量INSERT写入；按幂等键去重，重复调用不会再次通知同一成员。
+     * 
+     * @param residentId 老人的用户ID
+     * @param template 通知模板（类型、标题、内容、优先级、关联对象等），userId 不使用
+     * @param roles 接收的成员角色，为空时发送给全部成员
+     * @return 创建的通知
      */
     @Transactional
-    public boolean sendNotification(Long notificationId) {
-        Optional<Notification> notificationOpt = notificationRepository.findById(notificationId);
-        if (notificationOpt.isEmpty()) {
-            log.warn("通知不存在: id={}", notificationId);
-            return false;
+    public List<Notification> notifyCareCircle(Long residentId, Notification template, Set<String> roles) {
+        List<CareCircle.Member> members = careCircleCache.get(residentId).members(roles);
+        log.info("照护圈通知: residentId={}, type={}, recipients={}", residentId, template.getType(), members.size());
+        if (members.isEmpty()) {
+            return List.of();
         }
         
-        Notification notification = notificationOpt.get();
-        
-        try {
-            log.info("发送通知: id={}, userId={}, type={}", 
-                    notification.getId(), notification.getUserId(), notification.getType());
-            
-            // 根据发送方式发送通知
-            boolean success = false;
-            switch (notification.getSendMethod()) {
-                case SYSTEM:
-                    success = sendSystemNotification(notification);
-                    break;
-                case EMAIL:
-                    success = sendEmailNotification(notification);
-                    break;
-                case SMS:
-                    success = sendSmsNotification(notification);
-                    break;
-                case PUSH:
-                    success = sendPushNotification(notification);
-                    break;
-                case WECHAT:
-                    success = sendWechatNotification(notification);
-                    break;
-                case VOICE:
-                    success = sendVoiceNotification(notification);
-                    break;
-                default:
-                    log.warn("不支持的通知发送方式: {}", notification.getSendMethod());
-                    return false;
-            }
-            
-            if (success) {
-                notification.markAsSent();
-                notificationRepository.save(notification);
-                log.info("通知发送成功: id={}", notification.getId());
-                return true;
+        Map<Long, UserNotificationProfile> profiles = settingsCache.getAll(
+                members.stream().map(CareCircle.Member::userId).toList());
+        List<Notification> candidates = new ArrayList<>();
+        for (CareCircle.Member member : members) {
+            UserNotificationProfile.TypeRule rule = profiles.get(member.userId()).enabledRule(template.getType());
+            Set<Notification.SendMethod> methods;
+            if (template.getSendMethod() != null) {
+                methods = Set.of(template.getSendMethod());
+            } else if (rule != null && !rule.getMethods().isEmpty()) {
+                methods = rule.getMethods();
             } else {
-                notification.markAsFailed("发送失败");
-                notificationRepository.save(notification);
-                log.error("通知发送失败: id={}", notification.getId());
-                return false;
+                methods = Set.of(Notification.SendMethod.SYSTEM);
+            }
+            for (Notification.SendMethod method : methods) {
+                candidates.add(copyOf(template, member.userId(), method));
+            }
+        }
+        
+        List<Notification> accepted = new ArrayList<>(candidates.size());
+        for (Notification notification : deduplicator.removeDuplicates(candidates)) {
+            if (route(notification, profiles.get(notification.getUserId()).enabledRule(template.getType()))) {
+                accepted.add(notification);
             }
-            
-        } catch (Exception e) {
-            log.error("发送通知异常: id={}", notificationId, e);
-            notification.markAsFailed("发送异常: " + e.getMessage());
-            notificationRepository.save(notification);
-            return false;
         }
+        return insert(accepted);
     }
 
     /**
-     * 发送系统内通知
+     * 以一条语句写入通知（幂等键已被占用的通知不写入），提交后分发
+     * 
+     * @return 写入的通知
      */
-    private boolean sendSystemNotification(Notification notification) {
-        // 系统内通知直接标记为已送达
-        notification.markAsDelivered();
-        log.info("系统内通知已送达: id={}", notification.getId());
-        return true;
+    private List<Notification> insert(List<Notification> notifications) {
+        List<Notification> saved = bulkInsertRepository.insertAll(notifications, deduplicator.windowStart());
+        deduplicator.remember(notifications);
+        deduplicator.countRejected(notifications.size() - saved.size());
+        dispatchAfterCommit(saved);
+        return saved;
     }
 
-    /**
-     * 发送邮件通知
-     */
-    private boolean sendEmailNotification(Notification notification) {
-        try {
-            // TODO: 集成邮件发送服务
-            log.info("发送邮件通知: to={}, title={}, content={}", 
-                    "user@example.com", notification.getTitle(), notification.getContent());
-            
-            // 模拟发送成功
-            Thread.sleep(100);
-            return true;
-            
-        } catch (Exception e) {
-            log.error("发送邮件通知失败: id={}", notification.getId(), e);
-            return false;
-        }
+    private Notification findByDedupKey(String dedupKey) {
+        log.info("通知已存在，忽略重复创建: dedupKey={}", dedupKey);
+        return notificationRepository.findFirstByDedupKeyOrderByCreatedAtDesc(dedupKey).orElse(null);
+    }
+
+    private static Notification copyOf(Notification template, Long userId, Notification.SendMethod sendMethod) {
+        return new Notification()
+                .setUserId(userId)
+                .setType(template.getType())
+                .setTitle(template.getTitle())
+                .setContent(template.getContent())
+                .setPriority(template.getPriority())
+                .setSendMethod(sendMethod)
+                .setRelatedId(template.getRelatedId())
+                .setRelatedType(template.getRelatedType())
+                .setExpireAt(template.getExpireAt())
+                .setMaxRetryCount(template.getMaxRetryCount())
+                .setExtraData(template.getExtraData())
+                .setCreatedBy(template.getCreatedBy())
+                .setDedupKey(template.getDedupKey() != null
+                        ? template.getDedupKey() + ":" + userId + ":" + sendMethod.name() : null);
     }
 
     /**
-     * 发送短信通知
+     * 按用户对该通知类型的规则决定通知是否创建以及何时发送
+     * 
+     * @param rule 启用的类型规则，用户未设置时为null
+     * @return 优先级不满足用户设置时返回false
      */
-    private boolean sendSmsNotification(Notification notification) {
-        try {
-            // TODO: 集成短信发送服务
-            log.info("发送短信通知: to={}, content={}", 
-                    "13800138000", notification.getContent());
-            
-            // 模拟发送成功
-            Thread.sleep(100);
-            return true;
+    private boolean route(Notification notification, UserNotificationProfile.TypeRule rule) {
+        if (rule != null) {
+            // 检查优先级是否满足要求
+            if (!rule.isPrioritySufficient(notification.getPriority())) {
+                log.warn("通知优先级不满足用户设置要求: userId={}, notificationPriority={}, minPriority={}", 
+                        notification.getUserId(), notification.getPriority(), rule.getMinPriority());
+                return false;
+            }
             
-        } catch (Exception e) {
-            log.error("发送短信通知失败: id={}", notification.getId(), e);
-            return false;
+            notification.setStatus(Notification.NotificationStatus.PENDING);
         }
+        
+        // 免打扰、汇总间隔与每日上限，需要时改为延迟发送
+        deferredDeliveryEngine.plan(notification, rule);
+        if (notification.getStatus() == Notification.NotificationStatus.DEFERRED) {
+            log.info("通知延迟发送: userId={}, scheduledAt={}", notification.getUserId(), notification.getScheduledAt());
+        }
+        return true;
     }
 
     /**
-     * 发送推送通知
+     * 事务提交后唤醒对应发送通道（新通知无需等待下一次轮询）、安排延迟通知的放行、累加每日计数，并更新收件箱
      */
-    private boolean sendPushNotification(Notification notification) {
-        try {
-            // TODO: 集成推送服务
-            log.info("发送推送通知: token={}, title={}, content={}", 
-                    "push_token", notification.getTitle(), notification.getContent());
-            
-            // 模拟发送成功
-            Thread.sleep(100);
-            return true;
-            
-        } catch (Exception e) {
-            log.error("发送推送通知失败: id={}", notification.getId(), e);
-            return false;
+    private void dispatchAfterCommit(List<Notification> notifications) {
+        Set<Notification.SendMethod> sendMethods = EnumSet.noneOf(Notification.SendMethod.class);
+        List<Notification> deferred = new ArrayList<>();
+        for (Notification notification : notifications) {
+            if (notification.getStatus() == Notification.NotificationStatus.DEFERRED) {
+                deferred.add(notification);
+            } else if (notification.getSendMethod() != null
+                    && notification.getStatus() == Notification.NotificationStatus.PENDING) {
+                sendMethods.add(notification.getSendMethod());
+            }
         }
+        if (notifications.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> {
+            sendMethods.forEach(notificationDispatcher::wakeUp);
+            deferred.forEach(deferredDeliveryEngine::schedule);
+            deferredDeliveryEngine.countDelivered(notifications);
+            inboxService.notificationsCreated(notifications);
+        });
     }
 
     /**
-     * 发送微信通知
+     * 在当前事务提交后执行，不在事务中时立即执行
      */
-    private boolean sendWechatNotification(Notification notification) {
-        try {
-            // TODO: 集成微信通知服务
-            log.info("发送微信通知: openid={}, title={}, content={}", 
-                    "wechat_openid", notification.getTitle(), notification.getContent());
-            
-            // 模拟发送成功
-            Thread.sleep(100);
-            return true;
-            
-        } catch (Exception e) {
-            log.error("发送微信通知失败: id={}", notification.getId(), e);
-            return false;
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
         }
     }
 
     /**
-     * 发送语音通知
+     * 立即发送通知
+     * 
+     * 不在事务中执行：领取与结果写入各自为短事务，发送过程不占用数据库连接
      */
-    private boolean sendVoiceNotification(Notification notification) {
-        try {
-            // TODO: 集成语音通知服务
-            log.info("发送语音通知: phone={}, content={}", 
-                    "13800138000", notification.getContent());
-            
-            // 模拟发送成功
-            Thread.sleep(200);
-            return true;
-            
-        } catch (Exception e) {
-            log.error("发送语音通知失败: id={}", notification.getId(), e);
-            return false;
-        }
+    public boolean sendNotification(Long notificationId) {
+        return notificationDispatcher.sendNow(notificationId);
     }
 
     /**
@@ -246,16 +264,18 @@ public class NotificationService {
      */
     @Transactional
     public boolean markAsRead(Long notificationId) {
-        Optional<Notification> notificationOpt = notificationRepository.findById(notificationId);
-        if (notificationOpt.isEmpty()) {
-            log.warn("通知不存在: id={}", notificationId);
-            return false;
+        List<Object[]> unread = notificationRepository.lockUnreadByIds(List.of(notificationId));
+        if (unread.isEmpty()) {
+            if (!notificationRepository.existsById(notificationId)) {
+                log.warn("通知不存在: id={}", notificationId);
+                return false;
+            }
+            // 已经是已读状态
+            return true;
         }
         
-        Notification notification = notificationOpt.get();
-        notification.markAsRead();
-        notificationRepository.save(notification);
-        
+        notificationRepository.markAsRead(List.of(notificationId), LocalDateTime.now(), Notification.NotificationStatus.READ);
+        afterCommit(() -> inboxService.unreadRemoved(countByUser(unread)));
         log.info("通知已标记为已读: id={}", notificationId);
         return true;
     }
@@ -265,23 +285,44 @@ public class NotificationService {
      */
     @Transactional
     public int markMultipleAsRead(List<Long> notificationIds) {
-        int updated = notificationRepository.markAsRead(notificationIds, 
+        List<Object[]> unread = notificationRepository.lockUnreadByIds(notificationIds);
+        if (unread.isEmpty()) {
+            return 0;
+        }
+        List<Long> unreadIds = unread.stream().map(row -> ((Number) row[0]).longValue()).toList();
+        int updated = notificationRepository.markAsRead(unreadIds, 
                 LocalDateTime.now(), Notification.NotificationStatus.READ);
+        afterCommit(() -> inboxService.unreadRemoved(countByUser(unread)));
         log.info("批量标记通知为已读: count={}", updated);
         return updated;
     }
 
+    /**
+     * 标记用户的全部通知为已读（分块执行）
+     */
+    public int markAllAsRead(Long userId) {
+        int updated = maintenanceJob.markAllAsRead(userId);
+        inboxService.unreadRemoved(Map.of(userId, updated));
+        log.info("标记用户全部通知为已读: userId={}, count={}", userId, updated);
+        return updated;
+    }
+
     /**
      * 删除通知
      */
     @Transactional
     public boolean deleteNotification(Long notificationId) {
-        if (!notificationRepository.existsById(notificationId)) {
+        Optional<Notification> notificationOpt = notificationRepository.findById(notificationId);
+        if (notificationOpt.isEmpty()) {
             log.warn("通知不存在: id={}", notificationId);
             return false;
         }
         
-        notificationRepository.deleteById(notificationId);
+        Notification notification = notificationOpt.get();
+        notificationRepository.delete(notification);
+        if (!Boolean.TRUE.equals(notification.getIsRead())) {
+            afterCommit(() -> inboxService.unreadRemoved(Map.of(notification.getUserId(), 1)));
+        }
         log.info("通知已删除: id={}", notificationId);
         return true;
     }
@@ -293,6 +334,13 @@ public class NotificationService {
     public int deleteNotifications(List<Long> notificationIds) {
         List<Notification> notifications = notificationRepository.findAllById(notificationIds);
         notificationRepository.deleteAll(notifications);
+        Map<Long, Integer> unreadByUser = new HashMap<>();
+        for (Notification notification : notifications) {
+            if (!Boolean.TRUE.equals(notification.getIsRead())) {
+                unreadByUser.merge(notification.getUserId(), 1, Integer::sum);
+            }
+        }
+        afterCommit(() -> inboxService.unreadRemoved(unreadByUser));
         log.info("批量删除通知: count={}", notifications.size());
         return notifications.size();
     }
@@ -305,10 +353,28 @@ public class NotificationService {
     }
 
     /**
-     * 获取用户未读通知数量
+     * 获取用户未读通知数量（读取未读计数，不统计数据库）
      */
     public Long getUnreadCount(Long userId) {
-        return notificationRepository.countUnreadByUserId(userId);
+        return inboxService.getUnreadCount(userId);
+    }
+
+    /**
+     * 订阅用户收件箱的实时推送
+     */
+    public SseEmitter subscribeInbox(Long userId) {
+        return inboxService.subscribe(userId);
+    }
+
+    /**
+     * 按用户汇总 (id, userId) 行数
+     */
+    private static Map<Long, Integer> countByUser(List<Object[]> rows) {
+        Map<Long, Integer> counts = new HashMap<>();
+        for (Object[] row : rows) {
+            counts.merge(((Number) row[1]).longValue(), 1, Integer::sum);
+        }
+        return counts;
     }
 
     /**
@@ -327,35 +393,39 @@ public class NotificationService {
     }
 
     /**
-     * 处理过期通知
+     * 处理过期通知（分块执行，每个分块单独提交）
      */
-    @Transactional
     public int expireNotifications() {
-        List<Notification> expiredNotifications = notificationRepository
-                .findExpiredNotifications(LocalDateTime.now(), Notification.NotificationStatus.READ);
-        
-        int updated = 0;
-        for (Notification notification : expiredNotifications) {
-            notification.setStatus(Notification.NotificationStatus.EXPIRED);
-            notificationRepository.save(notification);
-            updated++;
-        }
-        
+        int updated = maintenanceJob.expire();
         log.info("处理过期通知: count={}", updated);
         return updated;
     }
 
     /**
-     * 清理旧的通知
+     * 归档已结束的通知
+     */
+    public int archiveNotifications() {
+        int archived = maintenanceJob.archive();
+        log.info("归档通知: count={}", archived);
+        return archived;
+    }
+
+    /**
+     * 清理超过保留期的通知
      */
-    @Transactional
     public int cleanupOldNotifications() {
-        LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
-        int deleted = notificationRepository.deleteOldReadNotifications(thirtyDaysAgo);
+        int deleted = maintenanceJob.cleanup();
         log.info("清理旧通知: count={}", deleted);
         return deleted;
     }
 
+    /**
+     * 获取维护任务的执行进度
+     */
+    public Map<String, Object> getMaintenanceStatistics() {
+        return maintenanceJob.getStatistics();
+    }
+
     /**
      * 获取用户通知统计
      */
@@ -370,6 +440,19 @@ public class NotificationService {
         return notificationRepository.getSystemNotificationStats(startTime, endTime);
     }
 
+    /**
+     * 获取各发送通道的分发统计
+     */
+    public Map<String, Object> getDispatchStatistics() {
+        Map<String, Object> statistics = notificationDispatcher.getStatistics();
+        statistics.put("deferred", deferredDeliveryEngine.getStatistics());
+        statistics.put("settingsCache", settingsCache.getStatistics());
+        statistics.put("inbox", inboxService.getStatistics());
+        statistics.put("careCircleCache", careCircleCache.getStatistics());
+        statistics.put("dedup", deduplicator.getStatistics());
+        return statistics;
+    }
+
     /**
      * 根据多个条件查询通知
      */
@@ -1,7 +1,10 @@
 package main.java.com.elderly.monitoring.notification.service;
 
+import main.java.com.elderly.monitoring.notification.entity.Notification;
 import main.java.com.elderly.monitoring.notification.entity.NotificationSetting;
 import main.java.com.elderly.monitoring.notification.repository.NotificationSettingRepository;
+import main.java.com.elderly.monitoring.notification.settings.NotificationSettingsCache;
+import main.java.com.elderly.monitoring.notification.settings.UserNotificationProfile;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -13,6 +16,9 @@ import java.util.Optional;
 /**
  * 通知设置服务实现类
  * 
+ * 启用状态与发送方式的查询走 {@link NotificationSettingsCache} 中的设置快照；
+ * 修改设置的方法在事务提交后使对应用户的快照失效。
+ * 
  * @author System
  * @since 1.0.0
  */
@@ -22,6 +28,7 @@ import java.util.Optional;
 public class NotificationSettingService {
 
     private final NotificationSettingRepository notificationSettingRepository;
+    private final NotificationSettingsCache settingsCache;
 
     /**
      * 获取用户通知设置
@@ -44,6 +51,7 @@ public class NotificationSettingService {
     public NotificationSetting saveUserSetting(NotificationSetting setting) {
         log.info("保存用户通知设置: userId={}, type={}, enabled={}", 
                 setting.getUserId(), setting.getType(), setting.getEnabled());
+        settingsCache.invalidateAfterCommit(setting.getUserId());
         
         Optional<NotificationSetting> existingOpt = notificationSettingRepository
                 .findByUserIdAndType(setting.getUserId(), setting.getType());
@@ -82,6 +90,7 @@ public class NotificationSettingService {
     @Transactional
     public List<NotificationSetting> initUserDefaultSettings(Long userId) {
         log.info("初始化用户默认通知设置: userId={}", userId);
+        settingsCache.invalidateAfterCommit(userId);
         
         NotificationSetting.NotificationType[] types = NotificationSetting.NotificationType.values();
         List<NotificationSetting> settings = new java.util.ArrayList<>();
@@ -122,6 +131,7 @@ public class NotificationSettingService {
     @Transactional
     public List<NotificationSetting> batchUpdateUserSettings(Long userId, List<NotificationSetting> settings) {
         log.info("批量更新用户通知设置: userId={}, count={}", userId, settings.size());
+        settingsCache.invalidateAfterCommit(userId);
         
         List<NotificationSetting> updatedSettings = new java.util.ArrayList<>();
         
@@ -149,6 +159,7 @@ public class NotificationSettingService {
         NotificationSetting setting = settingOpt.get();
         setting.setEnabled(enabled);
         notificationSettingRepository.save(setting);
+        settingsCache.invalidateAfterCommit(userId);
         
         log.info("更新通知类型状态: userId={}, type={}, enabled={}", userId, type, enabled);
         return true;
@@ -190,6 +201,7 @@ public class NotificationSettingService {
             }
         }
         
+        settingsCache.invalidateAfterCommit(userId);
         log.info("更新用户联系方式: userId={}", userId);
         return true;
     }
@@ -208,6 +220,7 @@ public class NotificationSettingService {
             setting.setWeekendQuiet(weekendQuiet);
             notificationSettingRepository.save(setting);
         }
+        settingsCache.invalidateAfterCommit(userId);
         
         log.info("更新免打扰设置: userId={}, start={}, end={}, weekend={}", 
                 userId, quietHoursStart, quietHoursEnd, weekendQuiet);
@@ -218,28 +231,28 @@ public class NotificationSettingService {
      * 检查用户是否启用了特定类型的通知
      */
     public boolean isNotificationEnabled(Long userId, NotificationSetting.NotificationType type) {
-        return notificationSettingRepository.isSystemNotificationEnabled(userId, type);
+        return settingsCache.get(userId).isMethodEnabled(type, Notification.SendMethod.SYSTEM);
     }
 
     /**
      * 检查用户是否启用了邮件通知
      */
     public boolean isEmailNotificationEnabled(Long userId, NotificationSetting.NotificationType type) {
-        return notificationSettingRepository.isEmailNotificationEnabled(userId, type);
+        return settingsCache.get(userId).isMethodEnabled(type, Notification.SendMethod.EMAIL);
     }
 
     /**
      * 检查用户是否启用了短信通知
      */
     public boolean isSmsNotificationEnabled(Long userId, NotificationSetting.NotificationType type) {
-        return notificationSettingRepository.isSmsNotificationEnabled(userId, type);
+        return settingsCache.get(userId).isMethodEnabled(type, Notification.SendMethod.SMS);
     }
 
     /**
      * 检查用户是否启用了推送通知
      */
     public boolean isPushNotificationEnabled(Long userId, NotificationSetting.NotificationType type) {
-        return notificationSettingRepository.isPushNotificationEnabled(userId, type);
+        return settingsCache.get(userId).isMethodEnabled(type, Notification.SendMethod.PUSH);
     }
 
     /**
@@ -248,11 +261,10 @@ public class NotificationSettingService {
     public List<main.java.com.elderly.monitoring.notification.entity.Notification.SendMethod> 
             getEnabledNotificationMethods(Long userId, NotificationSetting.NotificationType type) {
         
-        Optional<NotificationSetting> settingOpt = notificationSettingRepository
-                .findEnabledByUserIdAndType(userId, type);
+        UserNotificationProfile.TypeRule rule = settingsCache.get(userId).enabledRule(type);
         
-        if (settingOpt.isPresent()) {
-            return settingOpt.get().getEnabledMethods();
+        if (rule != null) {
+            return new java.util.ArrayList<>(rule.getMethods());
         }
         
         // 返回默认的系统内通知
@@ -307,6 +319,7 @@ public class NotificationSettingService {
         }
         
         notificationSettingRepository.delete(settingOpt.get());
+        settingsCache.invalidateAfterCommit(userId);
         log.info("删除用户通知设置: userId={}, type={}", userId, type);
         return true;
     }
@@ -318,6 +331,7 @@ public class NotificationSettingService {
     public int deleteUserSettings(Long userId) {
         List<NotificationSetting> settings = notificationSettingRepository.findByUserId(userId);
         notificationSettingRepository.deleteAll(settings);
+        settingsCache.invalidateAfterCommit(userId);
         log.info("删除用户所有通知设置: userId={}, count={}", userId, settings.size());
         return settings.size();
     }
@@ -402,6 +416,7 @@ public class NotificationSettingService {
         if (!toSettings.isEmpty()) {
             notificationSettingRepository.saveAll(toSettings);
         }
+        settingsCache.invalidateAfterCommit(toUserId);
         
         return true;
     }
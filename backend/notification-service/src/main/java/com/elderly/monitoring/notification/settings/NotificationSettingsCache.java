@@ -0,0 +1,129 @@
+package main.java.com.elderly.monitoring.notification.settings;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import main.java.com.elderly.monitoring.notification.entity.NotificationSetting;
+import main.java.com.elderly.monitoring.notification.repository.NotificationSettingRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 用户通知设置缓存
+ *
+ * 按用户缓存编译后的 {@link UserNotificationProfile}，未命中时一次查询该用户的全部设置；
+ * 批量获取时未命中的用户合并为一次查询。设置变更提交后清除本地缓存，并通过Redis频道
+ * 通知其他实例（见 NotificationSettingsConfig）；过期时间兜底丢失的失效消息。
+ *
+ * @author System
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class NotificationSettingsCache {
+
+    /**
+     * 通知设置变更频道，消息内容为用户ID
+     */
+    public static final String SETTINGS_CHANGED_CHANNEL = "notification:settings:changed";
+
+    private final NotificationSettingRepository notificationSettingRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final Cache<Long, UserNotificationProfile> profiles;
+
+    public NotificationSettingsCache(NotificationSettingRepository notificationSettingRepository,
+                                     StringRedisTemplate redisTemplate,
+                                     @Value("${notification.settings.cache.max-size:100000}") long maxSize,
+                                     @Value("${notification.settings.cache.expire-after-write:30m}") Duration expireAfterWrite) {
+        this.notificationSettingRepository = notificationSettingRepository;
+        this.redisTemplate = redisTemplate;
+        this.profiles = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * 获取用户的通知设置快照，未设置任何通知的用户返回空快照
+     */
+    public UserNotificationProfile get(Long userId) {
+        return profiles.get(userId, id -> UserNotificationProfile.compile(id, notificationSettingRepository.findByUserId(id)));
+    }
+
+    /**
+     * 批量获取用户的通知设置快照
+     *
+     * @return userId -> 快照，包含全部请求的用户
+     */
+    public Map<Long, UserNotificationProfile> getAll(Collection<Long> userIds) {
+        return profiles.getAll(userIds, this::loadAll);
+    }
+
+    private Map<Long, UserNotificationProfile> loadAll(Set<? extends Long> userIds) {
+        Map<Long, List<NotificationSetting>> byUser = new HashMap<>();
+        for (NotificationSetting setting : notificationSettingRepository.findByUserIdIn(new ArrayList<>(userIds))) {
+            byUser.computeIfAbsent(setting.getUserId(), key -> new ArrayList<>()).add(setting);
+        }
+        Map<Long, UserNotificationProfile> loaded = new HashMap<>();
+        for (Long userId : userIds) {
+            loaded.put(userId, UserNotificationProfile.compile(userId, byUser.getOrDefault(userId, List.of())));
+        }
+        return loaded;
+    }
+
+    /**
+     * 清除本实例中用户的设置快照
+     */
+    public void invalidate(Long userId) {
+        profiles.invalidate(userId);
+    }
+
+    /**
+     * 设置变更提交后清除用户的设置快照并通知其他实例，不在事务中时立即执行
+     */
+    public void invalidateAfterCommit(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidateAndPublish(userId);
+                }
+            });
+        } else {
+            invalidateAndPublish(userId);
+        }
+    }
+
+    private void invalidateAndPublish(Long userId) {
+        invalidate(userId);
+        try {
+            redisTemplate.convertAndSend(SETTINGS_CHANGED_CHANNEL, String.valueOf(userId));
+        } catch (Exception e) {
+            // 其他实例的缓存按过期时间兜底
+            log.warn("发布通知设置变更失败: userId={}", userId, e);
+        }
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("size", profiles.estimatedSize());
+        statistics.put("hitRate", profiles.stats().hitRate());
+        return statistics;
+    }
+}
@@ -0,0 +1,38 @@
+package main.java.com.elderly.monitoring.notification.settings;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 用户通知设置缓存配置
+ *
+ * 订阅通知设置变更频道，清除本实例中对应用户的设置快照。
+ *
+ * @author System
+ * @since 1.0.0
+ */
+@Slf4j
+@Configuration
+public class NotificationSettingsConfig {
+
+    @Bean
+    public RedisMessageListenerContainer notificationSettingsListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                               NotificationSettingsCache settingsCache) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener((message, pattern) -> {
+            try {
+                settingsCache.invalidate(Long.valueOf(new String(message.getBody(), StandardCharsets.UTF_8).trim()));
+            } catch (NumberFormatException e) {
+                log.warn("忽略格式错误的通知设置变更消息", e);
+            }
+        }, new ChannelTopic(NotificationSettingsCache.SETTINGS_CHANGED_CHANNEL));
+        return container;
+    }
+}
@@ -0,0 +1,90 @@
+package main.java.com.elderly.monitoring.notification.settings;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * 免打扰规则
+ *
+ * 免打扰时段预先解析为一天中的分钟数，判断时不再解析字符串。
+ *
+ * @param startMinute 开始时间（一天中的分钟数），未设置为-1
+ * @param endMinute 结束时间（一天中的分钟数），未设置为-1
+ * @param weekendQuiet 周六、周日是否全天免打扰
+ * @author System
+ * @since 1.0.0
+ */
+public record QuietHours(int startMinute, int endMinute, boolean weekendQuiet) {
+
+    /**
+     * 不设免打扰
+     */
+    public static final QuietHours NONE = new QuietHours(-1, -1, false);
+
+    public static QuietHours of(String start, String end, Boolean weekendQuiet) {
+        return new QuietHours(parseMinuteOfDay(start), parseMinuteOfDay(end), Boolean.TRUE.equals(weekendQuiet));
+    }
+
+    /**
+     * 检查指定时间是否处于免打扰（每日免打扰时段，或开启周末免打扰时的周六、周日）
+     */
+    public boolean isQuietAt(LocalDateTime time) {
+        if (weekendQuiet && isWeekend(time)) {
+            return true;
+        }
+        if (!hasDailyWindow()) {
+            return false;
+        }
+        int minute = time.getHour() * 60 + time.getMinute();
+        // 结束时间早于开始时间表示跨越午夜，如 22:00-07:00
+        return startMinute < endMinute
+                ? minute >= startMinute && minute < endMinute
+                : minute >= startMinute || minute < endMinute;
+    }
+
+    /**
+     * 从指定时间起最早可以发送的时间，不在免打扰内时返回原时间
+     */
+    public LocalDateTime nextDeliveryTime(LocalDateTime from) {
+        LocalDateTime time = from;
+        // 周末与每日时段可能相继生效，最多推进一周
+        for (int i = 0; i < 8 && isQuietAt(time); i++) {
+            if (weekendQuiet && isWeekend(time)) {
+                time = time.toLocalDate().with(TemporalAdjusters.next(DayOfWeek.MONDAY)).atStartOfDay();
+            } else {
+                LocalDateTime candidate = time.toLocalDate().atStartOfDay().plusMinutes(endMinute);
+                time = candidate.isAfter(time) ? candidate : candidate.plusDays(1);
+            }
+        }
+        return time;
+    }
+
+    private boolean hasDailyWindow() {
+        return startMinute >= 0 && endMinute >= 0 && startMinute != endMinute;
+    }
+
+    private static boolean isWeekend(LocalDateTime time) {
+        DayOfWeek day = time.getDayOfWeek();
+        return day == DayOfWeek.SATURDAY || day == DayOfWeek.SUNDAY;
+    }
+
+    /**
+     * 解析 "HH:mm" 为一天中的分钟数
+     *
+     * @return 分钟数，为空或格式不正确时返回-1
+     */
+    public static int parseMinuteOfDay(String time) {
+        if (time == null || time.isBlank()) {
+            return -1;
+        }
+        try {
+            LocalTime parsed = LocalTime.parse(time.trim());
+            return parsed.getHour() * 60 + parsed.getMinute();
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package main.java.com.elderly.monitoring.notification.settings;
+
+import main.java.com.elderly.monitoring.notification.entity.Notification;
+import main.java.com.elderly.monitoring.notification.entity.NotificationSetting;
+import org.apache.commons.lang3.StringUtils;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 用户通知设置快照
+ *
+ * 由用户的全部通知设置一次编译而成，不可变：每种通知类型一条规则（启用的发送方式、最低优先级、
+ * 已解析的免打扰时段、汇总间隔与每日上限），以及各发送方式的联系方式。路由时只在内存中判断。
+ *
+ * @author System
+ * @since 1.0.0
+ */
+public final class UserNotificationProfile {
+
+    private final Long userId;
+    private final Map<NotificationSetting.NotificationType, TypeRule> rules;
+    private final Map<Notification.SendMethod, String> contacts;
+
+    private UserNotificationProfile(Long userId, Map<NotificationSetting.NotificationType, TypeRule> rules,
+                                    Map<Notification.SendMethod, String> contacts) {
+        this.userId = userId;
+        this.rules = rules;
+        this.contacts = contacts;
+    }
+
+    /**
+     * 编译用户的通知设置
+     *
+     * @param settings 该用户的全部通知设置，可为空
+     */
+    public static UserNotificationProfile compile(Long userId, List<NotificationSetting> settings) {
+        Map<NotificationSetting.NotificationType, TypeRule> rules = new EnumMap<>(NotificationSetting.NotificationType.class);
+        Map<Notification.SendMethod, String> contacts = new EnumMap<>(Notification.SendMethod.class);
+        for (NotificationSetting setting : settings) {
+            if (setting.getType() != null) {
+                rules.put(setting.getType(), TypeRule.of(setting));
+            }
+            // 各类型设置中的联系方式取第一个非空值
+            putContact(contacts, Notification.SendMethod.EMAIL, setting.getEmailAddress());
+            putContact(contacts, Notification.SendMethod.SMS, setting.getPhoneNumber());
+            putContact(contacts, Notification.SendMethod.VOICE, setting.getPhoneNumber());
+            putContact(contacts, Notification.SendMethod.PUSH, setting.getPushToken());
+            putContact(contacts, Notification.SendMethod.WECHAT, setting.getWechatOpenid());
+        }
+        return new UserNotificationProfile(userId, rules, contacts);
+    }
+
+    private static void putContact(Map<Notification.SendMethod, String> contacts,
+                                   Notification.SendMethod method, String contact) {
+        if (StringUtils.isNotBlank(contact)) {
+            contacts.putIfAbsent(method, contact);
+        }
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    /**
+     * 获取通知类型的规则
+     *
+     * @return 规则，用户未设置该类型时返回null
+     */
+    public TypeRule rule(NotificationSetting.NotificationType type) {
+        return rules.get(type);
+    }
+
+    /**
+     * 获取通知类型的规则，仅在该类型启用时返回
+     *
+     * @return 规则，未设置或已禁用时返回null
+     */
+    public TypeRule enabledRule(NotificationSetting.NotificationType type) {
+        TypeRule rule = rules.get(type);
+        return rule != null && rule.isEnabled() ? rule : null;
+    }
+
+    /**
+     * 按通知的类型获取启用的规则
+     */
+    public TypeRule enabledRule(Notification.NotificationType type) {
+        return type != null ? enabledRule(NotificationSetting.NotificationType.valueOf(type.name())) : null;
+    }
+
+    /**
+     * 检查通知类型是否启用了指定的发送方式
+     */
+    public boolean isMethodEnabled(NotificationSetting.NotificationType type, Notification.SendMethod method) {
+        TypeRule rule = enabledRule(type);
+        return rule != null && rule.getMethods().contains(method);
+    }
+
+    /**
+     * 获取发送方式对应的联系方式
+     *
+     * @return 联系方式，未设置时返回null
+     */
+    public String contact(Notification.SendMethod method) {
+        return contacts.get(method);
+    }
+
+    /**
+     * 单个通知类型的规则
+     */
+    public static final class TypeRule {
+
+        private final boolean enabled;
+        private final Set<Notification.SendMethod> methods;
+        private final NotificationSetting.NotificationPriority minPriority;
+        private final QuietHours quietHours;
+        private final int batchInterval;
+        private final int maxDailyNotifications;
+
+        private TypeRule(boolean enabled, Set<Notification.SendMethod> methods,
+                         NotificationSetting.NotificationPriority minPriority,
+                         QuietHours quietHours, int batchInterval, int maxDailyNotifications) {
+            this.enabled = enabled;
+            this.methods = methods;
+            this.minPriority = minPriority;
+            this.quietHours = quietHours;
+            this.batchInterval = batchInterval;
+            this.maxDailyNotifications = maxDailyNotifications;
+        }
+
+        static TypeRule of(NotificationSetting setting) {
+            Set<Notification.SendMethod> methods = EnumSet.noneOf(Notification.SendMethod.class);
+            methods.addAll(setting.getEnabledMethods());
+            return new TypeRule(
+                    Boolean.TRUE.equals(setting.getEnabled()),
+                    Collections.unmodifiableSet(methods),
+                    setting.getMinPriority(),
+                    QuietHours.of(setting.getQuietHoursStart(), setting.getQuietHoursEnd(), setting.getWeekendQuiet()),
+                    setting.getBatchInterval() != null ? setting.getBatchInterval() : 0,
+                    setting.getMaxDailyNotifications() != null ? setting.getMaxDailyNotifications() : 0);
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        /**
+         * 启用且已设置联系方式的发送方式
+         */
+        public Set<Notification.SendMethod> getMethods() {
+            return methods;
+        }
+
+        public NotificationSetting.NotificationPriority getMinPriority() {
+            return minPriority;
+        }
+
+        public QuietHours getQuietHours() {
+            return quietHours;
+        }
+
+        /**
+         * 汇总间隔（分钟），0表示不汇总
+         */
+        public int getBatchInterval() {
+            return batchInterval;
+        }
+
+        /**
+         * 每日通知上限，0表示不限制
+         */
+        public int getMaxDailyNotifications() {
+            return maxDailyNotifications;
+        }
+
+        /**
+         * 检查优先级是否满足最小要求
+         */
+        public boolean isPrioritySufficient(Notification.NotificationPriority priority) {
+            return minPriority == null || priority == null || priority.ordinal() >= minPriority.ordinal();
+        }
+
+        public boolean isQuietAt(LocalDateTime time) {
+            return quietHours.isQuietAt(time);
+        }
+
+        public LocalDateTime nextDeliveryTime(LocalDateTime from) {
+            return quietHours.nextDeliveryTime(from);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+@echo off
+REM 网关上游连接池突发负载测试脚本
+REM 作者: System
+REM 版本: 1.0.0
+REM
+REM 用法: run-upstream-pool-test.bat [标签]
+REM   标签用于区分结果文件，例如先以默认连接池运行一次(baseline)，
+REM   再启用 gateway.upstream.routes.monitoring-service 后运行一次(pooled)，对比两次结果。
+
+setlocal enabledelayedexpansion
+
+echo ========================================
+echo 网关上游连接池突发负载测试
+echo ========================================
+
+REM 设置变量
+set JMETER_HOME=C:\apache-jmeter-5.6.3
+set TEST_DIR=%~dp0
+set REPORT_DIR=%TEST_DIR%\..\test-reports
+set RESULTS_DIR=%TEST_DIR%\..\test-results
+set GATEWAY_URL=http://localhost:8080
+set MONITORING_PORT=8083
+set LABEL=%1
+if "%LABEL%"=="" set LABEL=pooled
+
+REM 创建目录
+if not exist "%REPORT_DIR%" mkdir "%REPORT_DIR%"
+if not exist "%RESULTS_DIR%" mkdir "%RESULTS_DIR%"
+
+REM 检查JMeter是否安装
+if not exist "%JMETER_HOME%\bin\jmeter.bat" (
+    echo [ERROR] JMeter未找到，请检查安装路径: %JMETER_HOME%
+    pause
+    exit /b 1
+)
+
+REM 记录测试前到监控服务的TIME_WAIT连接数
+for /f %%c in ('netstat -an ^| find ":%MONITORING_PORT%" ^| find /c "TIME_WAIT"') do set TIME_WAIT_BEFORE=%%c
+echo [INFO] 测试前TIME_WAIT连接数: %TIME_WAIT_BEFORE%
+
+echo [INFO] 开始突发负载测试 (%LABEL%)...
+"%JMETER_HOME%\bin\jmeter.bat" -n -t "%TEST_DIR%\gateway-upstream-pool-test.jmx" -l "%RESULTS_DIR%\upstream-pool-%LABEL%.jtl" -e -o "%REPORT_DIR%\upstream-pool-%LABEL%"
+
+if %errorlevel% neq 0 (
+    echo [ERROR] 突发负载测试失败
+    pause
+    exit /b 1
+)
+
+REM 记录测试后到监控服务的TIME_WAIT连接数
+for /f %%c in ('netstat -an ^| find ":%MONITORING_PORT%" ^| find /c "TIME_WAIT"') do set TIME_WAIT_AFTER=%%c
+echo [INFO] 测试后TIME_WAIT连接数: %TIME_WAIT_AFTER%
+
+REM 采集网关连接池指标
+echo [INFO] 采集网关连接池指标...
+curl -s "%GATEWAY_URL%/actuator/prometheus" | findstr "reactor_netty_connection_provider" > "%RESULTS_DIR%\upstream-pool-%LABEL%-metrics.txt"
+
+echo TIME_WAIT before=%TIME_WAIT_BEFORE% after=%TIME_WAIT_AFTER% >> "%RESULTS_DIR%\upstream-pool-%LABEL%-metrics.txt"
+
+echo ========================================
+echo 突发负载测试完成！
+echo 报告位置:
+echo   - 测试报告: %REPORT_DIR%\upstream-pool-%LABEL%\index.html
+echo   - 连接池指标: %RESULTS_DIR%\upstream-pool-%LABEL%-metrics.txt
+echo ========================================
+
+pause
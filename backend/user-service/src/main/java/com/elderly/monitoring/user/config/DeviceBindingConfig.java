@@ -0,0 +1,58 @@
+package main.java.com.elderly.monitoring.user.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import main.java.com.elderly.monitoring.user.service.DeviceBindingService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 设备绑定关系缓存配置
+ * 
+ * 订阅本服务的绑定变更频道和设备服务的设备变更频道，清除本地绑定关系缓存。
+ * 
+ * @author Elderly Monitoring Team
+ * @version 1.0.0
+ */
+@Configuration
+public class DeviceBindingConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(DeviceBindingConfig.class);
+
+    /**
+     * 设备服务的设备变更频道
+     */
+    public static final String DEVICE_CHANGED_CHANNEL = "device:events:changed";
+
+    @Bean
+    public RedisMessageListenerContainer deviceBindingListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                        DeviceBindingService bindingService,
+                                                                        ObjectMapper objectMapper) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener((message, pattern) -> {
+            try {
+                JsonNode body = objectMapper.readTree(new String(message.getBody(), StandardCharsets.UTF_8));
+                bindingService.invalidate(body.path("userId").asLong(), body.path("deviceId").asText());
+            } catch (Exception e) {
+                log.warn("Ignored malformed binding change message", e);
+            }
+        }, new ChannelTopic(DeviceBindingService.BINDING_CHANGED_CHANNEL));
+        container.addMessageListener((message, pattern) -> {
+            try {
+                JsonNode body = objectMapper.readTree(new String(message.getBody(), StandardCharsets.UTF_8));
+                bindingService.invalidateDevice(body.path("deviceId").asText());
+            } catch (Exception e) {
+                log.warn("Ignored malformed device change message", e);
+            }
+        }, new ChannelTopic(DEVICE_CHANGED_CHANNEL));
+        return container;
+    }
+}
@@ -173,6 +173,7 @@ public class UserController {
      * 
      * @param username 用户名
      * @param realName 真实姓名
+     * @param phone 手机号
      * @param role 用户角色
      * @param status 用户状态
      * @param page 页码
@@ -184,13 +185,39 @@ public class UserController {
     public ResponseEntity<Map<String, Object>> searchUsers(
             @RequestParam(required = false) String username,
             @RequestParam(required = false) String realName,
+            @RequestParam(required = false) String phone,
             @RequestParam(required = false) UserRole role,
             @RequestParam(required = false) UserStatus status,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
         
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
-        Page<User> users = userService.searchUsers(username, realName, role, status, pageable);
+        Page<User> users = userService.searchUsers(username, realName, phone, role, status, pageable);
+        
+        // 移除密码字段
+        users.forEach(user -> user.setPassword(null));
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", users);
+        
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * 用户搜索联想
+     * 
+     * @param q 关键字（用户名、真实姓名或手机号）
+     * @param limit 返回数量
+     * @return 用户列表
+     */
+    @GetMapping("/suggest")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> suggestUsers(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        
+        List<User> users = userService.suggestUsers(q, Math.max(1, Math.min(limit, 50)));
         
         // 移除密码字段
         users.forEach(user -> user.setPassword(null));
@@ -392,6 +419,47 @@ public class UserController {
         }
     }
 
+    /**
+     * 获取用户绑定的设备ID
+     * 
+     * @param id 用户ID
+     * @return 设备ID列表
+     */
+    @GetMapping("/{id}/devices")
+    @PreAuthorize("hasRole('ADMIN') or @userSecurity.isCurrentUser(#id)")
+    public ResponseEntity<Map<String, Object>> getBoundDevices(@PathVariable Long id) {
+        List<String> deviceIds = userService.getBoundDeviceIds(id);
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", deviceIds);
+        response.put("total", deviceIds.size());
+        
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * 根据设备ID查找关联用户
+     * 
+     * @param deviceId 设备ID
+     * @return 用户列表
+     */
+    @GetMapping("/device/{deviceId}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('CAREGIVER')")
+    public ResponseEntity<Map<String, Object>> getUsersByDevice(@PathVariable String deviceId) {
+        List<User> users = userService.findUsersByDevice(deviceId);
+        
+        // 移除密码字段
+        users.forEach(user -> user.setPassword(null));
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", users);
+        response.put("total", users.size());
+        
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * 获取用户统计信息
      * 
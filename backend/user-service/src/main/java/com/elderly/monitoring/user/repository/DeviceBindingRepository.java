@@ -0,0 +1,70 @@
+package main.java.com.elderly.monitoring.user.repository;
+
+import main.java.com.elderly.monitoring.user.entity.DeviceBinding;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * 设备绑定关系数据访问接口
+ * 
+ * @author Elderly Monitoring Team
+ * @version 1.0.0
+ */
+@Repository
+public interface DeviceBindingRepository extends JpaRepository<DeviceBinding, Long> {
+
+    /**
+     * 查询用户绑定的设备ID（使用唯一约束 uk_device_bindings_user_device 的前缀）
+     * 
+     * @param userId 用户ID
+     * @return 设备ID列表
+     */
+    @Query("SELECT b.deviceId FROM DeviceBinding b WHERE b.userId = :userId ORDER BY b.createdAt")
+    List<String> findDeviceIdsByUserId(@Param("userId") Long userId);
+
+    /**
+     * 查询设备绑定的用户ID（使用索引 idx_device_bindings_device）
+     * 
+     * @param deviceId 设备ID
+     * @return 用户ID列表
+     */
+    @Query("SELECT b.userId FROM DeviceBinding b WHERE b.deviceId = :deviceId ORDER BY b.createdAt")
+    List<Long> findUserIdsByDeviceId(@Param("deviceId") String deviceId);
+
+    /**
+     * 检查绑定关系是否存在
+     * 
+     * @param userId 用户ID
+     * @param deviceId 设备ID
+     * @return 是否存在
+     */
+    boolean existsByUserIdAndDeviceId(Long userId, String deviceId);
+
+    /**
+     * 新增绑定关系，已存在时不做任何操作（并发绑定同一设备时不会违反唯一约束）
+     * 
+     * @param userId 用户ID
+     * @param deviceId 设备ID
+     * @return 新增行数
+     */
+    @Modifying
+    @Query(value = "INSERT INTO device_bindings (user_id, device_id, created_at) VALUES (:userId, :deviceId, now()) " +
+           "ON CONFLICT (user_id, device_id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId, @Param("deviceId") String deviceId);
+
+    /**
+     * 删除绑定关系
+     * 
+     * @param userId 用户ID
+     * @param deviceId 设备ID
+     * @return 删除行数
+     */
+    @Modifying
+    @Query("DELETE FROM DeviceBinding b WHERE b.userId = :userId AND b.deviceId = :deviceId")
+    int deleteBinding(@Param("userId") Long userId, @Param("deviceId") String deviceId);
+}
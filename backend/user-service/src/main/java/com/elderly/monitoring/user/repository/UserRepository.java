@@ -6,6 +6,7 @@ import main.java.com.elderly.monitoring.user.entity.UserStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -20,7 +21,7 @@ import java.util.Optional;
  * @version 1.0.0
  */
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User> {
 
     /**
      * 根据用户名查找用户
@@ -89,47 +90,54 @@ public interface UserRepository extends JpaRepository<User, Long> {
     List<User> findByRoleAndStatus(UserRole role, UserStatus status);
 
     /**
-     * 根据真实姓名模糊查询用户
+     * 按用户名前缀联想（使用 idx_users_username_prefix）
      * 
-     * @param realName 真实姓名
-     * @param pageable 分页参数
-     * @return 用户分页列表
+     * @param prefix 前缀模式，由 {@link UserSpecifications#prefixPattern} 生成
+     * @param limit 返回数量
+     * @return 用户列表
      */
-    @Query("SELECT u FROM User u WHERE u.realName LIKE %:realName% AND u.deleted = false")
-    Page<User> findByRealNameContaining(@Param("realName") String realName, Pageable pageable);
+    @Query(value = "SELECT * FROM users WHERE deleted = false " +
+                   "AND lower(username) COLLATE \"C\" LIKE :prefix ESCAPE '!' " +
+                   "ORDER BY lower(username) COLLATE \"C\" LIMIT :limit", nativeQuery = true)
+    List<User> suggestByUsernamePrefix(@Param("prefix") String prefix, @Param("limit") int limit);
 
     /**
-     * 根据手机号模糊查询用户
+     * 按真实姓名前缀联想（使用 idx_users_real_name_prefix）
      * 
-     * @param phone 手机号
-     * @param pageable 分页参数
-     * @return 用户分页列表
+     * @param prefix 前缀模式，由 {@link UserSpecifications#prefixPattern} 生成
+     * @param limit 返回数量
+     * @return 用户列表
      */
-    @Query("SELECT u FROM User u WHERE u.phone LIKE %:phone% AND u.deleted = false")
-    Page<User> findByPhoneContaining(@Param("phone") String phone, Pageable pageable);
+    @Query(value = "SELECT * FROM users WHERE deleted = false " +
+                   "AND lower(real_name) COLLATE \"C\" LIKE :prefix ESCAPE '!' " +
+                   "ORDER BY lower(real_name) COLLATE \"C\" LIMIT :limit", nativeQuery = true)
+    List<User> suggestByRealNamePrefix(@Param("prefix") String prefix, @Param("limit") int limit);
 
     /**
-     * 根据多条件查询用户
+     * 按手机号前缀联想（使用 idx_users_phone_prefix）
      * 
-     * @param username 用户名
-     * @param realName 真实姓名
-     * @param role 用户角色
-     * @param status 用户状态
-     * @param pageable 分页参数
-     * @return 用户分页列表
+     * @param prefix 前缀模式，由 {@link UserSpecifications#prefixPattern} 生成
+     * @param limit 返回数量
+     * @return 用户列表
+     */
+    @Query(value = "SELECT * FROM users WHERE deleted = false " +
+                   "AND phone COLLATE \"C\" LIKE :prefix ESCAPE '!' " +
+                   "ORDER BY phone COLLATE \"C\" LIMIT :limit", nativeQuery = true)
+    List<User> suggestByPhonePrefix(@Param("prefix") String prefix, @Param("limit") int limit);
+
+    /**
+     * 按真实姓名包含匹配，按相似度排序（使用 idx_users_real_name_trgm）
+     * 
+     * @param pattern 包含模式，由 {@link UserSpecifications#containsPattern} 生成
+     * @param keyword 关键字（小写）
+     * @param limit 返回数量
+     * @return 用户列表
      */
-    @Query("SELECT u FROM User u WHERE " +
-           "(:username IS NULL OR u.username LIKE %:username%) AND " +
-           "(:realName IS NULL OR u.realName LIKE %:realName%) AND " +
-           "(:role IS NULL OR u.role = :role) AND " +
-           "(:status IS NULL OR u.status = :status) AND " +
-           "u.deleted = false")
-    Page<User> findByMultipleConditions(
-            @Param("username") String username,
-            @Param("realName") String realName,
-            @Param("role") UserRole role,
-            @Param("status") UserStatus status,
-            Pageable pageable);
+    @Query(value = "SELECT * FROM users WHERE deleted = false " +
+                   "AND lower(real_name) LIKE :pattern ESCAPE '!' " +
+                   "ORDER BY similarity(lower(real_name), :keyword) DESC LIMIT :limit", nativeQuery = true)
+    List<User> suggestByRealNameSimilarity(@Param("pattern") String pattern, @Param("keyword") String keyword,
+                                           @Param("limit") int limit);
 
     /**
      * 查找所有未删除的用户
@@ -155,13 +163,4 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     @Query("SELECT u.status, COUNT(u) FROM User u WHERE u.deleted = false GROUP BY u.status")
     List<Object[]> countUsersByStatus();
-
-    /**
-     * 根据设备ID查找关联用户
-     * 
-     * @param deviceId 设备ID
-     * @return 用户列表
-     */
-    @Query("SELECT u FROM User u WHERE u.deviceIds LIKE %:deviceId% AND u.deleted = false")
-    List<User> findByDeviceId(@Param("deviceId") String deviceId);
 }
\ No newline at end of file
@@ -0,0 +1,85 @@
+package main.java.com.elderly.monitoring.user.repository;
+
+import jakarta.persistence.criteria.Predicate;
+import main.java.com.elderly.monitoring.user.entity.User;
+import main.java.com.elderly.monitoring.user.entity.UserRole;
+import main.java.com.elderly.monitoring.user.entity.UserStatus;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 用户查询条件
+ * 
+ * 只为传入的条件生成谓词，避免 "(:x IS NULL OR ...)" 形式使通用执行计划无法使用索引。
+ * 文本条件统一为 lower(列) LIKE '%关键字%'，与 optimization.sql 中的三元组GIN索引表达式一致。
+ * 
+ * @author Elderly Monitoring Team
+ * @version 1.0.0
+ */
+public final class UserSpecifications {
+
+    /**
+     * LIKE转义字符
+     */
+    public static final char ESCAPE = '!';
+
+    private UserSpecifications() {}
+
+    /**
+     * 多条件搜索
+     */
+    public static Specification<User> search(String username, String realName, String phone,
+                                             UserRole role, UserStatus status) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.isFalse(root.get("deleted")));
+            if (hasText(username)) {
+                predicates.add(cb.like(cb.lower(root.get("username")), containsPattern(username), ESCAPE));
+            }
+            if (hasText(realName)) {
+                predicates.add(cb.like(cb.lower(root.get("realName")), containsPattern(realName), ESCAPE));
+            }
+            if (hasText(phone)) {
+                predicates.add(cb.like(root.get("phone"), containsPattern(phone), ESCAPE));
+            }
+            if (role != null) {
+                predicates.add(cb.equal(root.get("role"), role));
+            }
+            if (status != null) {
+                predicates.add(cb.equal(root.get("status"), status));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * 包含匹配模式：%关键字%
+     */
+    public static String containsPattern(String keyword) {
+        return "%" + escape(keyword.trim().toLowerCase()) + "%";
+    }
+
+    /**
+     * 前缀匹配模式：关键字%
+     */
+    public static String prefixPattern(String keyword) {
+        return escape(keyword.trim().toLowerCase()) + "%";
+    }
+
+    private static String escape(String keyword) {
+        StringBuilder escaped = new StringBuilder(keyword.length() + 4);
+        for (char c : keyword.toCharArray()) {
+            if (c == ESCAPE || c == '%' || c == '_') {
+                escaped.append(ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.trim().isEmpty();
+    }
+}
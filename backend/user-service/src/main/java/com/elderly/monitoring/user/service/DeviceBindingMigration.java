@@ -0,0 +1,119 @@
+package main.java.com.elderly.monitoring.user.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * 设备绑定关系迁移
+ * 
+ * 启动时把 users.device_ids 中逗号分隔的设备ID以及 devices.user_id 中的主用户
+ * 写入 device_bindings 表，再以绑定表为准重写 users.device_ids 的展示副本（没有绑定的用户清空）。
+ * 按用户ID分批执行，插入使用 ON CONFLICT DO NOTHING。
+ * 
+ * 只执行一次：开始前在 data_migrations 中写入标记行，标记已存在时跳过（之后解除的绑定不会再从
+ * users.device_ids 中恢复）；执行失败时删除标记，下次启动重新执行。
+ * 
+ * @author Elderly Monitoring Team
+ * @version 1.0.0
+ */
+@Component
+public class DeviceBindingMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(DeviceBindingMigration.class);
+
+    private static final String COPY_USER_DEVICE_IDS_SQL =
+            "INSERT INTO device_bindings (user_id, device_id, created_at) " +
+            "SELECT u.id, trim(d.device_id), now() FROM users u " +
+            "CROSS JOIN LATERAL regexp_split_to_table(u.device_ids, ',') AS d(device_id) " +
+            "WHERE u.id BETWEEN ? AND ? AND u.device_ids IS NOT NULL AND trim(d.device_id) <> '' " +
+            "ON CONFLICT (user_id, device_id) DO NOTHING";
+
+    private static final String COPY_DEVICE_OWNERS_SQL =
+            "INSERT INTO device_bindings (user_id, device_id, created_at) " +
+            "SELECT d.user_id, d.device_id, now() FROM devices d " +
+            "WHERE d.user_id BETWEEN ? AND ? AND d.deleted = false " +
+            "ON CONFLICT (user_id, device_id) DO NOTHING";
+
+    private static final String MIGRATION_NAME = "device_bindings_backfill";
+
+    private static final String CREATE_MARKER_TABLE_SQL =
+            "CREATE TABLE IF NOT EXISTS data_migrations (" +
+            "name VARCHAR(100) PRIMARY KEY, applied_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP)";
+
+    private static final String CLAIM_MARKER_SQL =
+            "INSERT INTO data_migrations (name, applied_at) VALUES (?, now()) ON CONFLICT (name) DO NOTHING";
+
+    private static final String CLEAR_DEVICE_IDS_SQL =
+            "UPDATE users u SET device_ids = NULL " +
+            "WHERE u.id BETWEEN ? AND ? AND u.device_ids IS NOT NULL " +
+            "AND NOT EXISTS (SELECT 1 FROM device_bindings b WHERE b.user_id = u.id)";
+
+    private static final String REWRITE_DEVICE_IDS_SQL =
+            "UPDATE users u SET device_ids = b.device_ids FROM (" +
+            "SELECT user_id, string_agg(device_id, ',' ORDER BY created_at, id) AS device_ids " +
+            "FROM device_bindings WHERE user_id BETWEEN ? AND ? GROUP BY user_id) b " +
+            "WHERE u.id = b.user_id AND u.device_ids IS DISTINCT FROM b.device_ids";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${user.bindings.migrate-on-startup:true}")
+    private boolean migrateOnStartup;
+
+    @Value("${user.bindings.migration-batch-size:5000}")
+    private int batchSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        if (!migrateOnStartup) {
+            return;
+        }
+        try {
+            jdbcTemplate.execute(CREATE_MARKER_TABLE_SQL);
+            if (jdbcTemplate.update(CLAIM_MARKER_SQL, MIGRATION_NAME) == 0) {
+                // 已执行过（或其他实例正在执行）
+                return;
+            }
+        } catch (Exception e) {
+            log.error("Device binding migration marker check failed", e);
+            return;
+        }
+        try {
+            Long maxUserId = jdbcTemplate.queryForObject("SELECT max(id) FROM users", Long.class);
+            if (maxUserId == null) {
+                return;
+            }
+            // 设备服务尚未建表时跳过设备主用户的迁移
+            boolean devicesExists = jdbcTemplate.queryForObject(
+                    "SELECT to_regclass('devices') IS NOT NULL", Boolean.class);
+
+            int inserted = 0;
+            int rewritten = 0;
+            for (long from = 1; from <= maxUserId; from += batchSize) {
+                long to = from + batchSize - 1;
+                inserted += jdbcTemplate.update(COPY_USER_DEVICE_IDS_SQL, from, to);
+                if (devicesExists) {
+                    inserted += jdbcTemplate.update(COPY_DEVICE_OWNERS_SQL, from, to);
+                }
+                rewritten += jdbcTemplate.update(REWRITE_DEVICE_IDS_SQL, from, to);
+                rewritten += jdbcTemplate.update(CLEAR_DEVICE_IDS_SQL, from, to);
+            }
+            if (inserted > 0 || rewritten > 0) {
+                log.info("Device binding migration: {} bindings inserted, {} users rewritten", inserted, rewritten);
+            }
+        } catch (Exception e) {
+            log.error("Device binding migration failed", e);
+            try {
+                jdbcTemplate.update("DELETE FROM data_migrations WHERE name = ?", MIGRATION_NAME);
+            } catch (Exception cleanupError) {
+                log.error("Failed to reset device binding migration marker", cleanupError);
+            }
+        }
+    }
+}
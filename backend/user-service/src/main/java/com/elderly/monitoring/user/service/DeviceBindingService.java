@@ -0,0 +1,202 @@
+package main.java.com.elderly.monitoring.user.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import main.java.com.elderly.monitoring.user.repository.DeviceBindingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 设备绑定关系服务
+ * 
+ * 绑定关系保存在 device_bindings 表中，按用户和按设备各有索引。两个方向的查询结果缓存在本地，
+ * 绑定变更提交后清除本地缓存并通过Redis频道通知其他实例；设备服务修改设备主用户时
+ * 发布的设备变更消息同样触发失效（见 DeviceBindingConfig）。
+ * 
+ * @author Elderly Monitoring Team
+ * @version 1.0.0
+ */
+@Service
+@Transactional
+public class DeviceBindingService implements InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger(DeviceBindingService.class);
+
+    /**
+     * 绑定关系变更频道
+     */
+    public static final String BINDING_CHANGED_CHANNEL = "user:bindings:changed";
+
+    @Autowired
+    private DeviceBindingRepository bindingRepository;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${user.bindings.cache.max-size:100000}")
+    private long maxSize;
+
+    @Value("${user.bindings.cache.expire-after-write:30m}")
+    private Duration expireAfterWrite;
+
+    /**
+     * userId -> 绑定的设备ID
+     */
+    private Cache<Long, Set<String>> devicesByUser;
+
+    /**
+     * deviceId -> 绑定的用户ID
+     */
+    private Cache<String, Set<Long>> usersByDevice;
+
+    @Override
+    public void afterPropertiesSet() {
+        devicesByUser = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+        usersByDevice = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    /**
+     * 绑定设备到用户
+     * 
+     * @param userId 用户ID
+     * @param deviceId 设备ID
+     * @return 是否新增了绑定关系，已绑定返回false
+     */
+    public boolean bind(Long userId, String deviceId) {
+        if (bindingRepository.insertIfAbsent(userId, deviceId) == 0) {
+            return false;
+        }
+        publishAfterCommit(userId, deviceId);
+        return true;
+    }
+
+    /**
+     * 解除绑定
+     * 
+     * @param userId 用户ID
+     * @param deviceId 设备ID
+     * @return 是否存在并删除了绑定关系
+     */
+    public boolean unbind(Long userId, String deviceId) {
+        if (bindingRepository.deleteBinding(userId, deviceId) == 0) {
+            return false;
+        }
+        publishAfterCommit(userId, deviceId);
+        return true;
+    }
+
+    /**
+     * 获取用户绑定的设备ID（按绑定先后排序）
+     * 
+     * @param userId 用户ID
+     * @return 设备ID集合
+     */
+    @Transactional(readOnly = true)
+    public Set<String> getDeviceIds(Long userId) {
+        return devicesByUser.get(userId, key ->
+                Collections.unmodifiableSet(new LinkedHashSet<>(bindingRepository.findDeviceIdsByUserId(key))));
+    }
+
+    /**
+     * 直接查询用户绑定的设备ID，不经过缓存
+     * 
+     * 在修改绑定关系的事务内使用，此时缓存尚未失效
+     * 
+     * @param userId 用户ID
+     * @return 设备ID列表
+     */
+    @Transactional(readOnly = true)
+    public List<String> getDeviceIdsUncached(Long userId) {
+        return bindingRepository.findDeviceIdsByUserId(userId);
+    }
+
+    /**
+     * 获取设备绑定的用户ID（按绑定先后排序）
+     * 
+     * @param deviceId 设备ID
+     * @return 用户ID集合
+     */
+    @Transactional(readOnly = true)
+    public Set<Long> getUserIds(String deviceId) {
+        return usersByDevice.get(deviceId, key ->
+                Collections.unmodifiableSet(new LinkedHashSet<>(bindingRepository.findUserIdsByDeviceId(key))));
+    }
+
+    /**
+     * 清除一条绑定关系两端的本地缓存
+     * 
+     * @param userId 用户ID
+     * @param deviceId 设备ID
+     */
+    public void invalidate(Long userId, String deviceId) {
+        if (userId != null) {
+            devicesByUser.invalidate(userId);
+        }
+        if (deviceId != null) {
+            usersByDevice.invalidate(deviceId);
+        }
+    }
+
+    /**
+     * 设备主用户在设备服务中变更后清除本地缓存
+     * 
+     * 变更前的用户为本地缓存中设备列表包含该设备的用户，变更后的用户通过一次按设备的索引查询得到
+     * 
+     * @param deviceId 设备ID
+     */
+    public void invalidateDevice(String deviceId) {
+        usersByDevice.invalidate(deviceId);
+        devicesByUser.asMap().values().removeIf(deviceIds -> deviceIds.contains(deviceId));
+        devicesByUser.invalidateAll(bindingRepository.findUserIdsByDeviceId(deviceId));
+    }
+
+    private void publishAfterCommit(Long userId, String deviceId) {
+        Runnable publish = () -> {
+            invalidate(userId, deviceId);
+            try {
+                Map<String, Object> message = new LinkedHashMap<>();
+                message.put("userId", userId);
+                message.put("deviceId", deviceId);
+                redisTemplate.convertAndSend(BINDING_CHANGED_CHANNEL, objectMapper.writeValueAsString(message));
+            } catch (Exception e) {
+                log.error("Failed to publish binding change for user {} device {}", userId, deviceId, e);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish.run();
+                }
+            });
+        } else {
+            publish.run();
+        }
+    }
+}
@@ -4,6 +4,7 @@ import main.java.com.elderly.monitoring.user.entity.User;
 import main.java.com.elderly.monitoring.user.entity.UserRole;
 import main.java.com.elderly.monitoring.user.entity.UserStatus;
 import main.java.com.elderly.monitoring.user.repository.UserRepository;
+import main.java.com.elderly.monitoring.user.repository.UserSpecifications;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -12,8 +13,12 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -32,6 +37,9 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private DeviceBindingService bindingService;
+
     /**
      * 创建用户
      * 
@@ -247,14 +255,51 @@ public class UserService {
      * 
      * @param username 用户名
      * @param realName 真实姓名
+     * @param phone 手机号
      * @param role 用户角色
      * @param status 用户状态
      * @param pageable 分页参数
      * @return 用户分页列表
      */
     @Transactional(readOnly = true)
-    public Page<User> searchUsers(String username, String realName, UserRole role, UserStatus status, Pageable pageable) {
-        return userRepository.findByMultipleConditions(username, realName, role, status, pageable);
+    public Page<User> searchUsers(String username, String realName, String phone, UserRole role, UserStatus status,
+                                  Pageable pageable) {
+        return userRepository.findAll(UserSpecifications.search(username, realName, phone, role, status), pageable);
+    }
+
+    /**
+     * 用户搜索联想
+     * 
+     * 先按用户名、真实姓名、手机号前缀匹配，不足时按真实姓名包含匹配并以相似度排序补足。
+     * 关键字少于3个字符时三元组索引无法过滤，只做前缀匹配。
+     * 
+     * @param keyword 关键字
+     * @param limit 返回数量
+     * @return 用户列表
+     */
+    @Transactional(readOnly = true)
+    public List<User> suggestUsers(String keyword, int limit) {
+        String trimmed = keyword.trim().toLowerCase();
+        if (trimmed.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, User> result = new LinkedHashMap<>();
+        String prefix = UserSpecifications.prefixPattern(trimmed);
+        if (trimmed.chars().allMatch(Character::isDigit)) {
+            userRepository.suggestByPhonePrefix(prefix, limit).forEach(user -> result.putIfAbsent(user.getId(), user));
+        }
+        if (result.size() < limit) {
+            userRepository.suggestByUsernamePrefix(prefix, limit).forEach(user -> result.putIfAbsent(user.getId(), user));
+        }
+        if (result.size() < limit) {
+            userRepository.suggestByRealNamePrefix(prefix, limit).forEach(user -> result.putIfAbsent(user.getId(), user));
+        }
+        if (result.size() < limit && trimmed.length() >= 3) {
+            userRepository.suggestByRealNameSimilarity(UserSpecifications.containsPattern(trimmed), trimmed, limit)
+                    .forEach(user -> result.putIfAbsent(user.getId(), user));
+        }
+        return result.values().stream().limit(limit).collect(Collectors.toList());
     }
 
     /**
@@ -290,20 +335,9 @@ public class UserService {
             return false;
         }
 
-        User user = userOpt.get();
-        String currentDeviceIds = user.getDeviceIds();
-        
-        if (currentDeviceIds == null || currentDeviceIds.isEmpty()) {
-            user.setDeviceIds(deviceId);
-        } else {
-            // 检查设备是否已绑定
-            if (currentDeviceIds.contains(deviceId)) {
-                return true; // 已绑定
-            }
-            user.setDeviceIds(currentDeviceIds + "," + deviceId);
+        if (bindingService.bind(userId, deviceId)) {
+            refreshDeviceIds(userOpt.get());
         }
-        
-        userRepository.save(user);
         return true;
     }
 
@@ -320,21 +354,52 @@ public class UserService {
             return false;
         }
 
-        User user = userOpt.get();
-        String currentDeviceIds = user.getDeviceIds();
-        
-        if (currentDeviceIds == null || currentDeviceIds.isEmpty()) {
+        if (!bindingService.unbind(userId, deviceId)) {
             return false;
         }
-        
-        // 移除指定设备ID
-        String newDeviceIds = currentDeviceIds.replaceAll(deviceId + ",?", "").replaceAll(",$", "");
-        user.setDeviceIds(newDeviceIds);
-        
-        userRepository.save(user);
+        refreshDeviceIds(userOpt.get());
         return true;
     }
 
+    /**
+     * 获取用户绑定的设备ID
+     * 
+     * @param userId 用户ID
+     * @return 设备ID列表
+     */
+    @Transactional(readOnly = true)
+    public List<String> getBoundDeviceIds(Long userId) {
+        return new ArrayList<>(bindingService.getDeviceIds(userId));
+    }
+
+    /**
+     * 根据设备ID查找关联用户
+     * 
+     * @param deviceId 设备ID
+     * @return 用户列表
+     */
+    @Transactional(readOnly = true)
+    public List<User> findUsersByDevice(String deviceId) {
+        Set<Long> userIds = bindingService.getUserIds(deviceId);
+        if (userIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return userRepository.findAllById(userIds).stream()
+                .filter(user -> !Boolean.TRUE.equals(user.getDeleted()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 以绑定表为准重写 users.device_ids 展示副本
+     * 
+     * 绑定关系以 device_bindings 表为准，该字段仅为保持接口返回格式不变的冗余副本
+     */
+    private void refreshDeviceIds(User user) {
+        String deviceIds = String.join(",", bindingService.getDeviceIdsUncached(user.getId()));
+        user.setDeviceIds(deviceIds.isEmpty() ? null : deviceIds);
+        userRepository.save(user);
+    }
+
     /**
      * 获取用户统计信息
      * 